@@ -0,0 +1,32 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.search.AnswerMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Перевірка введеної відповіді на кожне натискання: має вкладатися в мікросекунди
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnswerMatcherBenchmark {
+
+    @Param({"qirimtatar tili", "QIRIMTATAR TİLİ", "qrımtatr tili", "къырымтатар тили", "başqa bir şey yazdım"})
+    public String typed;
+
+    private AnswerMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        matcher = AnswerMatcher.compile(List.of("Qırımtatar tili", "qırım tili", "Men Qırımda yaşayım ve qırımtatar tilini ögrenem"));
+    }
+
+    @Benchmark
+    public int match() {
+        return matcher.match(typed);
+    }
+}
@@ -0,0 +1,315 @@
+package qirim.app.bench;
+
+import qirim.app.audio.AudioCache;
+import qirim.app.audio.ClipSource;
+import qirim.app.audio.ClipStore;
+import qirim.app.audio.LocalClipServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Перевірка кешу кліпів через LocalClipServer - так само, як їх читає програвач JavaFX:
+// відтворення до кінця завантаження, витіснення за розміром, відмова від вмісту з чужим хешем
+// і від шляхів, що не є хешем. Усе в тимчасовому каталозі, мережа й БД не потрібні.
+//
+// java -cp target/benchmarks.jar qirim.app.bench.AudioCacheCheck
+public final class AudioCacheCheck {
+
+    private static final int CLIP_BYTES = 64 * 1024;
+    // Вміщує два кліпи, але не три
+    private static final long CACHE_BYTES = CLIP_BYTES * 5L / 2;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private interface Check {
+        void run() throws Exception;
+    }
+
+    private final Path storeDir;
+    private final ClipStore store;
+    private final Path cacheDir;
+    private final AudioCache cache;
+    private final LocalClipServer server;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    // Кліпи, що віддаються лише до половини, поки ворота не відкриють
+    private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+    // Підмінений вміст: джерело віддає не ті байти, що відповідають хешу
+    private final Map<String, byte[]> tampered = new ConcurrentHashMap<>();
+
+    private AudioCacheCheck(Path root) throws IOException {
+        this.storeDir = root.resolve("store");
+        this.store = new ClipStore(storeDir);
+        this.cacheDir = root.resolve("cache");
+        ClipSource files = ClipSource.forUri(storeDir.toUri());
+        this.cache = new AudioCache(cacheDir, CACHE_BYTES, hash -> open(files, hash), 2);
+        this.server = new LocalClipServer(cache, "audio/mpeg");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Files.createTempDirectory("audio-cache-check");
+        int failures = 0;
+        AudioCacheCheck check = new AudioCacheCheck(root);
+        try {
+            byte[] first = clip(1);
+            byte[] second = clip(2);
+            byte[] third = clip(3);
+            String a = check.store.put(new ByteArrayInputStream(first));
+            String b = check.store.put(new ByteArrayInputStream(second));
+            String c = check.store.put(new ByteArrayInputStream(third));
+
+            failures += run("streaming", () -> check.streaming(a, first));
+            failures += run("eviction", () -> check.eviction(a, b, second, c, third));
+            failures += run("hashMismatch", check::hashMismatch);
+            failures += run("invalidHash", () -> check.invalidHash(a));
+        } finally {
+            check.server.stop();
+            check.cache.shutdown();
+            delete(root);
+        }
+
+        System.out.println(failures == 0 ? "Кеш кліпів працює як очікується" : "Провалених перевірок: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int run(String name, Check check) {
+        try {
+            check.run();
+            System.out.printf("OK   %s%n", name);
+            return 0;
+        } catch (Exception | AssertionError e) {
+            System.out.printf("FAIL %-14s %s%n", name, e);
+            return 1;
+        }
+    }
+
+    // Перша половина кліпу доходить до програвача, поки друга ще не завантажена; повний кліп потрапляє в кеш
+    private void streaming(String hash, byte[] content) throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        gates.put(hash, gate);
+
+        HttpResponse<InputStream> response = get(hash);
+        expect(response.statusCode() == 200, "статус " + response.statusCode());
+        try (InputStream body = response.body()) {
+            int half = content.length / 2;
+            byte[] head = CompletableFuture.supplyAsync(() -> readNBytes(body, half))
+                    .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            expect(Arrays.equals(head, Arrays.copyOf(content, half)), "перша половина не збігається");
+            expect(cache.cached(hash) == null, "кліп у кеші до кінця завантаження");
+
+            gate.countDown();
+            byte[] tail = body.readAllBytes();
+            expect(Arrays.equals(tail, Arrays.copyOfRange(content, half, content.length)), "друга половина не збігається");
+        }
+        awaitCached(hash);
+    }
+
+    // Третій кліп не вміщується: витісняється найдавніше використаний, разом із файлом
+    private void eviction(String oldest, String b, byte[] second, String c, byte[] third) throws Exception {
+        expect(Arrays.equals(download(b), second), "вміст " + b + " не збігається");
+        awaitCached(b);
+        expect(Arrays.equals(download(c), third), "вміст " + c + " не збігається");
+        awaitCached(c);
+
+        expect(cache.cached(oldest) == null, "найдавніший кліп не витіснено");
+        expect(!Files.exists(cacheDir.resolve(oldest)), "файл витісненого кліпу лишився на диску");
+        expect(cache.cached(b) != null && cache.cached(c) != null, "витіснено свіжий кліп");
+        expect(cache.totalBytes() <= CACHE_BYTES, "кеш " + cache.totalBytes() + " байт понад ліміт " + CACHE_BYTES);
+    }
+
+    // Джерело віддає не той вміст: кліп не потрапляє в кеш і не лишає файлів, наступне звернення качає його знову.
+    // Байти, вже передані програвачу потоком, відкликати не можна - перевірка хешу захищає саме кеш
+    private void hashMismatch() throws Exception {
+        String hash = sha256(clip(4));
+        tampered.put(hash, clip(5));
+
+        try {
+            download(hash);
+        } catch (IOException | AssertionError e) {
+            // Програвач може отримати обірвану відповідь - для кешу це неважливо
+        }
+        expect(cache.cached(hash) == null, "підмінений кліп потрапив у кеш");
+
+        AudioCache.Download download = cache.fetch(hash);
+        try (InputStream in = download.openStream()) {
+            in.readAllBytes();
+            throw new AssertionError("читання підміненого кліпу не завершилося помилкою");
+        } catch (IOException expected) {
+        }
+        expect(cache.cached(hash) == null, "підмінений кліп потрапив у кеш");
+        expect(!Files.exists(cacheDir.resolve(hash)) && !Files.exists(cacheDir.resolve(hash + ".part")),
+                "після відмови на диску лишився файл");
+    }
+
+    // Лише 64 шістнадцяткові символи в нижньому регістрі: жоден шлях не виходить за межі сховища
+    private void invalidHash(String valid) throws Exception {
+        String[] invalid = {
+                "../../etc/passwd",
+                ".." + valid.substring(2),
+                valid.toUpperCase(),
+                valid.substring(1),
+                valid + "0",
+                valid.substring(0, 63) + "/",
+                ""
+        };
+        ClipSource files = ClipSource.forUri(storeDir.toUri());
+        for (String hash : invalid) {
+            expect(!ClipStore.isHash(hash), "прийнято як хеш: " + hash);
+            expect(!store.contains(hash), "contains прийняв " + hash);
+            expectRejected(() -> store.path(hash), "ClipStore.path(" + hash + ")");
+            expectRejected(() -> files.open(hash), "ClipSource.open(" + hash + ")");
+            expectRejected(() -> cache.fetch(hash), "AudioCache.fetch(" + hash + ")");
+        }
+
+        expect(store.path(valid).normalize().startsWith(storeDir.normalize()), "кліп поза каталогом сховища");
+
+        HttpResponse<InputStream> response = http.send(
+                HttpRequest.newBuilder(URI.create(server.uri(valid).resolve(".").toString() + "..%2F..%2Fetc%2Fpasswd")).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        response.body().close();
+        expect(response.statusCode() == 404, "LocalClipServer відповів " + response.statusCode() + " на шлях з ..");
+    }
+
+    private ClipSource.Clip open(ClipSource files, String hash) throws IOException {
+        byte[] fake = tampered.get(hash);
+        if (fake != null) {
+            return new ClipSource.Clip(new ByteArrayInputStream(fake), fake.length);
+        }
+        CountDownLatch gate = gates.get(hash);
+        if (gate == null) {
+            return files.open(hash);
+        }
+        byte[] content = Files.readAllBytes(store.path(hash));
+        return new ClipSource.Clip(new GatedStream(content, gate), content.length);
+    }
+
+    // Віддає першу половину одразу, решту - після відкриття воріт
+    private static final class GatedStream extends InputStream {
+        private final byte[] content;
+        private final CountDownLatch gate;
+        private int position;
+
+        GatedStream(byte[] content, CountDownLatch gate) {
+            this.content = content;
+            this.gate = gate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int read = read(one, 0, 1);
+            return read < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int half = content.length / 2;
+            if (position == half) {
+                try {
+                    if (!gate.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        throw new IOException("Ворота не відкрилися за " + TIMEOUT_MS + " мс");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            int limit = position < half ? half : content.length;
+            if (position >= limit) {
+                return -1;
+            }
+            int read = Math.min(count, limit - position);
+            System.arraycopy(content, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+    }
+
+    private HttpResponse<InputStream> get(String hash) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(server.uri(hash)).timeout(Duration.ofMillis(TIMEOUT_MS)).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private byte[] download(String hash) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = get(hash);
+        try (InputStream body = response.body()) {
+            expect(response.statusCode() == 200, "статус " + response.statusCode() + " для " + hash);
+            return body.readAllBytes();
+        }
+    }
+
+    // Останні байти можуть дійти до програвача трохи раніше, ніж кліп запишеться в індекс кешу
+    private void awaitCached(String hash) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (cache.cached(hash) == null) {
+            expect(System.currentTimeMillis() < deadline, "кліп " + hash + " не потрапив у кеш");
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Call {
+        Object call() throws Exception;
+    }
+
+    private static void expectRejected(Call call, String what) throws Exception {
+        try {
+            call.call();
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError(what + " не відхилено");
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static byte[] clip(int seed) {
+        byte[] content = new byte[CLIP_BYTES];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] readNBytes(InputStream in, int count) {
+        try {
+            return in.readNBytes(count);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package qirim.app.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Обгортка над org.openjdk.jmh.Main: якщо формат результатів не задано,
+// пише JSON у target/jmh-result-<bench.tag>.json (за замовчуванням - час запуску).
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+
+        if (!arguments.contains("-rf")) {
+            String tag = System.getProperty("bench.tag", String.valueOf(System.currentTimeMillis()));
+            arguments.add("-rf");
+            arguments.add("json");
+            arguments.add("-rff");
+            arguments.add("target/jmh-result-" + tag + ".json");
+        }
+
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
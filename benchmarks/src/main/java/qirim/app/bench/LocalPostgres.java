@@ -0,0 +1,70 @@
+package qirim.app.bench;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import qirim.app.repository.Repositories;
+import qirim.app.tools.LocalDatabase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Локальна БД для бенчмарків: або задана через -Dqirim.db.url, або вбудована PostgreSQL.
+// Схема й тестові дані створюються один раз на JVM. З -Dqirim.storage=memory БД не потрібна:
+// сервіси працюють зі сховищем у пам'яті з тими самими даними.
+public final class LocalPostgres {
+
+    public static final int THEMES = LocalDatabase.SEED_THEMES;
+    public static final int LESSONS_PER_THEME = LocalDatabase.SEED_LESSONS_PER_THEME;
+    public static final int USERS = Integer.getInteger("bench.users", 10_000);
+
+    // Бенчмарки не перевіряють паролі, тому підходить будь-який рядок у форматі BCrypt
+    private static final String SEED_PASSWORD_HASH = "$2a$10$" + "a".repeat(53);
+
+    // Тримаємо посилання, інакше налаштування рівня логера може зібрати GC
+    private static final Logger appLogger = Logger.getLogger("qirim");
+
+    private static EmbeddedPostgres embedded;
+    private static boolean ready;
+
+    private LocalPostgres() {
+    }
+
+    public static synchronized void start() throws Exception {
+        if (ready) {
+            return;
+        }
+
+        appLogger.setLevel(Level.WARNING);
+
+        if (System.getProperty("qirim.storage.users") == null) {
+            System.setProperty("qirim.storage.users", String.valueOf(USERS));
+        }
+        if (Repositories.isInMemory()) {
+            ready = true;
+            return;
+        }
+
+        if (System.getProperty("qirim.db.url") == null) {
+            embedded = EmbeddedPostgres.start();
+            System.setProperty("qirim.db.url", embedded.getJdbcUrl("postgres", "postgres"));
+            System.setProperty("qirim.db.user", "postgres");
+            System.setProperty("qirim.db.password", "postgres");
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    embedded.close();
+                } catch (Exception ignored) {
+                }
+            }));
+        }
+
+        try (Connection conn = DriverManager.getConnection(System.getProperty("qirim.db.url"),
+                System.getProperty("qirim.db.user"), System.getProperty("qirim.db.password"))) {
+            LocalDatabase.applySchema(conn);
+            if (LocalDatabase.isEmpty(conn)) {
+                LocalDatabase.seed(conn, USERS, SEED_PASSWORD_HASH);
+            }
+        }
+        ready = true;
+    }
+}
@@ -0,0 +1,68 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.logging.AsyncHandler;
+import qirim.app.logging.EventFormatter;
+import qirim.app.logging.Log;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+// Скільки коштує запис у журнал потоку, що логує: синхронний обробник проти черги AsyncHandler
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private Logger logger;
+    private Handler handler;
+    private int themeId;
+
+    @Setup
+    public void setUp() {
+        logger = Logger.getLogger("qirim.bench.logging");
+        logger.setUseParentHandlers(false);
+        StreamHandler sink = new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter());
+        if ("async".equals(mode)) {
+            sink.setFormatter(new EventFormatter());
+            handler = new AsyncHandler(new Handler[]{sink}, 8192);
+        } else {
+            handler = sink;
+        }
+        logger.addHandler(handler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.removeHandler(handler);
+        handler.close();
+    }
+
+    @Benchmark
+    public void concatenated() {
+        themeId++;
+        logger.info("Завантажено " + 12 + " уроків для теми ID: " + themeId);
+    }
+
+    @Benchmark
+    public void structured() {
+        themeId++;
+        Log.info(logger, "Завантажено уроки теми", "themeId", themeId, "lessons", 12);
+    }
+
+    @Benchmark
+    public void disabled() {
+        themeId++;
+        Log.fine(logger, "Завантажено уроки теми", "themeId", themeId, "lessons", 12);
+    }
+}
@@ -0,0 +1,337 @@
+package qirim.app.bench;
+
+import qirim.app.api.ApiCodec;
+import qirim.app.api.Json;
+import qirim.app.repository.Repositories;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Регресії планів запитів сервісів на локальній засіяній PostgreSQL (LocalPostgres: вбудована або -Dqirim.db.url,
+// наприклад БД від DatasetGenerator). Кожен запит із PlanQueries виконується через EXPLAIN (ANALYZE, BUFFERS)
+// в одній транзакції, що наприкінці відкочується, тож БД не змінюється. Плани всередині функцій
+// (update_user_progress, тригери) знімає auto_explain, якщо його можна завантажити.
+// Провал: послідовне сканування великої таблиці або вартість понад допуск відносно базової лінії.
+//
+// java -cp target/benchmarks.jar qirim.app.bench.PlanCheck [--record]
+//      -Dplans.baseline=plans/baseline.json -Dplans.costTolerance=0.5 -Dplans.largeRows=10000
+public final class PlanCheck {
+
+    private static final Path BASELINE = Paths.get(System.getProperty("plans.baseline", "plans/baseline.json"));
+    // 0.5 - вартість може вирости не більше ніж у півтора раза
+    private static final double COST_TOLERANCE = Double.parseDouble(System.getProperty("plans.costTolerance", "0.5"));
+    private static final long LARGE_ROWS = Long.getLong("plans.largeRows", 10_000);
+
+    private PlanCheck() {
+    }
+
+    // Плани одного запиту: верхній і вкладені (з функцій і тригерів)
+    static final class Result {
+        double cost;
+        double millis;
+        long buffers;
+        final List<String> shapes = new ArrayList<>();
+        final Set<String> seqScans = new TreeSet<>();
+
+        String shape() {
+            return String.join(" ; ", shapes);
+        }
+
+        void add(Map<String, Object> plan, boolean top) {
+            cost += ApiCodec.number(plan, "Total Cost").doubleValue();
+            if (top) {
+                buffers = ApiCodec.number(plan, "Shared Hit Blocks").longValue()
+                        + ApiCodec.number(plan, "Shared Read Blocks").longValue();
+            }
+            StringBuilder shape = new StringBuilder();
+            appendShape(plan, shape);
+            shapes.add(shape.toString());
+        }
+
+        // Вид вузла, індекс чи таблиця і дочірні вузли: Limit(Index Scan[user_stats_pkey])
+        private void appendShape(Map<String, Object> node, StringBuilder out) {
+            String type = ApiCodec.string(node, "Node Type");
+            String relation = ApiCodec.string(node, "Relation Name");
+            String index = ApiCodec.string(node, "Index Name");
+            out.append(type);
+            if (index != null || relation != null) {
+                out.append('[').append(index != null ? index : relation).append(']');
+            }
+            if ("Seq Scan".equals(type) && relation != null) {
+                seqScans.add(relation);
+            }
+            Object children = node.get("Plans");
+            if (children != null) {
+                out.append('(');
+                boolean first = true;
+                for (Object child : ApiCodec.list(children)) {
+                    if (!first) {
+                        out.append(", ");
+                    }
+                    appendShape(ApiCodec.map(child), out);
+                    first = false;
+                }
+                out.append(')');
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean record = List.of(args).contains("--record");
+
+        LocalPostgres.start();
+        if (Repositories.isInMemory()) {
+            System.err.println("PlanCheck потребує PostgreSQL: запустіть без -Dqirim.storage=memory");
+            System.exit(2);
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        int failures = 0;
+        try (Connection conn = DriverManager.getConnection(System.getProperty("qirim.db.url"),
+                System.getProperty("qirim.db.user"), System.getProperty("qirim.db.password"))) {
+            boolean nested = enableAutoExplain(conn);
+            Set<String> large = largeTables(conn);
+            System.out.println("Великі таблиці (від " + LARGE_ROWS + " рядків): " + String.join(", ", large));
+            if (!nested) {
+                System.out.println("auto_explain недоступний: плани всередині функцій і тригерів не перевіряються");
+            }
+
+            Map<String, Map<String, Object>> baseline = record ? Map.of() : loadBaseline();
+            if (!record && baseline.isEmpty()) {
+                System.out.println("Базової лінії " + BASELINE + " немає: перевіряються лише послідовні сканування (--record її створить)");
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                PlanQueries.Sample sample = sample(conn);
+                for (PlanQueries.PlanQuery query : PlanQueries.all()) {
+                    Result result;
+                    try {
+                        result = explain(conn, query, sample);
+                    } catch (SQLException | IllegalArgumentException e) {
+                        System.out.printf("FAIL %-28s %s%n", query.name, e.getMessage());
+                        failures++;
+                        continue;
+                    }
+                    results.put(query.name, result);
+                    if (!report(query, result, large, baseline.get(query.name))) {
+                        failures++;
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+        }
+
+        if (record) {
+            writeBaseline(results);
+            System.out.println("Базову лінію записано: " + BASELINE + " (" + results.size() + " запитів)");
+        }
+        System.out.println(failures == 0 ? "Регресій планів не знайдено" : "Регресій планів: " + failures);
+        if (failures > 0 && !record) {
+            System.exit(1);
+        }
+    }
+
+    // Вкладені плани приходять як повідомлення рівня LOG; налаштування - до початку транзакції,
+    // бо невдалий LOAD обірвав би її
+    private static boolean enableAutoExplain(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("LOAD 'auto_explain'");
+            stmt.execute("SET auto_explain.log_min_duration = 0");
+            stmt.execute("SET auto_explain.log_analyze = on");
+            stmt.execute("SET auto_explain.log_buffers = on");
+            stmt.execute("SET auto_explain.log_format = json");
+            stmt.execute("SET auto_explain.log_nested_statements = on");
+            stmt.execute("SET client_min_messages = log");
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Розмір - за статистикою планувальника, тож таблиця має бути проаналізована (seed і DatasetGenerator це роблять)
+    private static Set<String> largeTables(Connection conn) throws SQLException {
+        Set<String> tables = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT c.relname FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relkind = 'r' AND n.nspname = current_schema() AND c.reltuples >= ?")) {
+            stmt.setDouble(1, LARGE_ROWS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    // Користувач із середини діапазону id, його перший урок і клас зі 200 учасниками навколо нього
+    private static PlanQueries.Sample sample(Connection conn) throws SQLException {
+        PlanQueries.Sample sample = new PlanQueries.Sample();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT p.user_id, p.lesson_id, l.theme_id, u.username " +
+                     "FROM user_lesson_progress p JOIN lessons l ON l.lesson_id = p.lesson_id JOIN users u ON u.id = p.user_id " +
+                     "WHERE p.user_id >= (SELECT max(id) / 2 FROM users) ORDER BY p.user_id, p.lesson_id LIMIT 1")) {
+            if (!rs.next()) {
+                throw new IllegalStateException("У БД немає прогресу користувачів - засійте її (LocalDatabase.seed або DatasetGenerator)");
+            }
+            sample.userId = rs.getInt(1);
+            sample.lessonId = rs.getInt(2);
+            sample.themeId = rs.getInt(3);
+            sample.username = rs.getString(4);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT q.question_id, o.option_id FROM questions q " +
+                "JOIN questions_options o ON o.question_id = q.question_id " +
+                "WHERE q.lesson_id = ? ORDER BY q.question_number, o.option_number LIMIT 1")) {
+            stmt.setInt(1, sample.lessonId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    sample.questionId = rs.getInt(1);
+                    sample.optionId = rs.getInt(2);
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO groups (name, teacher_id) VALUES ('plan-check', ?) RETURNING group_id")) {
+            stmt.setInt(1, sample.userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                sample.groupId = rs.getInt(1);
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO group_members (group_id, user_id, username) " +
+                "SELECT ?, id, '' FROM users WHERE id >= ? ORDER BY id LIMIT 200")) {
+            stmt.setInt(1, sample.groupId);
+            stmt.setInt(2, sample.userId);
+            stmt.executeUpdate();
+        }
+        return sample;
+    }
+
+    // Перший прогін прогріває кеш, вимірюється другий; зміни кожного прогону відкочуються до точки збереження
+    private static Result explain(Connection conn, PlanQueries.PlanQuery query, PlanQueries.Sample sample) throws SQLException {
+        Result result = null;
+        for (int run = 0; run < 2; run++) {
+            Savepoint savepoint = conn.setSavepoint();
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query.sql)) {
+                query.binder.bind(stmt, sample, conn);
+                String plan;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    plan = rs.getString(1);
+                }
+
+                result = new Result();
+                Map<String, Object> top = ApiCodec.map(ApiCodec.list(Json.parse(plan)).get(0));
+                result.add(ApiCodec.map(top.get("Plan")), true);
+                result.millis = ApiCodec.number(top, "Execution Time").doubleValue();
+                for (SQLWarning warning = stmt.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                    addNested(result, warning.getMessage());
+                }
+            } finally {
+                conn.rollback(savepoint);
+            }
+        }
+        return result;
+    }
+
+    // "duration: 0.042 ms  plan:\n{...}"; сам EXPLAIN auto_explain теж записує - його пропускаємо
+    private static void addNested(Result result, String message) {
+        int start = message == null || !message.contains("plan:") ? -1 : message.indexOf('{');
+        if (start < 0) {
+            return;
+        }
+        Map<String, Object> entry = ApiCodec.map(Json.parse(message.substring(start)));
+        String text = ApiCodec.string(entry, "Query Text");
+        if (text == null || text.stripLeading().regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+            return;
+        }
+        result.add(ApiCodec.map(entry.get("Plan")), false);
+    }
+
+    private static boolean report(PlanQueries.PlanQuery query, Result result, Set<String> large, Map<String, Object> base) {
+        List<String> problems = new ArrayList<>();
+        if (!query.batch) {
+            for (String table : result.seqScans) {
+                if (large.contains(table)) {
+                    problems.add("послідовне сканування великої таблиці " + table);
+                }
+            }
+        }
+
+        String previousShape = null;
+        if (base != null) {
+            double baseCost = ApiCodec.number(base, "cost").doubleValue();
+            if (result.cost > baseCost * (1 + COST_TOLERANCE)) {
+                problems.add(String.format("вартість %.1f проти %.1f у базовій лінії", result.cost, baseCost));
+            }
+            String baseShape = ApiCodec.string(base, "shape");
+            if (!result.shape().equals(baseShape)) {
+                previousShape = baseShape;
+            }
+        }
+
+        System.out.printf("%-4s %-28s вартість %10.1f  %8.2f мс  %6d буф.  %s%n", problems.isEmpty() ? "OK" : "FAIL",
+                query.name, result.cost, result.millis, result.buffers, result.shape());
+        for (String problem : problems) {
+            System.out.println("       " + problem);
+        }
+        // Інша форма плану сама по собі не провал (статистика змінилась), але її варто переглянути
+        if (previousShape != null) {
+            System.out.println("       план змінився, було: " + previousShape);
+        }
+        return problems.isEmpty();
+    }
+
+    private static Map<String, Map<String, Object>> loadBaseline() throws IOException {
+        Map<String, Map<String, Object>> baseline = new HashMap<>();
+        if (!Files.exists(BASELINE)) {
+            return baseline;
+        }
+        Map<String, Object> json = ApiCodec.map(Json.parse(Files.readString(BASELINE, StandardCharsets.UTF_8)));
+        for (Map.Entry<String, Object> entry : json.entrySet()) {
+            baseline.put(entry.getKey(), ApiCodec.map(entry.getValue()));
+        }
+        return baseline;
+    }
+
+    // Запит на рядок, щоб зміни базової лінії добре читались у diff
+    private static void writeBaseline(Map<String, Result> results) throws IOException {
+        StringBuilder out = new StringBuilder("{\n");
+        boolean first = true;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Map<String, Object> plan = new LinkedHashMap<>();
+            plan.put("cost", Math.round(entry.getValue().cost * 100) / 100.0);
+            plan.put("buffers", entry.getValue().buffers);
+            plan.put("shape", entry.getValue().shape());
+            out.append(first ? "" : ",\n").append("  ").append(Json.write(entry.getKey())).append(": ").append(Json.write(plan));
+            first = false;
+        }
+        out.append("\n}\n");
+        if (BASELINE.getParent() != null) {
+            Files.createDirectories(BASELINE.getParent());
+        }
+        Files.writeString(BASELINE, out, StandardCharsets.UTF_8);
+    }
+}
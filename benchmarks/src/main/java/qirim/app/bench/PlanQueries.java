@@ -0,0 +1,218 @@
+package qirim.app.bench;
+
+import qirim.app.repository.jdbc.JdbcAnalyticsRepository;
+import qirim.app.repository.jdbc.JdbcContentRepository;
+import qirim.app.repository.jdbc.JdbcFlashcardRepository;
+import qirim.app.repository.jdbc.JdbcGroupRepository;
+import qirim.app.repository.jdbc.JdbcLeaderboardRepository;
+import qirim.app.repository.jdbc.JdbcProgressRepository;
+import qirim.app.repository.jdbc.JdbcUserRepository;
+import qirim.app.services.SessionService;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+// Запити сервісів для PlanCheck: текст - константи repository/jdbc і SessionService, параметри - з вибірки
+// реальних id. Зміна тексту запиту потрапляє сюди сама; новий запит треба додати, інакше його план не перевіряється.
+final class PlanQueries {
+
+    // id, на яких виконуються запити; групу PlanCheck створює сам у транзакції, що потім відкочується
+    static final class Sample {
+        int userId;
+        int lessonId;
+        int themeId;
+        int questionId;
+        int optionId;
+        int groupId;
+        String username;
+        LocalDate streakCutoff = LocalDate.now().minusDays(1);
+    }
+
+    interface Binder {
+        void bind(PreparedStatement stmt, Sample sample, Connection conn) throws SQLException;
+    }
+
+    static final class PlanQuery {
+        final String name;
+        final String sql;
+        final Binder binder;
+        // Пакетні запити (скидання всіх стріків) проходять таблицю повністю - послідовне сканування для них норма
+        final boolean batch;
+
+        PlanQuery(String name, String sql, boolean batch, Binder binder) {
+            this.name = name;
+            this.sql = sql;
+            this.binder = binder;
+            this.batch = batch;
+        }
+    }
+
+    private PlanQueries() {
+    }
+
+    static List<PlanQuery> all() {
+        return List.of(
+                query("content/themes", JdbcContentRepository.THEMES,
+                        (stmt, s, conn) -> {
+                        }),
+                query("content/lessons", JdbcContentRepository.LESSONS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.themeId)),
+                query("content/questions", JdbcContentRepository.QUESTIONS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+                query("content/options", JdbcContentRepository.OPTIONS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.questionId)),
+                query("content/questionAudio", JdbcContentRepository.QUESTION_AUDIO,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+                query("content/optionAudio", JdbcContentRepository.OPTION_AUDIO,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+
+                query("users/findByUsername", JdbcUserRepository.FIND_CREDENTIALS,
+                        (stmt, s, conn) -> stmt.setString(1, s.username)),
+                query("users/username", JdbcUserRepository.FIND_USERNAME,
+                        (stmt, s, conn) -> stmt.setInt(1, s.userId)),
+                query("users/register", JdbcUserRepository.CREATE_USER,
+                        (stmt, s, conn) -> {
+                            stmt.setString(1, "plan-check");
+                            stmt.setString(2, "plan-check@example.com");
+                            stmt.setString(3, "$2a$10$" + "a".repeat(53));
+                        }),
+                query("users/changePassword", JdbcUserRepository.UPDATE_PASSWORD,
+                        (stmt, s, conn) -> {
+                            stmt.setString(1, "$2a$10$" + "b".repeat(53));
+                            stmt.setInt(2, s.userId);
+                            stmt.setString(3, "$2a$10$" + "a".repeat(53));
+                        }),
+                query("sessions/create", SessionService.INSERT_SESSION,
+                        (stmt, s, conn) -> {
+                            stmt.setBytes(1, new byte[32]);
+                            stmt.setInt(2, s.userId);
+                            stmt.setTimestamp(3, Timestamp.valueOf(LocalDate.now().plusDays(30).atStartOfDay()));
+                        }),
+                query("sessions/resolve", SessionService.FIND_SESSION,
+                        (stmt, s, conn) -> stmt.setBytes(1, new byte[32])),
+                query("sessions/revoke", SessionService.REVOKE_SESSION,
+                        (stmt, s, conn) -> stmt.setBytes(1, new byte[32])),
+
+                query("progress/saveTestResult", JdbcProgressRepository.SAVE_RESULT,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setInt(2, s.lessonId);
+                            stmt.setInt(3, 8);
+                            stmt.setInt(4, 10);
+                        }),
+                query("progress/getUserProgress", JdbcProgressRepository.USER_PROGRESS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.userId)),
+                query("progress/getUserStats", JdbcProgressRepository.USER_STATS,
+                        (stmt, s, conn) -> {
+                            stmt.setDate(1, Date.valueOf(s.streakCutoff));
+                            stmt.setInt(2, s.userId);
+                        }),
+                query("progress/isLessonCompleted", JdbcProgressRepository.LESSON_COMPLETED,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setInt(2, s.lessonId);
+                        }),
+                query("progress/getBestScore", JdbcProgressRepository.BEST_SCORE,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setInt(2, s.lessonId);
+                        }),
+                query("progress/getLessonResults", JdbcProgressRepository.LESSON_RESULTS,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setArray(2, conn.createArrayOf("integer", lessonRange(s.lessonId)));
+                        }),
+                query("progress/resetStreak", JdbcProgressRepository.RESET_USER_SQL,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setDate(2, Date.valueOf(s.streakCutoff));
+                        }),
+                batch("progress/resetAllStreaks", JdbcProgressRepository.RESET_ALL_SQL,
+                        (stmt, s, conn) -> stmt.setDate(1, Date.valueOf(s.streakCutoff))),
+
+                query("leaderboard/top", JdbcLeaderboardRepository.TOP,
+                        (stmt, s, conn) -> stmt.setInt(1, 10)),
+
+                query("analytics/questionTotals", JdbcAnalyticsRepository.QUESTION_TOTALS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+                query("analytics/optionPicks", JdbcAnalyticsRepository.OPTION_PICKS,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+                query("analytics/responseTimes", JdbcAnalyticsRepository.RESPONSE_TIMES,
+                        (stmt, s, conn) -> stmt.setInt(1, s.lessonId)),
+                query("analytics/mergeTotals", JdbcAnalyticsRepository.MERGE_TOTALS,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.questionId);
+                            for (int i = 2; i <= 4; i++) {
+                                stmt.setLong(i, 1);
+                            }
+                            for (int i = 5; i <= 7; i++) {
+                                stmt.setDouble(i, 0.5);
+                            }
+                        }),
+                query("analytics/mergePicks", JdbcAnalyticsRepository.MERGE_PICKS,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.optionId);
+                            stmt.setInt(2, s.questionId);
+                            stmt.setLong(3, 1);
+                        }),
+                query("analytics/mergeTimes", JdbcAnalyticsRepository.MERGE_TIMES,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.questionId);
+                            stmt.setInt(2, 40);
+                            stmt.setLong(3, 1);
+                        }),
+
+                query("groups/userGroups", JdbcGroupRepository.USER_GROUPS,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setInt(2, s.userId);
+                        }),
+                query("groups/dashboard", JdbcGroupRepository.DASHBOARD,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, 50);
+                            stmt.setInt(2, s.groupId);
+                        }),
+                query("groups/removeMember", JdbcGroupRepository.REMOVE_MEMBER,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.groupId);
+                            stmt.setInt(2, s.userId);
+                        }),
+
+                query("flashcards/deck", JdbcFlashcardRepository.DECK,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setArray(2, conn.createArrayOf("integer", new Integer[]{s.themeId}));
+                        }),
+                query("flashcards/saveReview", JdbcFlashcardRepository.SAVE_REVIEW,
+                        (stmt, s, conn) -> {
+                            stmt.setInt(1, s.userId);
+                            stmt.setInt(2, s.questionId);
+                            stmt.setInt(3, 2);
+                            stmt.setInt(4, 1);
+                            stmt.setInt(5, 0);
+                        })
+        );
+    }
+
+    // Як на екрані теми: результати двадцяти сусідніх уроків одним запитом
+    private static Integer[] lessonRange(int lessonId) {
+        Integer[] ids = new Integer[20];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Math.max(1, lessonId - 10) + i;
+        }
+        return ids;
+    }
+
+    private static PlanQuery query(String name, String sql, Binder binder) {
+        return new PlanQuery(name, sql, false, binder);
+    }
+
+    private static PlanQuery batch(String name, String sql, Binder binder) {
+        return new PlanQuery(name, sql, true, binder);
+    }
+}
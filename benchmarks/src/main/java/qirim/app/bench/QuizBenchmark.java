@@ -0,0 +1,52 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.model.Question;
+import qirim.app.services.QuizService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizBenchmark {
+
+    @Param({"10", "200"})
+    public int questionCount;
+
+    private List<Question> questions;
+    private List<Integer> answers;
+    private int lessonId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        questions = new ArrayList<>(questionCount);
+        answers = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new Question(i, "Запитання " + i,
+                    List.of("a", "b", "c", "d"), List.of(1, 2, 3, 4), random.nextInt(4)));
+            answers.add(random.nextInt(5) - 1);
+        }
+
+        LocalPostgres.start();
+        lessonId = 1;
+    }
+
+    @Benchmark
+    public int calculateScore() {
+        return QuizService.calculateScore(questions, answers);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Question> loadQuestions() throws Exception {
+        return QuizService.loadQuestions(lessonId);
+    }
+}
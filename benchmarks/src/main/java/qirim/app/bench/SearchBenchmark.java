@@ -0,0 +1,70 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.search.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Префіксний пошук по синтетичному курсу: 1000 уроків по 20 запитань з 4 варіантами (~100 тис. рядків)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "qa", "ça", "ğı", "şü", "ña", "öz", "ba", "ti", "lar", "ler",
+            "yı", "ke", "tatar", "ev", "su", "ёл", "йо", "ґа", "ма", "ри"
+    };
+
+    @Param({"c", "qaca", "tatar ev", "ел", "ler su ma"})
+    public String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SearchIndex();
+        int questionId = 0;
+        for (int lessonId = 1; lessonId <= 1000; lessonId++) {
+            index.putLesson(new Lesson(lessonId, "Урок " + word(random), lessonId));
+            List<Question> questions = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                List<String> options = new ArrayList<>();
+                List<Integer> optionIds = new ArrayList<>();
+                for (int k = 0; k < 4; k++) {
+                    options.add(word(random) + " " + word(random));
+                    optionIds.add(questionId * 4 + k);
+                }
+                StringBuilder text = new StringBuilder();
+                for (int w = 0; w < 5; w++) {
+                    text.append(word(random)).append(' ');
+                }
+                questions.add(new Question(++questionId, text.toString().trim(), options, optionIds, 0));
+            }
+            index.putQuestions(lessonId, questions);
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 1 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    @Benchmark
+    public List<SearchIndex.Hit> search() {
+        return index.search(query, 20);
+    }
+}
@@ -0,0 +1,83 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.script.Transliterator;
+import qirim.app.services.CourseService;
+import qirim.app.services.QuizService;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+// Пропускна здатність транслітерації всього вмісту курсу (запитання й варіанти всіх уроків).
+// Тестові дані в БД здебільшого кириличні, тож латинський корпус - це той самий курс після транслітерації.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransliterationBenchmark {
+
+    private String cyrillic;
+    private String latin;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LocalPostgres.start();
+
+        StringBuilder course = new StringBuilder();
+        for (Theme theme : CourseService.loadThemes()) {
+            for (Lesson lesson : theme.getLessons()) {
+                course.append(lesson.getTitle()).append('\n');
+                for (Question question : QuizService.loadQuestions(lesson.getLessonId())) {
+                    course.append(question.getText()).append('\n');
+                    for (String option : question.getOptions()) {
+                        course.append(option).append('\n');
+                    }
+                }
+            }
+        }
+        cyrillic = course.toString();
+        latin = Transliterator.CYRILLIC_TO_LATIN.apply(cyrillic);
+        System.out.println("Символів у корпусі: " + cyrillic.length());
+    }
+
+    @Benchmark
+    public String cyrillicToLatin() {
+        return Transliterator.CYRILLIC_TO_LATIN.apply(cyrillic);
+    }
+
+    @Benchmark
+    public String latinToCyrillic() {
+        return Transliterator.LATIN_TO_CYRILLIC.apply(latin);
+    }
+
+    @Benchmark
+    public long streamLatinToCyrillic() throws Exception {
+        CountingWriter out = new CountingWriter();
+        Transliterator.LATIN_TO_CYRILLIC.apply(new StringReader(latin), out);
+        return out.count;
+    }
+
+    // Приймач без буферизації: вимірюємо лише транслітерацію
+    private static final class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.services.UserProgressService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Кожен виклик іде реальним шляхом сервісу, включно з відкриттям підключення
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserProgressBenchmark {
+
+    private int lessons;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LocalPostgres.start();
+        lessons = LocalPostgres.THEMES * LocalPostgres.LESSONS_PER_THEME;
+    }
+
+    private static int randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(LocalPostgres.USERS);
+    }
+
+    private int randomLesson() {
+        return 1 + ThreadLocalRandom.current().nextInt(lessons);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> getLeaderboard() {
+        return UserProgressService.getLeaderboard(10);
+    }
+
+    @Benchmark
+    public UserStats getUserStats() {
+        return UserProgressService.getUserStats(randomUser());
+    }
+
+    @Benchmark
+    public UserProgress getUserProgress() {
+        return UserProgressService.getUserProgress(randomUser());
+    }
+
+    @Benchmark
+    public boolean isLessonCompleted() {
+        return UserProgressService.isLessonCompleted(randomUser(), randomLesson());
+    }
+
+    @Benchmark
+    public int getBestScore() {
+        return UserProgressService.getBestScore(randomUser(), randomLesson());
+    }
+}
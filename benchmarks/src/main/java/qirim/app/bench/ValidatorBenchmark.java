@@ -0,0 +1,38 @@
+package qirim.app.bench;
+
+import org.openjdk.jmh.annotations.*;
+import qirim.app.services.CredentialsValidator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    // Окремі стани: параметри пароля й пошти не перемножуються, кожен метод проходить лише свої три значення
+    @State(Scope.Benchmark)
+    public static class Passwords {
+        @Param({"Qwerty123", "short", "alllowercase1"})
+        public String password;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Emails {
+        @Param({"student.name@example.com", "bad@@mail", "ab@x.io"})
+        public String email;
+    }
+
+    @Benchmark
+    public List<String> validatePassword(Passwords state) {
+        return CredentialsValidator.validatePassword(state.password);
+    }
+
+    @Benchmark
+    public List<String> validateEmail(Emails state) {
+        return CredentialsValidator.validateEmail(state.email);
+    }
+}
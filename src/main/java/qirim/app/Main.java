@@ -2,27 +2,124 @@ package qirim.app;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
 import javafx.scene.image.Image;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import qirim.app.controllers.HomeController;
+import qirim.app.diagnostics.FxStallDetector;
+import qirim.app.logging.AsyncLogging;
+import qirim.app.logging.Log;
+import qirim.app.repository.Repositories;
+import qirim.app.services.AnalyticsService;
+import qirim.app.services.PasswordHasher;
+import qirim.app.services.SessionService;
+import qirim.app.startup.StartupProbe;
+import qirim.app.startup.TrainingRun;
 
 public class Main extends Application {
 
+    private static final Logger logger = Logger.getLogger(Main.class.getName());
+
+    private static final long RESUME_TIMEOUT_MS = Long.getLong("qirim.session.resumeTimeoutMs", 5_000);
+
+    // До першого вікна: відтоді потік JavaFX лише ставить записи журналу в чергу
+    @Override
+    public void init() {
+        AsyncLogging.install();
+    }
+
     @Override
     public void start(Stage primaryStage) throws IOException {
 
-        FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("login.fxml"));
-        Image icon = new Image((Objects.requireNonNull(getClass().getResource("/qirim/app/images/icon.jpg"))).toExternalForm());
-        Scene scene = new Scene(fxmlLoader.load(), 400, 400);
+        // Тренувальний прогін для AppCDS (профіль startup у pom.xml)
+        if (TrainingRun.isEnabled()) {
+            new TrainingRun(primaryStage).start();
+            return;
+        }
+
+        FxStallDetector.getInstance().start();
+        // Через API-сервер паролі хешує сам сервер. Пакетне скидання стріків клієнт не запускає ніколи:
+        // це робить API-сервер або окремий запуск StreakReconciler з cron
+        if (Repositories.backend() != Repositories.Backend.HTTP) {
+            PasswordHasher.calibrate();
+        }
 
+        Image icon = new Image((Objects.requireNonNull(getClass().getResource("/qirim/app/images/icon.jpg"))).toExternalForm());
         primaryStage.getIcons().add(icon);
         primaryStage.setTitle("QIrIm");
+
+        // Збережена сесія: одна перевірка токена замість форми входу і BCrypt. Вікно з'являється одразу,
+        // а перевірка обмежена в часі: недоступна БД не лишає застосунок невидимим
+        if (SessionService.hasStoredSession()) {
+            showPlaceholder(primaryStage);
+            SessionService.resume()
+                    .orTimeout(RESUME_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .whenComplete((userId, error) -> Platform.runLater(() -> {
+                        if (error != null) {
+                            logger.log(Level.WARNING, "Не вдалося перевірити збережену сесію", error);
+                        }
+                        try {
+                            if (error == null && userId > 0) {
+                                showHome(primaryStage, userId);
+                            } else {
+                                showLogin(primaryStage);
+                            }
+                        } catch (IOException e) {
+                            logger.log(Level.SEVERE, "Помилка завантаження інтерфейсу", e);
+                        }
+                    }));
+        } else {
+            showLogin(primaryStage);
+        }
+    }
+
+    @Override
+    public void stop() {
+        FxStallDetector.getInstance().stop();
+        AnalyticsService.flush();
+    }
+
+    private void showLogin(Stage primaryStage) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("login.fxml"));
+        Scene scene = new Scene(fxmlLoader.load(), 400, 400);
+        showScene(primaryStage, scene);
+    }
+
+    private void showPlaceholder(Stage primaryStage) {
+        VBox root = new VBox();
+        root.getChildren().add(new Label("Відновлення сесії..."));
+        showScene(primaryStage, new Scene(root, 400, 400));
+    }
+
+    private void showHome(Stage primaryStage, int userId) throws IOException {
+        FXMLLoader loader = new FXMLLoader(Main.class.getResource("home.fxml"));
+        Parent root = loader.load();
+
+        HomeController homeController = loader.getController();
+        homeController.setCurrentUserId(userId);
+
+        Log.info(logger, "Вхід за збереженою сесією", "userId", userId);
+        showScene(primaryStage, new Scene(root));
+    }
+
+    private void showScene(Stage primaryStage, Scene scene) {
         primaryStage.setScene(scene);
         primaryStage.show();
         primaryStage.setFullScreen(true);
+
+        if (StartupProbe.isEnabled()) {
+            StartupProbe.reportFirstFrame(scene);
+        }
     }
 
-}
\ No newline at end of file
+}
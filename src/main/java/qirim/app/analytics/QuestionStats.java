@@ -0,0 +1,146 @@
+package qirim.app.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Зведена статистика відповідей на одне запитання. Усі поля - суми й лічильники, тож частини,
+// зібрані в різних процесах чи за різні проміжки, зливаються через merge без сирих відповідей.
+// Не потокобезпечний: AnalyticsService змінює його лише під блокуванням свого запису.
+public final class QuestionStats {
+
+    private final int questionId;
+    private final int lessonId;
+
+    private long attempts;
+    private long correct;
+    private long skipped;
+    // Для індексу дискримінації: частка правильних відповідей на решту запитань тієї ж спроби
+    private double restSum;
+    private double restSquares;
+    private double correctRestSum;
+
+    private final Map<Integer, Long> optionPicks = new TreeMap<>();
+    private final LatencySketch responseTimes = new LatencySketch();
+
+    public QuestionStats(int questionId, int lessonId) {
+        this.questionId = questionId;
+        this.lessonId = lessonId;
+    }
+
+    // optionId <= 0 - варіант не обрано (пропуск або введена відповідь); responseMillis < 0 - час невідомий
+    public void record(boolean isCorrect, boolean isSkipped, int optionId, long responseMillis, double rest) {
+        attempts++;
+        if (isCorrect) {
+            correct++;
+            correctRestSum += rest;
+        }
+        if (isSkipped) {
+            skipped++;
+        }
+        restSum += rest;
+        restSquares += rest * rest;
+        if (optionId > 0) {
+            optionPicks.merge(optionId, 1L, Long::sum);
+        }
+        if (responseMillis >= 0) {
+            responseTimes.add(responseMillis);
+        }
+    }
+
+    public void addTotals(long attempts, long correct, long skipped,
+                          double restSum, double restSquares, double correctRestSum) {
+        this.attempts += attempts;
+        this.correct += correct;
+        this.skipped += skipped;
+        this.restSum += restSum;
+        this.restSquares += restSquares;
+        this.correctRestSum += correctRestSum;
+    }
+
+    public void addPicks(int optionId, long picks) {
+        optionPicks.merge(optionId, picks, Long::sum);
+    }
+
+    public void merge(QuestionStats other) {
+        addTotals(other.attempts, other.correct, other.skipped,
+                other.restSum, other.restSquares, other.correctRestSum);
+        other.optionPicks.forEach(this::addPicks);
+        responseTimes.merge(other.responseTimes);
+    }
+
+    public QuestionStats copy() {
+        QuestionStats copy = new QuestionStats(questionId, lessonId);
+        copy.merge(this);
+        return copy;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getLessonId() {
+        return lessonId;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public double getRestSum() {
+        return restSum;
+    }
+
+    public double getRestSquares() {
+        return restSquares;
+    }
+
+    public double getCorrectRestSum() {
+        return correctRestSum;
+    }
+
+    // optionId -> скільки разів обрано
+    public Map<Integer, Long> getOptionPicks() {
+        return optionPicks;
+    }
+
+    public LatencySketch getResponseTimes() {
+        return responseTimes;
+    }
+
+    public double correctRate() {
+        return attempts == 0 ? Double.NaN : (double) correct / attempts;
+    }
+
+    public double pickRate(int optionId) {
+        return attempts == 0 ? Double.NaN : (double) optionPicks.getOrDefault(optionId, 0L) / attempts;
+    }
+
+    public long medianResponseMillis() {
+        return responseTimes.median();
+    }
+
+    // Точково-бісеріальна кореляція правильності цього запитання з результатом за решту уроку:
+    // близько 0 або від'ємна - запитання не відрізняє тих, хто знає матеріал; NaN - замало даних
+    public double discrimination() {
+        double n = attempts;
+        double covariance = n * correctRestSum - correct * restSum;
+        double itemVariance = n * correct - (double) correct * correct;
+        double restVariance = n * restSquares - restSum * restSum;
+        if (itemVariance <= 0 || restVariance <= 1e-9) {
+            return Double.NaN;
+        }
+        return covariance / Math.sqrt(itemVariance * restVariance);
+    }
+
+    public boolean isEmpty() {
+        return attempts == 0;
+    }
+}
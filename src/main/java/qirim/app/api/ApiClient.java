@@ -0,0 +1,128 @@
+package qirim.app.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+// Клієнт API-сервера (qirim.app.server.ApiServer). Помилки повертаються як SQLException,
+// щоб сервіси обробляли їх так само, як помилки прямого підключення до БД.
+public final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("qirim.api.timeoutSeconds", 15));
+
+    private final URI baseUri;
+    private final HttpClient http;
+    // Токен сесії з відповіді на вхід; сервер бере з нього id користувача для /api/users/...
+    private volatile String token;
+
+    public ApiClient(URI baseUri) {
+        String base = baseUri.toString();
+        this.baseUri = URI.create(base.endsWith("/") ? base : base + "/");
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    // null, якщо сервер відповів 404 (немає такого користувача, уроку тощо)
+    public <T> T get(String path, Function<Object, T> decoder) throws SQLException {
+        return decode(send(request(path).GET().build()), decoder);
+    }
+
+    public <T> T post(String path, Map<String, Object> body, Function<Object, T> decoder) throws SQLException {
+        return decode(send(request(path)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(Json.write(body), StandardCharsets.UTF_8))
+                .build()), decoder);
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path.startsWith("/") ? path.substring(1) : path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        String current = token;
+        return current != null ? builder.header("Authorization", "Bearer " + current) : builder;
+    }
+
+    private Object send(HttpRequest request) throws SQLException {
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SQLTransientConnectionException("API-сервер недоступний: " + baseUri, "08001", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Запит до API перервано", e);
+        }
+
+        int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        if (status == 503) {
+            throw new SQLTransientException("API-сервер перевантажений: " + errorMessage(response));
+        }
+        // Сервер відхилив дані запиту: повтор того самого запиту не допоможе
+        if (status == 400) {
+            throw new SQLDataException("API " + request.method() + " " + request.uri().getPath()
+                    + " відхилив запит: " + errorMessage(response), "22000");
+        }
+        if (status >= 400) {
+            throw new SQLException("API " + request.method() + " " + request.uri().getPath()
+                    + " повернув " + status + ": " + errorMessage(response));
+        }
+
+        try {
+            return response.body().isEmpty() ? null : Json.parse(response.body());
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Некоректна відповідь API", e);
+        }
+    }
+
+    private static <T> T decode(Object json, Function<Object, T> decoder) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return decoder.apply(json);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new SQLException("Некоректна відповідь API", e);
+        }
+    }
+
+    private static String errorMessage(HttpResponse<String> response) {
+        try {
+            Object json = Json.parse(response.body());
+            if (json instanceof Map) {
+                Object error = ((Map<?, ?>) json).get("error");
+                if (error != null) {
+                    return error.toString();
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        return response.body();
+    }
+}
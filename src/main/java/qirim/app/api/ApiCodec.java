@@ -0,0 +1,441 @@
+package qirim.app.api;
+
+import qirim.app.analytics.LatencySketch;
+import qirim.app.analytics.QuestionStats;
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.model.LessonAudio;
+import qirim.app.model.LessonResult;
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.TestResult;
+import qirim.app.model.Theme;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Перетворення моделей у JSON-дерево і назад; одне місце для сервера й клієнта
+public final class ApiCodec {
+
+    // ~50 байт на результат: частина вміщується в ліміт тіла запиту сервера
+    public static final int MAX_RESULTS_PER_REQUEST = 500;
+    // До ~2.5 КБ на запитання за повної гістограми часу: частина вміщується в той самий ліміт
+    public static final int MAX_STATS_PER_REQUEST = 20;
+    // id уроків у рядку запиту /lessons?ids=...
+    public static final int MAX_LESSONS_PER_REQUEST = 200;
+    // id тем у рядку запиту /flashcards?themes=...
+    public static final int MAX_THEMES_PER_REQUEST = 100;
+    // ~70 байт на підсумок картки
+    public static final int MAX_REVIEWS_PER_REQUEST = 500;
+
+    private ApiCodec() {
+    }
+
+    public static List<Object> themes(List<Theme> themes) {
+        List<Object> out = new ArrayList<>(themes.size());
+        for (Theme theme : themes) {
+            List<Object> lessons = new ArrayList<>(theme.getLessons().size());
+            for (Lesson lesson : theme.getLessons()) {
+                Map<String, Object> l = new LinkedHashMap<>();
+                l.put("lessonId", lesson.getLessonId());
+                l.put("title", lesson.getTitle());
+                l.put("lessonNumber", lesson.getLessonNumber());
+                lessons.add(l);
+            }
+            Map<String, Object> t = new LinkedHashMap<>();
+            t.put("themeId", theme.getThemeId());
+            t.put("name", theme.getName());
+            t.put("themeNumber", theme.getThemeNumber());
+            t.put("lessons", lessons);
+            out.add(t);
+        }
+        return out;
+    }
+
+    public static List<Theme> toThemes(Object json) {
+        List<Theme> themes = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> t = map(item);
+            List<Lesson> lessons = new ArrayList<>();
+            for (Object lessonItem : list(t.get("lessons"))) {
+                Map<String, Object> l = map(lessonItem);
+                lessons.add(new Lesson(integer(l, "lessonId"), string(l, "title"), integer(l, "lessonNumber")));
+            }
+            themes.add(new Theme(integer(t, "themeId"), string(t, "name"), integer(t, "themeNumber"), lessons));
+        }
+        return themes;
+    }
+
+    public static List<Object> questions(List<Question> questions) {
+        List<Object> out = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("questionId", question.getQuestionId());
+            q.put("text", question.getText());
+            q.put("options", new ArrayList<Object>(question.getOptions()));
+            q.put("optionIds", new ArrayList<Object>(question.getOptionIds()));
+            q.put("correctAnswerIndex", question.getCorrectAnswerIndex());
+            q.put("freeText", question.isFreeText());
+            out.add(q);
+        }
+        return out;
+    }
+
+    public static List<Question> toQuestions(Object json) {
+        List<Question> questions = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> q = map(item);
+            List<String> options = new ArrayList<>();
+            for (Object option : list(q.get("options"))) {
+                options.add((String) option);
+            }
+            List<Integer> optionIds = new ArrayList<>();
+            for (Object optionId : list(q.get("optionIds"))) {
+                optionIds.add(((Number) optionId).intValue());
+            }
+            questions.add(new Question(integer(q, "questionId"), string(q, "text"), options, optionIds,
+                    integer(q, "correctAnswerIndex"), Boolean.TRUE.equals(q.get("freeText"))));
+        }
+        return questions;
+    }
+
+    public static Map<String, Object> lessonAudio(LessonAudio audio) {
+        Map<String, Object> a = new LinkedHashMap<>();
+        a.put("questions", clips(audio.getQuestionClips()));
+        a.put("options", clips(audio.getOptionClips()));
+        return a;
+    }
+
+    public static LessonAudio toLessonAudio(Object json) {
+        Map<String, Object> a = map(json);
+        return new LessonAudio(toClips(a.get("questions")), toClips(a.get("options")));
+    }
+
+    private static Map<String, Object> clips(Map<Integer, String> clips) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        clips.forEach((id, hash) -> out.put(String.valueOf(id), hash));
+        return out;
+    }
+
+    private static Map<Integer, String> toClips(Object json) {
+        Map<Integer, String> clips = new LinkedHashMap<>();
+        if (json != null) {
+            map(json).forEach((id, hash) -> clips.put(Integer.parseInt(id), (String) hash));
+        }
+        return clips;
+    }
+
+    public static Map<String, Object> progress(UserProgress progress) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("totalLessons", progress.getTotalLessons());
+        p.put("completedLessons", progress.getCompletedLessons());
+        p.put("progressPercentage", progress.getProgressPercentage());
+        return p;
+    }
+
+    public static UserProgress toProgress(Object json) {
+        Map<String, Object> p = map(json);
+        return new UserProgress(integer(p, "totalLessons"), integer(p, "completedLessons"),
+                ((Number) p.get("progressPercentage")).doubleValue());
+    }
+
+    public static Map<String, Object> stats(UserStats stats) {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("totalScore", stats.totalScore);
+        s.put("lessonsCompleted", stats.lessonsCompleted);
+        s.put("currentStreak", stats.currentStreak);
+        s.put("longestStreak", stats.longestStreak);
+        return s;
+    }
+
+    public static UserStats toStats(Object json) {
+        Map<String, Object> s = map(json);
+        return new UserStats(integer(s, "totalScore"), integer(s, "lessonsCompleted"),
+                integer(s, "currentStreak"), integer(s, "longestStreak"));
+    }
+
+    public static Map<String, Object> lessonResults(Map<Integer, LessonResult> results) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        results.forEach((lessonId, result) -> {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("completed", result.isCompleted());
+            r.put("bestScore", result.getBestScore());
+            out.put(String.valueOf(lessonId), r);
+        });
+        return out;
+    }
+
+    public static Map<Integer, LessonResult> toLessonResults(Object json) {
+        Map<Integer, LessonResult> results = new LinkedHashMap<>();
+        map(json).forEach((lessonId, item) -> {
+            Map<String, Object> r = map(item);
+            results.put(Integer.parseInt(lessonId),
+                    new LessonResult(Boolean.TRUE.equals(r.get("completed")), integer(r, "bestScore")));
+        });
+        return results;
+    }
+
+    public static List<Object> testResults(List<TestResult> results) {
+        List<Object> out = new ArrayList<>(results.size());
+        for (TestResult result : results) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("userId", result.getUserId());
+            r.put("lessonId", result.getLessonId());
+            r.put("score", result.getScore());
+            r.put("total", result.getTotalQuestions());
+            out.add(r);
+        }
+        return out;
+    }
+
+    public static List<TestResult> toTestResults(Object json) {
+        List<TestResult> results = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> r = map(item);
+            results.add(new TestResult(integer(r, "userId"), integer(r, "lessonId"),
+                    integer(r, "score"), integer(r, "total")));
+        }
+        return results;
+    }
+
+    public static List<Object> questionStats(List<QuestionStats> stats) {
+        List<Object> out = new ArrayList<>(stats.size());
+        for (QuestionStats question : stats) {
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("questionId", question.getQuestionId());
+            q.put("lessonId", question.getLessonId());
+            q.put("attempts", question.getAttempts());
+            q.put("correct", question.getCorrect());
+            q.put("skipped", question.getSkipped());
+            q.put("restSum", question.getRestSum());
+            q.put("restSquares", question.getRestSquares());
+            q.put("correctRestSum", question.getCorrectRestSum());
+            Map<String, Object> picks = new LinkedHashMap<>();
+            question.getOptionPicks().forEach((optionId, count) -> picks.put(String.valueOf(optionId), count));
+            q.put("picks", picks);
+            // Лише непорожні кошики гістограми
+            Map<String, Object> times = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < LatencySketch.BUCKETS; bucket++) {
+                long count = question.getResponseTimes().count(bucket);
+                if (count > 0) {
+                    times.put(String.valueOf(bucket), count);
+                }
+            }
+            q.put("times", times);
+            out.add(q);
+        }
+        return out;
+    }
+
+    // Прирости від клієнтів: лічильники не від'ємні й не більші за кількість спроб, суми скінченні
+    public static List<QuestionStats> toQuestionStats(Object json) {
+        List<QuestionStats> stats = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> q = map(item);
+            QuestionStats question = new QuestionStats(integer(q, "questionId"), integer(q, "lessonId"));
+            long attempts = count(q, "attempts");
+            long correct = count(q, "correct");
+            long skipped = count(q, "skipped");
+            if (correct > attempts || skipped > attempts) {
+                throw new IllegalArgumentException("correct і skipped не можуть перевищувати attempts");
+            }
+            question.addTotals(attempts, correct, skipped, sum(q, "restSum"), sum(q, "restSquares"), sum(q, "correctRestSum"));
+            map(q.get("picks")).forEach((optionId, count) -> {
+                long picks = ((Number) count).longValue();
+                if (picks < 0) {
+                    throw new IllegalArgumentException("Кількість виборів варіанта " + optionId + " від'ємна");
+                }
+                question.addPicks(Integer.parseInt(optionId), picks);
+            });
+            map(q.get("times")).forEach((bucket, count) ->
+                    question.getResponseTimes().add(Integer.parseInt(bucket), ((Number) count).longValue()));
+            stats.add(question);
+        }
+        return stats;
+    }
+
+    public static List<Object> flashcards(List<Flashcard> deck) {
+        List<Object> out = new ArrayList<>(deck.size());
+        for (Flashcard card : deck) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("questionId", card.getQuestionId());
+            c.put("themeId", card.getThemeId());
+            c.put("lessonId", card.getLessonId());
+            c.put("front", card.getFront());
+            c.put("back", card.getBack());
+            c.put("box", card.getBox());
+            out.add(c);
+        }
+        return out;
+    }
+
+    public static List<Flashcard> toFlashcards(Object json) {
+        List<Flashcard> deck = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> c = map(item);
+            deck.add(new Flashcard(integer(c, "questionId"), integer(c, "themeId"), integer(c, "lessonId"),
+                    string(c, "front"), string(c, "back"), integer(c, "box")));
+        }
+        return deck;
+    }
+
+    public static List<Object> flashcardReviews(List<FlashcardReview> reviews) {
+        List<Object> out = new ArrayList<>(reviews.size());
+        for (FlashcardReview review : reviews) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("questionId", review.getQuestionId());
+            r.put("box", review.getBox());
+            r.put("correct", review.getCorrect());
+            r.put("wrong", review.getWrong());
+            out.add(r);
+        }
+        return out;
+    }
+
+    public static List<FlashcardReview> toFlashcardReviews(Object json) {
+        List<FlashcardReview> reviews = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> r = map(item);
+            int box = integer(r, "box");
+            if (box < 0 || box > Flashcard.MAX_BOX) {
+                throw new IllegalArgumentException("Поле box має бути від 0 до " + Flashcard.MAX_BOX);
+            }
+            reviews.add(new FlashcardReview(integer(r, "questionId"), box, integer(r, "correct"), integer(r, "wrong")));
+        }
+        return reviews;
+    }
+
+    public static List<Object> leaderboard(List<LeaderboardEntry> entries) {
+        List<Object> out = new ArrayList<>(entries.size());
+        for (LeaderboardEntry entry : entries) {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("rank", entry.getRank());
+            e.put("username", entry.getUsername());
+            e.put("totalScore", entry.getTotalScore());
+            e.put("lessonsCompleted", entry.getLessonsCompleted());
+            e.put("currentStreak", entry.getCurrentStreak());
+            out.add(e);
+        }
+        return out;
+    }
+
+    public static List<LeaderboardEntry> toLeaderboard(Object json) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (Object item : list(json)) {
+            Map<String, Object> e = map(item);
+            entries.add(new LeaderboardEntry(integer(e, "rank"), string(e, "username"), integer(e, "totalScore"),
+                    integer(e, "lessonsCompleted"), integer(e, "currentStreak")));
+        }
+        return entries;
+    }
+
+    public static Map<String, Object> group(GroupSummary group) {
+        Map<String, Object> g = new LinkedHashMap<>();
+        g.put("groupId", group.getGroupId());
+        g.put("name", group.getName());
+        g.put("members", group.getMembers());
+        g.put("totalScore", group.getTotalScore());
+        g.put("lessonsCompleted", group.getLessonsCompleted());
+        g.put("activeStreaks", group.getActiveStreaks());
+        g.put("totalLessons", group.getTotalLessons());
+        return g;
+    }
+
+    public static GroupSummary toGroup(Object json) {
+        Map<String, Object> g = map(json);
+        return new GroupSummary(integer(g, "groupId"), string(g, "name"), integer(g, "members"),
+                number(g, "totalScore").longValue(), number(g, "lessonsCompleted").longValue(),
+                integer(g, "activeStreaks"), integer(g, "totalLessons"));
+    }
+
+    public static List<Object> groups(List<GroupSummary> groups) {
+        List<Object> out = new ArrayList<>(groups.size());
+        for (GroupSummary group : groups) {
+            out.add(group(group));
+        }
+        return out;
+    }
+
+    public static List<GroupSummary> toGroups(Object json) {
+        List<GroupSummary> groups = new ArrayList<>();
+        for (Object item : list(json)) {
+            groups.add(toGroup(item));
+        }
+        return groups;
+    }
+
+    public static Map<String, Object> groupDashboard(GroupDashboard dashboard) {
+        Map<String, Object> d = new LinkedHashMap<>();
+        d.put("summary", group(dashboard.getSummary()));
+        d.put("leaderboard", leaderboard(dashboard.getLeaderboard()));
+        return d;
+    }
+
+    public static GroupDashboard toGroupDashboard(Object json) {
+        Map<String, Object> d = map(json);
+        return new GroupDashboard(toGroup(d.get("summary")), toLeaderboard(d.get("leaderboard")));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> map(Object json) {
+        if (!(json instanceof Map)) {
+            throw new IllegalArgumentException("Очікувався JSON-об'єкт");
+        }
+        return (Map<String, Object>) json;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> list(Object json) {
+        if (!(json instanceof List)) {
+            throw new IllegalArgumentException("Очікувався JSON-масив");
+        }
+        return (List<Object>) json;
+    }
+
+    private static long count(Map<String, Object> json, String key) {
+        long value = number(json, key).longValue();
+        if (value < 0) {
+            throw new IllegalArgumentException("Поле " + key + " не може бути від'ємним");
+        }
+        return value;
+    }
+
+    private static double sum(Map<String, Object> json, String key) {
+        double value = number(json, key).doubleValue();
+        if (!Double.isFinite(value) || value < 0) {
+            throw new IllegalArgumentException("Поле " + key + " має бути невід'ємним числом");
+        }
+        return value;
+    }
+
+    public static int integer(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Поле " + key + " має бути числом");
+        }
+        return ((Number) value).intValue();
+    }
+
+    public static Number number(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Поле " + key + " має бути числом");
+        }
+        return (Number) value;
+    }
+
+    public static String string(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Поле " + key + " має бути рядком");
+        }
+        return (String) value;
+    }
+}
@@ -0,0 +1,386 @@
+package qirim.app.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Дисковий кеш кліпів з обмеженням за розміром і витісненням давно не використаних (LRU).
+// Кожен кліп завантажується один раз, навіть якщо його одночасно просять відтворення й попереднє
+// завантаження; читати його можна ще до кінця завантаження - потік чекає на нові байти.
+// Вміст перевіряється за SHA-256 перед тим, як потрапити в кеш.
+public final class AudioCache {
+
+    private static final Logger logger = Logger.getLogger(AudioCache.class.getName());
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int URGENT = 0;
+    private static final int PREFETCH = 1;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final ClipSource source;
+
+    // Завершені кліпи в порядку доступу; під монітором this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final ConcurrentHashMap<String, Download> downloads = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor fetchers;
+
+    public AudioCache(Path dir, long maxBytes, ClipSource source, int threads) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.source = source;
+        this.fetchers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "audio-fetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.fetchers.allowCoreThreadTimeOut(true);
+        load();
+    }
+
+    // Відновлює індекс з диска: порядок LRU - за часом останнього доступу, недокачані файли видаляються
+    private void load() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PART_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (ClipStore.isHash(name)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort((a, b) -> lastModified(a).compareTo(lastModified(b)));
+        synchronized (this) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict(null);
+        }
+        logger.info("Кеш аудіо: " + entries.size() + " кліпів, " + totalBytes / 1024 + " КБ з " + maxBytes / 1024);
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    public long totalBytes() {
+        synchronized (this) {
+            return totalBytes;
+        }
+    }
+
+    // Повністю завантажений кліп або null; звернення оновлює його місце в LRU
+    public Path cached(String hash) {
+        synchronized (this) {
+            if (entries.get(hash) == null) {
+                return null;
+            }
+        }
+        Path file = dir.resolve(hash);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return file;
+        } catch (NoSuchFileException e) {
+            // Файл прибрали ззовні - забуваємо запис
+            forget(hash);
+            return null;
+        } catch (IOException e) {
+            return file;
+        }
+    }
+
+    // Кліп для відтворення: завантаження починається одразу, поперед черги попереднього завантаження
+    public Download fetch(String hash) {
+        return fetch(hash, URGENT);
+    }
+
+    // Попереднє завантаження у фоні: кліпи, яких немає в кеші, стають у чергу за порядком виклику
+    public void prefetch(List<String> hashes) {
+        for (String hash : hashes) {
+            if (cached(hash) == null) {
+                fetch(hash, PREFETCH);
+            }
+        }
+    }
+
+    private Download fetch(String hash, int priority) {
+        if (!ClipStore.isHash(hash)) {
+            throw new IllegalArgumentException("Некоректний хеш кліпу: " + hash);
+        }
+        if (priority == URGENT) {
+            Path file = cached(hash);
+            if (file != null) {
+                Download ready = new Download(hash);
+                ready.finish(file, null);
+                return ready;
+            }
+        }
+        Download download = downloads.computeIfAbsent(hash, Download::new);
+        // Уже в черзі як попереднє завантаження - ставимо ще одну, термінову; зайва просто нічого не зробить
+        if (!download.started.get() && (download.queued.compareAndSet(false, true) || priority == URGENT)) {
+            fetchers.execute(new Task(download, priority, sequence.incrementAndGet()));
+        }
+        return download;
+    }
+
+    private void run(Download download) {
+        if (!download.started.compareAndSet(false, true)) {
+            return;
+        }
+
+        Path part = dir.resolve(download.hash + PART_SUFFIX);
+        Path target = dir.resolve(download.hash);
+        try {
+            long size = 0;
+            MessageDigest digest = ClipStore.sha256();
+            try (ClipSource.Clip clip = source.open(download.hash);
+                 FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                download.begin(part, clip.length);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = clip.body.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                    size += read;
+                    download.advance(size);
+                }
+            }
+
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equals(download.hash)) {
+                throw new IOException("Вміст кліпу " + download.hash + " не збігається з хешем (" + actual + ")");
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                Long previous = entries.put(download.hash, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evict(download.hash);
+            }
+            download.finish(target, null);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Не вдалося завантажити кліп " + download.hash, e);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+            }
+            download.finish(null, e instanceof IOException ? (IOException) e : new IOException(e));
+        } finally {
+            downloads.remove(download.hash, download);
+        }
+    }
+
+    // Викликається під монітором this; щойно доданий кліп не витісняється, навіть якщо сам більший за ліміт
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(dir.resolve(entry.getKey()));
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Не вдалося видалити кліп з кешу " + entry.getKey(), e);
+            }
+            totalBytes -= entry.getValue();
+            it.remove();
+        }
+    }
+
+    private synchronized void forget(String hash) {
+        Long size = entries.remove(hash);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    public void shutdown() {
+        fetchers.shutdownNow();
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        final Download download;
+        final int priority;
+        final long order;
+
+        Task(Download download, int priority, long order) {
+            this.download = download;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            AudioCache.this.run(download);
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+
+    // Одне завантаження кліпу; стан змінюється під його монітором, читачі чекають на notifyAll
+    public static final class Download {
+        final String hash;
+        final AtomicBoolean queued = new AtomicBoolean();
+        final AtomicBoolean started = new AtomicBoolean();
+
+        private Path part;
+        private long length = -1;
+        private long written;
+        private boolean begun;
+        private boolean done;
+        private Path file;
+        private IOException error;
+
+        Download(String hash) {
+            this.hash = hash;
+        }
+
+        synchronized void begin(Path part, long length) {
+            this.part = part;
+            this.length = length;
+            this.begun = true;
+            notifyAll();
+        }
+
+        synchronized void advance(long written) {
+            this.written = written;
+            notifyAll();
+        }
+
+        synchronized void finish(Path file, IOException error) {
+            this.file = file;
+            this.error = error;
+            this.done = true;
+            this.begun = true;
+            notifyAll();
+        }
+
+        // Розмір кліпу, щойно відповідь джерела отримано; -1 - невідомий
+        public synchronized long awaitLength(long timeoutMillis) throws IOException, InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (!begun) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    throw new IOException("Джерело не відповіло за " + timeoutMillis + " мс: " + hash);
+                }
+                wait(left);
+            }
+            if (error != null) {
+                throw error;
+            }
+            return done ? Files.size(file) : length;
+        }
+
+        // Потік, що віддає байти в міру завантаження й закінчується разом із ним
+        public InputStream openStream() {
+            return new FollowingStream();
+        }
+
+        private final class FollowingStream extends InputStream {
+            private FileChannel channel;
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                int read = read(one, 0, 1);
+                return read < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int count) throws IOException {
+                if (count == 0) {
+                    return 0;
+                }
+                long available;
+                Path source;
+                synchronized (Download.this) {
+                    try {
+                        while (!done && (!begun || written <= position)) {
+                            Download.this.wait();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Читання кліпу перервано", e);
+                    }
+                    if (error != null) {
+                        throw error;
+                    }
+                    available = done ? Long.MAX_VALUE : written - position;
+                    source = done ? file : part;
+                }
+
+                if (channel == null) {
+                    try {
+                        channel = FileChannel.open(source, StandardOpenOption.READ);
+                    } catch (NoSuchFileException e) {
+                        // Недокачаний файл щойно перейменовано - читаємо готовий
+                        synchronized (Download.this) {
+                            source = file != null ? file : source;
+                        }
+                        channel = FileChannel.open(source, StandardOpenOption.READ);
+                    }
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(count, available)), position);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package qirim.app.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Звідки кеш бере кліпи: каталог ClipStore (file:) або HTTP (http:, https:), адреса кліпу - база + хеш
+public interface ClipSource {
+
+    Clip open(String hash) throws IOException;
+
+    // Тіло відповіді читається потоком; length - розмір у байтах або -1, якщо невідомий
+    final class Clip implements AutoCloseable {
+        public final InputStream body;
+        public final long length;
+
+        public Clip(InputStream body, long length) {
+            this.body = body;
+            this.length = length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+
+    static ClipSource forUri(URI base) {
+        if ("file".equals(base.getScheme())) {
+            ClipStore store = new ClipStore(Path.of(base));
+            return hash -> {
+                Path path = store.path(hash);
+                if (!Files.isRegularFile(path)) {
+                    throw new NoSuchFileException(path.toString());
+                }
+                return new Clip(Files.newInputStream(path), Files.size(path));
+            };
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        return hash -> {
+            HttpRequest request = HttpRequest.newBuilder(base.resolve(hash))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response;
+            try {
+                response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Завантаження кліпу перервано", e);
+            }
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new IOException("Кліп " + hash + ": HTTP " + response.statusCode());
+            }
+            long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            return new Clip(response.body(), length);
+        };
+    }
+}
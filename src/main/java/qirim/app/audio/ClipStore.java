@@ -0,0 +1,71 @@
+package qirim.app.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Сховище кліпів з адресацією за вмістом: файл зветься SHA-256 свого вмісту й лежить у
+// підкаталозі з перших двох символів хешу. Той самий кліп зберігається один раз, а вміст
+// за хешем ніколи не змінюється, тож клієнти можуть кешувати його без перевірок свіжості.
+public final class ClipStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public ClipStore(Path root) {
+        this.root = root;
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    public Path path(String hash) {
+        if (!isHash(hash)) {
+            throw new IllegalArgumentException("Некоректний хеш кліпу: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean contains(String hash) {
+        return isHash(hash) && Files.isRegularFile(path(hash));
+    }
+
+    // Зберігає вміст і повертає його хеш; наявний кліп не переписується
+    public String put(InputStream in) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package qirim.app.audio;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Локальний HTTP лише на 127.0.0.1 для програвача JavaFX: Media вміє грати http-адресу, поки вона
+// ще завантажується, але не довільний InputStream. Сервер віддає кліп з кешу або з незавершеного
+// завантаження, тож відтворення починається з перших байтів, а кліп однаково качається один раз.
+public final class LocalClipServer {
+
+    private static final Logger logger = Logger.getLogger(LocalClipServer.class.getName());
+
+    private static final String CONTEXT = "/clip/";
+    private static final long HEADERS_TIMEOUT_MS = 10_000;
+
+    private final AudioCache cache;
+    private final String contentType;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public LocalClipServer(AudioCache cache, String contentType) throws IOException {
+        this.cache = cache;
+        this.contentType = contentType;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+        this.executor = Executors.newFixedThreadPool(4, r -> {
+            Thread thread = new Thread(r, "audio-local-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext(CONTEXT, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public URI uri(String hash) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + CONTEXT + hash);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String hash = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            if (!ClipStore.isHash(hash) || !"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            InputStream in;
+            long length;
+            Path file = cache.cached(hash);
+            if (file != null) {
+                in = Files.newInputStream(file);
+                length = Files.size(file);
+            } else {
+                AudioCache.Download download = cache.fetch(hash);
+                try {
+                    length = download.awaitLength(HEADERS_TIMEOUT_MS);
+                } catch (IOException e) {
+                    exchange.sendResponseHeaders(502, -1);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                in = download.openStream();
+            }
+
+            try (in; OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                // Без довжини - chunked, програвач однаково грає потоком
+                exchange.sendResponseHeaders(200, length > 0 ? length : 0);
+                in.transferTo(out);
+            } catch (IOException e) {
+                // Програвач закрив з'єднання (зупинка, перехід до іншого запитання)
+                logger.log(Level.FINE, "Передачу кліпу " + hash + " перервано", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package qirim.app.concurrent;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Зливає запити за різними ключами однієї групи (наприклад, уроки одного користувача) в пакетні запити.
+// Вікно збирання - час поточного запиту групи: поки він виконується, нові ключі накопичуються
+// в наступному пакеті, і той іде одним запитом одразу після першого. Самотній викликач не чекає
+// жодного таймера; ключ, який уже є в поточному пакеті, просто отримує його результат.
+public final class BatchCoalescer<G, K, V> {
+
+    public interface BatchLoader<G, K, V> {
+        // Ключів без значення у відповіді може не бути - для них get поверне null
+        Map<K, V> load(G group, Set<K> keys) throws SQLException;
+    }
+
+    private static final class Batch<K, V> {
+        final Set<K> keys = new HashSet<>();
+        final CompletableFuture<Map<K, V>> result = new CompletableFuture<>();
+    }
+
+    private static final class GroupState<K, V> {
+        Batch<K, V> running;
+        Batch<K, V> pending;
+        boolean retired;
+    }
+
+    private final ConcurrentHashMap<G, GroupState<K, V>> groups = new ConcurrentHashMap<>();
+    private final BatchLoader<G, K, V> loader;
+    private final int maxBatchSize;
+
+    public BatchCoalescer(BatchLoader<G, K, V> loader, int maxBatchSize) {
+        this.loader = loader;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public V get(G group, K key) throws SQLException {
+        while (true) {
+            GroupState<K, V> state = groups.computeIfAbsent(group, g -> new GroupState<>());
+            Batch<K, V> wait;
+            Batch<K, V> run = null;
+            Batch<K, V> after = null;
+            synchronized (state) {
+                if (state.retired) {
+                    continue;
+                }
+                if (state.running == null) {
+                    run = new Batch<>();
+                    run.keys.add(key);
+                    state.running = run;
+                    wait = run;
+                } else if (state.running.keys.contains(key)) {
+                    wait = state.running;
+                } else if (state.pending != null && (state.pending.keys.contains(key)
+                        || state.pending.keys.size() < maxBatchSize)) {
+                    state.pending.keys.add(key);
+                    wait = state.pending;
+                } else if (state.pending == null) {
+                    // Той, хто відкрив наступний пакет, і виконає його після поточного
+                    state.pending = new Batch<>();
+                    state.pending.keys.add(key);
+                    run = state.pending;
+                    after = state.running;
+                    wait = run;
+                } else {
+                    wait = null;
+                }
+            }
+
+            if (wait == null) {
+                // Наступний пакет уже повний: окремий запит за одним ключем
+                return loader.load(group, Collections.singleton(key)).get(key);
+            }
+            if (run != null) {
+                execute(group, state, run, after);
+            }
+            try {
+                return SingleFlight.await(wait.result).get(key);
+            } catch (SQLException e) {
+                if (run != wait && SingleFlight.retryAfter(e)) {
+                    continue;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void execute(G group, GroupState<K, V> state, Batch<K, V> batch, Batch<K, V> after) {
+        if (after != null) {
+            // Завершуючись, попередній пакет сам робить цей поточним
+            after.result.exceptionally(e -> null).join();
+        }
+
+        Set<K> keys;
+        synchronized (state) {
+            keys = new HashSet<>(batch.keys);
+        }
+        Map<K, V> values = null;
+        Throwable failure = null;
+        try {
+            values = loader.load(group, keys);
+        } catch (SQLException | RuntimeException e) {
+            failure = e;
+        }
+
+        // Наступний пакет стає поточним до того, як його виконавець прокинеться: після цього ключів у ньому не додається
+        synchronized (state) {
+            state.running = state.pending;
+            state.pending = null;
+            if (state.running == null) {
+                state.retired = true;
+                groups.remove(group, state);
+            }
+        }
+        if (failure != null) {
+            batch.result.completeExceptionally(failure);
+        } else {
+            batch.result.complete(values);
+        }
+    }
+}
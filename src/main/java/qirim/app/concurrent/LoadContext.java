@@ -0,0 +1,137 @@
+package qirim.app.concurrent;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+// Скасування і дедлайн одного завантаження. Поки код виконується в call, контекст доступний
+// через current(): DatabaseServices ставить запитам таймаут за дедлайном і реєструє
+// Statement.cancel як хук, тож cancel() зупиняє і ще не почату, і вже відправлену в БД роботу.
+public final class LoadContext {
+
+    // SQLSTATE query_canceled у PostgreSQL; так само позначаються скасування до відправки запиту
+    public static final String CANCELLED_STATE = "57014";
+
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    private static final ThreadLocal<LoadContext> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final long deadlineNanos;
+    private final List<Runnable> cancelHooks = new ArrayList<>();
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+
+    // timeoutMillis <= 0 - без дедлайну
+    public LoadContext(String name, long timeoutMillis) {
+        this.name = name;
+        this.deadlineNanos = timeoutMillis > 0 ? System.nanoTime() + timeoutMillis * 1_000_000L : 0;
+    }
+
+    // null поза будь-яким завантаженням
+    public static LoadContext current() {
+        return CURRENT.get();
+    }
+
+    public static boolean currentCancelled() {
+        LoadContext context = CURRENT.get();
+        return context != null && context.isCancelled();
+    }
+
+    public static boolean isCancellation(SQLException e) {
+        return CANCELLED_STATE.equals(e.getSQLState());
+    }
+
+    // Рівень журналу для помилки запиту: скасування при переході з екрана - не збій, дедлайн - попередження
+    public static Level failureLevel(SQLException e, Level otherwise) {
+        if (currentCancelled()) {
+            return Level.FINE;
+        }
+        return isCancellation(e) ? Level.WARNING : otherwise;
+    }
+
+    public <T> T call(SqlCall<T> work) throws SQLException {
+        LoadContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            check();
+            return work.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            synchronized (cancelHooks) {
+                cancelHooks.clear();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Скасовано явно (екран закрито), а не за дедлайном
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isExpired() {
+        return expired || (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    // Long.MAX_VALUE, якщо дедлайну немає
+    public long remainingMillis() {
+        if (deadlineNanos == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    public void cancel() {
+        cancelled = true;
+        runHooks();
+    }
+
+    // Викликає планувальник дедлайнів: запити зупиняються так само, як при скасуванні
+    public void expire() {
+        expired = true;
+        runHooks();
+    }
+
+    public void check() throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Завантаження \"" + name + "\" скасовано", CANCELLED_STATE);
+        }
+        if (isExpired()) {
+            throw new SQLTimeoutException("Дедлайн завантаження \"" + name + "\" минув", CANCELLED_STATE);
+        }
+    }
+
+    // Якщо контекст уже скасовано, хук виконується одразу
+    public void onCancel(Runnable hook) {
+        synchronized (cancelHooks) {
+            if (!cancelled && !expired) {
+                cancelHooks.add(hook);
+                return;
+            }
+        }
+        hook.run();
+    }
+
+    private void runHooks() {
+        List<Runnable> hooks;
+        synchronized (cancelHooks) {
+            hooks = new ArrayList<>(cancelHooks);
+            cancelHooks.clear();
+        }
+        for (Runnable hook : hooks) {
+            hook.run();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package qirim.app.concurrent;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Однакові одночасні запити за ключем виконуються один раз: перший викликач іде в БД,
+// решта чекає на його результат. Після завершення ключ звільняється - результат не кешується.
+// Якщо перший викликач скасував свій запит, решта не отримує його скасування, а повторює запит.
+public final class SingleFlight<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        while (true) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                try {
+                    return await(running);
+                } catch (SQLException e) {
+                    if (retryAfter(e)) {
+                        continue;
+                    }
+                    throw e;
+                }
+            }
+
+            // Ключ звільняється до того, як чекачі прокинуться, щоб повторна спроба не знайшла той самий результат
+            try {
+                V value = loader.load(key);
+                inFlight.remove(key, mine);
+                mine.complete(value);
+                return value;
+            } catch (SQLException | RuntimeException e) {
+                inFlight.remove(key, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    // Чужий запит скасовано (його екран закрито чи минув його дедлайн), а наш - ні: пробуємо самі
+    static boolean retryAfter(SQLException e) {
+        LoadContext context = LoadContext.current();
+        return LoadContext.isCancellation(e) && (context == null || (!context.isCancelled() && !context.isExpired()));
+    }
+
+    // Кількість ключів, що зараз завантажуються
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    static <V> V await(CompletableFuture<V> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
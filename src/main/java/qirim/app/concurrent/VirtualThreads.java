@@ -0,0 +1,22 @@
+package qirim.app.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor з'являється лише в JDK 21, проєкт компілюється під 17;
+    // null, якщо JVM старша
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package qirim.app.controllers;
+
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import qirim.app.diagnostics.FxStallDetector;
+import qirim.app.logging.Log;
+import qirim.app.model.Flashcard;
+import qirim.app.model.Theme;
+import qirim.app.services.FlashcardDrill;
+import qirim.app.services.FlashcardService;
+import qirim.app.services.QueryClass;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Екран карток: колода обраних тем вантажиться один раз, далі вся сесія - без звернень до БД.
+// Підсумок зберігається одним пакетом наприкінці або при поверненні на головну.
+public class FlashcardController {
+
+    private static final Logger logger = Logger.getLogger(FlashcardController.class.getName());
+
+    @FXML private Label progressLabel;
+    @FXML private VBox setupBox;
+    @FXML private Pane themeChoices;
+    @FXML private Button startButton;
+    @FXML private VBox cardBox;
+    @FXML private Label frontLabel;
+    @FXML private Label backLabel;
+    @FXML private Button revealButton;
+    @FXML private HBox answerButtons;
+    @FXML private Label messageLabel;
+
+    private int userId = -1;
+    private int themeIndex = 0;
+    private final List<CheckBox> themeBoxes = new ArrayList<>();
+    private FlashcardDrill drill;
+    private boolean saved;
+
+    // Колода завантажується у фоні й скасовується при поверненні на головну
+    private final ScreenLoads loads = new ScreenLoads("flashcards");
+
+    @FXML
+    public void initialize() {
+        FxStallDetector.enterScreen("flashcards");
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+        Log.fine(logger, "Встановлено користувача", "userId", userId);
+    }
+
+    // Поточна тема головного екрана обрана заздалегідь
+    public void setThemes(List<Theme> themes, int themeIndex) {
+        this.themeIndex = themeIndex;
+        themeChoices.getChildren().clear();
+        themeBoxes.clear();
+        for (int i = 0; i < themes.size(); i++) {
+            Theme theme = themes.get(i);
+            CheckBox box = new CheckBox(theme.getName());
+            box.setUserData(theme.getThemeId());
+            box.setSelected(i == themeIndex);
+            box.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
+            themeBoxes.add(box);
+            themeChoices.getChildren().add(box);
+        }
+    }
+
+    @FXML
+    private void handleStart(ActionEvent event) {
+        List<Integer> themeIds = new ArrayList<>();
+        for (CheckBox box : themeBoxes) {
+            if (box.isSelected()) {
+                themeIds.add((Integer) box.getUserData());
+            }
+        }
+        if (themeIds.isEmpty()) {
+            messageLabel.setText("Оберіть хоча б одну тему.");
+            return;
+        }
+
+        startButton.setDisable(true);
+        messageLabel.setText("Завантаження карток...");
+        int requestedUser = userId;
+        loads.submit("deck", QueryClass.CONTENT, () -> FlashcardService.loadDeck(requestedUser, themeIds),
+                this::startDrill, e -> {
+                    logger.log(Level.SEVERE, "Помилка при завантаженні карток", e);
+                    startButton.setDisable(false);
+                    messageLabel.setText("Помилка: Не вдалося завантажити картки.");
+                });
+    }
+
+    private void startDrill(List<Flashcard> deck) {
+        startButton.setDisable(false);
+        if (deck.isEmpty()) {
+            messageLabel.setText("У вибраних темах немає карток.");
+            return;
+        }
+        drill = FlashcardService.startDrill(deck);
+        saved = false;
+        messageLabel.setText("");
+        setupBox.setVisible(false);
+        setupBox.setManaged(false);
+        cardBox.setVisible(true);
+        cardBox.setManaged(true);
+        Log.info(logger, "Почато сесію карток", "userId", userId, "deck", deck.size(), "cards", drill.getCardCount());
+        showCard();
+    }
+
+    private void showCard() {
+        Flashcard card = drill.current();
+        if (card == null) {
+            finishDrill();
+            return;
+        }
+        progressLabel.setText("Картка " + drill.getPosition() + " з " + drill.getTotal());
+        frontLabel.setText(card.getFront());
+        backLabel.setText(card.getBack());
+        backLabel.setVisible(false);
+        revealButton.setVisible(true);
+        revealButton.setManaged(true);
+        answerButtons.setVisible(false);
+        answerButtons.setManaged(false);
+    }
+
+    @FXML
+    private void handleReveal(ActionEvent event) {
+        backLabel.setVisible(true);
+        revealButton.setVisible(false);
+        revealButton.setManaged(false);
+        answerButtons.setVisible(true);
+        answerButtons.setManaged(true);
+    }
+
+    @FXML
+    private void handleKnew(ActionEvent event) {
+        drill.answer(true);
+        showCard();
+    }
+
+    @FXML
+    private void handleMissed(ActionEvent event) {
+        drill.answer(false);
+        showCard();
+    }
+
+    private void finishDrill() {
+        cardBox.setVisible(false);
+        cardBox.setManaged(false);
+        progressLabel.setText("");
+        FlashcardDrill finished = drill;
+        String summary = String.format("Сесію завершено!%nЗнали: %d, не знали: %d",
+                finished.getKnownAnswers(), finished.getMissedAnswers());
+        messageLabel.setText(summary);
+        setupBox.setVisible(true);
+        setupBox.setManaged(true);
+
+        saveResults().thenAccept(stored -> Platform.runLater(() -> {
+            // Підсумок лише цієї сесії: за час запису могла початися нова
+            if (!stored && drill == finished) {
+                messageLabel.setText(summary + System.lineSeparator() + "Результат буде збережено пізніше.");
+            }
+        }));
+    }
+
+    // Пакет пишеться у фоновому потоці FlashcardService, тож FX-потік не чекає на БД; запис не належить
+    // ScreenLoads цього екрана і не скасовується, коли користувач іде на головну
+    private CompletableFuture<Boolean> saveResults() {
+        if (drill == null || saved || userId <= 0) {
+            return CompletableFuture.completedFuture(true);
+        }
+        saved = true;
+        return FlashcardService.saveResultsAsync(userId, drill);
+    }
+
+    @FXML
+    public void goBackToHome(ActionEvent actionEvent) {
+        loads.cancelAll();
+        // Перервана сесія зберігає те, на що вже відповіли; перехід на запис не чекає
+        saveResults();
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/home.fxml"));
+            Parent root = loader.load();
+
+            HomeController homeController = loader.getController();
+
+            if (userId > 0) {
+                homeController.setCurrentUserId(userId);
+                homeController.setCurrentThemeIndex(themeIndex);
+                Log.info(logger, "Повернення на головну", "userId", userId, "themeIndex", themeIndex);
+            } else {
+                logger.warning("userId не встановлено в FlashcardController!");
+            }
+
+            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
+            stage.setScene(new Scene(root));
+            stage.setFullScreen(true);
+            stage.show();
+
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Помилка завантаження home.fxml", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package qirim.app.controllers;
 
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -9,21 +10,34 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import qirim.app.diagnostics.FxStallDetector;
+import qirim.app.logging.Log;
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
 import qirim.app.model.LeaderboardEntry;
+import qirim.app.model.Lesson;
+import qirim.app.model.LessonResult;
+import qirim.app.model.Theme;
 import qirim.app.model.UserProgress;
-import qirim.app.services.DatabaseServices;
+import qirim.app.model.UserStats;
+import qirim.app.search.SearchIndex;
+import qirim.app.services.CourseService;
+import qirim.app.services.GroupService;
+import qirim.app.services.QueryClass;
+import qirim.app.services.SearchService;
+import qirim.app.services.SessionService;
+import qirim.app.services.StreakService;
 import qirim.app.services.UserProgressService;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,6 +47,7 @@ public class HomeController {
     private static final Logger logger = Logger.getLogger(HomeController.class.getName());
 
     @FXML private VBox centerArea;
+    @FXML private TextField searchField;
     @FXML private VBox lessonsList;
     @FXML private Label topicLabel;
     @FXML private Button prevTopicButton;
@@ -44,51 +59,94 @@ public class HomeController {
     @FXML private TableView<LeaderboardEntry> leaderboard;
     @FXML private TableColumn<LeaderboardEntry, String> nameColumn;
     @FXML private TableColumn<LeaderboardEntry, Integer> scoreColumn;
+    @FXML private ComboBox<GroupSummary> leaderboardScope;
+    @FXML private Label groupSummaryLabel;
+
+    // Перший пункт списку - загальна таблиця лідерів, далі класи користувача
+    private static final GroupSummary ALL_USERS = new GroupSummary(0, "Усі", 0, 0, 0, 0, 0);
+    // Id класу, чия таблиця показана або завантажується (0 - загальна); setValue у перемикачі теж шле ActionEvent
+    private int shownScopeId;
 
     private ObservableList<Node> originalCenterChildren;
 
-    private int currentUserId;
+    // Показані зараз рядки: нові знімки порівнюються з ними, і в таблицю та список уроків
+    // потрапляють лише вставки, перестановки й змінені рядки (без повної перебудови й перекомпонування)
+    private final ObservableList<LeaderboardEntry> leaderboardItems = FXCollections.observableArrayList();
+    private final List<LeaderboardEntry> shownLeaders = new ArrayList<>();
+    private final List<LessonState> shownLessons = new ArrayList<>();
+    private final ListDiff.Sink<LessonState> lessonButtons = new ListDiff.Sink<LessonState>() {
+        @Override
+        public void insert(int index, LessonState state) {
+            lessonsList.getChildren().add(index, createLessonButton(state));
+        }
 
-    public void setCurrentThemeIndex(int themeIndex) {
-        this.currentThemeIndex = themeIndex;
-        logger.info("CurrentThemeIndex встановлено: " + themeIndex);
+        @Override
+        public void remove(int index) {
+            lessonsList.getChildren().remove(index);
+        }
 
-        if (!themesList.isEmpty() && themeIndex >= 0 && themeIndex < themesList.size()) {
-            updateCenterContent(themeIndex);
+        @Override
+        public void replace(int index, LessonState state) {
+            applyLessonState((Button) lessonsList.getChildren().get(index), state);
         }
-    }
+    };
 
-    private static class Lesson {
-        int lessonId;
-        String title;
-        int lessonNumber;
+    // Стан кнопки уроку; ключ для ListDiff - lessonId
+    private static final class LessonState {
+        final Lesson lesson;
+        final boolean completed;
 
-        public Lesson(int lessonId, String title, int lessonNumber) {
-            this.lessonId = lessonId;
-            this.title = title;
-            this.lessonNumber = lessonNumber;
+        LessonState(Lesson lesson, boolean completed) {
+            this.lesson = lesson;
+            this.completed = completed;
+        }
+
+        int key() {
+            return lesson.getLessonId();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LessonState)) {
+                return false;
+            }
+            LessonState other = (LessonState) o;
+            return lesson.getLessonId() == other.lesson.getLessonId() && completed == other.completed
+                    && lesson.getTitle().equals(other.lesson.getTitle());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lesson.getLessonId(), completed);
         }
     }
 
-    private static class Theme {
-        int themeId;
-        String name;
-        int themeNumber;
-        List<Lesson> lessons;
+    private int currentUserId;
 
-        public Theme(int themeId, String name, int themeNumber, List<Lesson> lessons) {
-            this.themeId = themeId;
-            this.name = name;
-            this.themeNumber = themeNumber;
-            this.lessons = lessons;
+    // Завантаження цього екрана; скасовуються при переході на інший екран
+    private final ScreenLoads loads = new ScreenLoads("home");
+    // Останній відомий стан уроків: при гортанні тем кнопки одразу показують його, поки йде свіжий запит
+    private final Map<Integer, LessonResult> knownResults = new HashMap<>();
+
+    public void setCurrentThemeIndex(int themeIndex) {
+        this.currentThemeIndex = themeIndex;
+        Log.fine(logger, "Встановлено тему", "themeIndex", themeIndex);
+
+        if (!themesList.isEmpty() && themeIndex >= 0 && themeIndex < themesList.size()) {
+            updateCenterContent(themeIndex);
         }
     }
 
     private List<Theme> themesList = new ArrayList<>();
     private int currentThemeIndex = 0;
 
+    // Для переходу з результату пошуку: урок і індекс теми, до якої він належить
+    private final Map<Integer, Lesson> lessonsById = new HashMap<>();
+    private final Map<Integer, Integer> themeIndexByLesson = new HashMap<>();
+
     @FXML
     public void initialize() {
+        FxStallDetector.enterScreen("home");
         originalCenterChildren = FXCollections.observableArrayList();
         originalCenterChildren.addAll(centerArea.getChildren());
 
@@ -97,66 +155,170 @@ public class HomeController {
         }
 
         themesList = loadThemesFromDB();
+        for (int i = 0; i < themesList.size(); i++) {
+            for (Lesson lesson : themesList.get(i).getLessons()) {
+                lessonsById.put(lesson.getLessonId(), lesson);
+                themeIndexByLesson.put(lesson.getLessonId(), i);
+            }
+        }
 
         if (!themesList.isEmpty()) {
             updateCenterContent(currentThemeIndex);
+            SearchService.indexCourseAsync(themesList);
         } else {
             topicLabel.setText("Помилка: Теми курсу не знайдено в базі даних.");
             prevTopicButton.setDisable(true);
             nextTopicButton.setDisable(true);
         }
 
-        if (userNameLabel != null || streakLabel != null || progressBar != null) {
+        // Дані користувача завантажить setCurrentUserId: тут id ще 0, і запити були б зайвими
+        if (currentUserId != 0 && (userNameLabel != null || streakLabel != null || progressBar != null)) {
             loadUserData();
         }
+
+        if (searchField != null) {
+            searchField.textProperty().addListener((observable, oldText, newText) -> showSearchResults(newText));
+        }
+    }
+
+    private void showSearchResults(String query) {
+        if (query == null || query.isBlank()) {
+            if (!themesList.isEmpty()) {
+                updateCenterContent(currentThemeIndex);
+            }
+            return;
+        }
+
+        clearLessonsList();
+        List<SearchIndex.Hit> hits = SearchService.search(query, 8);
+        if (hits.isEmpty()) {
+            Label noResultsLabel = new Label("Нічого не знайдено");
+            noResultsLabel.setStyle("-fx-text-fill: #666; -fx-font-style: italic;");
+            lessonsList.getChildren().add(noResultsLabel);
+            return;
+        }
+
+        for (SearchIndex.Hit hit : hits) {
+            Lesson lesson = lessonsById.get(hit.lessonId);
+            if (lesson == null) {
+                continue;
+            }
+            String text = hit.kind == SearchIndex.Kind.LESSON ? hit.text : hit.text + " (" + lesson.getTitle() + ")";
+            Button resultButton = new Button(text);
+            resultButton.setPrefWidth(450);
+            resultButton.getStyleClass().add("lesson-button-inactive");
+            resultButton.setUserData(lesson);
+            resultButton.setOnAction(event -> {
+                currentThemeIndex = themeIndexByLesson.get(hit.lessonId);
+                openLesson(event);
+            });
+            lessonsList.getChildren().add(resultButton);
+        }
     }
 
     private void setupLeaderboard() {
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
-        scoreColumn.setCellValueFactory(new PropertyValueFactory<>("totalScore"));
+        // Типізовані фабрики замість PropertyValueFactory: без рефлексії на кожну клітинку
+        nameColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getUsername()));
+        scoreColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getTotalScore()));
 
         leaderboard.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        leaderboard.setItems(leaderboardItems);
         loadLeaderboardData();
     }
 
+    // Загальна таблиця і таблиця класу ділять слот: діє лише останній обраний варіант
     private void loadLeaderboardData() {
-        try {
-            List<LeaderboardEntry> leaders = UserProgressService.getLeaderboard(10);
-            ObservableList<LeaderboardEntry> leaderboardData = FXCollections.observableArrayList(leaders);
-            leaderboard.setItems(leaderboardData);
+        loads.submit("leaderboard", QueryClass.INTERACTIVE, () -> UserProgressService.getLeaderboard(10), leaders -> {
+            showLeaders(leaders);
             logger.info("Таблиця лідерів оновлена");
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Не вдалося завантажити таблицю лідерів", e);
-        }
+        }, null);
     }
 
-    private void loadUserData() {
-        try {
-            if (userNameLabel != null) {
-                String username = getUsernameById(currentUserId);
-                userNameLabel.setText("Merhaba, " + username + "!");
+    // Рядок таблиці лідерів ідентифікує ім'я користувача
+    private void showLeaders(List<LeaderboardEntry> leaders) {
+        int changes = ListDiff.apply(shownLeaders, leaders, LeaderboardEntry::getUsername, ListDiff.into(leaderboardItems));
+        Log.fine(logger, "Таблиця лідерів: змін", "changes", changes);
+    }
+
+    // Перемикач з'являється лише в учасників і вчителів класів
+    private void loadUserGroups() {
+        int userId = currentUserId;
+        loads.submit("groups", QueryClass.INTERACTIVE, () -> GroupService.getUserGroups(userId), this::showUserGroups, null);
+    }
+
+    private void showUserGroups(List<GroupSummary> groups) {
+        boolean hasGroups = !groups.isEmpty();
+        leaderboardScope.setVisible(hasGroups);
+        leaderboardScope.setManaged(hasGroups);
+
+        ObservableList<GroupSummary> scopes = FXCollections.observableArrayList();
+        scopes.add(ALL_USERS);
+        scopes.addAll(groups);
+        leaderboardScope.setItems(scopes);
+        leaderboardScope.setValue(ALL_USERS);
+        showGroupSummary(null);
+    }
+
+    @FXML
+    public void handleLeaderboardScope(ActionEvent event) {
+        GroupSummary scope = leaderboardScope.getValue();
+        int scopeId = scope == null ? ALL_USERS.getGroupId() : scope.getGroupId();
+        if (scopeId == shownScopeId) {
+            return;
+        }
+        shownScopeId = scopeId;
+        if (scopeId == ALL_USERS.getGroupId()) {
+            showGroupSummary(null);
+            loadLeaderboardData();
+            return;
+        }
+
+        loads.submit("leaderboard", QueryClass.INTERACTIVE, () -> GroupService.getDashboard(scope.getGroupId()), dashboard -> {
+            if (dashboard == null) {
+                showGroupSummary(null);
+                showLeaders(new ArrayList<>());
+                return;
             }
+            showLeaders(dashboard.getLeaderboard());
+            showGroupSummary(dashboard.getSummary());
+            Log.fine(logger, "Таблиця лідерів класу оновлена", "groupId", scope.getGroupId());
+        }, null);
+    }
+
+    private void showGroupSummary(GroupSummary summary) {
+        if (groupSummaryLabel == null) {
+            return;
+        }
+        groupSummaryLabel.setVisible(summary != null);
+        groupSummaryLabel.setManaged(summary != null);
+        if (summary != null) {
+            groupSummaryLabel.setText(String.format("Учнів: %d · пройдено в середньому %.1f%% · стріків: %d",
+                    summary.getMembers(), summary.getAverageCompletion(), summary.getActiveStreaks()));
+        }
+    }
 
-            if (streakLabel != null) {
-                UserProgressService.UserStats stats = UserProgressService.getUserStats(currentUserId);
+    // Три незалежні запити паралельно; кожен оновлює свою частину екрана, щойно готовий
+    private void loadUserData() {
+        int userId = currentUserId;
+        if (userNameLabel != null) {
+            loads.submit("username", QueryClass.INTERACTIVE, () -> UserProgressService.getUsername(userId),
+                    username -> userNameLabel.setText("Merhaba, " + username + "!"), null);
+        }
 
+        if (streakLabel != null) {
+            loads.submit("stats", QueryClass.INTERACTIVE, () -> UserProgressService.getUserStats(userId), stats -> {
                 if (stats.currentStreak > 0) {
                     streakLabel.setText("🔥 " + stats.currentStreak + " " + getDaysWord(stats.currentStreak));
 
                 } else {
                     streakLabel.setText("🔥 Почніть виконувати уроки!");
                 }
-            }
-
-            if (progressBar != null) {
-                UserProgress progress = UserProgressService.getUserProgress(currentUserId);
-                progressBar.setProgress(progress.getProgressDecimal());
-            }
-
-            logger.info("Дані користувача завантажено");
+            }, null);
+        }
 
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Помилка при завантаженні даних користувача", e);
+        if (progressBar != null) {
+            loads.submit("progress", QueryClass.INTERACTIVE, () -> UserProgressService.getUserProgress(userId),
+                    progress -> progressBar.setProgress(progress.getProgressDecimal()), null);
         }
     }
 
@@ -170,56 +332,29 @@ public class HomeController {
         }
     }
 
-    private String getUsernameById(int userId) {
-        String sql = "SELECT username FROM users WHERE id = ?";
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("username");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при отриманні імені користувача", e);
-        }
-
-        return "Користувач";
-    }
-
     public void setCurrentUserId(int userId) {
         this.currentUserId = userId;
-        logger.info("HomeController: currentUserId встановлено = " + userId);
+        Log.fine(logger, "Встановлено користувача", "userId", userId);
 
-        UserProgressService.checkAndResetStreakIfNeeded(userId);
+        StreakService.resetIfStaleAsync(userId);
 
         if (userNameLabel != null || streakLabel != null || progressBar != null) {
             loadUserData();
         }
 
+        if (leaderboardScope != null && leaderboard != null) {
+            loadUserGroups();
+        }
+
         if (!themesList.isEmpty()) {
             updateCenterContent(currentThemeIndex);
         }
     }
 
+    // Без тем екран порожній, тож вони вантажаться одразу, але не довше за дедлайн вмісту курсу
     private List<Theme> loadThemesFromDB() {
-        List<Theme> loadedThemes = new ArrayList<>();
-        String themesQuery = "SELECT theme_id, theme_name, theme_number FROM themes ORDER BY theme_number";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(themesQuery);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                int themeId = rs.getInt("theme_id");
-                String themeName = rs.getString("theme_name");
-                int themeNumber = rs.getInt("theme_number");
-
-                List<Lesson> lessons = loadLessonsForTheme(conn, themeId);
-                loadedThemes.add(new Theme(themeId, themeName, themeNumber, lessons));
-            }
-
-            logger.info("Успішно завантажено " + loadedThemes.size() + " тем з бази даних.");
-
+        try {
+            return QueryClass.CONTENT.call("home/themes", CourseService::loadThemes);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Помилка при завантаженні тем з БД.", e);
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
@@ -227,34 +362,8 @@ public class HomeController {
             errorAlert.setHeaderText("Не вдалося завантажити структуру курсу.");
             errorAlert.setContentText("Перевірте підключення до бази даних та наявність таблиці 'themes'.");
             errorAlert.showAndWait();
+            return new ArrayList<>();
         }
-
-        return loadedThemes;
-    }
-
-    private List<Lesson> loadLessonsForTheme(Connection conn, int themeId) {
-        List<Lesson> lessons = new ArrayList<>();
-        String lessonsQuery = "SELECT lesson_id, lesson_name, lesson_number FROM lessons WHERE theme_id = ? ORDER BY lesson_number";
-
-        try (PreparedStatement stmt = conn.prepareStatement(lessonsQuery)) {
-            stmt.setInt(1, themeId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                int lessonId = rs.getInt("lesson_id");
-                String lessonName = rs.getString("lesson_name");
-                int lessonNumber = rs.getInt("lesson_number");
-
-                lessons.add(new Lesson(lessonId, lessonName, lessonNumber));
-            }
-
-            logger.info("Завантажено " + lessons.size() + " уроків для теми ID: " + themeId);
-
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при завантаженні уроків для теми ID: " + themeId, e);
-        }
-
-        return lessons;
     }
 
     @FXML
@@ -280,40 +389,70 @@ public class HomeController {
             centerArea.getChildren().setAll(originalCenterChildren);
         }
 
-        topicLabel.setText(currentTheme.name);
+        topicLabel.setText(currentTheme.getName());
         prevTopicButton.setDisable(index == 0);
         nextTopicButton.setDisable(index == themesList.size() - 1);
 
-        lessonsList.getChildren().clear();
-
-        if (currentTheme.lessons.isEmpty()) {
+        if (currentTheme.getLessons().isEmpty()) {
+            clearLessonsList();
             Label noLessonsLabel = new Label("Уроків для цієї теми ще не додано");
             noLessonsLabel.setStyle("-fx-text-fill: #666; -fx-font-style: italic;");
             lessonsList.getChildren().add(noLessonsLabel);
-        } else {
-            for (Lesson lesson : currentTheme.lessons) {
-                Button lessonButton = new Button(lesson.title);
-                lessonButton.setPrefWidth(250);
-
-                try {
-                    boolean completed = UserProgressService.isLessonCompleted(currentUserId, lesson.lessonId);
-                    if (completed) {
-                        lessonButton.setText(lesson.title + " ✓");
-                        lessonButton.getStyleClass().add("lesson-button-active");
-                    } else {
-                        lessonButton.getStyleClass().add("lesson-button-inactive");
-                    }
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "Не вдалося перевірити статус завершення уроку", e);
-                    lessonButton.getStyleClass().add("lesson-button-inactive");
-                }
+            return;
+        }
+
+        // У списку результати пошуку чи підпис - не кнопки уроків, тож порівнювати нема з чим
+        if (shownLessons.size() != lessonsList.getChildren().size()) {
+            clearLessonsList();
+        }
 
-                lessonButton.setOnAction(this::openLesson);
-                lessonButton.setUserData(lesson);
+        showLessons(currentTheme);
 
-                lessonsList.getChildren().add(lessonButton);
+        // Поки користувач невідомий (initialize до setCurrentUserId), уроки показуються без запиту до БД.
+        // При швидкому гортанні тем запит попередньої теми скасовується новим.
+        if (currentUserId != 0) {
+            int userId = currentUserId;
+            List<Integer> lessonIds = new ArrayList<>(currentTheme.getLessons().size());
+            for (Lesson lesson : currentTheme.getLessons()) {
+                lessonIds.add(lesson.getLessonId());
             }
+            loads.submit("lessons", QueryClass.INTERACTIVE, () -> UserProgressService.getLessonResults(userId, lessonIds), results -> {
+                knownResults.putAll(results);
+                if (themesList.get(currentThemeIndex) == currentTheme && shownLessons.size() == lessonsList.getChildren().size()) {
+                    showLessons(currentTheme);
+                }
+            }, null);
+        }
+    }
+
+    private void showLessons(Theme theme) {
+        List<LessonState> states = new ArrayList<>(theme.getLessons().size());
+        for (Lesson lesson : theme.getLessons()) {
+            LessonResult result = knownResults.getOrDefault(lesson.getLessonId(), LessonResult.NONE);
+            states.add(new LessonState(lesson, result.isCompleted()));
         }
+        ListDiff.apply(shownLessons, states, LessonState::key, lessonButtons);
+    }
+
+    private void clearLessonsList() {
+        lessonsList.getChildren().clear();
+        shownLessons.clear();
+    }
+
+    private Button createLessonButton(LessonState state) {
+        Button lessonButton = new Button();
+        lessonButton.setPrefWidth(250);
+        lessonButton.setOnAction(this::openLesson);
+        applyLessonState(lessonButton, state);
+        return lessonButton;
+    }
+
+    private static void applyLessonState(Button lessonButton, LessonState state) {
+        Lesson lesson = state.lesson;
+        lessonButton.setText(state.completed ? lesson.getTitle() + " ✓" : lesson.getTitle());
+        lessonButton.getStyleClass().removeAll("lesson-button-active", "lesson-button-inactive");
+        lessonButton.getStyleClass().add(state.completed ? "lesson-button-active" : "lesson-button-inactive");
+        lessonButton.setUserData(lesson);
     }
 
     @FXML
@@ -321,7 +460,8 @@ public class HomeController {
         Button sourceButton = (Button) event.getSource();
         Lesson selectedLesson = (Lesson) sourceButton.getUserData();
 
-        int lessonId = selectedLesson.lessonId;
+        int lessonId = selectedLesson.getLessonId();
+        loads.cancelAll();
 
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/quiz.fxml"));
@@ -337,8 +477,8 @@ public class HomeController {
             stage.setFullScreen(true);
             stage.show();
 
-            logger.info("Користувач перейшов до тесту: " + selectedLesson.title +
-                    " (Lesson ID: " + lessonId + ", Theme: " + currentThemeIndex + ")");
+            Log.info(logger, "Користувач перейшов до тесту", "lessonId", lessonId,
+                    "title", selectedLesson.getTitle(), "themeIndex", currentThemeIndex);
 
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Помилка завантаження quiz.fxml", e);
@@ -350,7 +490,39 @@ public class HomeController {
         }
     }
 
+    @FXML
+    public void openFlashcards(ActionEvent event) {
+        loads.cancelAll();
+
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/flashcards.fxml"));
+            Parent root = loader.load();
+
+            FlashcardController flashcardController = loader.getController();
+            flashcardController.setUserId(currentUserId);
+            flashcardController.setThemes(themesList, currentThemeIndex);
+
+            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+            stage.setScene(new Scene(root));
+            stage.setFullScreen(true);
+            stage.show();
+
+            Log.info(logger, "Користувач перейшов до карток", "themeIndex", currentThemeIndex);
+
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Помилка завантаження flashcards.fxml", e);
+            Alert errorAlert = new Alert(Alert.AlertType.ERROR);
+            errorAlert.setTitle("Помилка завантаження");
+            errorAlert.setHeaderText(null);
+            errorAlert.setContentText("Не вдалося завантажити інтерфейс карток.");
+            errorAlert.showAndWait();
+        }
+    }
+
     public void handleLogout(ActionEvent actionEvent) throws IOException {
+        loads.cancelAll();
+        SessionService.revoke();
+
         try {
             Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/qirim/app/login.fxml")));
             Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
@@ -0,0 +1,164 @@
+package qirim.app.controllers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Мінімальний набір змін між показаним і новим знімком списку з унікальними ключами.
+// Рядки, що лишаються на місці відносно один одного (найдовша зростаюча підпослідовність), не чіпаються;
+// решта переставляється (remove + insert), нові вставляються, зниклі видаляються, змінені - replace.
+// Оновлення без змін нічого не виділяє й не генерує подій у ObservableList.
+final class ListDiff {
+
+    interface Sink<S> {
+        void insert(int index, S item);
+
+        void remove(int index);
+
+        void replace(int index, S item);
+    }
+
+    private ListDiff() {
+    }
+
+    // Sink, що повторює зміни в іншому списку (наприклад, items таблиці), паралельному до shown
+    static <T> Sink<T> into(List<T> list) {
+        return new Sink<T>() {
+            @Override
+            public void insert(int index, T item) {
+                list.add(index, item);
+            }
+
+            @Override
+            public void remove(int index) {
+                list.remove(index);
+            }
+
+            @Override
+            public void replace(int index, T item) {
+                list.set(index, item);
+            }
+        };
+    }
+
+    // Приводить shown до next, передаючи кожну зміну в sink; повертає кількість змін.
+    // Вміст рядків порівнюється через equals, ключі - через key.
+    static <S> int apply(List<S> shown, List<? extends S> next, Function<? super S, ?> key, Sink<S> sink) {
+        if (sameKeys(shown, next, key)) {
+            int changes = 0;
+            for (int i = 0; i < next.size(); i++) {
+                S item = next.get(i);
+                if (!item.equals(shown.get(i))) {
+                    shown.set(i, item);
+                    sink.replace(i, item);
+                    changes++;
+                }
+            }
+            return changes;
+        }
+
+        Set<Object> stable = stableKeys(shown, next, key);
+        int changes = 0;
+        int i = 0;
+        while (i < next.size()) {
+            S wanted = next.get(i);
+            Object wantedKey = key.apply(wanted);
+            if (i < shown.size()) {
+                S current = shown.get(i);
+                Object currentKey = key.apply(current);
+                if (currentKey.equals(wantedKey)) {
+                    if (!current.equals(wanted)) {
+                        shown.set(i, wanted);
+                        sink.replace(i, wanted);
+                        changes++;
+                    }
+                    i++;
+                    continue;
+                }
+                // Зниклий або переставлений рядок: переставлений повернеться вставкою на своє нове місце
+                if (!stable.contains(currentKey)) {
+                    shown.remove(i);
+                    sink.remove(i);
+                    changes++;
+                    continue;
+                }
+            }
+            // Тут на місці i стабільний рядок, що йде далі, або кінець: wanted - новий чи переставлений
+            shown.add(i, wanted);
+            sink.insert(i, wanted);
+            changes++;
+            i++;
+        }
+        while (shown.size() > next.size()) {
+            int last = shown.size() - 1;
+            shown.remove(last);
+            sink.remove(last);
+            changes++;
+        }
+        return changes;
+    }
+
+    private static <S> boolean sameKeys(List<S> shown, List<? extends S> next, Function<? super S, ?> key) {
+        if (shown.size() != next.size()) {
+            return false;
+        }
+        for (int i = 0; i < next.size(); i++) {
+            if (!Objects.equals(key.apply(shown.get(i)), key.apply(next.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ключі рядків, які можна лишити на місці: найдовша підпослідовність shown, що йде в тому самому порядку в next
+    private static <S> Set<Object> stableKeys(List<S> shown, List<? extends S> next, Function<? super S, ?> key) {
+        Map<Object, Integer> nextIndex = new HashMap<>(next.size() * 2);
+        for (int i = 0; i < next.size(); i++) {
+            nextIndex.put(key.apply(next.get(i)), i);
+        }
+
+        int[] positions = new int[shown.size()];
+        int[] sequence = new int[shown.size()];
+        int count = 0;
+        for (int i = 0; i < shown.size(); i++) {
+            Integer position = nextIndex.get(key.apply(shown.get(i)));
+            if (position != null) {
+                sequence[count] = position;
+                positions[count] = i;
+                count++;
+            }
+        }
+
+        // Бінарний пошук за O(n log n): tails[l] - індекс у sequence найменшого кінця зростаючої підпослідовності довжини l + 1
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sequence[tails[mid]] < sequence[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        Set<Object> stable = new HashSet<>(length * 2);
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            stable.add(key.apply(shown.get(positions[i])));
+        }
+        return stable;
+    }
+}
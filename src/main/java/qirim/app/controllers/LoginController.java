@@ -9,14 +9,18 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import qirim.app.services.DatabaseServices;
-import org.mindrot.jbcrypt.BCrypt;
+import javafx.application.Platform;
+import qirim.app.diagnostics.FxStallDetector;
+import qirim.app.model.RegistrationResult;
+import qirim.app.services.AuthService;
+import qirim.app.services.CredentialsValidator;
+import qirim.app.services.SessionService;
 
 import java.io.IOException;
-import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,15 +38,7 @@ public class LoginController {
     @FXML private TextField registerEmailField;
     @FXML private Label passwordRequirementsLabel;
     @FXML private Label emailRequirementsLabel;
-
-    // Константи для валідації
-    private static final int MIN_PASSWORD_LENGTH = 8;
-    private static final Pattern UPPERCASE_PATTERN = Pattern.compile("[A-Z]");
-    private static final Pattern LOWERCASE_PATTERN = Pattern.compile("[a-z]");
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("\\d");
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$"
-    );
+    @FXML private CheckBox rememberMeCheckBox;
 
     // КОЛЬОРИ ДИЗАЙНУ (ВІДПОВІДАЮТЬ FXML)
     private static final String STYLE_COLOR_SUCCESS = "#28a745";
@@ -64,8 +60,12 @@ public class LoginController {
     private String originalPasswordStyle = "";
     private String originalEmailStyle = "";
 
+    // Запит на вхід чи реєстрацію вже виконується у фоні
+    private boolean busy = false;
+
     @FXML
     public void initialize() {
+        FxStallDetector.enterScreen("login");
         if (registerPasswordField != null) {
             originalPasswordStyle = registerPasswordField.getStyle();
         }
@@ -110,74 +110,8 @@ public class LoginController {
         }
     }
 
-    private List<String> validatePassword(String password) {
-        List<String> errors = new ArrayList<>();
-
-        if (password == null || password.isEmpty()) {
-            errors.add("Пароль не може бути порожнім");
-            return errors;
-        }
-
-        if (password.length() < MIN_PASSWORD_LENGTH) {
-            errors.add("Мінімум " + MIN_PASSWORD_LENGTH + " символів");
-        }
-
-        if (!UPPERCASE_PATTERN.matcher(password).find()) {
-            errors.add("Хоча б одна велика літера (A-Z)");
-        }
-
-        if (!LOWERCASE_PATTERN.matcher(password).find()) {
-            errors.add("Хоча б одна мала літера (a-z)");
-        }
-
-        if (!DIGIT_PATTERN.matcher(password).find()) {
-            errors.add("Хоча б одна цифра (0-9)");
-        }
-
-        return errors;
-    }
-
-    private List<String> validateEmail(String email) {
-        List<String> errors = new ArrayList<>();
-
-        if (email == null || email.trim().isEmpty()) {
-            errors.add("Email не може бути порожнім");
-            return errors;
-        }
-
-        email = email.trim().toLowerCase();
-
-        if (!EMAIL_PATTERN.matcher(email).matches()) {
-            errors.add("Невірний формат email адреси");
-            return errors;
-        }
-
-        String[] parts = email.split("@");
-        if (parts.length != 2) {
-            errors.add("Email повинен містити рівно один символ @");
-            return errors;
-        }
-
-        String localPart = parts[0];
-        String domain = parts[1];
-
-        if (localPart.length() < 3) {
-            errors.add("Частина email до @ повинна містити мінімум 3 символи");
-        }
-
-        if (!domain.contains(".")) {
-            errors.add("Домен повинен містити крапку (наприклад: gmail.com)");
-        }
-
-        if (email.contains("..")) {
-            errors.add("Email не може містити дві крапки підряд");
-        }
-
-        return errors;
-    }
-
     private void validatePasswordRealtime(String password) {
-        List<String> errors = validatePassword(password);
+        List<String> errors = CredentialsValidator.validatePassword(password);
 
         if (errors.isEmpty()) {
             // Зелена рамка для успіху
@@ -191,7 +125,7 @@ public class LoginController {
     }
 
     private void validateEmailRealtime(String email) {
-        List<String> errors = validateEmail(email);
+        List<String> errors = CredentialsValidator.validateEmail(email);
 
         if (errors.isEmpty()) {
             // Зелена рамка для успіху
@@ -204,8 +138,19 @@ public class LoginController {
         }
     }
 
-    private String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+    private void showMessage(String text, String textColor) {
+        messageLabel.setText(text);
+        messageLabel.setStyle(BASE_MESSAGE_STYLE +
+                "-fx-text-fill: " + textColor + "; " +
+                "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
+    }
+
+    private String describeFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return "Сервер зайнятий, спробуйте ще раз за мить.";
+        }
+        return "Помилка підключення до бази!";
     }
 
     @FXML
@@ -218,8 +163,8 @@ public class LoginController {
         if (username.isEmpty() || password.isEmpty() || email.isEmpty()) {
             errorMessage = "Заповніть усі обов'язкові поля!";
         } else {
-            List<String> emailErrors = validateEmail(email);
-            List<String> passwordErrors = validatePassword(password);
+            List<String> emailErrors = CredentialsValidator.validateEmail(email);
+            List<String> passwordErrors = CredentialsValidator.validatePassword(password);
 
             if (!emailErrors.isEmpty()) {
                 errorMessage += "Невірний email:\n- " + String.join("\n- ", emailErrors);
@@ -243,75 +188,44 @@ public class LoginController {
             return;
         }
 
-        String hashedPassword = hashPassword(password);
-
-        try (Connection conn = DatabaseServices.getConnection()) {
-            String checkUserQuery = "SELECT username FROM users WHERE username = ?";
-            PreparedStatement checkStmt = conn.prepareStatement(checkUserQuery);
-            checkStmt.setString(1, username);
-            ResultSet rs = checkStmt.executeQuery();
-
-            if (rs.next()) {
-                messageLabel.setText("Користувач з таким ім'ям вже існує!");
-                messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                        "-fx-text-fill: " + STYLE_COLOR_ACCENT + "; " +
-                        "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
-                return;
-            }
-
-            String checkEmailQuery = "SELECT email FROM users WHERE email = ?";
-            PreparedStatement checkEmailStmt = conn.prepareStatement(checkEmailQuery);
-            checkEmailStmt.setString(1, email);
-            ResultSet rsEmail = checkEmailStmt.executeQuery();
-
-            if (rsEmail.next()) {
-                messageLabel.setText("Користувач з таким email вже існує!");
-                messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                        "-fx-text-fill: " + STYLE_COLOR_ACCENT + "; " +
-                        "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
+        if (busy) {
+            return;
+        }
+        busy = true;
+        showMessage("Реєстрація...", STYLE_COLOR_INFO);
+
+        AuthService.register(username, email, password).whenComplete((result, error) -> Platform.runLater(() -> {
+            busy = false;
+            if (error != null) {
+                showMessage(describeFailure(error), STYLE_COLOR_ERROR_RAMKA);
+                logger.log(Level.SEVERE, "Помилка при реєстрації користувача", error);
                 return;
             }
+            onRegistrationResult(result);
+        }));
+    }
 
-            String insertUserQuery = "INSERT INTO users (username, email, password) VALUES (?, ?, ?) RETURNING id";
-            PreparedStatement insertStmt = conn.prepareStatement(insertUserQuery);
-            insertStmt.setString(1, username);
-            insertStmt.setString(2, email);
-            insertStmt.setString(3, hashedPassword);
-            ResultSet rsInsert = insertStmt.executeQuery();
-
-            if (rsInsert.next()) {
-                int newUserId = rsInsert.getInt("id");
-
-                String initStatsQuery = "INSERT INTO user_stats (user_id, total_score, lessons_completed, current_streak, longest_streak) VALUES (?, 0, 0, 0, 0)";
-                PreparedStatement statsStmt = conn.prepareStatement(initStatsQuery);
-                statsStmt.setInt(1, newUserId);
-                statsStmt.executeUpdate();
-
-                logger.info("Новий користувач зареєстрований: " + username + " (ID: " + newUserId + ")");
-            }
-
-            messageLabel.setText("Реєстрація успішна! Спробуйте увійти.");
-            messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                    "-fx-text-fill: " + STYLE_COLOR_SUCCESS + "; " +
-                    "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";"); // Темний фон для успіху
+    private void onRegistrationResult(RegistrationResult result) {
+        if (result == RegistrationResult.USERNAME_TAKEN) {
+            showMessage("Користувач з таким ім'ям вже існує!", STYLE_COLOR_ACCENT);
+            return;
+        }
+        if (result == RegistrationResult.EMAIL_TAKEN) {
+            showMessage("Користувач з таким email вже існує!", STYLE_COLOR_ACCENT);
+            return;
+        }
 
-            registerUsernameField.clear();
-            registerPasswordField.clear();
-            registerEmailField.clear();
-            registerPasswordField.setStyle(originalPasswordStyle);
-            registerEmailField.setStyle(originalEmailStyle);
+        showMessage("Реєстрація успішна! Спробуйте увійти.", STYLE_COLOR_SUCCESS);
 
-            javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1.5));
-            pause.setOnFinished(e -> openLogin());
-            pause.play();
+        registerUsernameField.clear();
+        registerPasswordField.clear();
+        registerEmailField.clear();
+        registerPasswordField.setStyle(originalPasswordStyle);
+        registerEmailField.setStyle(originalEmailStyle);
 
-        } catch (SQLException e) {
-            messageLabel.setText("Помилка при реєстрації! Перевірте базу даних.");
-            messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                    "-fx-text-fill: " + STYLE_COLOR_ERROR_RAMKA + "; " +
-                    "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
-            logger.log(Level.SEVERE, "Помилка при реєстрації користувача", e);
-        }
+        javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1.5));
+        pause.setOnFinished(e -> openLogin());
+        pause.play();
     }
 
     @FXML
@@ -327,60 +241,52 @@ public class LoginController {
             return;
         }
 
-        int userId = authenticateUserAndGetId(processedUsername, processedPassword);
+        if (busy) {
+            return;
+        }
+        busy = true;
+        showMessage("Перевірка...", STYLE_COLOR_INFO);
+
+        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
+
+        AuthService.authenticate(processedUsername, processedPassword)
+                .whenComplete((userId, error) -> Platform.runLater(() -> {
+                    busy = false;
+                    if (error != null) {
+                        showMessage(describeFailure(error), STYLE_COLOR_ERROR_RAMKA);
+                        logger.log(Level.SEVERE, "Помилка при аутентифікації", error);
+                    } else if (userId > 0) {
+                        onLoginSuccess(stage, processedUsername, userId);
+                    } else {
+                        showMessage("Невірний логін або пароль!", STYLE_COLOR_ACCENT);
+                        logger.warning("Невдала спроба входу: " + processedUsername);
+                    }
+                }));
+    }
+
+    private void onLoginSuccess(Stage stage, String username, int userId) {
+        showMessage("✅ Вхід успішний!", STYLE_COLOR_SUCCESS);
+        logger.info("Користувач увійшов: " + username + " (ID: " + userId + ")");
 
-        if (userId > 0) {
-            messageLabel.setText("✅ Вхід успішний!");
-            messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                    "-fx-text-fill: " + STYLE_COLOR_SUCCESS + "; " +
-                    "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
-            logger.info("Користувач увійшов: " + processedUsername + " (ID: " + userId + ")");
+        if (rememberMeCheckBox != null && rememberMeCheckBox.isSelected()) {
+            SessionService.create(userId).exceptionally(e -> {
+                logger.log(Level.WARNING, "Не вдалося зберегти сесію", e);
+                return null;
+            });
+        }
 
+        try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/home.fxml"));
             Parent root = loader.load();
 
             HomeController homeController = loader.getController();
             homeController.setCurrentUserId(userId);
 
-            Scene scene = new Scene(root);
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            stage.setScene(scene);
-
+            stage.setScene(new Scene(root));
             stage.setFullScreen(true);
             stage.show();
-
-        } else {
-            messageLabel.setText("Невірний логін або пароль!");
-            messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                    "-fx-text-fill: " + STYLE_COLOR_ACCENT + "; " +
-                    "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
-            logger.warning("Невдала спроба входу: " + processedUsername);
-        }
-    }
-
-    private int authenticateUserAndGetId(String username, String password) {
-        try (Connection conn = DatabaseServices.getConnection()) {
-            String query = "SELECT id, password FROM users WHERE username = ?";
-            PreparedStatement stmt = conn.prepareStatement(query);
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                int userId = rs.getInt("id");
-                String storedHashedPassword = rs.getString("password");
-
-                if (BCrypt.checkpw(password, storedHashedPassword)) {
-                    return userId;
-                }
-            }
-            return -1;
-        } catch (SQLException e) {
-            messageLabel.setText("Помилка підключення до бази!");
-            messageLabel.setStyle(BASE_MESSAGE_STYLE +
-                    "-fx-text-fill: " + STYLE_COLOR_ERROR_RAMKA + "; " +
-                    "-fx-background-color: " + STYLE_BACKGROUND_ERROR + ";");
-            logger.log(Level.SEVERE, "Помилка при аутентифікації", e);
-            return -1;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Помилка завантаження home.fxml", e);
         }
     }
 
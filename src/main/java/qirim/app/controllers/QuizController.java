@@ -1,5 +1,6 @@
 package qirim.app.controllers;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -8,18 +9,26 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import qirim.app.services.DatabaseServices;
+import qirim.app.diagnostics.FxStallDetector;
+import qirim.app.logging.Log;
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.script.Script;
+import qirim.app.script.Transliterator;
+import qirim.app.services.AnalyticsService;
+import qirim.app.services.AudioService;
+import qirim.app.services.QueryClass;
+import qirim.app.services.QuizService;
 import qirim.app.services.UserProgressService;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -35,56 +44,80 @@ public class QuizController {
     @FXML private Label resultMessageLabel;
 
     @FXML private GridPane optionsGrid;
+    @FXML private VBox textAnswerBox;
+    @FXML private TextField textAnswerField;
+    @FXML private Label textAnswerHint;
     @FXML private HBox navigationHBox;
 
     @FXML private Button prevButton;
     @FXML private Button nextButton;
     @FXML private Button backToHomeButton;
-
-    private static class Question {
-        int questionId;
-        String text;
-        List<String> options;
-        List<Integer> optionIds;
-        int correctAnswerIndex;
-
-        public Question(int questionId, String text, List<String> options, List<Integer> optionIds, int correctAnswerIndex) {
-            this.questionId = questionId;
-            this.text = text;
-            this.options = options;
-            this.optionIds = optionIds;
-            this.correctAnswerIndex = correctAnswerIndex;
-        }
-    }
+    @FXML private Button scriptButton;
+    @FXML private Button audioButton;
 
     private int lessonId;
     private int userId = -1;
     private int themeIndex = 0;
 
     private List<Question> quizQuestions = new ArrayList<>();
+    // Запитання в письмі з БД; перемикач письма щоразу конвертує їх, а не попередній результат
+    private List<Question> originalQuestions = new ArrayList<>();
+    private Script displayedScript = Script.LATIN;
     private int currentQuestionIndex = 0;
     private List<Integer> userAnswers;
+    // Введений текст по запитаннях з введенням, щоб він зберігався під час переходів між запитаннями
+    private List<String> typedAnswers;
+    // Час на кожному запитанні (мс, сумарно за всі повернення до нього) для статистики; -1 - не показувалось
+    private long[] responseMillis;
+    private long questionShownAt;
+    private boolean showingQuestion;
     private List<Button> optionButtons = new ArrayList<>();
+    // Підвантажується у фоні після запитань; до того кнопка вимови просто прихована
+    private LessonAudio lessonAudio = LessonAudio.EMPTY;
     private int selectedOptionIndex = -1;
+    // Завантаження екрана тесту; скасовуються при поверненні на головну
+    private final ScreenLoads loads = new ScreenLoads("quiz");
 
     @FXML
     public void initialize() {
+        FxStallDetector.enterScreen("quiz");
+        if (textAnswerField != null) {
+            textAnswerField.textProperty().addListener((observable, oldText, newText) -> onTextAnswerChanged(newText));
+        }
     }
 
     public void setUserId(int userId) {
         this.userId = userId;
-        logger.info("UserId встановлено: " + userId);
+        Log.fine(logger, "Встановлено користувача", "userId", userId);
     }
 
     public void setThemeIndex(int themeIndex) {
         this.themeIndex = themeIndex;
-        logger.info("ThemeIndex встановлено: " + themeIndex);
+        Log.fine(logger, "Встановлено тему", "themeIndex", themeIndex);
     }
 
+    // Запитання вантажаться у фоні: поки їх немає, екран показує заголовок, а кнопки неактивні
     public void setLessonData(int lessonId) {
         this.lessonId = lessonId;
-        this.quizQuestions = loadQuestionsFromDB();
+        questionLabel.setText("Завантаження запитань...");
+        updateNavigationButtons();
+        loads.submit("questions", QueryClass.CONTENT, () -> QuizService.loadQuestions(lessonId),
+                this::showQuestions, e -> {
+                    logger.log(Level.SEVERE, "Помилка при завантаженні запитань з БД", e);
+                    questionLabel.setText("Помилка: Не вдалося завантажити запитання.");
+                });
+    }
+
+    private void showQuestions(List<Question> questions) {
+        this.quizQuestions = questions;
+        this.originalQuestions = quizQuestions;
         this.userAnswers = new ArrayList<>(Collections.nCopies(quizQuestions.size(), -1));
+        this.typedAnswers = new ArrayList<>(Collections.nCopies(quizQuestions.size(), ""));
+        this.responseMillis = new long[quizQuestions.size()];
+        Arrays.fill(responseMillis, -1);
+        this.displayedScript = detectScript(quizQuestions);
+        updateScriptButton();
+        loadLessonAudio();
 
         if (!quizQuestions.isEmpty()) {
             displayQuestion(currentQuestionIndex);
@@ -95,58 +128,58 @@ public class QuizController {
         updateNavigationButtons();
     }
 
-    private List<Question> loadQuestionsFromDB() {
-        List<Question> questions = new ArrayList<>();
-        String questionsQuery = "SELECT question_id, question_text FROM questions WHERE lesson_id = ? ORDER BY question_number";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(questionsQuery)) {
-
-            stmt.setInt(1, this.lessonId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                int questionId = rs.getInt("question_id");
-                String questionText = rs.getString("question_text");
-
-                List<String> options = new ArrayList<>();
-                List<Integer> optionIds = new ArrayList<>();
-                int correctAnswerIndex = -1;
-
-                String optionsQuery = "SELECT option_id, option_text, is_correct FROM questions_options WHERE question_id = ? ORDER BY option_number";
-                try (PreparedStatement optionStmt = conn.prepareStatement(optionsQuery)) {
-                    optionStmt.setInt(1, questionId);
-                    ResultSet optionsRs = optionStmt.executeQuery();
-
-                    int index = 0;
-                    while (optionsRs.next()) {
-                        int optionId = optionsRs.getInt("option_id");
-                        String optionText = optionsRs.getString("option_text");
-                        boolean isCorrect = optionsRs.getBoolean("is_correct");
-
-                        options.add(optionText);
-                        optionIds.add(optionId);
+    private void loadLessonAudio() {
+        int requestedLesson = lessonId;
+        List<Question> questions = quizQuestions;
+        AudioService.loadLessonAudio(requestedLesson).thenAccept(audio -> Platform.runLater(() -> {
+            if (requestedLesson != lessonId) {
+                return;
+            }
+            lessonAudio = audio;
+            updateAudioButton();
+            AudioService.prefetch(audio, questions, currentQuestionIndex);
+        }));
+    }
 
-                        if (isCorrect) {
-                            correctAnswerIndex = index;
-                        }
-                        index++;
-                    }
-                }
+    private void updateAudioButton() {
+        if (audioButton == null) {
+            return;
+        }
+        boolean hasClip = !quizQuestions.isEmpty() && currentQuestionIndex < quizQuestions.size()
+                && lessonAudio.questionClip(quizQuestions.get(currentQuestionIndex).getQuestionId()) != null;
+        audioButton.setVisible(hasClip);
+    }
 
-                if (!options.isEmpty()) {
-                    questions.add(new Question(questionId, questionText, options, optionIds, correctAnswerIndex));
-                }
-            }
+    @FXML
+    private void handlePlayQuestionAudio(ActionEvent event) {
+        if (!quizQuestions.isEmpty()) {
+            AudioService.play(lessonAudio.questionClip(quizQuestions.get(currentQuestionIndex).getQuestionId()));
+        }
+    }
 
-            logger.info("Успішно завантажено " + questions.size() + " запитань для уроку ID: " + this.lessonId);
+    private static Script detectScript(List<Question> questions) {
+        StringBuilder sample = new StringBuilder();
+        for (Question question : questions) {
+            question.getOptions().forEach(option -> sample.append(option).append(' '));
+        }
+        return Script.detect(sample);
+    }
 
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при завантаженні запитань з БД", e);
-            questionLabel.setText("Помилка: Не вдалося завантажити запитання.");
+    private void updateScriptButton() {
+        if (scriptButton != null) {
+            scriptButton.setText(displayedScript == Script.LATIN ? "Кирилиця" : "Latin");
+            scriptButton.setDisable(originalQuestions.isEmpty());
         }
+    }
 
-        return questions;
+    @FXML
+    private void handleToggleScript(ActionEvent event) {
+        Script target = displayedScript == Script.LATIN ? Script.CYRILLIC : Script.LATIN;
+        quizQuestions = Transliterator.to(target).convert(originalQuestions);
+        displayedScript = target;
+        updateScriptButton();
+        displayQuestion(currentQuestionIndex);
+        Log.info(logger, "Письмо тесту змінено", "script", target);
     }
 
     private void displayQuestion(int index) {
@@ -155,10 +188,14 @@ public class QuizController {
         }
 
         Question question = quizQuestions.get(index);
+        questionShownAt = System.nanoTime();
+
+        AudioService.stop();
+        updateAudioButton();
 
         questionNumberLabel.setText("Запитання " + (index + 1) + " з " + quizQuestions.size());
 
-        questionLabel.setText(question.text);
+        questionLabel.setText(question.getText());
 
         scoreLabel.setText("Бали: " + calculateScore() + "/" + quizQuestions.size());
 
@@ -166,7 +203,23 @@ public class QuizController {
         optionButtons.clear();
         selectedOptionIndex = userAnswers.get(currentQuestionIndex);
 
-        List<String> options = question.options;
+        boolean freeText = question.isFreeText();
+        optionsGrid.setVisible(!freeText);
+        optionsGrid.setManaged(!freeText);
+        textAnswerBox.setVisible(freeText);
+        textAnswerBox.setManaged(freeText);
+        if (freeText) {
+            showingQuestion = true;
+            textAnswerField.setText(typedAnswers.get(currentQuestionIndex));
+            showingQuestion = false;
+            textAnswerField.setDisable(false);
+            textAnswerHint.setText("");
+            updateTextAnswerStyle("white");
+            textAnswerField.requestFocus();
+            return;
+        }
+
+        List<String> options = question.getOptions();
         for (int i = 0; i < options.size(); i++) {
             final int optionIndex = i;
             Button optionButton = createOptionButton(options.get(i), optionIndex);
@@ -178,6 +231,35 @@ public class QuizController {
         }
     }
 
+    // Перевірка під час набору: рамка підказує, що відповідь уже зараховується
+    private void onTextAnswerChanged(String text) {
+        if (showingQuestion || quizQuestions.isEmpty()) {
+            return;
+        }
+        Question question = quizQuestions.get(currentQuestionIndex);
+        if (!question.isFreeText()) {
+            return;
+        }
+
+        int answer = QuizService.gradeText(question, text);
+        typedAnswers.set(currentQuestionIndex, text);
+        userAnswers.set(currentQuestionIndex, answer);
+        selectedOptionIndex = answer;
+        updateTextAnswerStyle(answer == question.getCorrectAnswerIndex() ? "#D4AF78" : "white");
+        scoreLabel.setText("Бали: " + calculateScore() + "/" + quizQuestions.size());
+    }
+
+    private void updateTextAnswerStyle(String borderColor) {
+        textAnswerField.setStyle(
+                "-fx-background-color: transparent; " +
+                        "-fx-border-color: " + borderColor + "; " +
+                        "-fx-border-width: 2; " +
+                        "-fx-border-radius: 8; " +
+                        "-fx-text-fill: white; " +
+                        "-fx-font-size: 18px;"
+        );
+    }
+
     private Button createOptionButton(String text, int optionIndex) {
         Button button = new Button(text);
         button.setPrefWidth(400);
@@ -215,6 +297,11 @@ public class QuizController {
         selectedOptionIndex = optionIndex;
         userAnswers.set(currentQuestionIndex, optionIndex);
 
+        List<Integer> optionIds = quizQuestions.get(currentQuestionIndex).getOptionIds();
+        if (optionIndex < optionIds.size()) {
+            AudioService.play(lessonAudio.optionClip(optionIds.get(optionIndex)));
+        }
+
         for (int i = 0; i < optionButtons.size(); i++) {
             Button btn = optionButtons.get(i);
             btn.setStyle(
@@ -248,10 +335,13 @@ public class QuizController {
         if (selectedOptionIndex == -1) {
             return;
         }
+        recordTimeOnQuestion();
 
         // Перевірити відповідь і показати результат
         Question currentQuestion = quizQuestions.get(currentQuestionIndex);
-        if (selectedOptionIndex == currentQuestion.correctAnswerIndex) {
+        if (currentQuestion.isFreeText()) {
+            showTextAnswerResult(currentQuestion);
+        } else if (selectedOptionIndex == currentQuestion.getCorrectAnswerIndex()) {
             showCorrectAnswer();
         } else {
             showIncorrectAnswer();
@@ -276,6 +366,16 @@ public class QuizController {
         }).start();
     }
 
+    private void showTextAnswerResult(Question question) {
+        textAnswerField.setDisable(true);
+        if (selectedOptionIndex == question.getCorrectAnswerIndex()) {
+            updateTextAnswerStyle("#4CAF50");
+        } else {
+            updateTextAnswerStyle("#F44336");
+            textAnswerHint.setText("Правильно: " + question.getOptions().get(question.getCorrectAnswerIndex()));
+        }
+    }
+
     private void showCorrectAnswer() {
         Button button = optionButtons.get(selectedOptionIndex);
         button.setStyle(
@@ -302,7 +402,7 @@ public class QuizController {
         );
 
         Question currentQuestion = quizQuestions.get(currentQuestionIndex);
-        Button correctButton = optionButtons.get(currentQuestion.correctAnswerIndex);
+        Button correctButton = optionButtons.get(currentQuestion.getCorrectAnswerIndex());
         correctButton.setStyle(
                 "-fx-background-color: #4CAF50; " +
                         "-fx-border-color: #4CAF50; " +
@@ -317,6 +417,7 @@ public class QuizController {
     @FXML
     private void handlePreviousQuestion(ActionEvent event) {
         if (currentQuestionIndex > 0) {
+            recordTimeOnQuestion();
             currentQuestionIndex--;
             displayQuestion(currentQuestionIndex);
             updateNavigationButtons();
@@ -333,14 +434,13 @@ public class QuizController {
         }
     }
 
+    private void recordTimeOnQuestion() {
+        long spent = (System.nanoTime() - questionShownAt) / 1_000_000;
+        responseMillis[currentQuestionIndex] = Math.max(responseMillis[currentQuestionIndex], 0) + spent;
+    }
+
     private int calculateScore() {
-        int tempScore = 0;
-        for (int i = 0; i < quizQuestions.size(); i++) {
-            if (userAnswers.get(i) != -1 && userAnswers.get(i) == quizQuestions.get(i).correctAnswerIndex) {
-                tempScore++;
-            }
-        }
-        return tempScore;
+        return QuizService.calculateScore(quizQuestions, userAnswers);
     }
 
     private void showFinalResult() {
@@ -350,6 +450,7 @@ public class QuizController {
         questionNumberLabel.setVisible(false);
         questionLabel.setVisible(false);
         optionsGrid.setVisible(false);
+        textAnswerBox.setVisible(false);
         navigationHBox.setVisible(false);
 
         resultMessageLabel.setText(
@@ -360,29 +461,30 @@ public class QuizController {
         backToHomeButton.setVisible(true);
 
         if (userId > 0) {
-            try {
-                boolean saved = UserProgressService.saveTestResult(
-                        userId, lessonId, finalScore, quizQuestions.size()
-                );
-
-                if (saved) {
-                    logger.info("Результат збережено: користувач " + userId + ", урок " + lessonId +
-                            ", бали " + finalScore + "/" + quizQuestions.size());
-                } else {
-                    logger.warning("Не вдалося зберегти результат тесту");
-                }
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Помилка при збереженні результату", e);
-            }
+            // Запис іде у фоновому потоці з дедлайном WRITE; повернення на головну його не чекає й не скасовує
+            int total = quizQuestions.size();
+            UserProgressService.saveTestResultAsync(userId, lessonId, finalScore, total)
+                    .thenAccept(saved -> Platform.runLater(() -> {
+                        if (saved) {
+                            Log.info(logger, "Результат збережено", "userId", userId, "lessonId", lessonId,
+                                    "score", finalScore, "total", total);
+                        } else {
+                            logger.warning("Не вдалося зберегти результат тесту");
+                        }
+                    }));
         } else {
             logger.warning("UserId не встановлено, результат не збережено");
         }
 
-        logger.info("Тест завершено: " + finalScore + "/" + quizQuestions.size());
+        AnalyticsService.recordAttempt(lessonId, quizQuestions,
+                userAnswers.stream().mapToInt(Integer::intValue).toArray(), responseMillis);
+        Log.info(logger, "Тест завершено", "score", finalScore, "total", quizQuestions.size());
     }
 
     @FXML
     public void goBackToHome(ActionEvent actionEvent) {
+        AudioService.stop();
+        loads.cancelAll();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/home.fxml"));
             Parent root = loader.load();
@@ -392,7 +494,7 @@ public class QuizController {
             if (userId > 0) {
                 homeController.setCurrentUserId(userId);
                 homeController.setCurrentThemeIndex(themeIndex);
-                logger.info("Повернення на головну: userId=" + userId + ", themeIndex=" + themeIndex);
+                Log.info(logger, "Повернення на головну", "userId", userId, "themeIndex", themeIndex);
             } else {
                 logger.warning("userId не встановлено в QuizController!");
             }
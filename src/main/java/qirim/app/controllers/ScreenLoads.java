@@ -0,0 +1,152 @@
+package qirim.app.controllers;
+
+import javafx.application.Platform;
+import qirim.app.concurrent.LoadContext;
+import qirim.app.logging.Log;
+import qirim.app.services.QueryClass;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+// Фонові завантаження одного екрана. Кожне має LoadContext з дедлайном свого класу запитів;
+// cancelAll() при переході з екрана скасовує ще не початі задачі, викликає Statement.cancel
+// для відправлених запитів і відкидає результати, які не встигли потрапити на екран.
+// Усі методи викликаються з FX-потоку; колбеки теж виконуються в ньому.
+final class ScreenLoads {
+
+    private static final Logger logger = Logger.getLogger(ScreenLoads.class.getName());
+
+    // Невеликий пул: скасовані екрани не можуть зайняти більше потоків (і підключень), ніж є
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger("qirim.ui.loadThreads", 4), r -> {
+                Thread thread = new Thread(r, "screen-load");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "load-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    interface Load<T> {
+        T load() throws SQLException;
+    }
+
+    final class Handle {
+        final LoadContext context;
+        Future<?> task;
+        ScheduledFuture<?> deadline;
+
+        Handle(LoadContext context) {
+            this.context = context;
+        }
+
+        void cancel() {
+            context.cancel();
+            if (task != null) {
+                task.cancel(true);
+            }
+            finish();
+        }
+
+        private void finish() {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            active.remove(this);
+        }
+    }
+
+    private final String screen;
+    private final List<Handle> active = new ArrayList<>();
+    // Слот - "останній виграє": нове завантаження в тому ж слоті скасовує попереднє (швидке гортання тем)
+    private final Map<String, Handle> slots = new HashMap<>();
+    private boolean closed;
+
+    ScreenLoads(String screen) {
+        this.screen = screen;
+    }
+
+    <T> Handle submit(String slot, QueryClass queryClass, Load<T> load, Consumer<T> onLoaded, Consumer<SQLException> onFailed) {
+        Handle previous = slots.get(slot);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        Handle handle = new Handle(queryClass.newContext(screen + "/" + slot));
+        slots.put(slot, handle);
+        if (closed) {
+            handle.context.cancel();
+            return handle;
+        }
+        active.add(handle);
+
+        if (queryClass.timeoutMillis() > 0) {
+            handle.deadline = deadlines.schedule(handle.context::expire, queryClass.timeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+        handle.task = executor.submit(() -> {
+            T value = null;
+            SQLException failure = null;
+            try {
+                value = handle.context.call(load::load);
+            } catch (SQLException e) {
+                failure = e;
+            }
+            // Сервіс міг повернути значення за замовчуванням замість винятку - запізнілий результат не показуємо
+            if (failure == null && handle.context.isExpired()) {
+                failure = new SQLException("Дедлайн завантаження минув", LoadContext.CANCELLED_STATE);
+            }
+            T loaded = value;
+            SQLException failed = failure;
+            Platform.runLater(() -> deliver(slot, handle, loaded, failed, onLoaded, onFailed));
+        });
+        return handle;
+    }
+
+    private <T> void deliver(String slot, Handle handle, T value, SQLException failure,
+                             Consumer<T> onLoaded, Consumer<SQLException> onFailed) {
+        if (slots.get(slot) == handle) {
+            slots.remove(slot);
+        }
+        handle.finish();
+        if (closed || handle.context.isCancelled()) {
+            Log.fine(logger, "Результат скасованого завантаження відкинуто", "load", handle.context.getName());
+            return;
+        }
+        if (failure != null) {
+            Log.warning(logger, "Завантаження не вдалося", failure, "load", handle.context.getName());
+            if (onFailed != null) {
+                onFailed.accept(failure);
+            }
+            return;
+        }
+        onLoaded.accept(value);
+    }
+
+    // Перехід з екрана: нічого з уже запущеного не потрапить на нього і не триматиме підключення
+    void cancelAll() {
+        closed = true;
+        for (Handle handle : new ArrayList<>(active)) {
+            handle.cancel();
+        }
+        slots.clear();
+        Log.fine(logger, "Завантаження екрана скасовано", "screen", screen);
+    }
+}
@@ -0,0 +1,209 @@
+package qirim.app.diagnostics;
+
+import javafx.application.Platform;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Сторож потоку JavaFX: регулярно ставить Platform.runLater-"серцебиття" і міряє, скільки воно чекало.
+// Якщо серцебиття не оброблено довше за поріг, знімає стек потоку FX і пише його в лог.
+// Затримки складаються в гістограму для кожного екрана; доступно через JMX (qirim.app:type=FxStallMonitor).
+public final class FxStallDetector implements FxStallMonitorMXBean {
+
+    private static final Logger logger = Logger.getLogger(FxStallDetector.class.getName());
+
+    private static final long HEARTBEAT_MILLIS = 100;
+    private static final long SUMMARY_MINUTES = 5;
+    private static final long[] BUCKET_BOUNDS = {16, 50, 100, 250, 500, 1000, 2000, 5000};
+    private static final String[] BUCKET_LABELS = {
+            "<16ms", "<50ms", "<100ms", "<250ms", "<500ms", "<1s", "<2s", "<5s", ">=5s"
+    };
+
+    private static final FxStallDetector INSTANCE = new FxStallDetector();
+
+    private final Map<String, AtomicLongArray> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong stallCount = new AtomicLong();
+    private final AtomicLong longestStall = new AtomicLong();
+
+    private volatile long thresholdMillis = Long.getLong("qirim.stall.thresholdMs", 200);
+    private volatile String currentScreen = "startup";
+    private volatile Thread fxThread;
+
+    // Час (nanoTime), коли було поставлено ще не оброблене серцебиття; 0 - немає
+    private volatile long pendingSince;
+    private volatile boolean stallReported;
+
+    private ScheduledExecutorService scheduler;
+
+    private FxStallDetector() {
+    }
+
+    public static FxStallDetector getInstance() {
+        return INSTANCE;
+    }
+
+    public static void enterScreen(String screen) {
+        INSTANCE.currentScreen = screen;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || !Boolean.parseBoolean(System.getProperty("qirim.stall.enabled", "true"))) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "fx-stall-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::logSummary, SUMMARY_MINUTES, SUMMARY_MINUTES, TimeUnit.MINUTES);
+
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(this, new ObjectName("qirim.app:type=FxStallMonitor"));
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Не вдалося зареєструвати FxStallMonitor у JMX", e);
+        }
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            logSummary();
+        }
+    }
+
+    private void tick() {
+        long posted = pendingSince;
+        long now = System.nanoTime();
+
+        if (posted == 0) {
+            pendingSince = now;
+            stallReported = false;
+            Platform.runLater(() -> acknowledge(now));
+            return;
+        }
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - posted);
+        if (!stallReported && waitedMillis >= thresholdMillis) {
+            stallReported = true;
+            reportStall(waitedMillis);
+        }
+    }
+
+    private void acknowledge(long posted) {
+        if (fxThread == null) {
+            fxThread = Thread.currentThread();
+        }
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted);
+        record(currentScreen, waitedMillis);
+
+        if (stallReported) {
+            logger.warning("Потік FX відновився після " + waitedMillis + " мс на екрані '" + currentScreen + "'");
+        }
+        pendingSince = 0;
+    }
+
+    private void reportStall(long waitedMillis) {
+        stallCount.incrementAndGet();
+
+        Thread thread = fxThread;
+        StringBuilder trace = new StringBuilder();
+        if (thread != null) {
+            for (StackTraceElement element : thread.getStackTrace()) {
+                trace.append("\n    at ").append(element);
+            }
+        }
+
+        logger.warning("Потік FX заблоковано вже " + waitedMillis + " мс на екрані '" + currentScreen + "'" + trace);
+    }
+
+    private void record(String screen, long millis) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histograms.computeIfAbsent(screen, s -> new AtomicLongArray(BUCKET_LABELS.length)).incrementAndGet(bucket);
+        longestStall.accumulateAndGet(millis, Math::max);
+    }
+
+    private void logSummary() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+
+        StringBuilder summary = new StringBuilder("Затримки потоку FX (" + String.join(", ", BUCKET_LABELS) + "):");
+        getHistograms().forEach((screen, counts) -> {
+            summary.append("\n  ").append(screen).append(':');
+            for (long count : counts) {
+                summary.append(' ').append(count);
+            }
+        });
+        summary.append("\n  зависань понад ").append(thresholdMillis).append(" мс: ").append(stallCount.get())
+                .append(", найдовше: ").append(longestStall.get()).append(" мс");
+        logger.info(summary.toString());
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    @Override
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    @Override
+    public long getLongestStallMillis() {
+        return longestStall.get();
+    }
+
+    @Override
+    public String getCurrentScreen() {
+        return currentScreen;
+    }
+
+    @Override
+    public String[] getBucketLabels() {
+        return BUCKET_LABELS.clone();
+    }
+
+    @Override
+    public Map<String, long[]> getHistograms() {
+        Map<String, long[]> snapshot = new TreeMap<>();
+        histograms.forEach((screen, counts) -> {
+            long[] copy = new long[counts.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = counts.get(i);
+            }
+            snapshot.put(screen, copy);
+        });
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        histograms.clear();
+        stallCount.set(0);
+        longestStall.set(0);
+    }
+}
@@ -0,0 +1,23 @@
+package qirim.app.diagnostics;
+
+import java.util.Map;
+
+public interface FxStallMonitorMXBean {
+
+    long getThresholdMillis();
+
+    void setThresholdMillis(long thresholdMillis);
+
+    long getStallCount();
+
+    long getLongestStallMillis();
+
+    String getCurrentScreen();
+
+    String[] getBucketLabels();
+
+    // Екран -> кількість затримок потоку FX у кожному з інтервалів getBucketLabels()
+    Map<String, long[]> getHistograms();
+
+    void reset();
+}
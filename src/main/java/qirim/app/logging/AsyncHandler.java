@@ -0,0 +1,146 @@
+package qirim.app.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+// Обробник, що лише кладе запис у кільцевий буфер; форматування й запис у вкладені обробники
+// (консоль, файл) відбуваються в окремому потоці "log-writer". Потік, що логує (часто потік JavaFX),
+// ніколи не чекає: якщо буфер повний, запис відкидається, а кількість відкинутих згодом пишеться в лог.
+public final class AsyncHandler extends Handler {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_MILLIS = 1_000;
+
+    private final Handler[] targets;
+    private final RingBuffer<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    // Скільки записів обробив потік writer; для flush()
+    private volatile long processed;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    public AsyncHandler(Handler[] targets, int capacity) {
+        this.targets = targets.clone();
+        this.buffer = new RingBuffer<>(capacity);
+        Level lowest = Level.OFF;
+        for (Handler target : targets) {
+            if (target.getLevel().intValue() < lowest.intValue()) {
+                lowest = target.getLevel();
+            }
+        }
+        // Записи, які відкинув би кожен вкладений обробник, не варто й ставити в чергу
+        setLevel(lowest);
+
+        writer = new Thread(this::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (!buffer.offer(record)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drainLoop() {
+        long reportedDrops = 0;
+        while (true) {
+            LogRecord record = buffer.poll();
+            if (record != null) {
+                write(record);
+                processed++;
+                continue;
+            }
+
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                LogRecord notice = new LogRecord(Level.WARNING,
+                        "Журнал перевантажено: відкинуто записів - " + (drops - reportedDrops));
+                notice.setLoggerName(AsyncHandler.class.getName());
+                write(notice);
+                reportedDrops = drops;
+            }
+            if (closed) {
+                return;
+            }
+
+            // Спершу позначаємо простій, потім перевіряємо ще раз: запис, доданий між poll і park, нас розбудить
+            idle = true;
+            record = buffer.poll();
+            if (record != null) {
+                idle = false;
+                write(record);
+                processed++;
+                continue;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            idle = false;
+        }
+    }
+
+    private void write(LogRecord record) {
+        for (Handler target : targets) {
+            try {
+                target.publish(record);
+            } catch (RuntimeException e) {
+                reportError("Помилка вкладеного обробника журналу", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    // Чекає, доки буде записано все, що вже прийнято, але не довше за секунду
+    @Override
+    public void flush() {
+        long accepted = buffer.published();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while (processed < accepted && writer.isAlive() && System.currentTimeMillis() < deadline) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        for (Handler target : targets) {
+            target.flush();
+        }
+    }
+
+    // Викликається і з LogManager.reset() під час завершення JVM - решта черги встигає потрапити в журнал
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Handler target : targets) {
+            target.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package qirim.app.logging;
+
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+// Переводить кореневий логер на AsyncHandler: наявні обробники (ConsoleHandler або задані
+// через java.util.logging.config.file) стають вкладеними й пишуть у потоці log-writer.
+// -Dqirim.log.async=false залишає синхронне логування, -Dqirim.log.buffer=N - розмір буфера.
+public final class AsyncLogging {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static AsyncHandler handler;
+
+    private AsyncLogging() {
+    }
+
+    public static synchronized AsyncHandler install() {
+        if (handler != null || !Boolean.parseBoolean(System.getProperty("qirim.log.async", "true"))) {
+            return handler;
+        }
+
+        Logger root = Logger.getLogger("");
+        Handler[] targets = root.getHandlers();
+        // Без явно заданого формату SimpleFormatter шукав би джерело у стеку, а в потоці log-writer його немає
+        boolean customFormat = System.getProperty("java.util.logging.SimpleFormatter.format") != null;
+        for (Handler target : targets) {
+            root.removeHandler(target);
+            if (target.getFormatter() instanceof SimpleFormatter && !customFormat) {
+                target.setFormatter(new EventFormatter());
+            }
+        }
+
+        handler = new AsyncHandler(targets, Integer.getInteger("qirim.log.buffer", DEFAULT_CAPACITY));
+        root.addHandler(handler);
+        return handler;
+    }
+
+    public static synchronized AsyncHandler handler() {
+        return handler;
+    }
+}
@@ -0,0 +1,69 @@
+package qirim.app.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+// Один рядок на запис: час, рівень, клас, подія і поля key=value. Джерело береться з назви логера,
+// а не зі стека: стек потоку log-writer не має нічого спільного з місцем виклику.
+public final class EventFormatter extends Formatter {
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    @Override
+    public String format(LogRecord record) {
+        StringBuilder line = new StringBuilder(128);
+        TIME.formatTo(record.getInstant(), line);
+        line.append(' ').append(record.getLevel().getName()).append(' ');
+
+        String loggerName = record.getLoggerName();
+        line.append(loggerName == null ? "-" : loggerName.substring(loggerName.lastIndexOf('.') + 1));
+        line.append(": ");
+
+        if (record instanceof EventRecord) {
+            EventRecord event = (EventRecord) record;
+            line.append(event.getEvent());
+            for (int i = 0; i < event.getFieldCount(); i++) {
+                line.append(' ').append(event.getKey(i)).append('=');
+                appendValue(line, event.getValue(i));
+            }
+        } else {
+            line.append(formatMessage(record));
+        }
+        line.append(System.lineSeparator());
+
+        if (record.getThrown() != null) {
+            StringWriter trace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        return line.toString();
+    }
+
+    // Значення з пробілами чи лапками беруться в лапки, щоб рядок лишався розбірним
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty();
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = Character.isWhitespace(c) || c == '"' || c == '=';
+        }
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c == '\n' ? ' ' : c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,38 @@
+package qirim.app.logging;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+// Структурований запис: коротка назва події і пари ключ/значення. Значення зберігаються як є
+// і перетворюються на текст лише в потоці log-writer (див. EventFormatter).
+public final class EventRecord extends LogRecord {
+
+    private static final long serialVersionUID = 1L;
+
+    // Значення полів можуть бути будь-якими об'єктами, тож при серіалізації лишається лише назва події
+    private final transient Object[] fields;
+
+    EventRecord(Level level, String loggerName, String event, Object[] fields, Throwable thrown) {
+        super(level, event);
+        this.fields = fields;
+        setLoggerName(loggerName);
+        setThrown(thrown);
+    }
+
+    public String getEvent() {
+        return getMessage();
+    }
+
+    // Ключі на парних позиціях, значення - на непарних
+    public int getFieldCount() {
+        return fields == null ? 0 : fields.length / 2;
+    }
+
+    public String getKey(int i) {
+        return String.valueOf(fields[2 * i]);
+    }
+
+    public Object getValue(int i) {
+        return fields[2 * i + 1];
+    }
+}
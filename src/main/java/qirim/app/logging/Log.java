@@ -0,0 +1,42 @@
+package qirim.app.logging;
+
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Структуроване логування для гарячих шляхів: Log.info(logger, "Завантажено уроки", "themeId", id, "count", n).
+// Якщо рівень вимкнено, нічого не створюється; рядок складає потік log-writer, а не викликач.
+// Значення мають бути незмінними (числа, рядки, enum) - їх прочитають пізніше в іншому потоці.
+// Дорогі значення передаються як Supplier і обчислюються тут, лише коли запис справді піде в журнал.
+public final class Log {
+
+    private Log() {
+    }
+
+    public static void info(Logger logger, String event, Object... fields) {
+        log(logger, Level.INFO, event, null, fields);
+    }
+
+    public static void fine(Logger logger, String event, Object... fields) {
+        log(logger, Level.FINE, event, null, fields);
+    }
+
+    public static void warning(Logger logger, String event, Throwable thrown, Object... fields) {
+        log(logger, Level.WARNING, event, thrown, fields);
+    }
+
+    public static void log(Logger logger, Level level, String event, Throwable thrown, Object... fields) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        if ((fields.length & 1) != 0) {
+            throw new IllegalArgumentException("Поля журналу мають іти парами ключ/значення: " + event);
+        }
+        for (int i = 1; i < fields.length; i += 2) {
+            if (fields[i] instanceof Supplier) {
+                fields[i] = ((Supplier<?>) fields[i]).get();
+            }
+        }
+        logger.log(new EventRecord(level, logger.getName(), event, fields, thrown));
+    }
+}
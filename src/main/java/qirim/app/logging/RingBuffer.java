@@ -0,0 +1,71 @@
+package qirim.app.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Обмежена черга без блокувань для багатьох записувачів і одного читача (схема Вьюкова):
+// кожна комірка має лічильник послідовності, записувач захоплює позицію одним CAS,
+// а переповнена черга одразу відмовляє замість очікування.
+final class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+
+    // Лише в потоці читача
+    private long tail;
+
+    RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        slots = new Object[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    boolean offer(T item) {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    slots[index] = item;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                // Читач ще не звільнив комірку з попереднього кола
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T poll() {
+        int index = (int) tail & mask;
+        if (sequences.get(index) != tail + 1) {
+            return null;
+        }
+        T item = (T) slots[index];
+        slots[index] = null;
+        sequences.set(index, tail + slots.length);
+        tail++;
+        return item;
+    }
+
+    // Скільки записів уже прийнято; для очікування в flush()
+    long published() {
+        return head.get();
+    }
+}
@@ -0,0 +1,51 @@
+package qirim.app.model;
+
+// Картка з запитання курсу: лицьовий бік - текст запитання, зворотний - правильна відповідь.
+// box - коробка Лейтнера користувача на момент завантаження колоди
+public class Flashcard {
+    public static final int MAX_BOX = 5;
+
+    private final int questionId;
+    private final int themeId;
+    private final int lessonId;
+    private final String front;
+    private final String back;
+    private final int box;
+
+    public Flashcard(int questionId, int themeId, int lessonId, String front, String back, int box) {
+        this.questionId = questionId;
+        this.themeId = themeId;
+        this.lessonId = lessonId;
+        this.front = front;
+        this.back = back;
+        this.box = box;
+    }
+
+    public Flashcard withBox(int newBox) {
+        return new Flashcard(questionId, themeId, lessonId, front, back, newBox);
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getThemeId() {
+        return themeId;
+    }
+
+    public int getLessonId() {
+        return lessonId;
+    }
+
+    public String getFront() {
+        return front;
+    }
+
+    public String getBack() {
+        return back;
+    }
+
+    public int getBox() {
+        return box;
+    }
+}
@@ -0,0 +1,37 @@
+package qirim.app.model;
+
+// Підсумок сесії карток по одній картці: нова коробка і скільки разів її знали / не знали
+public class FlashcardReview {
+    private final int questionId;
+    private final int box;
+    private final int correct;
+    private final int wrong;
+
+    public FlashcardReview(int questionId, int box, int correct, int wrong) {
+        this.questionId = questionId;
+        this.box = box;
+        this.correct = correct;
+        this.wrong = wrong;
+    }
+
+    // Пізніша сесія тієї ж картки: коробка - з неї, лічильники додаються
+    public FlashcardReview then(FlashcardReview later) {
+        return new FlashcardReview(questionId, later.box, correct + later.correct, wrong + later.wrong);
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getBox() {
+        return box;
+    }
+
+    public int getCorrect() {
+        return correct;
+    }
+
+    public int getWrong() {
+        return wrong;
+    }
+}
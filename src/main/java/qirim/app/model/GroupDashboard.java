@@ -0,0 +1,22 @@
+package qirim.app.model;
+
+import java.util.List;
+
+// Панель класу для вчителя: зведення і таблиця лідерів учасників
+public class GroupDashboard {
+    private final GroupSummary summary;
+    private final List<LeaderboardEntry> leaderboard;
+
+    public GroupDashboard(GroupSummary summary, List<LeaderboardEntry> leaderboard) {
+        this.summary = summary;
+        this.leaderboard = leaderboard;
+    }
+
+    public GroupSummary getSummary() {
+        return summary;
+    }
+
+    public List<LeaderboardEntry> getLeaderboard() {
+        return leaderboard;
+    }
+}
@@ -0,0 +1,68 @@
+package qirim.app.model;
+
+// Зведення по класу з group_stats: суми, які тригери підтримують при кожному збереженні результату
+public class GroupSummary {
+    private final int groupId;
+    private final String name;
+    private final int members;
+    private final long totalScore;
+    private final long lessonsCompleted;
+    private final int activeStreaks;
+    private final int totalLessons;
+
+    public GroupSummary(int groupId, String name, int members, long totalScore,
+                        long lessonsCompleted, int activeStreaks, int totalLessons) {
+        this.groupId = groupId;
+        this.name = name;
+        this.members = members;
+        this.totalScore = totalScore;
+        this.lessonsCompleted = lessonsCompleted;
+        this.activeStreaks = activeStreaks;
+        this.totalLessons = totalLessons;
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public long getLessonsCompleted() {
+        return lessonsCompleted;
+    }
+
+    public int getActiveStreaks() {
+        return activeStreaks;
+    }
+
+    public int getTotalLessons() {
+        return totalLessons;
+    }
+
+    // Середній відсоток пройдених уроків на учня
+    public double getAverageCompletion() {
+        if (members == 0 || totalLessons == 0) {
+            return 0;
+        }
+        return Math.round(lessonsCompleted * 1000.0 / ((long) members * totalLessons)) / 10.0;
+    }
+
+    public double getAverageScore() {
+        return members == 0 ? 0 : Math.round(totalScore * 10.0 / members) / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,11 +1,14 @@
 package qirim.app.model;
 
+import java.util.Objects;
+
+// Незмінний рядок таблиці лідерів: ListDiff порівнює знімки через equals і замінює лише змінені рядки
 public class LeaderboardEntry {
-    private int rank;
-    private String username;
-    private int totalScore;
-    private int lessonsCompleted;
-    private int currentStreak;
+    private final int rank;
+    private final String username;
+    private final int totalScore;
+    private final int lessonsCompleted;
+    private final int currentStreak;
 
     public LeaderboardEntry(int rank, String username, int totalScore,
                             int lessonsCompleted, int currentStreak) {
@@ -36,23 +39,21 @@ public class LeaderboardEntry {
         return currentStreak;
     }
 
-    public void setRank(int rank) {
-        this.rank = rank;
-    }
-
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
-    public void setTotalScore(int totalScore) {
-        this.totalScore = totalScore;
-    }
-
-    public void setLessonsCompleted(int lessonsCompleted) {
-        this.lessonsCompleted = lessonsCompleted;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LeaderboardEntry)) {
+            return false;
+        }
+        LeaderboardEntry other = (LeaderboardEntry) o;
+        return rank == other.rank && totalScore == other.totalScore && lessonsCompleted == other.lessonsCompleted
+                && currentStreak == other.currentStreak && Objects.equals(username, other.username);
     }
 
-    public void setCurrentStreak(int currentStreak) {
-        this.currentStreak = currentStreak;
+    @Override
+    public int hashCode() {
+        return Objects.hash(rank, username, totalScore, lessonsCompleted, currentStreak);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package qirim.app.model;
+
+public class Lesson {
+    private final int lessonId;
+    private final String title;
+    private final int lessonNumber;
+
+    public Lesson(int lessonId, String title, int lessonNumber) {
+        this.lessonId = lessonId;
+        this.title = title;
+        this.lessonNumber = lessonNumber;
+    }
+
+    public int getLessonId() {
+        return lessonId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getLessonNumber() {
+        return lessonNumber;
+    }
+}
@@ -0,0 +1,59 @@
+package qirim.app.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Аудіо уроку: SHA-256 (hex) кліпу з вимовою для запитань і варіантів, у яких він є
+public class LessonAudio {
+
+    public static final LessonAudio EMPTY = new LessonAudio(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<Integer, String> questionClips;
+    private final Map<Integer, String> optionClips;
+
+    public LessonAudio(Map<Integer, String> questionClips, Map<Integer, String> optionClips) {
+        this.questionClips = questionClips;
+        this.optionClips = optionClips;
+    }
+
+    public String questionClip(int questionId) {
+        return questionClips.get(questionId);
+    }
+
+    public String optionClip(int optionId) {
+        return optionClips.get(optionId);
+    }
+
+    public Map<Integer, String> getQuestionClips() {
+        return questionClips;
+    }
+
+    public Map<Integer, String> getOptionClips() {
+        return optionClips;
+    }
+
+    public boolean isEmpty() {
+        return questionClips.isEmpty() && optionClips.isEmpty();
+    }
+
+    // Кліпи в порядку проходження тесту, починаючи із запитання from: спершу запитання, потім його варіанти
+    public List<String> clipsInOrder(List<Question> questions, int from) {
+        List<String> clips = new ArrayList<>();
+        for (int k = 0; k < questions.size(); k++) {
+            Question question = questions.get((from + k) % questions.size());
+            String clip = questionClips.get(question.getQuestionId());
+            if (clip != null) {
+                clips.add(clip);
+            }
+            for (int optionId : question.getOptionIds()) {
+                clip = optionClips.get(optionId);
+                if (clip != null) {
+                    clips.add(clip);
+                }
+            }
+        }
+        return clips;
+    }
+}
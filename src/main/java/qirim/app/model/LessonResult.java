@@ -0,0 +1,22 @@
+package qirim.app.model;
+
+// Найкращий результат користувача за урок (рядок user_lesson_progress)
+public class LessonResult {
+    public static final LessonResult NONE = new LessonResult(false, 0);
+
+    private final boolean completed;
+    private final int bestScore;
+
+    public LessonResult(boolean completed, int bestScore) {
+        this.completed = completed;
+        this.bestScore = bestScore;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+}
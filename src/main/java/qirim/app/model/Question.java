@@ -0,0 +1,51 @@
+package qirim.app.model;
+
+import java.util.List;
+
+public class Question {
+    private final int questionId;
+    private final String text;
+    private final List<String> options;
+    private final List<Integer> optionIds;
+    private final int correctAnswerIndex;
+    // Запитання з введенням відповіді: options - прийняті відповіді, перша з них показується як правильна
+    private final boolean freeText;
+
+    public Question(int questionId, String text, List<String> options, List<Integer> optionIds, int correctAnswerIndex) {
+        this(questionId, text, options, optionIds, correctAnswerIndex, false);
+    }
+
+    public Question(int questionId, String text, List<String> options, List<Integer> optionIds, int correctAnswerIndex,
+                    boolean freeText) {
+        this.questionId = questionId;
+        this.text = text;
+        this.options = options;
+        this.optionIds = optionIds;
+        this.correctAnswerIndex = correctAnswerIndex;
+        this.freeText = freeText;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<String> getOptions() {
+        return options;
+    }
+
+    public List<Integer> getOptionIds() {
+        return optionIds;
+    }
+
+    public int getCorrectAnswerIndex() {
+        return correctAnswerIndex;
+    }
+
+    public boolean isFreeText() {
+        return freeText;
+    }
+}
@@ -0,0 +1,7 @@
+package qirim.app.model;
+
+public enum RegistrationResult {
+    CREATED,
+    USERNAME_TAKEN,
+    EMAIL_TAKEN
+}
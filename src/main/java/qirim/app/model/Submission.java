@@ -0,0 +1,40 @@
+package qirim.app.model;
+
+import java.util.Collections;
+import java.util.List;
+
+// Відповіді одного учня на один урок: answers.get(i) - індекс обраного варіанта i-го запитання
+// або QuizService.NO_ANSWER; textAnswers.get(i) - введений текст для запитань з введенням (інакше null)
+public class Submission {
+    private final int userId;
+    private final int lessonId;
+    private final List<Integer> answers;
+    private final List<String> textAnswers;
+
+    public Submission(int userId, int lessonId, List<Integer> answers) {
+        this(userId, lessonId, answers, Collections.nCopies(answers.size(), null));
+    }
+
+    public Submission(int userId, int lessonId, List<Integer> answers, List<String> textAnswers) {
+        this.userId = userId;
+        this.lessonId = lessonId;
+        this.answers = answers;
+        this.textAnswers = textAnswers;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getLessonId() {
+        return lessonId;
+    }
+
+    public List<Integer> getAnswers() {
+        return answers;
+    }
+
+    public List<String> getTextAnswers() {
+        return textAnswers;
+    }
+}
@@ -0,0 +1,31 @@
+package qirim.app.model;
+
+public class TestResult {
+    private final int userId;
+    private final int lessonId;
+    private final int score;
+    private final int totalQuestions;
+
+    public TestResult(int userId, int lessonId, int score, int totalQuestions) {
+        this.userId = userId;
+        this.lessonId = lessonId;
+        this.score = score;
+        this.totalQuestions = totalQuestions;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getLessonId() {
+        return lessonId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+}
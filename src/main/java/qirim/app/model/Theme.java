@@ -0,0 +1,33 @@
+package qirim.app.model;
+
+import java.util.List;
+
+public class Theme {
+    private final int themeId;
+    private final String name;
+    private final int themeNumber;
+    private final List<Lesson> lessons;
+
+    public Theme(int themeId, String name, int themeNumber, List<Lesson> lessons) {
+        this.themeId = themeId;
+        this.name = name;
+        this.themeNumber = themeNumber;
+        this.lessons = lessons;
+    }
+
+    public int getThemeId() {
+        return themeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThemeNumber() {
+        return themeNumber;
+    }
+
+    public List<Lesson> getLessons() {
+        return lessons;
+    }
+}
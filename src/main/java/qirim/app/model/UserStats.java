@@ -0,0 +1,15 @@
+package qirim.app.model;
+
+public class UserStats {
+    public final int totalScore;
+    public final int lessonsCompleted;
+    public final int currentStreak;
+    public final int longestStreak;
+
+    public UserStats(int totalScore, int lessonsCompleted, int currentStreak, int longestStreak) {
+        this.totalScore = totalScore;
+        this.lessonsCompleted = lessonsCompleted;
+        this.currentStreak = currentStreak;
+        this.longestStreak = longestStreak;
+    }
+}
@@ -0,0 +1,16 @@
+package qirim.app.repository;
+
+import qirim.app.analytics.QuestionStats;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+public interface AnalyticsRepository {
+
+    // Додає прирости до збереженої статистики (суми й лічильники складаються, а не замінюються)
+    void mergeQuestionStats(Collection<QuestionStats> deltas) throws SQLException;
+
+    // Зведена статистика запитань уроку; запитань без жодної відповіді в списку немає
+    List<QuestionStats> loadQuestionStats(int lessonId) throws SQLException;
+}
@@ -0,0 +1,20 @@
+package qirim.app.repository;
+
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface ContentRepository {
+
+    // Теми за порядком theme_number, кожна з уроками за порядком lesson_number
+    List<Theme> loadThemes() throws SQLException;
+
+    // Запитання уроку з варіантами; запитання без варіантів пропускаються
+    List<Question> loadQuestions(int lessonId) throws SQLException;
+
+    // Хеші аудіокліпів запитань і варіантів уроку; урок без аудіо - порожній LessonAudio
+    LessonAudio loadLessonAudio(int lessonId) throws SQLException;
+}
@@ -0,0 +1,18 @@
+package qirim.app.repository;
+
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+public interface FlashcardRepository {
+
+    // Картки всіх запитань тем разом із коробками користувача - одним запитом;
+    // запитання без правильної відповіді пропускаються
+    List<Flashcard> loadDeck(int userId, Collection<Integer> themeIds) throws SQLException;
+
+    // Підсумок сесії одним пакетом: коробка замінюється, лічильники додаються до збережених
+    void saveReviews(int userId, List<FlashcardReview> reviews) throws SQLException;
+}
@@ -0,0 +1,24 @@
+package qirim.app.repository;
+
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface GroupRepository {
+
+    // Класи, де користувач учень або вчитель, за group_id
+    List<GroupSummary> getUserGroups(int userId) throws SQLException;
+
+    // Зведення і перші limit учасників за рейтингом; null, якщо класу немає
+    GroupDashboard getDashboard(int groupId, int limit) throws SQLException;
+
+    // id нового класу; teacherId може бути 0 - клас без вчителя
+    int createGroup(String name, int teacherId) throws SQLException;
+
+    // false, якщо користувач уже в класі
+    boolean addMember(int groupId, int userId) throws SQLException;
+
+    boolean removeMember(int groupId, int userId) throws SQLException;
+}
@@ -0,0 +1,11 @@
+package qirim.app.repository;
+
+import qirim.app.model.LeaderboardEntry;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface LeaderboardRepository {
+
+    List<LeaderboardEntry> getLeaderboard(int limit) throws SQLException;
+}
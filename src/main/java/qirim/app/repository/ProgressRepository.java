@@ -0,0 +1,36 @@
+package qirim.app.repository;
+
+import qirim.app.model.LessonResult;
+import qirim.app.model.TestResult;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProgressRepository {
+
+    void saveTestResult(int userId, int lessonId, int score, int totalQuestions) throws SQLException;
+
+    // Те саме, що saveTestResult для кожного результату по черзі, але одним пакетом
+    void saveTestResults(List<TestResult> results) throws SQLException;
+
+    UserProgress getUserProgress(int userId) throws SQLException;
+
+    // Стрік з останньою активністю до streakCutoff повертається як 0; null, якщо статистики немає
+    UserStats getUserStats(int userId, LocalDate streakCutoff) throws SQLException;
+
+    boolean isLessonCompleted(int userId, int lessonId) throws SQLException;
+
+    int getBestScore(int userId, int lessonId) throws SQLException;
+
+    // Результати кількох уроків одним запитом; уроків без спроб у відповіді немає
+    Map<Integer, LessonResult> getLessonResults(int userId, Collection<Integer> lessonIds) throws SQLException;
+
+    boolean resetStaleStreak(int userId, LocalDate streakCutoff) throws SQLException;
+
+    int resetAllStaleStreaks(LocalDate streakCutoff) throws SQLException;
+}
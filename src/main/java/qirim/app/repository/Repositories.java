@@ -0,0 +1,177 @@
+package qirim.app.repository;
+
+import qirim.app.api.ApiClient;
+import qirim.app.repository.cache.CachingContentRepository;
+import qirim.app.repository.cache.CachingLeaderboardRepository;
+import qirim.app.repository.http.HttpAnalyticsRepository;
+import qirim.app.repository.http.HttpContentRepository;
+import qirim.app.repository.http.HttpFlashcardRepository;
+import qirim.app.repository.http.HttpGroupRepository;
+import qirim.app.repository.http.HttpLeaderboardRepository;
+import qirim.app.repository.http.HttpProgressRepository;
+import qirim.app.repository.http.HttpUserRepository;
+import qirim.app.repository.jdbc.JdbcAnalyticsRepository;
+import qirim.app.repository.jdbc.JdbcContentRepository;
+import qirim.app.repository.jdbc.JdbcFlashcardRepository;
+import qirim.app.repository.jdbc.JdbcGroupRepository;
+import qirim.app.repository.jdbc.JdbcLeaderboardRepository;
+import qirim.app.repository.jdbc.JdbcProgressRepository;
+import qirim.app.repository.jdbc.JdbcUserRepository;
+import qirim.app.repository.memory.InMemoryAnalyticsRepository;
+import qirim.app.repository.memory.InMemoryContentRepository;
+import qirim.app.repository.memory.InMemoryFlashcardRepository;
+import qirim.app.repository.memory.InMemoryGroupRepository;
+import qirim.app.repository.memory.InMemoryLeaderboardRepository;
+import qirim.app.repository.memory.InMemoryProgressRepository;
+import qirim.app.repository.memory.InMemoryStorage;
+import qirim.app.repository.memory.InMemoryUserRepository;
+import qirim.app.services.PasswordHasher;
+
+import java.net.URI;
+import java.util.logging.Logger;
+
+// Поточний набір сховищ для сервісів, обирається через -Dqirim.storage:
+// jdbc (за замовчуванням) - пряме підключення до БД;
+// memory - дані в пам'яті (ті самі, що й LocalDatabase.seed);
+// http - API-сервер qirim.app.server.ApiServer за адресою -Dqirim.api.url
+public final class Repositories {
+
+    public enum Backend {
+        JDBC,
+        MEMORY,
+        HTTP
+    }
+
+    private static final Logger logger = Logger.getLogger(Repositories.class.getName());
+
+    private static final int MEMORY_SEED_USERS = Integer.getInteger("qirim.storage.users", 100);
+    private static final String MEMORY_SEED_PASSWORD = "password";
+    private static final String DEFAULT_API_URL = "http://localhost:8085/";
+
+    private static volatile Repositories current = fromSystemProperties();
+
+    private final UserRepository users;
+    private final ContentRepository content;
+    private final ProgressRepository progress;
+    private final LeaderboardRepository leaderboard;
+    private final AnalyticsRepository analytics;
+    private final GroupRepository groups;
+    private final FlashcardRepository flashcards;
+    private final Backend backend;
+    private final ApiClient api;
+
+    private Repositories(UserRepository users, ContentRepository content, ProgressRepository progress,
+                         LeaderboardRepository leaderboard, AnalyticsRepository analytics, GroupRepository groups,
+                         FlashcardRepository flashcards, Backend backend, ApiClient api) {
+        this.users = users;
+        this.content = content;
+        this.progress = progress;
+        this.leaderboard = leaderboard;
+        this.analytics = analytics;
+        this.groups = groups;
+        this.flashcards = flashcards;
+        this.backend = backend;
+        this.api = api;
+    }
+
+    public static UserRepository users() {
+        return current.users;
+    }
+
+    public static ContentRepository content() {
+        return current.content;
+    }
+
+    public static ProgressRepository progress() {
+        return current.progress;
+    }
+
+    public static LeaderboardRepository leaderboard() {
+        return current.leaderboard;
+    }
+
+    public static AnalyticsRepository analytics() {
+        return current.analytics;
+    }
+
+    public static GroupRepository groups() {
+        return current.groups;
+    }
+
+    public static FlashcardRepository flashcards() {
+        return current.flashcards;
+    }
+
+    public static Backend backend() {
+        return current.backend;
+    }
+
+    public static boolean isInMemory() {
+        return current.backend == Backend.MEMORY;
+    }
+
+    // null, якщо застосунок працює не через API-сервер
+    public static ApiClient api() {
+        return current.api;
+    }
+
+    public static void useJdbc() {
+        current = jdbc();
+    }
+
+    public static void useInMemory(InMemoryStorage storage) {
+        current = inMemory(storage);
+    }
+
+    public static void useHttp(URI baseUri) {
+        current = http(new ApiClient(baseUri));
+    }
+
+    // Спільні для всіх клієнтів кеші вмісту курсу й таблиці лідерів (на API-сервері)
+    public static void enableSharedCaches(long contentTtlMillis, long leaderboardTtlMillis) {
+        Repositories base = current;
+        current = new Repositories(base.users,
+                new CachingContentRepository(base.content, contentTtlMillis),
+                base.progress,
+                new CachingLeaderboardRepository(base.leaderboard, leaderboardTtlMillis),
+                base.analytics, base.groups, base.flashcards, base.backend, base.api);
+    }
+
+    private static Repositories jdbc() {
+        return new Repositories(new JdbcUserRepository(), new JdbcContentRepository(),
+                new JdbcProgressRepository(), new JdbcLeaderboardRepository(), new JdbcAnalyticsRepository(),
+                new JdbcGroupRepository(), new JdbcFlashcardRepository(), Backend.JDBC, null);
+    }
+
+    private static Repositories inMemory(InMemoryStorage storage) {
+        return new Repositories(new InMemoryUserRepository(storage), new InMemoryContentRepository(storage),
+                new InMemoryProgressRepository(storage), new InMemoryLeaderboardRepository(storage),
+                new InMemoryAnalyticsRepository(), new InMemoryGroupRepository(storage),
+                new InMemoryFlashcardRepository(storage), Backend.MEMORY, null);
+    }
+
+    private static Repositories http(ApiClient api) {
+        return new Repositories(new HttpUserRepository(api), new HttpContentRepository(api),
+                new HttpProgressRepository(api), new HttpLeaderboardRepository(api), new HttpAnalyticsRepository(api),
+                new HttpGroupRepository(api), new HttpFlashcardRepository(api), Backend.HTTP, api);
+    }
+
+    private static Repositories fromSystemProperties() {
+        String storage = System.getProperty("qirim.storage", "jdbc");
+        if ("memory".equals(storage)) {
+            logger.info("Дані зберігаються в пам'яті: " + MEMORY_SEED_USERS + " користувачів, пароль \""
+                    + MEMORY_SEED_PASSWORD + "\"");
+            // Хеш рахується один раз; у всіх тестових користувачів він однаковий
+            return inMemory(InMemoryStorage.seeded(MEMORY_SEED_USERS, PasswordHasher.hash(MEMORY_SEED_PASSWORD).join()));
+        }
+        if ("http".equals(storage)) {
+            URI baseUri = URI.create(System.getProperty("qirim.api.url", DEFAULT_API_URL));
+            logger.info("Дані завантажуються через API-сервер " + baseUri);
+            return http(new ApiClient(baseUri));
+        }
+        if (!"jdbc".equals(storage)) {
+            logger.warning("Невідоме значення qirim.storage=" + storage + ", використовується БД");
+        }
+        return jdbc();
+    }
+}
@@ -0,0 +1,30 @@
+package qirim.app.repository;
+
+import qirim.app.model.RegistrationResult;
+
+import java.sql.SQLException;
+
+public interface UserRepository {
+
+    class Credentials {
+        public final int userId;
+        public final String passwordHash;
+
+        public Credentials(int userId, String passwordHash) {
+            this.userId = userId;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    // null, якщо користувача немає
+    Credentials findCredentials(String username) throws SQLException;
+
+    // null, якщо користувача немає
+    String findUsername(int userId) throws SQLException;
+
+    // Створює користувача разом з його рядком статистики
+    RegistrationResult create(String username, String email, String passwordHash) throws SQLException;
+
+    // Замінює хеш лише якщо він не змінився з моменту читання
+    boolean updatePasswordHash(int userId, String expectedHash, String newHash) throws SQLException;
+}
@@ -0,0 +1,56 @@
+package qirim.app.repository.cache;
+
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.ContentRepository;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+// Вміст курсу змінюється лише вручну в БД, тож спільний кеш на сервері знімає
+// з бази майже всі читання тем і запитань
+public class CachingContentRepository implements ContentRepository {
+
+    // Id уроків приходять від клієнтів: кеш не росте від перебору неіснуючих
+    private static final int MAX_LESSONS = 1024;
+
+    private final ContentRepository delegate;
+    private final TtlCache<Boolean, List<Theme>> themes;
+    private final TtlCache<Integer, List<Question>> questions;
+    private final TtlCache<Integer, LessonAudio> audio;
+
+    public CachingContentRepository(ContentRepository delegate, long ttlMillis) {
+        this.delegate = delegate;
+        this.themes = new TtlCache<>(ttlMillis, 1);
+        // Порожній список - урок не існує або ще не наповнений; такий результат не кешується
+        this.questions = new TtlCache<>(ttlMillis, MAX_LESSONS, list -> !list.isEmpty());
+        this.audio = new TtlCache<>(ttlMillis, MAX_LESSONS);
+    }
+
+    @Override
+    public List<Theme> loadThemes() throws SQLException {
+        return themes.get(Boolean.TRUE, key -> Collections.unmodifiableList(delegate.loadThemes()));
+    }
+
+    @Override
+    public List<Question> loadQuestions(int lessonId) throws SQLException {
+        return questions.get(lessonId, key -> Collections.unmodifiableList(delegate.loadQuestions(key)));
+    }
+
+    @Override
+    public LessonAudio loadLessonAudio(int lessonId) throws SQLException {
+        // Озвучка прив'язана до запитань: урок без запитань не має й кліпів, і в кеш озвучки не потрапляє
+        if (loadQuestions(lessonId).isEmpty()) {
+            return LessonAudio.EMPTY;
+        }
+        return audio.get(lessonId, delegate::loadLessonAudio);
+    }
+
+    public void invalidate() {
+        themes.invalidateAll();
+        questions.invalidateAll();
+        audio.invalidateAll();
+    }
+}
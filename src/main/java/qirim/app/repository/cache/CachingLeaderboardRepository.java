@@ -0,0 +1,32 @@
+package qirim.app.repository.cache;
+
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.LeaderboardRepository;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+// Таблиця лідерів однакова для всіх клієнтів; кілька секунд затримки тут непомітні
+public class CachingLeaderboardRepository implements LeaderboardRepository {
+
+    // Ліміт на сервері обмежений MAX_LEADERBOARD_LIMIT, тож різних ключів небагато
+    private static final int MAX_LIMITS = 128;
+
+    private final LeaderboardRepository delegate;
+    private final TtlCache<Integer, List<LeaderboardEntry>> cache;
+
+    public CachingLeaderboardRepository(LeaderboardRepository delegate, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new TtlCache<>(ttlMillis, MAX_LIMITS);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(int limit) throws SQLException {
+        return cache.get(limit, key -> Collections.unmodifiableList(delegate.getLeaderboard(key)));
+    }
+
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,82 @@
+package qirim.app.repository.cache;
+
+import qirim.app.concurrent.SingleFlight;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Кеш зі строком життя записів. Значення мають бути незмінними: їх віддають усім потокам.
+// Коли запис застаріває, в БД іде лише один із потоків, що одночасно його просять.
+// Записів не більше maxEntries: понад ліміт витісняється найдавніше використаний (ключі приходять від клієнтів).
+final class TtlCache<K, V> {
+
+    interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Порядок доступу: перший запис - найдавніше використаний. Доступ лише під synchronized (entries)
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final long ttlNanos;
+    // Значення, що не проходять перевірку (напр. порожні для неіснуючого уроку), віддаються, але не зберігаються
+    private final Predicate<V> cacheable;
+
+    TtlCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, value -> true);
+    }
+
+    TtlCache(long ttlMillis, int maxEntries, Predicate<V> cacheable) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries має бути додатним: " + maxEntries);
+        }
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.cacheable = cacheable;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    V get(K key, Loader<K, V> loader) throws SQLException {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    return entry.value;
+                }
+                entries.remove(key);
+            }
+        }
+
+        return loads.get(key, k -> {
+            V value = loader.load(k);
+            if (cacheable.test(value)) {
+                Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+                synchronized (entries) {
+                    entries.put(k, entry);
+                }
+            }
+            return value;
+        });
+    }
+
+    void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
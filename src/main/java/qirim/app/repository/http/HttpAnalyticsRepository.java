@@ -0,0 +1,38 @@
+package qirim.app.repository.http;
+
+import qirim.app.analytics.QuestionStats;
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.repository.AnalyticsRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HttpAnalyticsRepository implements AnalyticsRepository {
+
+    private final ApiClient api;
+
+    public HttpAnalyticsRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public void mergeQuestionStats(Collection<QuestionStats> deltas) throws SQLException {
+        List<QuestionStats> all = new ArrayList<>(deltas);
+        for (int from = 0; from < all.size(); from += ApiCodec.MAX_STATS_PER_REQUEST) {
+            List<QuestionStats> part = all.subList(from, Math.min(all.size(), from + ApiCodec.MAX_STATS_PER_REQUEST));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("questions", ApiCodec.questionStats(part));
+            api.post("api/analytics/questions", body, json -> json);
+        }
+    }
+
+    @Override
+    public List<QuestionStats> loadQuestionStats(int lessonId) throws SQLException {
+        return api.get("api/lessons/" + lessonId + "/stats", ApiCodec::toQuestionStats);
+    }
+}
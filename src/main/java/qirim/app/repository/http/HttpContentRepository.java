@@ -0,0 +1,39 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.ContentRepository;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+public class HttpContentRepository implements ContentRepository {
+
+    private final ApiClient api;
+
+    public HttpContentRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public List<Theme> loadThemes() throws SQLException {
+        List<Theme> themes = api.get("api/themes", ApiCodec::toThemes);
+        return themes != null ? themes : Collections.emptyList();
+    }
+
+    @Override
+    public List<Question> loadQuestions(int lessonId) throws SQLException {
+        List<Question> questions = api.get("api/lessons/" + lessonId + "/questions", ApiCodec::toQuestions);
+        return questions != null ? questions : Collections.emptyList();
+    }
+
+    @Override
+    public LessonAudio loadLessonAudio(int lessonId) throws SQLException {
+        LessonAudio audio = api.get("api/lessons/" + lessonId + "/audio", ApiCodec::toLessonAudio);
+        return audio != null ? audio : LessonAudio.EMPTY;
+    }
+}
@@ -0,0 +1,53 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+import qirim.app.repository.FlashcardRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HttpFlashcardRepository implements FlashcardRepository {
+
+    private final ApiClient api;
+
+    public HttpFlashcardRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public List<Flashcard> loadDeck(int userId, Collection<Integer> themeIds) throws SQLException {
+        List<Flashcard> deck = new ArrayList<>();
+        List<Integer> ids = List.copyOf(themeIds);
+        for (int from = 0; from < ids.size(); from += ApiCodec.MAX_THEMES_PER_REQUEST) {
+            List<Integer> part = ids.subList(from, Math.min(ids.size(), from + ApiCodec.MAX_THEMES_PER_REQUEST));
+            StringBuilder query = new StringBuilder();
+            for (int themeId : part) {
+                query.append(query.length() == 0 ? "" : ",").append(themeId);
+            }
+            List<Flashcard> partDeck = api.get("api/users/" + userId + "/flashcards?themes=" + query,
+                    ApiCodec::toFlashcards);
+            if (partDeck != null) {
+                deck.addAll(partDeck);
+            }
+        }
+        return deck;
+    }
+
+    // Великі сесії діляться на частини, щоб не впиратися в ліміт розміру запиту на сервері
+    @Override
+    public void saveReviews(int userId, List<FlashcardReview> reviews) throws SQLException {
+        for (int from = 0; from < reviews.size(); from += ApiCodec.MAX_REVIEWS_PER_REQUEST) {
+            List<FlashcardReview> part = reviews.subList(from, Math.min(reviews.size(), from + ApiCodec.MAX_REVIEWS_PER_REQUEST));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("reviews", ApiCodec.flashcardReviews(part));
+            api.post("api/users/" + userId + "/flashcards", body, json -> json);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.repository.GroupRepository;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collections;
+import java.util.List;
+
+// Клієнт лише читає класи; створення і склад класів - через GroupAdmin на сервері
+public class HttpGroupRepository implements GroupRepository {
+
+    private final ApiClient api;
+
+    public HttpGroupRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public List<GroupSummary> getUserGroups(int userId) throws SQLException {
+        List<GroupSummary> groups = api.get("api/users/" + userId + "/groups", ApiCodec::toGroups);
+        return groups != null ? groups : Collections.emptyList();
+    }
+
+    @Override
+    public GroupDashboard getDashboard(int groupId, int limit) throws SQLException {
+        return api.get("api/groups/" + groupId + "?limit=" + limit, ApiCodec::toGroupDashboard);
+    }
+
+    @Override
+    public int createGroup(String name, int teacherId) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Створення класів через API не підтримується");
+    }
+
+    @Override
+    public boolean addMember(int groupId, int userId) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Зміна складу класу через API не підтримується");
+    }
+
+    @Override
+    public boolean removeMember(int groupId, int userId) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Зміна складу класу через API не підтримується");
+    }
+}
@@ -0,0 +1,25 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.LeaderboardRepository;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+public class HttpLeaderboardRepository implements LeaderboardRepository {
+
+    private final ApiClient api;
+
+    public HttpLeaderboardRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(int limit) throws SQLException {
+        List<LeaderboardEntry> leaderboard = api.get("api/leaderboard?limit=" + limit, ApiCodec::toLeaderboard);
+        return leaderboard != null ? leaderboard : Collections.emptyList();
+    }
+}
@@ -0,0 +1,106 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.LessonResult;
+import qirim.app.model.TestResult;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.repository.ProgressRepository;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HttpProgressRepository implements ProgressRepository {
+
+    private final ApiClient api;
+
+    public HttpProgressRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public void saveTestResult(int userId, int lessonId, int score, int totalQuestions) throws SQLException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("lessonId", lessonId);
+        body.put("score", score);
+        body.put("total", totalQuestions);
+        api.post("api/users/" + userId + "/results", body, json -> json);
+    }
+
+    // Великі пакети діляться на частини, щоб не впиратися в ліміт розміру запиту на сервері
+    @Override
+    public void saveTestResults(List<TestResult> results) throws SQLException {
+        for (int from = 0; from < results.size(); from += ApiCodec.MAX_RESULTS_PER_REQUEST) {
+            List<TestResult> part = results.subList(from, Math.min(results.size(), from + ApiCodec.MAX_RESULTS_PER_REQUEST));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("results", ApiCodec.testResults(part));
+            api.post("api/results", body, json -> json);
+        }
+    }
+
+    @Override
+    public UserProgress getUserProgress(int userId) throws SQLException {
+        return api.get("api/users/" + userId + "/progress", ApiCodec::toProgress);
+    }
+
+    @Override
+    public UserStats getUserStats(int userId, LocalDate streakCutoff) throws SQLException {
+        return api.get("api/users/" + userId + "/stats?cutoff=" + streakCutoff, ApiCodec::toStats);
+    }
+
+    @Override
+    public boolean isLessonCompleted(int userId, int lessonId) throws SQLException {
+        Map<String, Object> json = lessonProgress(userId, lessonId);
+        return json != null && Boolean.TRUE.equals(json.get("completed"));
+    }
+
+    @Override
+    public int getBestScore(int userId, int lessonId) throws SQLException {
+        Map<String, Object> json = lessonProgress(userId, lessonId);
+        return json != null ? ApiCodec.integer(json, "bestScore") : 0;
+    }
+
+    private Map<String, Object> lessonProgress(int userId, int lessonId) throws SQLException {
+        return api.get("api/users/" + userId + "/lessons/" + lessonId, ApiCodec::map);
+    }
+
+    // Список уроків іде частинами, щоб рядок запиту лишався коротким
+    @Override
+    public Map<Integer, LessonResult> getLessonResults(int userId, Collection<Integer> lessonIds) throws SQLException {
+        Map<Integer, LessonResult> results = new HashMap<>();
+        List<Integer> ids = List.copyOf(lessonIds);
+        for (int from = 0; from < ids.size(); from += ApiCodec.MAX_LESSONS_PER_REQUEST) {
+            List<Integer> part = ids.subList(from, Math.min(ids.size(), from + ApiCodec.MAX_LESSONS_PER_REQUEST));
+            StringBuilder query = new StringBuilder();
+            for (int lessonId : part) {
+                query.append(query.length() == 0 ? "" : ",").append(lessonId);
+            }
+            Map<Integer, LessonResult> partResults = api.get("api/users/" + userId + "/lessons?ids=" + query,
+                    ApiCodec::toLessonResults);
+            if (partResults != null) {
+                results.putAll(partResults);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean resetStaleStreak(int userId, LocalDate streakCutoff) throws SQLException {
+        Map<String, Object> json = api.post("api/users/" + userId + "/streak/reset?cutoff=" + streakCutoff,
+                new LinkedHashMap<>(), ApiCodec::map);
+        return json != null && Boolean.TRUE.equals(json.get("reset"));
+    }
+
+    // Пакетне скидання виконує StreakReconciler на самому сервері
+    @Override
+    public int resetAllStaleStreaks(LocalDate streakCutoff) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Пакетне скидання стріків виконується на сервері");
+    }
+}
@@ -0,0 +1,39 @@
+package qirim.app.repository.http;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.RegistrationResult;
+import qirim.app.repository.UserRepository;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+// Хеші паролів не залишають сервер: вхід і реєстрація йдуть через AuthService -> ApiClient
+public class HttpUserRepository implements UserRepository {
+
+    private final ApiClient api;
+
+    public HttpUserRepository(ApiClient api) {
+        this.api = api;
+    }
+
+    @Override
+    public Credentials findCredentials(String username) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Облікові дані недоступні через API");
+    }
+
+    @Override
+    public String findUsername(int userId) throws SQLException {
+        return api.get("api/users/" + userId, json -> ApiCodec.string(ApiCodec.map(json), "username"));
+    }
+
+    @Override
+    public RegistrationResult create(String username, String email, String passwordHash) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Реєстрація через API приймає пароль, а не хеш");
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String expectedHash, String newHash) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Хеші паролів оновлює сервер");
+    }
+}
@@ -0,0 +1,152 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.analytics.LatencySketch;
+import qirim.app.analytics.QuestionStats;
+import qirim.app.repository.AnalyticsRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JdbcAnalyticsRepository implements AnalyticsRepository {
+
+    // Прирости для запитань і варіантів, яких уже немає (чи ніколи не було), пропускаються, а не обривають пакет
+    public static final String MERGE_TOTALS =
+            "INSERT INTO question_stats AS s (question_id, attempts, correct, skipped, rest_sum, rest_squares, correct_rest_sum) " +
+            "SELECT v.* FROM (VALUES (?, ?, ?, ?, ?, ?, ?)) " +
+            "AS v (question_id, attempts, correct, skipped, rest_sum, rest_squares, correct_rest_sum) " +
+            "WHERE EXISTS (SELECT 1 FROM questions q WHERE q.question_id = v.question_id) " +
+            "ON CONFLICT (question_id) DO UPDATE SET " +
+            "attempts = s.attempts + EXCLUDED.attempts, correct = s.correct + EXCLUDED.correct, " +
+            "skipped = s.skipped + EXCLUDED.skipped, rest_sum = s.rest_sum + EXCLUDED.rest_sum, " +
+            "rest_squares = s.rest_squares + EXCLUDED.rest_squares, " +
+            "correct_rest_sum = s.correct_rest_sum + EXCLUDED.correct_rest_sum, updated_at = now()";
+
+    public static final String MERGE_PICKS =
+            "INSERT INTO option_stats AS o (option_id, question_id, picks) " +
+            "SELECT v.* FROM (VALUES (?, ?, ?)) AS v (option_id, question_id, picks) " +
+            "WHERE EXISTS (SELECT 1 FROM questions_options qo " +
+            "WHERE qo.option_id = v.option_id AND qo.question_id = v.question_id) " +
+            "ON CONFLICT (option_id) DO UPDATE SET picks = o.picks + EXCLUDED.picks";
+
+    public static final String MERGE_TIMES =
+            "INSERT INTO question_time_buckets AS b (question_id, bucket, answers) " +
+            "SELECT v.* FROM (VALUES (?, ?, ?)) AS v (question_id, bucket, answers) " +
+            "WHERE EXISTS (SELECT 1 FROM questions q WHERE q.question_id = v.question_id) " +
+            "ON CONFLICT (question_id, bucket) DO UPDATE SET answers = b.answers + EXCLUDED.answers";
+
+    public static final String QUESTION_TOTALS =
+            "SELECT s.question_id, s.attempts, s.correct, s.skipped, s.rest_sum, s.rest_squares, s.correct_rest_sum " +
+            "FROM question_stats s JOIN questions q ON q.question_id = s.question_id " +
+            "WHERE q.lesson_id = ? ORDER BY q.question_number";
+
+    public static final String OPTION_PICKS =
+            "SELECT o.question_id, o.option_id, o.picks FROM option_stats o " +
+            "JOIN questions q ON q.question_id = o.question_id WHERE q.lesson_id = ?";
+
+    public static final String RESPONSE_TIMES =
+            "SELECT b.question_id, b.bucket, b.answers FROM question_time_buckets b " +
+            "JOIN questions q ON q.question_id = b.question_id WHERE q.lesson_id = ?";
+
+    // Один пакет на таблицю в одній транзакції; рядки в порядку question_id, щоб паралельні злиття не блокували одне одного
+    @Override
+    public void mergeQuestionStats(Collection<QuestionStats> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<QuestionStats> ordered = new ArrayList<>(deltas);
+        ordered.sort(Comparator.comparingInt(QuestionStats::getQuestionId));
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement totals = conn.prepareStatement(MERGE_TOTALS);
+                 PreparedStatement picks = conn.prepareStatement(MERGE_PICKS);
+                 PreparedStatement times = conn.prepareStatement(MERGE_TIMES)) {
+                for (QuestionStats stats : ordered) {
+                    totals.setInt(1, stats.getQuestionId());
+                    totals.setLong(2, stats.getAttempts());
+                    totals.setLong(3, stats.getCorrect());
+                    totals.setLong(4, stats.getSkipped());
+                    totals.setDouble(5, stats.getRestSum());
+                    totals.setDouble(6, stats.getRestSquares());
+                    totals.setDouble(7, stats.getCorrectRestSum());
+                    totals.addBatch();
+
+                    for (Map.Entry<Integer, Long> pick : stats.getOptionPicks().entrySet()) {
+                        picks.setInt(1, pick.getKey());
+                        picks.setInt(2, stats.getQuestionId());
+                        picks.setLong(3, pick.getValue());
+                        picks.addBatch();
+                    }
+
+                    LatencySketch sketch = stats.getResponseTimes();
+                    for (int bucket = 0; bucket < LatencySketch.BUCKETS; bucket++) {
+                        if (sketch.count(bucket) > 0) {
+                            times.setInt(1, stats.getQuestionId());
+                            times.setInt(2, bucket);
+                            times.setLong(3, sketch.count(bucket));
+                            times.addBatch();
+                        }
+                    }
+                }
+                totals.executeBatch();
+                picks.executeBatch();
+                times.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<QuestionStats> loadQuestionStats(int lessonId) throws SQLException {
+        Map<Integer, QuestionStats> byQuestion = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(QUESTION_TOTALS)) {
+                stmt.setInt(1, lessonId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        QuestionStats stats = new QuestionStats(rs.getInt("question_id"), lessonId);
+                        stats.addTotals(rs.getLong("attempts"), rs.getLong("correct"), rs.getLong("skipped"),
+                                rs.getDouble("rest_sum"), rs.getDouble("rest_squares"), rs.getDouble("correct_rest_sum"));
+                        byQuestion.put(stats.getQuestionId(), stats);
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(OPTION_PICKS)) {
+                stmt.setInt(1, lessonId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        QuestionStats stats = byQuestion.get(rs.getInt("question_id"));
+                        if (stats != null) {
+                            stats.addPicks(rs.getInt("option_id"), rs.getLong("picks"));
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(RESPONSE_TIMES)) {
+                stmt.setInt(1, lessonId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        QuestionStats stats = byQuestion.get(rs.getInt("question_id"));
+                        if (stats != null) {
+                            stats.getResponseTimes().add(rs.getInt("bucket"), rs.getLong("answers"));
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(byQuestion.values());
+    }
+}
@@ -0,0 +1,170 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.logging.Log;
+import qirim.app.model.Lesson;
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.ContentRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JdbcContentRepository implements ContentRepository {
+
+    private static final Logger logger = Logger.getLogger(JdbcContentRepository.class.getName());
+
+    public static final String THEMES =
+            "SELECT theme_id, theme_name, theme_number FROM themes ORDER BY theme_number";
+
+    public static final String LESSONS =
+            "SELECT lesson_id, lesson_name, lesson_number FROM lessons WHERE theme_id = ? ORDER BY lesson_number";
+
+    public static final String QUESTIONS =
+            "SELECT question_id, question_text, question_type FROM questions WHERE lesson_id = ? ORDER BY question_number";
+
+    public static final String OPTIONS =
+            "SELECT option_id, option_text, is_correct FROM questions_options WHERE question_id = ? ORDER BY option_number";
+
+    public static final String QUESTION_AUDIO =
+            "SELECT question_id, audio_sha256 FROM questions " +
+            "WHERE lesson_id = ? AND audio_sha256 IS NOT NULL ORDER BY question_number";
+
+    public static final String OPTION_AUDIO =
+            "SELECT o.option_id, o.audio_sha256 FROM questions_options o " +
+            "JOIN questions q ON q.question_id = o.question_id " +
+            "WHERE q.lesson_id = ? AND o.audio_sha256 IS NOT NULL ORDER BY q.question_number, o.option_number";
+
+    @Override
+    public List<Theme> loadThemes() throws SQLException {
+        List<Theme> loadedThemes = new ArrayList<>();
+
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(THEMES);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                int themeId = rs.getInt("theme_id");
+                String themeName = rs.getString("theme_name");
+                int themeNumber = rs.getInt("theme_number");
+
+                List<Lesson> lessons = loadLessonsForTheme(conn, themeId);
+                loadedThemes.add(new Theme(themeId, themeName, themeNumber, lessons));
+            }
+        }
+
+        Log.info(logger, "Завантажено теми", "themes", loadedThemes.size());
+        return loadedThemes;
+    }
+
+    private List<Lesson> loadLessonsForTheme(Connection conn, int themeId) {
+        List<Lesson> lessons = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(LESSONS)) {
+            stmt.setInt(1, themeId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                int lessonId = rs.getInt("lesson_id");
+                String lessonName = rs.getString("lesson_name");
+                int lessonNumber = rs.getInt("lesson_number");
+
+                lessons.add(new Lesson(lessonId, lessonName, lessonNumber));
+            }
+
+            Log.fine(logger, "Завантажено уроки теми", "themeId", themeId, "lessons", lessons.size());
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Помилка при завантаженні уроків для теми ID: " + themeId, e);
+        }
+
+        return lessons;
+    }
+
+    @Override
+    public List<Question> loadQuestions(int lessonId) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(QUESTIONS)) {
+
+            stmt.setInt(1, lessonId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                int questionId = rs.getInt("question_id");
+                String questionText = rs.getString("question_text");
+                boolean freeText = "text".equals(rs.getString("question_type"));
+
+                List<String> options = new ArrayList<>();
+                List<Integer> optionIds = new ArrayList<>();
+                int correctAnswerIndex = -1;
+
+                try (PreparedStatement optionStmt = conn.prepareStatement(OPTIONS)) {
+                    optionStmt.setInt(1, questionId);
+                    ResultSet optionsRs = optionStmt.executeQuery();
+
+                    int index = 0;
+                    while (optionsRs.next()) {
+                        int optionId = optionsRs.getInt("option_id");
+                        String optionText = optionsRs.getString("option_text");
+                        boolean isCorrect = optionsRs.getBoolean("is_correct");
+
+                        options.add(optionText);
+                        optionIds.add(optionId);
+
+                        if (isCorrect) {
+                            correctAnswerIndex = index;
+                        }
+                        index++;
+                    }
+                }
+
+                // У запитанні з введенням усі варіанти - прийняті відповіді
+                if (freeText) {
+                    correctAnswerIndex = 0;
+                }
+
+                if (!options.isEmpty()) {
+                    questions.add(new Question(questionId, questionText, options, optionIds, correctAnswerIndex, freeText));
+                }
+            }
+        }
+
+        return questions;
+    }
+
+    @Override
+    public LessonAudio loadLessonAudio(int lessonId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection()) {
+            Map<Integer, String> questionClips = loadClips(conn, QUESTION_AUDIO, lessonId);
+            Map<Integer, String> optionClips = loadClips(conn, OPTION_AUDIO, lessonId);
+            if (questionClips.isEmpty() && optionClips.isEmpty()) {
+                return LessonAudio.EMPTY;
+            }
+            return new LessonAudio(questionClips, optionClips);
+        }
+    }
+
+    private static Map<Integer, String> loadClips(Connection conn, String query, int lessonId) throws SQLException {
+        Map<Integer, String> clips = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, lessonId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clips.put(rs.getInt(1), rs.getString(2));
+                }
+            }
+        }
+        return clips;
+    }
+}
@@ -0,0 +1,88 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+import qirim.app.repository.FlashcardRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public class JdbcFlashcardRepository implements FlashcardRepository {
+
+    // Відповідь - перший правильний варіант; у запитанні з введенням - перша прийнята відповідь.
+    // Запитання, варіанти й коробки користувача - в одному запиті замість запиту на кожне запитання
+    public static final String DECK =
+            "SELECT l.theme_id, q.lesson_id, q.question_id, q.question_text, a.option_text, COALESCE(f.box, 0) AS box " +
+            "FROM lessons l " +
+            "JOIN questions q ON q.lesson_id = l.lesson_id " +
+            "JOIN LATERAL (SELECT option_text FROM questions_options o " +
+            "WHERE o.question_id = q.question_id AND (o.is_correct OR q.question_type = 'text') " +
+            "ORDER BY o.option_number LIMIT 1) a ON true " +
+            "LEFT JOIN flashcard_progress f ON f.user_id = ? AND f.question_id = q.question_id " +
+            "WHERE l.theme_id = ANY (?) " +
+            "ORDER BY l.theme_id, l.lesson_number, q.question_number";
+
+    public static final String SAVE_REVIEW =
+            "INSERT INTO flashcard_progress AS f (user_id, question_id, box, correct, wrong) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, question_id) DO UPDATE SET box = EXCLUDED.box, " +
+            "correct = f.correct + EXCLUDED.correct, wrong = f.wrong + EXCLUDED.wrong, reviewed_at = now()";
+
+
+
+    @Override
+    public List<Flashcard> loadDeck(int userId, Collection<Integer> themeIds) throws SQLException {
+        List<Flashcard> deck = new ArrayList<>();
+        if (themeIds.isEmpty()) {
+            return deck;
+        }
+
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DECK)) {
+            stmt.setInt(1, userId);
+            stmt.setArray(2, conn.createArrayOf("integer", themeIds.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deck.add(new Flashcard(rs.getInt("question_id"), rs.getInt("theme_id"), rs.getInt("lesson_id"),
+                            rs.getString("question_text"), rs.getString("option_text"), rs.getInt("box")));
+                }
+            }
+        }
+        return deck;
+    }
+
+    // Один пакет в одній транзакції; рядки в порядку question_id, як і в інших пакетних записах
+    @Override
+    public void saveReviews(int userId, List<FlashcardReview> reviews) throws SQLException {
+        if (reviews.isEmpty()) {
+            return;
+        }
+        List<FlashcardReview> ordered = new ArrayList<>(reviews);
+        ordered.sort(Comparator.comparingInt(FlashcardReview::getQuestionId));
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(SAVE_REVIEW)) {
+                for (FlashcardReview review : ordered) {
+                    stmt.setInt(1, userId);
+                    stmt.setInt(2, review.getQuestionId());
+                    stmt.setInt(3, review.getBox());
+                    stmt.setInt(4, review.getCorrect());
+                    stmt.setInt(5, review.getWrong());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
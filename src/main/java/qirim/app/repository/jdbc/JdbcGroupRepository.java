@@ -0,0 +1,134 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.GroupRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+// Суми класу і рядки учасників підтримують тригери з 007_groups.sql, тож читання - пошук за ключем без GROUP BY
+public class JdbcGroupRepository implements GroupRepository {
+
+    private static final String SUMMARY_COLUMNS =
+            "g.group_id, g.name, s.members, s.total_score, s.lessons_completed, s.active_streaks, " +
+            "(SELECT count(*) FROM lessons) AS total_lessons";
+
+    public static final String USER_GROUPS =
+            "SELECT " + SUMMARY_COLUMNS + " FROM groups g JOIN group_stats s ON s.group_id = g.group_id " +
+            "WHERE g.teacher_id = ? OR g.group_id IN (SELECT group_id FROM group_members WHERE user_id = ?) " +
+            "ORDER BY g.group_id";
+
+    // Один запит: зведення і перші limit учасників за індексом idx_group_members_ranking
+    public static final String DASHBOARD =
+            "SELECT " + SUMMARY_COLUMNS + ", m.username, m.total_score AS member_score, " +
+            "m.lessons_completed AS member_lessons, m.current_streak AS member_streak " +
+            "FROM groups g JOIN group_stats s ON s.group_id = g.group_id " +
+            "LEFT JOIN LATERAL (SELECT username, total_score, lessons_completed, current_streak " +
+            "FROM group_members WHERE group_id = g.group_id " +
+            "ORDER BY total_score DESC, lessons_completed DESC, username LIMIT ?) m ON true " +
+            "WHERE g.group_id = ? " +
+            "ORDER BY m.total_score DESC, m.lessons_completed DESC, m.username";
+
+    public static final String CREATE_GROUP =
+            "INSERT INTO groups (name, teacher_id) VALUES (?, ?) RETURNING group_id";
+
+    public static final String ADD_MEMBER =
+            "INSERT INTO group_members (group_id, user_id, username) VALUES (?, ?, '') " +
+            "ON CONFLICT (group_id, user_id) DO NOTHING";
+
+    public static final String REMOVE_MEMBER =
+            "DELETE FROM group_members WHERE group_id = ? AND user_id = ?";
+
+    @Override
+    public List<GroupSummary> getUserGroups(int userId) throws SQLException {
+        List<GroupSummary> groups = new ArrayList<>();
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(USER_GROUPS)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    groups.add(summary(rs));
+                }
+            }
+        }
+        return groups;
+    }
+
+    @Override
+    public GroupDashboard getDashboard(int groupId, int limit) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DASHBOARD)) {
+            stmt.setInt(1, limit);
+            stmt.setInt(2, groupId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                GroupSummary summary = null;
+                List<LeaderboardEntry> leaderboard = new ArrayList<>();
+                int rank = 1;
+                while (rs.next()) {
+                    if (summary == null) {
+                        summary = summary(rs);
+                    }
+                    String username = rs.getString("username");
+                    if (username != null) {
+                        leaderboard.add(new LeaderboardEntry(rank++, username, rs.getInt("member_score"),
+                                rs.getInt("member_lessons"), rs.getInt("member_streak")));
+                    }
+                }
+                return summary != null ? new GroupDashboard(summary, leaderboard) : null;
+            }
+        }
+    }
+
+    @Override
+    public int createGroup(String name, int teacherId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CREATE_GROUP)) {
+            stmt.setString(1, name);
+            if (teacherId > 0) {
+                stmt.setInt(2, teacherId);
+            } else {
+                stmt.setNull(2, Types.INTEGER);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // username і статистику заповнює тригер group_members_snapshot
+    @Override
+    public boolean addMember(int groupId, int userId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ADD_MEMBER)) {
+            stmt.setInt(1, groupId);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public boolean removeMember(int groupId, int userId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(REMOVE_MEMBER)) {
+            stmt.setInt(1, groupId);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private static GroupSummary summary(ResultSet rs) throws SQLException {
+        return new GroupSummary(rs.getInt("group_id"), rs.getString("name"), rs.getInt("members"),
+                rs.getLong("total_score"), rs.getLong("lessons_completed"), rs.getInt("active_streaks"),
+                rs.getInt("total_lessons"));
+    }
+}
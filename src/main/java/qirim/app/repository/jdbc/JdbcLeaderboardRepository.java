@@ -0,0 +1,44 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.LeaderboardRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcLeaderboardRepository implements LeaderboardRepository {
+
+    public static final String TOP =
+            "SELECT username, total_score, lessons_completed, current_streak " +
+            "FROM leaderboard LIMIT ?";
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(int limit) throws SQLException {
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TOP)) {
+
+            stmt.setInt(1, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            int rank = 1;
+            while (rs.next()) {
+                leaderboard.add(new LeaderboardEntry(
+                        rank++,
+                        rs.getString("username"),
+                        rs.getInt("total_score"),
+                        rs.getInt("lessons_completed"),
+                        rs.getInt("current_streak")
+                ));
+            }
+        }
+
+        return leaderboard;
+    }
+}
@@ -0,0 +1,213 @@
+package qirim.app.repository.jdbc;
+
+import qirim.app.model.LessonResult;
+import qirim.app.model.TestResult;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.repository.ProgressRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JdbcProgressRepository implements ProgressRepository {
+
+    // Стрік згорає, якщо остання активність була раніше за вчора
+    public static final String RESET_USER_SQL =
+            "WITH reset AS (" +
+                    "UPDATE user_stats SET current_streak = 0 " +
+                    "WHERE user_id = ? AND current_streak > 0 AND last_activity_date < ? " +
+                    "RETURNING user_id) " +
+            "UPDATE users u SET streak = 0 FROM reset r WHERE u.id = r.user_id";
+
+    public static final String RESET_ALL_SQL =
+            "WITH reset AS (" +
+                    "UPDATE user_stats SET current_streak = 0 " +
+                    "WHERE current_streak > 0 AND last_activity_date < ? " +
+                    "RETURNING user_id) " +
+            "UPDATE users u SET streak = 0 FROM reset r WHERE u.id = r.user_id";
+
+    public static final String SAVE_RESULT =
+            "SELECT update_user_progress(?, ?, ?, ?)";
+
+    public static final String USER_PROGRESS =
+            "SELECT * FROM get_user_progress(?)";
+
+    public static final String USER_STATS =
+            "SELECT COALESCE(us.total_score, 0) as total_score, " +
+            "COALESCE(us.lessons_completed, 0) as lessons_completed, " +
+            "CASE WHEN us.last_activity_date < ? THEN 0 " +
+            "ELSE COALESCE(us.current_streak, 0) END as current_streak, " +
+            "COALESCE(us.longest_streak, 0) as longest_streak " +
+            "FROM user_stats us WHERE us.user_id = ?";
+
+    public static final String LESSON_COMPLETED =
+            "SELECT completed FROM user_lesson_progress " +
+            "WHERE user_id = ? AND lesson_id = ?";
+
+    public static final String BEST_SCORE =
+            "SELECT score FROM user_lesson_progress " +
+            "WHERE user_id = ? AND lesson_id = ?";
+
+    public static final String LESSON_RESULTS =
+            "SELECT lesson_id, score, completed FROM user_lesson_progress " +
+            "WHERE user_id = ? AND lesson_id = ANY (?)";
+
+    @Override
+    public void saveTestResult(int userId, int lessonId, int score, int totalQuestions) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SAVE_RESULT)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, lessonId);
+            stmt.setInt(3, score);
+            stmt.setInt(4, totalQuestions);
+            stmt.execute();
+        }
+    }
+
+    // Виклики update_user_progress відправляються одним пакетом в одній транзакції.
+    // Порядок (користувач, урок) однаковий для всіх пакетів, тож паралельні імпорти не блокують один одного навхрест.
+    @Override
+    public void saveTestResults(List<TestResult> results) throws SQLException {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        List<TestResult> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingInt(TestResult::getUserId).thenComparingInt(TestResult::getLessonId));
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(SAVE_RESULT)) {
+                for (TestResult result : ordered) {
+                    stmt.setInt(1, result.getUserId());
+                    stmt.setInt(2, result.getLessonId());
+                    stmt.setInt(3, result.getScore());
+                    stmt.setInt(4, result.getTotalQuestions());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public UserProgress getUserProgress(int userId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(USER_PROGRESS)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                int totalLessons = rs.getInt("total_lessons");
+                int completedLessons = rs.getInt("completed_lessons");
+                double progressPercentage = rs.getDouble("progress_percentage");
+
+                return new UserProgress(totalLessons, completedLessons, progressPercentage);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public UserStats getUserStats(int userId, LocalDate streakCutoff) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(USER_STATS)) {
+
+            stmt.setDate(1, Date.valueOf(streakCutoff));
+            stmt.setInt(2, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return new UserStats(
+                        rs.getInt("total_score"),
+                        rs.getInt("lessons_completed"),
+                        rs.getInt("current_streak"),
+                        rs.getInt("longest_streak")
+                );
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isLessonCompleted(int userId, int lessonId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LESSON_COMPLETED)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, lessonId);
+            ResultSet rs = stmt.executeQuery();
+
+            return rs.next() && rs.getBoolean("completed");
+        }
+    }
+
+    @Override
+    public int getBestScore(int userId, int lessonId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(BEST_SCORE)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, lessonId);
+            ResultSet rs = stmt.executeQuery();
+
+            return rs.next() ? rs.getInt("score") : 0;
+        }
+    }
+
+    @Override
+    public Map<Integer, LessonResult> getLessonResults(int userId, Collection<Integer> lessonIds) throws SQLException {
+        Map<Integer, LessonResult> results = new HashMap<>();
+        if (lessonIds.isEmpty()) {
+            return results;
+        }
+
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LESSON_RESULTS)) {
+
+            stmt.setInt(1, userId);
+            stmt.setArray(2, conn.createArrayOf("integer", lessonIds.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.put(rs.getInt("lesson_id"), new LessonResult(rs.getBoolean("completed"), rs.getInt("score")));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean resetStaleStreak(int userId, LocalDate streakCutoff) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESET_USER_SQL)) {
+
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(streakCutoff));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int resetAllStaleStreaks(LocalDate streakCutoff) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESET_ALL_SQL)) {
+
+            stmt.setDate(1, Date.valueOf(streakCutoff));
+            return stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package qirim.app.repository.jdbc;
+
+import org.postgresql.util.PSQLException;
+import qirim.app.model.RegistrationResult;
+import qirim.app.repository.UserRepository;
+import qirim.app.services.DatabaseServices;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JdbcUserRepository implements UserRepository {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    // Назви індексів з 002_users_unique.sql
+    private static final String USERNAME_CONSTRAINT = "users_username_key";
+    private static final String EMAIL_CONSTRAINT = "users_email_key";
+
+    public static final String FIND_CREDENTIALS =
+            "SELECT id, password FROM users WHERE username = ?";
+
+    public static final String FIND_USERNAME =
+            "SELECT username FROM users WHERE id = ?";
+
+    public static final String CREATE_USER =
+            "WITH new_user AS (" +
+            "INSERT INTO users (username, email, password) VALUES (?, ?, ?) RETURNING id) " +
+            "INSERT INTO user_stats (user_id, total_score, lessons_completed, current_streak, longest_streak) " +
+            "SELECT id, 0, 0, 0, 0 FROM new_user RETURNING user_id";
+
+    public static final String UPDATE_PASSWORD =
+            "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+    @Override
+    public Credentials findCredentials(String username) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_CREDENTIALS)) {
+
+            stmt.setString(1, username);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return new Credentials(rs.getInt("id"), rs.getString("password"));
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public String findUsername(int userId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_USERNAME)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getString("username");
+            }
+            return null;
+        }
+    }
+
+    // Користувач і його рядок user_stats створюються одним оператором, тому
+    // перевірка унікальності лишається на обмеженнях БД, а не на окремих SELECT
+    @Override
+    public RegistrationResult create(String username, String email, String passwordHash) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CREATE_USER)) {
+
+            stmt.setString(1, username);
+            stmt.setString(2, email);
+            stmt.setString(3, passwordHash);
+            stmt.executeQuery();
+            return RegistrationResult.CREATED;
+
+        } catch (SQLException e) {
+            RegistrationResult conflict = uniqueConflict(e);
+            if (conflict != null) {
+                return conflict;
+            }
+            throw e;
+        }
+    }
+
+    // Зайняте ім'я чи email - лише за точною назвою обмеження; інше порушення унікальності
+    // (новий індекс, відповідь без назви обмеження) - звичайна помилка реєстрації
+    static RegistrationResult uniqueConflict(SQLException e) {
+        if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+            return null;
+        }
+
+        String constraint = null;
+        if (e instanceof PSQLException && ((PSQLException) e).getServerErrorMessage() != null) {
+            constraint = ((PSQLException) e).getServerErrorMessage().getConstraint();
+        }
+        if (USERNAME_CONSTRAINT.equals(constraint)) {
+            return RegistrationResult.USERNAME_TAKEN;
+        }
+        if (EMAIL_CONSTRAINT.equals(constraint)) {
+            return RegistrationResult.EMAIL_TAKEN;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String expectedHash, String newHash) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+
+            stmt.setString(1, newHash);
+            stmt.setInt(2, userId);
+            stmt.setString(3, expectedHash);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
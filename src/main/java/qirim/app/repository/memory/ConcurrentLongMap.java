@@ -0,0 +1,281 @@
+package qirim.app.repository.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+// Конкурентна хеш-таблиця з ключами long без упаковки: сегменти з відкритою адресацією,
+// читання здебільшого без блокувань (оптимістичне читання StampedLock), запис - під замком сегмента.
+public final class ConcurrentLongMap<V> {
+
+    public interface Remapper<V> {
+        // current == null, якщо ключа немає; повернення null видаляє ключ
+        V apply(long key, V current);
+    }
+
+    public interface Visitor<V> {
+        void accept(long key, V value);
+    }
+
+    private static final int SEGMENTS = 32;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final Segment<V>[] segments;
+
+    public ConcurrentLongMap() {
+        @SuppressWarnings("unchecked")
+        Segment<V>[] created = (Segment<V>[]) new Segment<?>[SEGMENTS];
+        segments = created;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    // Ключ з двох int, наприклад (user_id, lesson_id)
+    public static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    public V get(long key) {
+        checkKey(key);
+        long hash = mix(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    public V put(long key, V value) {
+        return compute(key, (k, current) -> value);
+    }
+
+    public V putIfAbsent(long key, V value) {
+        Object[] previous = new Object[1];
+        compute(key, (k, current) -> {
+            previous[0] = current;
+            return current != null ? current : value;
+        });
+        @SuppressWarnings("unchecked")
+        V result = (V) previous[0];
+        return result;
+    }
+
+    public V remove(long key) {
+        Object[] previous = new Object[1];
+        compute(key, (k, current) -> {
+            previous[0] = current;
+            return null;
+        });
+        @SuppressWarnings("unchecked")
+        V result = (V) previous[0];
+        return result;
+    }
+
+    // Атомарне оновлення значення за ключем; повертає нове значення
+    public V compute(long key, Remapper<V> remapper) {
+        checkKey(key);
+        long hash = mix(key);
+        return segmentFor(hash).compute(key, hash, remapper);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void forEach(Visitor<V> visitor) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(visitor);
+        }
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> 59) & (SEGMENTS - 1)];
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Ключ Long.MIN_VALUE зарезервовано");
+        }
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = newKeys(INITIAL_CAPACITY);
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size;
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(keys, values, key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return find(keys, values, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V find(long[] keys, Object[] values, long key, long hash) {
+            if (keys.length != values.length) {
+                return null;
+            }
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            // Обмеження кількості кроків: під час оптимістичного читання таблиця може бути неузгодженою
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys[index];
+                if (current == key) {
+                    return (V) values[index];
+                }
+                if (current == EMPTY) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V compute(long key, long hash, Remapper<V> remapper) {
+            long stamp = lock.writeLock();
+            try {
+                int mask = keys.length - 1;
+                int index = (int) hash & mask;
+                while (keys[index] != EMPTY && keys[index] != key) {
+                    index = (index + 1) & mask;
+                }
+
+                boolean present = keys[index] == key;
+                V current = present ? (V) values[index] : null;
+                V updated = remapper.apply(key, current);
+
+                if (updated == null) {
+                    if (present) {
+                        delete(index);
+                    }
+                } else if (present) {
+                    values[index] = updated;
+                } else {
+                    keys[index] = key;
+                    values[index] = updated;
+                    if (++size * 4 > keys.length * 3) {
+                        resize();
+                    }
+                }
+                return updated;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Видалення зі зсувом наступних елементів ланцюжка, щоб не лишати "надгробків"
+        private void delete(int index) {
+            int mask = keys.length - 1;
+            int gap = index;
+            int next = (gap + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = (int) mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[gap] = EMPTY;
+            values[gap] = null;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = newKeys(oldKeys.length * 2);
+            Object[] newValues = new Object[oldKeys.length * 2];
+            int mask = newKeys.length - 1;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int index = (int) mix(oldKeys[i]) & mask;
+                    while (newKeys[index] != EMPTY) {
+                        index = (index + 1) & mask;
+                    }
+                    newKeys[index] = oldKeys[i];
+                    newValues[index] = oldValues[i];
+                }
+            }
+            values = newValues;
+            keys = newKeys;
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(Visitor<V> visitor) {
+            long[] keysSnapshot;
+            Object[] valuesSnapshot;
+            long stamp = lock.readLock();
+            try {
+                keysSnapshot = keys.clone();
+                valuesSnapshot = values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (int i = 0; i < keysSnapshot.length; i++) {
+                if (keysSnapshot[i] != EMPTY) {
+                    visitor.accept(keysSnapshot[i], (V) valuesSnapshot[i]);
+                }
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                keys = newKeys(INITIAL_CAPACITY);
+                values = new Object[INITIAL_CAPACITY];
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            java.util.Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package qirim.app.repository.memory;
+
+import qirim.app.analytics.QuestionStats;
+import qirim.app.repository.AnalyticsRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryAnalyticsRepository implements AnalyticsRepository {
+
+    private final ConcurrentHashMap<Integer, QuestionStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void mergeQuestionStats(Collection<QuestionStats> deltas) {
+        for (QuestionStats delta : deltas) {
+            stats.compute(delta.getQuestionId(), (id, current) -> {
+                QuestionStats merged = current != null ? current : new QuestionStats(id, delta.getLessonId());
+                merged.merge(delta);
+                return merged;
+            });
+        }
+    }
+
+    @Override
+    public List<QuestionStats> loadQuestionStats(int lessonId) {
+        List<QuestionStats> lesson = new ArrayList<>();
+        for (Integer questionId : stats.keySet()) {
+            stats.computeIfPresent(questionId, (id, current) -> {
+                if (current.getLessonId() == lessonId) {
+                    lesson.add(current.copy());
+                }
+                return current;
+            });
+        }
+        lesson.sort(Comparator.comparingInt(QuestionStats::getQuestionId));
+        return lesson;
+    }
+}
@@ -0,0 +1,36 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.ContentRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+public class InMemoryContentRepository implements ContentRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryContentRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    // Вміст незмінний, тому віддається той самий список без копіювання
+    @Override
+    public List<Theme> loadThemes() {
+        return storage.themes;
+    }
+
+    @Override
+    public List<Question> loadQuestions(int lessonId) {
+        List<Question> questions = storage.questionsByLesson.get(lessonId);
+        return questions != null ? questions : Collections.emptyList();
+    }
+
+    // Тестові дані без аудіо
+    @Override
+    public LessonAudio loadLessonAudio(int lessonId) {
+        return LessonAudio.EMPTY;
+    }
+}
@@ -0,0 +1,61 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.FlashcardRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class InMemoryFlashcardRepository implements FlashcardRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryFlashcardRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public List<Flashcard> loadDeck(int userId, Collection<Integer> themeIds) {
+        Set<Integer> wanted = new HashSet<>(themeIds);
+        List<Flashcard> deck = new ArrayList<>();
+        for (Theme theme : storage.themes) {
+            if (!wanted.contains(theme.getThemeId())) {
+                continue;
+            }
+            for (Lesson lesson : theme.getLessons()) {
+                List<Question> questions = storage.questionsByLesson.get(lesson.getLessonId());
+                if (questions == null) {
+                    continue;
+                }
+                for (Question question : questions) {
+                    int answer = question.isFreeText() ? 0 : question.getCorrectAnswerIndex();
+                    if (answer < 0 || answer >= question.getOptions().size()) {
+                        continue;
+                    }
+                    InMemoryStorage.FlashcardRecord record =
+                            storage.flashcards.get(ConcurrentLongMap.key(userId, question.getQuestionId()));
+                    deck.add(new Flashcard(question.getQuestionId(), theme.getThemeId(), lesson.getLessonId(),
+                            question.getText(), question.getOptions().get(answer), record != null ? record.box : 0));
+                }
+            }
+        }
+        return deck;
+    }
+
+    @Override
+    public void saveReviews(int userId, List<FlashcardReview> reviews) {
+        for (FlashcardReview review : reviews) {
+            storage.flashcards.compute(ConcurrentLongMap.key(userId, review.getQuestionId()), (key, current) ->
+                    new InMemoryStorage.FlashcardRecord(review.getBox(),
+                            (current != null ? current.correct : 0) + review.getCorrect(),
+                            (current != null ? current.wrong : 0) + review.getWrong()));
+        }
+    }
+}
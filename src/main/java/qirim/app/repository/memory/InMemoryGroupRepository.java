@@ -0,0 +1,87 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.GroupRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Суми класу оновлює InMemoryStorage.updateStats; панель читає лише рядки учасників цього класу
+public class InMemoryGroupRepository implements GroupRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryGroupRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public List<GroupSummary> getUserGroups(int userId) {
+        int[] memberOf = storage.groupIdsByMember.get(userId);
+        int[] teaches = storage.groupIdsByTeacher.get(userId);
+        int[] ids = memberOf != null ? memberOf : new int[0];
+        if (teaches != null) {
+            for (int id : teaches) {
+                ids = InMemoryStorage.appendId(ids, id);
+            }
+        }
+
+        List<GroupSummary> groups = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            InMemoryStorage.GroupRecord group = storage.groups.get(id);
+            if (group != null) {
+                groups.add(summary(group));
+            }
+        }
+        return groups;
+    }
+
+    @Override
+    public GroupDashboard getDashboard(int groupId, int limit) {
+        InMemoryStorage.GroupRecord group = storage.groups.get(groupId);
+        if (group == null) {
+            return null;
+        }
+
+        List<InMemoryStorage.StatsRecord> members = new ArrayList<>(group.memberIds.length);
+        for (int userId : group.memberIds) {
+            InMemoryStorage.StatsRecord stats = storage.stats.get(userId);
+            if (stats != null) {
+                members.add(stats);
+            }
+        }
+        members.sort(InMemoryStorage.RANKING);
+
+        List<LeaderboardEntry> leaderboard = new ArrayList<>(Math.min(limit, members.size()));
+        for (InMemoryStorage.StatsRecord stats : members) {
+            if (leaderboard.size() >= limit) {
+                break;
+            }
+            leaderboard.add(new LeaderboardEntry(leaderboard.size() + 1, stats.username, stats.totalScore,
+                    stats.lessonsCompleted, stats.currentStreak));
+        }
+        return new GroupDashboard(summary(group), leaderboard);
+    }
+
+    @Override
+    public int createGroup(String name, int teacherId) {
+        return storage.addGroup(name, teacherId);
+    }
+
+    @Override
+    public boolean addMember(int groupId, int userId) {
+        return storage.addGroupMember(groupId, userId);
+    }
+
+    @Override
+    public boolean removeMember(int groupId, int userId) {
+        return storage.removeGroupMember(groupId, userId);
+    }
+
+    private GroupSummary summary(InMemoryStorage.GroupRecord group) {
+        return new GroupSummary(group.groupId, group.name, group.memberIds.length, group.totalScore,
+                group.lessonsCompleted, group.activeStreaks, storage.totalLessons);
+    }
+}
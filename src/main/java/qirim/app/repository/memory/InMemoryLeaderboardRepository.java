@@ -0,0 +1,31 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.LeaderboardRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryLeaderboardRepository implements LeaderboardRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryLeaderboardRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    // Рейтинг уже впорядкований, тому перші limit записів читаються без сортування
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(int limit) {
+        List<LeaderboardEntry> leaderboard = new ArrayList<>(Math.max(0, Math.min(limit, 256)));
+        int rank = 1;
+        for (InMemoryStorage.StatsRecord stats : storage.ranking) {
+            if (rank > limit) {
+                break;
+            }
+            leaderboard.add(new LeaderboardEntry(rank++, stats.username, stats.totalScore,
+                    stats.lessonsCompleted, stats.currentStreak));
+        }
+        return leaderboard;
+    }
+}
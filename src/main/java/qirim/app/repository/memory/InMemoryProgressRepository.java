@@ -0,0 +1,141 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.LessonResult;
+import qirim.app.model.TestResult;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.repository.ProgressRepository;
+import qirim.app.services.StreakService;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Повторює логіку update_user_progress / get_user_progress з БД
+public class InMemoryProgressRepository implements ProgressRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryProgressRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void saveTestResult(int userId, int lessonId, int score, int totalQuestions) {
+        if (storage.users.get(userId) == null) {
+            return;
+        }
+
+        boolean completedNow = totalQuestions > 0 && score * 10 >= totalQuestions * 7;
+        InMemoryStorage.LessonProgress[] previous = new InMemoryStorage.LessonProgress[1];
+        InMemoryStorage.LessonProgress updated = storage.progress.compute(ConcurrentLongMap.key(userId, lessonId), (key, current) -> {
+            previous[0] = current;
+            if (current == null) {
+                return new InMemoryStorage.LessonProgress(score, totalQuestions, completedNow, 1);
+            }
+            return new InMemoryStorage.LessonProgress(Math.max(current.score, score), totalQuestions,
+                    current.completed || completedNow, current.attempts + 1);
+        });
+
+        // Суми оновлюються різницями, тож не треба перераховувати всі уроки користувача
+        int scoreDelta = updated.score - (previous[0] != null ? previous[0].score : 0);
+        int completedDelta = (updated.completed ? 1 : 0) - (previous[0] != null && previous[0].completed ? 1 : 0);
+        LocalDate today = StreakService.today();
+
+        storage.updateStats(userId, current -> {
+            int streak;
+            if (today.equals(current.lastActivityDate)) {
+                streak = Math.max(current.currentStreak, 1);
+            } else if (today.minusDays(1).equals(current.lastActivityDate)) {
+                streak = current.currentStreak + 1;
+            } else {
+                streak = 1;
+            }
+            return new InMemoryStorage.StatsRecord(userId, current.username,
+                    current.totalScore + scoreDelta, current.lessonsCompleted + completedDelta,
+                    streak, Math.max(current.longestStreak, streak), today);
+        });
+    }
+
+    @Override
+    public void saveTestResults(List<TestResult> results) {
+        for (TestResult result : results) {
+            saveTestResult(result.getUserId(), result.getLessonId(), result.getScore(), result.getTotalQuestions());
+        }
+    }
+
+    @Override
+    public UserProgress getUserProgress(int userId) {
+        int total = storage.totalLessons;
+        InMemoryStorage.StatsRecord stats = storage.stats.get(userId);
+        int completed = stats != null ? stats.lessonsCompleted : 0;
+        double percentage = total == 0 ? 0 : Math.round(completed * 1000.0 / total) / 10.0;
+        return new UserProgress(total, completed, percentage);
+    }
+
+    @Override
+    public UserStats getUserStats(int userId, LocalDate streakCutoff) {
+        InMemoryStorage.StatsRecord stats = storage.stats.get(userId);
+        if (stats == null) {
+            return null;
+        }
+        return new UserStats(stats.totalScore, stats.lessonsCompleted,
+                isStale(stats, streakCutoff) ? 0 : stats.currentStreak, stats.longestStreak);
+    }
+
+    @Override
+    public boolean isLessonCompleted(int userId, int lessonId) {
+        InMemoryStorage.LessonProgress progress = storage.progress.get(ConcurrentLongMap.key(userId, lessonId));
+        return progress != null && progress.completed;
+    }
+
+    @Override
+    public int getBestScore(int userId, int lessonId) {
+        InMemoryStorage.LessonProgress progress = storage.progress.get(ConcurrentLongMap.key(userId, lessonId));
+        return progress != null ? progress.score : 0;
+    }
+
+    @Override
+    public Map<Integer, LessonResult> getLessonResults(int userId, Collection<Integer> lessonIds) {
+        Map<Integer, LessonResult> results = new HashMap<>();
+        for (int lessonId : lessonIds) {
+            InMemoryStorage.LessonProgress progress = storage.progress.get(ConcurrentLongMap.key(userId, lessonId));
+            if (progress != null) {
+                results.put(lessonId, new LessonResult(progress.completed, progress.score));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean resetStaleStreak(int userId, LocalDate streakCutoff) {
+        boolean[] reset = new boolean[1];
+        storage.updateStats(userId, current -> {
+            if (current.currentStreak == 0 || !isStale(current, streakCutoff)) {
+                return current;
+            }
+            reset[0] = true;
+            return new InMemoryStorage.StatsRecord(userId, current.username, current.totalScore,
+                    current.lessonsCompleted, 0, current.longestStreak, current.lastActivityDate);
+        });
+        return reset[0];
+    }
+
+    @Override
+    public int resetAllStaleStreaks(LocalDate streakCutoff) {
+        int[] count = new int[1];
+        storage.stats.forEach((key, stats) -> {
+            if (resetStaleStreak(stats.userId, streakCutoff)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    // Як у SQL: рядок без дати активності не вважається застарілим
+    private static boolean isStale(InMemoryStorage.StatsRecord stats, LocalDate streakCutoff) {
+        return stats.lastActivityDate != null && stats.lastActivityDate.isBefore(streakCutoff);
+    }
+}
@@ -0,0 +1,338 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.services.StreakService;
+import qirim.app.tools.LocalDatabase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
+
+// Усі дані застосунку в пам'яті процесу. Записи незмінні й замінюються цілком через
+// ConcurrentLongMap.compute, тож читачі завжди бачать узгоджений рядок без блокувань.
+public final class InMemoryStorage {
+
+    private static final Logger logger = Logger.getLogger(InMemoryStorage.class.getName());
+
+    static final class UserRecord {
+        final int id;
+        final String username;
+        final String email;
+        final String passwordHash;
+
+        UserRecord(int id, String username, String email, String passwordHash) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.passwordHash = passwordHash;
+        }
+
+        UserRecord withPasswordHash(String newHash) {
+            return new UserRecord(id, username, email, newHash);
+        }
+    }
+
+    static final class LessonProgress {
+        final int score;
+        final int total;
+        final boolean completed;
+        final int attempts;
+
+        LessonProgress(int score, int total, boolean completed, int attempts) {
+            this.score = score;
+            this.total = total;
+            this.completed = completed;
+            this.attempts = attempts;
+        }
+    }
+
+    static final class StatsRecord {
+        final int userId;
+        final String username;
+        final int totalScore;
+        final int lessonsCompleted;
+        final int currentStreak;
+        final int longestStreak;
+        final LocalDate lastActivityDate;
+
+        StatsRecord(int userId, String username, int totalScore, int lessonsCompleted,
+                    int currentStreak, int longestStreak, LocalDate lastActivityDate) {
+            this.userId = userId;
+            this.username = username;
+            this.totalScore = totalScore;
+            this.lessonsCompleted = lessonsCompleted;
+            this.currentStreak = currentStreak;
+            this.longestStreak = longestStreak;
+            this.lastActivityDate = lastActivityDate;
+        }
+    }
+
+    // Клас із сумами учасників, як group_stats у БД; змінюється приростами разом зі статистикою учасника
+    static final class GroupRecord {
+        final int groupId;
+        final String name;
+        final int teacherId;
+        final int[] memberIds;
+        final long totalScore;
+        final long lessonsCompleted;
+        final int activeStreaks;
+
+        GroupRecord(int groupId, String name, int teacherId, int[] memberIds,
+                    long totalScore, long lessonsCompleted, int activeStreaks) {
+            this.groupId = groupId;
+            this.name = name;
+            this.teacherId = teacherId;
+            this.memberIds = memberIds;
+            this.totalScore = totalScore;
+            this.lessonsCompleted = lessonsCompleted;
+            this.activeStreaks = activeStreaks;
+        }
+
+        GroupRecord withMember(StatsRecord stats) {
+            return new GroupRecord(groupId, name, teacherId, appendId(memberIds, stats.userId),
+                    totalScore + stats.totalScore, lessonsCompleted + stats.lessonsCompleted,
+                    activeStreaks + (stats.currentStreak > 0 ? 1 : 0));
+        }
+
+        GroupRecord withoutMember(StatsRecord stats) {
+            return new GroupRecord(groupId, name, teacherId, removeId(memberIds, stats.userId),
+                    totalScore - stats.totalScore, lessonsCompleted - stats.lessonsCompleted,
+                    activeStreaks - (stats.currentStreak > 0 ? 1 : 0));
+        }
+
+        GroupRecord withChange(StatsRecord before, StatsRecord after) {
+            return new GroupRecord(groupId, name, teacherId, memberIds,
+                    totalScore + after.totalScore - before.totalScore,
+                    lessonsCompleted + after.lessonsCompleted - before.lessonsCompleted,
+                    activeStreaks + (after.currentStreak > 0 ? 1 : 0) - (before.currentStreak > 0 ? 1 : 0));
+        }
+    }
+
+    // Рядок flashcard_progress: коробка Лейтнера і лічильники відповідей на картку
+    static final class FlashcardRecord {
+        final int box;
+        final int correct;
+        final int wrong;
+
+        FlashcardRecord(int box, int correct, int wrong) {
+            this.box = box;
+            this.correct = correct;
+            this.wrong = wrong;
+        }
+    }
+
+    // Той самий порядок, що й у представленні leaderboard
+    static final Comparator<StatsRecord> RANKING = Comparator
+            .comparingInt((StatsRecord s) -> -s.totalScore)
+            .thenComparingInt(s -> -s.lessonsCompleted)
+            .thenComparing(s -> s.username)
+            .thenComparingInt(s -> s.userId);
+
+    volatile List<Theme> themes = Collections.emptyList();
+    volatile int totalLessons;
+    final ConcurrentLongMap<List<Question>> questionsByLesson = new ConcurrentLongMap<>();
+
+    final ConcurrentLongMap<UserRecord> users = new ConcurrentLongMap<>();
+    final ConcurrentHashMap<String, Integer> userIdsByName = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Integer> userIdsByEmail = new ConcurrentHashMap<>();
+    final AtomicInteger nextUserId = new AtomicInteger(1);
+
+    final ConcurrentLongMap<LessonProgress> progress = new ConcurrentLongMap<>();
+    final ConcurrentLongMap<StatsRecord> stats = new ConcurrentLongMap<>();
+    final ConcurrentSkipListSet<StatsRecord> ranking = new ConcurrentSkipListSet<>(RANKING);
+
+    final ConcurrentLongMap<GroupRecord> groups = new ConcurrentLongMap<>();
+    final ConcurrentLongMap<int[]> groupIdsByMember = new ConcurrentLongMap<>();
+    final ConcurrentLongMap<int[]> groupIdsByTeacher = new ConcurrentLongMap<>();
+    final AtomicInteger nextGroupId = new AtomicInteger(1);
+
+    // Ключ - key(userId, questionId)
+    final ConcurrentLongMap<FlashcardRecord> flashcards = new ConcurrentLongMap<>();
+
+    // Ті самі дані, що й LocalDatabase.seed, щоб бенчмарки з БД і без неї були порівнянні
+    public static InMemoryStorage seeded(int userCount, String passwordHash) {
+        InMemoryStorage storage = new InMemoryStorage();
+
+        List<Theme> themes = new ArrayList<>();
+        int lessonId = 0;
+        int questionId = 0;
+        int optionId = 0;
+        for (int t = 1; t <= LocalDatabase.SEED_THEMES; t++) {
+            List<Lesson> lessons = new ArrayList<>();
+            for (int l = 1; l <= LocalDatabase.SEED_LESSONS_PER_THEME; l++) {
+                lessonId++;
+                lessons.add(new Lesson(lessonId, "Урок " + l, l));
+
+                List<Question> questions = new ArrayList<>();
+                for (int q = 1; q <= LocalDatabase.SEED_QUESTIONS_PER_LESSON; q++) {
+                    questionId++;
+                    List<String> options = new ArrayList<>();
+                    List<Integer> optionIds = new ArrayList<>();
+                    for (int o = 1; o <= LocalDatabase.SEED_OPTIONS_PER_QUESTION; o++) {
+                        options.add("Варіант " + o);
+                        optionIds.add(++optionId);
+                    }
+                    questions.add(new Question(questionId, "Запитання " + q + " до уроку " + lessonId,
+                            options, optionIds, 0));
+                }
+                storage.questionsByLesson.put(lessonId, Collections.unmodifiableList(questions));
+            }
+            themes.add(new Theme(t, "Тема " + t, t, Collections.unmodifiableList(lessons)));
+        }
+        storage.themes = Collections.unmodifiableList(themes);
+        storage.totalLessons = lessonId;
+
+        LocalDate today = StreakService.today();
+        for (int u = 1; u <= userCount; u++) {
+            int id = storage.addUser("user" + u, "user" + u + "@example.com", passwordHash);
+
+            int totalScore = 0;
+            int completed = 0;
+            for (int le = 1; le <= lessonId; le++) {
+                if ((id + le) % 3 == 0) {
+                    int score = (id * 7 + le) % 11;
+                    boolean done = score >= 7;
+                    storage.progress.put(ConcurrentLongMap.key(id, le),
+                            new LessonProgress(score, LocalDatabase.SEED_QUESTIONS_PER_LESSON, done, 1));
+                    totalScore += score;
+                    completed += done ? 1 : 0;
+                }
+            }
+            int seededScore = totalScore;
+            int seededCompleted = completed;
+            storage.updateStats(id, current -> new StatsRecord(id, current.username, seededScore, seededCompleted,
+                    id % 15, id % 30, today.minusDays(id % 4)));
+        }
+
+        logger.info("Сховище в пам'яті заповнено: " + userCount + " користувачів");
+        return storage;
+    }
+
+    static final int USERNAME_TAKEN = -1;
+    static final int EMAIL_TAKEN = -2;
+
+    // id нового користувача або USERNAME_TAKEN / EMAIL_TAKEN; унікальність тримають putIfAbsent
+    int addUser(String username, String email, String passwordHash) {
+        int id = nextUserId.getAndIncrement();
+        if (userIdsByName.putIfAbsent(username, id) != null) {
+            return USERNAME_TAKEN;
+        }
+        if (userIdsByEmail.putIfAbsent(email, id) != null) {
+            userIdsByName.remove(username, id);
+            return EMAIL_TAKEN;
+        }
+        users.put(id, new UserRecord(id, username, email, passwordHash));
+        // Як і в updateStats, рейтинг оновлюється під замком сегмента: рядок статистики стає видимим
+        // лише після того, як користувач уже є в рейтингу
+        StatsRecord initial = new StatsRecord(id, username, 0, 0, 0, 0, null);
+        stats.compute(id, (key, current) -> {
+            ranking.add(initial);
+            return initial;
+        });
+        return id;
+    }
+
+    // Рядок статистики, його місце в рейтингу і суми класів користувача змінюються під замком
+    // сегмента цього користувача. Замки класів беруться лише всередині замка статистики - без взаємних блокувань.
+    StatsRecord updateStats(int userId, UnaryOperator<StatsRecord> update) {
+        return stats.compute(userId, (key, current) -> {
+            if (current == null) {
+                return null;
+            }
+            StatsRecord updated = update.apply(current);
+            if (updated != current) {
+                ranking.remove(current);
+                ranking.add(updated);
+                int[] groupIds = groupIdsByMember.get(userId);
+                if (groupIds != null) {
+                    for (int groupId : groupIds) {
+                        groups.compute(groupId, (k, group) -> group != null ? group.withChange(current, updated) : null);
+                    }
+                }
+            }
+            return updated;
+        });
+    }
+
+    int addGroup(String name, int teacherId) {
+        int id = nextGroupId.getAndIncrement();
+        groups.put(id, new GroupRecord(id, name, teacherId, new int[0], 0, 0, 0));
+        if (teacherId > 0) {
+            groupIdsByTeacher.compute(teacherId, (key, ids) -> appendId(ids, id));
+        }
+        return id;
+    }
+
+    // Членство змінюється під тим самим замком, що й статистика учасника, тож суми класу не розходяться з рядками
+    boolean addGroupMember(int groupId, int userId) {
+        boolean[] added = new boolean[1];
+        stats.compute(userId, (key, current) -> {
+            if (current == null || containsId(groupIdsByMember.get(userId), groupId)) {
+                return current;
+            }
+            GroupRecord group = groups.compute(groupId, (k, g) -> g != null ? g.withMember(current) : null);
+            if (group != null) {
+                groupIdsByMember.compute(userId, (k, ids) -> appendId(ids, groupId));
+                added[0] = true;
+            }
+            return current;
+        });
+        return added[0];
+    }
+
+    boolean removeGroupMember(int groupId, int userId) {
+        boolean[] removed = new boolean[1];
+        stats.compute(userId, (key, current) -> {
+            if (current == null || !containsId(groupIdsByMember.get(userId), groupId)) {
+                return current;
+            }
+            groups.compute(groupId, (k, g) -> g != null ? g.withoutMember(current) : null);
+            groupIdsByMember.compute(userId, (k, ids) -> {
+                int[] rest = removeId(ids, groupId);
+                return rest.length > 0 ? rest : null;
+            });
+            removed[0] = true;
+            return current;
+        });
+        return removed[0];
+    }
+
+    // Невеликі відсортовані масиви id: у користувача кілька класів, у класі - десятки учнів
+    static boolean containsId(int[] ids, int id) {
+        return ids != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    static int[] appendId(int[] ids, int id) {
+        if (ids == null) {
+            return new int[]{id};
+        }
+        if (containsId(ids, id)) {
+            return ids;
+        }
+        int[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        Arrays.sort(grown);
+        return grown;
+    }
+
+    static int[] removeId(int[] ids, int id) {
+        int index = ids != null ? Arrays.binarySearch(ids, id) : -1;
+        if (index < 0) {
+            return ids != null ? ids : new int[0];
+        }
+        int[] shrunk = new int[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, index);
+        System.arraycopy(ids, index + 1, shrunk, index, ids.length - index - 1);
+        return shrunk;
+    }
+}
@@ -0,0 +1,51 @@
+package qirim.app.repository.memory;
+
+import qirim.app.model.RegistrationResult;
+import qirim.app.repository.UserRepository;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final InMemoryStorage storage;
+
+    public InMemoryUserRepository(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Credentials findCredentials(String username) {
+        Integer id = storage.userIdsByName.get(username);
+        InMemoryStorage.UserRecord user = id != null ? storage.users.get(id) : null;
+        return user != null ? new Credentials(user.id, user.passwordHash) : null;
+    }
+
+    @Override
+    public String findUsername(int userId) {
+        InMemoryStorage.UserRecord user = storage.users.get(userId);
+        return user != null ? user.username : null;
+    }
+
+    @Override
+    public RegistrationResult create(String username, String email, String passwordHash) {
+        int id = storage.addUser(username, email, passwordHash);
+        if (id == InMemoryStorage.USERNAME_TAKEN) {
+            return RegistrationResult.USERNAME_TAKEN;
+        }
+        if (id == InMemoryStorage.EMAIL_TAKEN) {
+            return RegistrationResult.EMAIL_TAKEN;
+        }
+        return RegistrationResult.CREATED;
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String expectedHash, String newHash) {
+        boolean[] updated = new boolean[1];
+        storage.users.compute(userId, (key, current) -> {
+            if (current == null || !current.passwordHash.equals(expectedHash)) {
+                return current;
+            }
+            updated[0] = true;
+            return current.withPasswordHash(newHash);
+        });
+        return updated[0];
+    }
+}
@@ -0,0 +1,22 @@
+package qirim.app.script;
+
+// Орфографія кримськотатарського тексту
+public enum Script {
+    LATIN,
+    CYRILLIC;
+
+    // Визначає письмо за більшістю літер; без літер вважаємо текст латинським
+    public static Script detect(CharSequence text) {
+        int latin = 0;
+        int cyrillic = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0400 && c <= 0x04FF) {
+                cyrillic++;
+            } else if (Character.isLetter(c) && c < 0x0250) {
+                latin++;
+            }
+        }
+        return cyrillic > latin ? CYRILLIC : LATIN;
+    }
+}
@@ -0,0 +1,451 @@
+package qirim.app.script;
+
+import qirim.app.model.Question;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Транслітерація кримськотатарського тексту між латиницею й кирилицею.
+// Правила (разом із контекстними: э/е на початку слова, ё/ю після приголосних,
+// оь/уь з м'яким знаком після наступного приголосного, къ/гъ/нъ/дж) компілюються один раз
+// у префіксне дерево з пласких масивів; текст обробляється по словах найдовшим збігом,
+// без виділення пам'яті на кожен символ. Слова з українськими літерами (і, ї, є, ґ) не змінюються.
+public final class Transliterator {
+
+    // Властивості сусіднього символу джерела, за якими спрацьовують контекстні правила
+    private static final int BOUNDARY = 1;
+    private static final int VOWEL = 2;
+    private static final int CONSONANT = 4;
+    private static final int VELAR = 8;
+    private static final int ANY = 0;
+
+    private static final int TABLE_SIZE = 0x0500;
+    private static final int STREAM_BUFFER = 8192;
+
+    public static final Transliterator LATIN_TO_CYRILLIC = latinToCyrillic();
+    public static final Transliterator CYRILLIC_TO_LATIN = cyrillicToLatin();
+
+    private final Script target;
+    private final byte[] props = new byte[TABLE_SIZE];
+    private final boolean[] foreign = new boolean[TABLE_SIZE];
+
+    // Дерево: вузол 0 - корінь, діти кореня - пряма таблиця, решта - відсортовані відрізки масивів
+    private final int[] rootChildren = new int[TABLE_SIZE];
+    private int[] childStart;
+    private int[] childCount;
+    private char[] childChars;
+    private int[] childNodes;
+    private int[] ruleStart;
+    private int[] ruleCount;
+    private int[] rulePrev;
+    private int[] ruleNext;
+    private char[][] ruleOutput;
+
+    private Transliterator(Script target, String vowels, String velars, String foreignLetters, Node root) {
+        this.target = target;
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            char lower = (char) c;
+            if (!Character.isLetter(lower)) {
+                props[c] = BOUNDARY;
+            } else if (vowels.indexOf(lower) >= 0) {
+                props[c] = VOWEL;
+            } else {
+                props[c] = (byte) (CONSONANT | (velars.indexOf(lower) >= 0 ? VELAR : 0));
+            }
+        }
+        for (char c : foreignLetters.toCharArray()) {
+            foreign[c] = true;
+            foreign[Character.toUpperCase(c)] = true;
+        }
+        compile(root);
+    }
+
+    public static Transliterator to(Script target) {
+        return target == Script.CYRILLIC ? LATIN_TO_CYRILLIC : CYRILLIC_TO_LATIN;
+    }
+
+    public Script target() {
+        return target;
+    }
+
+    // Переводить текст у цільове письмо; текст, що вже в ньому, повертається як є
+    public String convert(String text) {
+        if (text == null || text.isEmpty() || Script.detect(text) == target) {
+            return text;
+        }
+        return apply(text);
+    }
+
+    // Запитання тесту з текстами в цільовому письмі; id і правильна відповідь не змінюються
+    public List<Question> convert(List<Question> questions) {
+        List<Question> converted = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            List<String> options = new ArrayList<>(question.getOptions().size());
+            for (String option : question.getOptions()) {
+                options.add(convert(option));
+            }
+            converted.add(new Question(question.getQuestionId(), convert(question.getText()),
+                    options, question.getOptionIds(), question.getCorrectAnswerIndex(), question.isFreeText()));
+        }
+        return converted;
+    }
+
+    public String apply(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        StringBuilder out = new StringBuilder(chars.length + chars.length / 4);
+        translate(chars, 0, chars.length, true, out);
+        return out.toString();
+    }
+
+    // Потокова обробка великих файлів: буфер фіксованого розміру, слово на межі буфера чекає на дочитування
+    public void apply(Reader in, Writer out) throws IOException {
+        char[] buffer = new char[STREAM_BUFFER];
+        char[] outChars = new char[STREAM_BUFFER * 2];
+        StringBuilder pending = new StringBuilder(STREAM_BUFFER * 2);
+        int filled = 0;
+        boolean eof = false;
+        while (!eof || filled > 0) {
+            if (!eof) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    filled += read;
+                }
+            }
+
+            int consumed = translate(buffer, 0, filled, eof, pending);
+            if (consumed == 0 && filled == buffer.length) {
+                // Слово довше за буфер - обробляємо як є
+                consumed = translate(buffer, 0, filled, true, pending);
+            }
+            System.arraycopy(buffer, consumed, buffer, 0, filled - consumed);
+            filled -= consumed;
+
+            if (pending.length() >= STREAM_BUFFER || eof) {
+                int length = pending.length();
+                if (outChars.length < length) {
+                    outChars = new char[length];
+                }
+                pending.getChars(0, length, outChars, 0);
+                out.write(outChars, 0, length);
+                pending.setLength(0);
+            }
+        }
+        out.flush();
+    }
+
+    // Обробляє [from, to) і повертає, скільки спожито: без endOfInput останнє слово, що впирається в to, лишається
+    private int translate(char[] text, int from, int to, boolean endOfInput, StringBuilder out) {
+        int i = from;
+        while (i < to) {
+            char c = text[i];
+            if (!Character.isLetter(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < to && Character.isLetter(text[end])) {
+                end++;
+            }
+            if (end == to && !endOfInput) {
+                return i;
+            }
+            word(text, i, end, out);
+            i = end;
+        }
+        return to;
+    }
+
+    private void word(char[] text, int start, int end, StringBuilder out) {
+        for (int i = start; i < end; i++) {
+            char c = text[i];
+            if (c < TABLE_SIZE && foreign[c]) {
+                out.append(text, start, end - start);
+                return;
+            }
+        }
+
+        int prev = BOUNDARY;
+        int i = start;
+        while (i < end) {
+            int bestRule = -1;
+            int bestLength = 0;
+            int node = child(0, lower(text[i]));
+            int j = i;
+            while (node > 0) {
+                int next = j + 1 < end ? props(lower(text[j + 1])) : BOUNDARY;
+                for (int r = ruleStart[node], last = r + ruleCount[node]; r < last; r++) {
+                    if (matches(rulePrev[r], prev) && matches(ruleNext[r], next)) {
+                        bestRule = r;
+                        bestLength = j - i + 1;
+                        break;
+                    }
+                }
+                if (++j == end) {
+                    break;
+                }
+                node = child(node, lower(text[j]));
+            }
+
+            if (bestRule < 0) {
+                out.append(text[i]);
+                prev = props(lower(text[i]));
+                i++;
+                continue;
+            }
+
+            emit(ruleOutput[bestRule], text, start, i, bestLength, end, out);
+            prev = props(lower(text[i + bestLength - 1]));
+            i += bestLength;
+        }
+    }
+
+    // Регістр збігу переноситься на результат: Q → Къ, QIRIM → КЪЫРЫМ
+    private void emit(char[] output, char[] text, int start, int at, int length, int end, StringBuilder out) {
+        if (output.length == 0) {
+            return;
+        }
+        if (!Character.isUpperCase(text[at])) {
+            out.append(output);
+            return;
+        }
+
+        boolean allCaps;
+        if (length > 1) {
+            allCaps = Character.isUpperCase(text[at + 1]);
+        } else if (at + 1 < end) {
+            allCaps = Character.isUpperCase(text[at + 1]);
+        } else {
+            allCaps = at > start && Character.isUpperCase(text[at - 1]);
+        }
+
+        out.append(upper(output[0]));
+        for (int k = 1; k < output.length; k++) {
+            out.append(allCaps ? upper(output[k]) : output[k]);
+        }
+    }
+
+    private static boolean matches(int required, int actual) {
+        return required == ANY || (required & actual) != 0;
+    }
+
+    private int props(char c) {
+        if (c < TABLE_SIZE) {
+            return props[c];
+        }
+        return Character.isLetter(c) ? CONSONANT : BOUNDARY;
+    }
+
+    // Турецькі I/İ: у латиниці I - це велика ı, а İ - велика i
+    private static char lower(char c) {
+        if (c == 'I') {
+            return 'ı';
+        }
+        if (c == 'İ') {
+            return 'i';
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private char upper(char c) {
+        if (target == Script.LATIN) {
+            if (c == 'i') {
+                return 'İ';
+            }
+            if (c == 'ı') {
+                return 'I';
+            }
+        }
+        return Character.toUpperCase(c);
+    }
+
+    private int child(int node, char c) {
+        if (node == 0) {
+            return c < TABLE_SIZE ? rootChildren[c] : -1;
+        }
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char value = childChars[mid];
+            if (value < c) {
+                low = mid + 1;
+            } else if (value > c) {
+                high = mid - 1;
+            } else {
+                return childNodes[mid];
+            }
+        }
+        return -1;
+    }
+
+    private void compile(Node root) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int n = 0; n < nodes.size(); n++) {
+            nodes.get(n).index = n;
+            nodes.addAll(nodes.get(n).children.values());
+        }
+
+        int size = nodes.size();
+        childStart = new int[size];
+        childCount = new int[size];
+        childChars = new char[size];
+        childNodes = new int[size];
+        ruleStart = new int[size];
+        ruleCount = new int[size];
+        List<Rule> rules = new ArrayList<>();
+
+        Arrays.fill(rootChildren, -1);
+        int edge = 0;
+        for (Node node : nodes) {
+            childStart[node.index] = edge;
+            childCount[node.index] = node.children.size();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                if (node.index == 0) {
+                    rootChildren[entry.getKey()] = entry.getValue().index;
+                }
+                childChars[edge] = entry.getKey();
+                childNodes[edge] = entry.getValue().index;
+                edge++;
+            }
+            ruleStart[node.index] = rules.size();
+            ruleCount[node.index] = node.rules.size();
+            rules.addAll(node.rules);
+        }
+
+        rulePrev = new int[rules.size()];
+        ruleNext = new int[rules.size()];
+        ruleOutput = new char[rules.size()][];
+        for (int r = 0; r < rules.size(); r++) {
+            rulePrev[r] = rules.get(r).prev;
+            ruleNext[r] = rules.get(r).next;
+            ruleOutput[r] = rules.get(r).output;
+        }
+    }
+
+    private static final class Rule {
+        final int prev;
+        final int next;
+        final char[] output;
+
+        Rule(int prev, int next, String output) {
+            this.prev = prev;
+            this.next = next;
+            this.output = output.toCharArray();
+        }
+    }
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        final List<Rule> rules = new ArrayList<>();
+        int index;
+
+        // Правила одного ключа перевіряються в порядку додавання: спершу контекстні, потім загальне
+        Node rule(String key, int prev, int next, String output) {
+            Node node = this;
+            for (char c : key.toCharArray()) {
+                node = node.children.computeIfAbsent(c, k -> new Node());
+            }
+            node.rules.add(new Rule(prev, next, output));
+            return this;
+        }
+
+        Node rule(String key, String output) {
+            return rule(key, ANY, ANY, output);
+        }
+    }
+
+    private static Transliterator latinToCyrillic() {
+        Map<String, String> consonants = new LinkedHashMap<>();
+        String[] pairs = {
+                "b", "б", "c", "дж", "ç", "ч", "d", "д", "f", "ф", "g", "г", "ğ", "гъ", "h", "х",
+                "j", "ж", "k", "к", "l", "л", "m", "м", "n", "н", "ñ", "нъ", "p", "п", "q", "къ",
+                "r", "р", "s", "с", "ş", "ш", "t", "т", "v", "в", "w", "в", "x", "кс", "y", "й", "z", "з"
+        };
+        for (int i = 0; i < pairs.length; i += 2) {
+            consonants.put(pairs[i], pairs[i + 1]);
+        }
+
+        Node root = new Node();
+        consonants.forEach(root::rule);
+        root.rule("a", "а")
+                .rule("â", CONSONANT, ANY, "я").rule("â", "а")
+                .rule("e", BOUNDARY | VOWEL, ANY, "э").rule("e", "е")
+                .rule("ı", "ы")
+                .rule("i", "и")
+                .rule("o", "о")
+                .rule("u", "у")
+                .rule("ya", "я")
+                .rule("yu", "ю")
+                .rule("yo", "ё")
+                .rule("ye", BOUNDARY | VOWEL, ANY, "е");
+
+        // ö/ü на початку слова й після к/г: о/у, а м'який знак - після наступного приголосного (köz → козь)
+        for (String vowel : new String[]{"ö", "ü"}) {
+            String plain = vowel.equals("ö") ? "о" : "у";
+            String iotated = vowel.equals("ö") ? "ё" : "ю";
+            consonants.forEach((latin, cyrillic) -> {
+                if (!cyrillic.contains("ъ") && !latin.equals("y")) {
+                    root.rule(vowel + latin, BOUNDARY | VELAR, BOUNDARY | CONSONANT, plain + cyrillic + "ь");
+                }
+            });
+            root.rule(vowel, VELAR, ANY, plain)
+                    .rule(vowel, CONSONANT, ANY, iotated)
+                    .rule(vowel, plain);
+        }
+
+        return new Transliterator(Script.CYRILLIC, "aâeıioöuü", "kg", "", root);
+    }
+
+    private static Transliterator cyrillicToLatin() {
+        Map<String, String> consonants = new LinkedHashMap<>();
+        String[] pairs = {
+                "б", "b", "в", "v", "г", "g", "гъ", "ğ", "д", "d", "дж", "c", "ж", "j", "з", "z",
+                "й", "y", "к", "k", "къ", "q", "л", "l", "м", "m", "н", "n", "нъ", "ñ", "п", "p",
+                "р", "r", "с", "s", "т", "t", "ф", "f", "х", "h", "ц", "ts", "ч", "ç", "ш", "ş", "щ", "şç"
+        };
+        for (int i = 0; i < pairs.length; i += 2) {
+            consonants.put(pairs[i], pairs[i + 1]);
+        }
+
+        Node root = new Node();
+        consonants.forEach(root::rule);
+        root.rule("а", "a")
+                .rule("е", BOUNDARY | VOWEL, ANY, "ye").rule("е", "e")
+                .rule("ё", CONSONANT, ANY, "ö").rule("ё", "yo")
+                .rule("и", "i")
+                .rule("о", "o")
+                .rule("оь", "ö")
+                .rule("у", "u")
+                .rule("уь", "ü")
+                .rule("ъ", "")
+                .rule("ы", "ı")
+                .rule("ь", "")
+                .rule("э", "e")
+                .rule("ю", CONSONANT, ANY, "ü").rule("ю", "yu")
+                .rule("я", CONSONANT, ANY, "â").rule("я", "ya");
+
+        // Зворотне до латинського правила: козь → köz, учь → üç
+        for (String vowel : new String[]{"о", "у"}) {
+            String front = vowel.equals("о") ? "ö" : "ü";
+            consonants.forEach((cyrillic, latin) -> {
+                if (!cyrillic.contains("ъ") && !cyrillic.equals("й")) {
+                    root.rule(vowel + cyrillic + "ь", BOUNDARY | VELAR, ANY, front + latin);
+                }
+            });
+        }
+
+        return new Transliterator(Script.LATIN, "аеёиоуыэюя", "кг", "іїєґ", root);
+    }
+}
@@ -0,0 +1,200 @@
+package qirim.app.search;
+
+import qirim.app.script.Script;
+import qirim.app.script.Transliterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Перевірка введеної відповіді з допуском на діакритику, регістр, пробіли й дрібні описки.
+// Прийняті відповіді зводяться через TextFolder і компілюються один раз (разом із варіантом в іншому
+// письмі); відстань Левенштейна рахується бітово-паралельно (Myers/Hyyrö) - одне машинне слово
+// на символ введеного тексту, тож перевірка займає мікросекунди й підходить для кожного натискання.
+public final class AnswerMatcher {
+
+    private static final int WORD = 64;
+
+    private static final class Pattern {
+        final int answerIndex;
+        final char[] chars;
+        // Маски позицій символів у зразку; відкрита адресація, розмір - степінь двійки
+        final char[] keys;
+        final long[] masks;
+        final boolean[] used;
+
+        Pattern(int answerIndex, char[] chars) {
+            this.answerIndex = answerIndex;
+            this.chars = chars;
+            int capacity = Integer.highestOneBit(Math.max(chars.length, 1) * 4 - 1) << 1;
+            keys = new char[capacity];
+            masks = new long[capacity];
+            used = new boolean[capacity];
+            for (int i = 0; i < chars.length && i < WORD; i++) {
+                int slot = slot(chars[i]);
+                keys[slot] = chars[i];
+                used[slot] = true;
+                masks[slot] |= 1L << i;
+            }
+        }
+
+        private int slot(char c) {
+            int slot = (c * 0x9E37) & (keys.length - 1);
+            while (used[slot] && keys[slot] != c) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return slot;
+        }
+
+        long mask(char c) {
+            int slot = slot(c);
+            return used[slot] ? masks[slot] : 0L;
+        }
+    }
+
+    private final Pattern[] patterns;
+
+    private AnswerMatcher(Pattern[] patterns) {
+        this.patterns = patterns;
+    }
+
+    public static AnswerMatcher compile(List<String> accepted) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            String answer = accepted.get(i);
+            if (answer == null || answer.isBlank()) {
+                continue;
+            }
+            char[] folded = normalize(answer);
+            patterns.add(new Pattern(i, folded));
+
+            // Учень може набрати відповідь іншим письмом
+            Script other = Script.detect(answer) == Script.LATIN ? Script.CYRILLIC : Script.LATIN;
+            char[] transliterated = normalize(Transliterator.to(other).apply(answer));
+            if (!String.valueOf(transliterated).equals(String.valueOf(folded))) {
+                patterns.add(new Pattern(i, transliterated));
+            }
+        }
+        return new AnswerMatcher(patterns.toArray(new Pattern[0]));
+    }
+
+    // Скільки правок допускається для відповіді такої довжини: короткі слова - лише точно
+    public static int tolerance(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+        return length <= 7 ? 1 : 2;
+    }
+
+    public boolean matches(CharSequence typed) {
+        return match(typed) >= 0;
+    }
+
+    // Індекс прийнятої відповіді, найближчої до введеного тексту в межах допуску, або -1
+    public int match(CharSequence typed) {
+        char[] text = normalize(typed);
+        if (text.length == 0) {
+            return -1;
+        }
+
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Pattern pattern : patterns) {
+            int limit = Math.min(tolerance(pattern.chars.length), bestDistance - 1);
+            if (limit < 0 || Math.abs(pattern.chars.length - text.length) > limit) {
+                continue;
+            }
+            int distance = pattern.chars.length <= WORD
+                    ? bitParallel(pattern, text, limit)
+                    : dynamic(pattern.chars, text, limit);
+            if (distance <= limit) {
+                best = pattern.answerIndex;
+                bestDistance = distance;
+                if (distance == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Відстань Левенштейна для зразка до 64 символів; якщо перевищено limit, повертає limit + 1 достроково
+    private static int bitParallel(Pattern pattern, char[] text, int limit) {
+        int m = pattern.chars.length;
+        long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+
+        for (int j = 0; j < text.length; j++) {
+            long eq = pattern.mask(text[j]);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+
+            // Кожен наступний символ зменшує відстань щонайбільше на 1
+            if (score - (text.length - j - 1) > limit) {
+                return limit + 1;
+            }
+        }
+        return score;
+    }
+
+    // Запасний варіант для довгих відповідей: два рядки таблиці замість бітових векторів
+    private static int dynamic(char[] pattern, char[] text, int limit) {
+        int[] previous = new int[pattern.length + 1];
+        int[] current = new int[pattern.length + 1];
+        for (int i = 0; i <= pattern.length; i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= text.length; j++) {
+            current[0] = j;
+            int rowMin = current[0];
+            for (int i = 1; i <= pattern.length; i++) {
+                int cost = pattern[i - 1] == text[j - 1] ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                rowMin = Math.min(rowMin, current[i]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[pattern.length];
+    }
+
+    // Зведений текст: слова через один пробіл, без пробілів на краях
+    private static char[] normalize(CharSequence text) {
+        char[] out = new char[text.length()];
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char folded = TextFolder.fold(text.charAt(i));
+            if (folded == TextFolder.DROP) {
+                continue;
+            }
+            if (folded == TextFolder.SEPARATOR) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out[length++] = ' ';
+                pendingSpace = false;
+            }
+            out[length++] = folded;
+        }
+        return length == out.length ? out : Arrays.copyOf(out, length);
+    }
+}
@@ -0,0 +1,285 @@
+package qirim.app.search;
+
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+// Інвертований індекс назв уроків, текстів запитань і варіантів відповідей.
+// Словник термінів відсортований, тож префіксний запит - це діапазон у TreeMap;
+// списки документів - відсортовані масиви int. Оновлення інкрементні, по уроках.
+public final class SearchIndex {
+
+    public enum Kind {
+        LESSON,
+        QUESTION,
+        OPTION
+    }
+
+    public static final class Hit {
+        public final Kind kind;
+        public final int id;
+        public final int lessonId;
+        public final String text;
+
+        Hit(Kind kind, int id, int lessonId, String text) {
+            this.kind = kind;
+            this.id = id;
+            this.lessonId = lessonId;
+            this.text = text;
+        }
+    }
+
+    private static final class Doc {
+        final Hit hit;
+        final String[] terms;
+
+        Doc(Hit hit, String[] terms) {
+            this.hit = hit;
+            this.terms = terms;
+        }
+    }
+
+    // Відсортований за зростанням список id документів; нові id завжди більші, тож додавання - в кінець
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final Map<Integer, Integer> lessonDocs = new HashMap<>();
+    private final Map<Integer, List<Integer>> questionDocsByLesson = new HashMap<>();
+    private final Map<Integer, Integer> questionFingerprints = new HashMap<>();
+    private int nextDocId;
+
+    public void putLesson(Lesson lesson) {
+        long stamp = lock.writeLock();
+        try {
+            Integer existing = lessonDocs.get(lesson.getLessonId());
+            if (existing != null) {
+                if (docs.get(existing).hit.text.equals(lesson.getTitle())) {
+                    return;
+                }
+                removeDoc(existing);
+            }
+            lessonDocs.put(lesson.getLessonId(), addDoc(new Hit(Kind.LESSON, lesson.getLessonId(), lesson.getLessonId(), lesson.getTitle())));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Замінює всі запитання й варіанти уроку; повторне завантаження того самого вмісту нічого не змінює
+    public void putQuestions(int lessonId, List<Question> questions) {
+        int fingerprint = fingerprint(questions);
+        long stamp = lock.writeLock();
+        try {
+            Integer previous = questionFingerprints.get(lessonId);
+            if (previous != null && previous == fingerprint) {
+                return;
+            }
+            removeQuestions(lessonId);
+            questionFingerprints.put(lessonId, fingerprint);
+            List<Integer> ids = new ArrayList<>();
+            for (Question question : questions) {
+                ids.add(addDoc(new Hit(Kind.QUESTION, question.getQuestionId(), lessonId, question.getText())));
+                List<String> options = question.getOptions();
+                for (int i = 0; i < options.size(); i++) {
+                    int optionId = i < question.getOptionIds().size() ? question.getOptionIds().get(i) : -1;
+                    ids.add(addDoc(new Hit(Kind.OPTION, optionId, lessonId, options.get(i))));
+                }
+            }
+            questionDocsByLesson.put(lessonId, ids);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean hasQuestions(int lessonId) {
+        long stamp = lock.readLock();
+        try {
+            return questionDocsByLesson.containsKey(lessonId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Прибирає уроки (разом із запитаннями), яких більше немає в курсі
+    public void retainLessons(Collection<Integer> lessonIds) {
+        Set<Integer> keep = new HashSet<>(lessonIds);
+        long stamp = lock.writeLock();
+        try {
+            for (Integer lessonId : new ArrayList<>(lessonDocs.keySet())) {
+                if (!keep.contains(lessonId)) {
+                    removeDoc(lessonDocs.remove(lessonId));
+                }
+            }
+            for (Integer lessonId : new ArrayList<>(questionDocsByLesson.keySet())) {
+                if (!keep.contains(lessonId)) {
+                    removeQuestions(lessonId);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return docs.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Кожне слово запиту - префікс якогось слова документа (пошук під час набору).
+    // Кандидати беруться з того слова запиту, чий діапазон термінів має найменше документів;
+    // якщо для якогось слова діапазон порожній - збігів немає, документи навіть не перебираються.
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = TextFolder.tokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Hit> hits = new ArrayList<>(Math.min(limit, 64));
+        long stamp = lock.readLock();
+        try {
+            NavigableMap<String, Postings> driver = null;
+            long driverCount = Long.MAX_VALUE;
+            for (String token : tokens) {
+                NavigableMap<String, Postings> range = prefixRange(token);
+                long count = 0;
+                for (Postings list : range.values()) {
+                    count += list.size;
+                    if (count >= driverCount) {
+                        break;
+                    }
+                }
+                if (count == 0) {
+                    return hits;
+                }
+                if (count < driverCount) {
+                    driver = range;
+                    driverCount = count;
+                }
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            for (Postings list : driver.values()) {
+                for (int i = 0; i < list.size; i++) {
+                    int id = list.ids[i];
+                    if (!seen.add(id)) {
+                        continue;
+                    }
+                    Doc doc = docs.get(id);
+                    if (matchesAll(doc, tokens)) {
+                        hits.add(doc.hit);
+                        if (hits.size() == limit) {
+                            return hits;
+                        }
+                    }
+                }
+            }
+            return hits;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean matchesAll(Doc doc, List<String> tokens) {
+        for (String token : tokens) {
+            boolean found = false;
+            for (String term : doc.terms) {
+                if (term.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addDoc(Hit hit) {
+        int id = nextDocId++;
+        String[] terms = new LinkedHashSet<>(TextFolder.tokens(hit.text)).toArray(new String[0]);
+        docs.put(id, new Doc(hit, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new Postings()).add(id);
+        }
+        return id;
+    }
+
+    private void removeDoc(int id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static int fingerprint(List<Question> questions) {
+        int hash = 1;
+        for (Question question : questions) {
+            hash = 31 * hash + question.getQuestionId();
+            hash = 31 * hash + question.getText().hashCode();
+            hash = 31 * hash + question.getOptions().hashCode();
+        }
+        return hash;
+    }
+
+    private void removeQuestions(int lessonId) {
+        questionFingerprints.remove(lessonId);
+        List<Integer> ids = questionDocsByLesson.remove(lessonId);
+        if (ids != null) {
+            for (int id : ids) {
+                removeDoc(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package qirim.app.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Зведення тексту до форми для пошуку: нижній регістр, без діакритики латиниці й кирилиці
+// (ç→c, ğ→g, ı/İ→i, ñ→n, ö→o, ş→s, ü→u, â→a; й→и, ї→і, ё→е, ґ→г, ў→у), апострофи прибираються.
+public final class TextFolder {
+
+    static final char SEPARATOR = ' ';
+    static final char DROP = '\0';
+
+    // Таблиця для U+0000..U+04FF (латиниця з розширеннями та кирилиця); решта - через toLowerCase
+    private static final char[] TABLE = buildTable();
+
+    private TextFolder() {
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[0x0500];
+        for (int c = 0; c < table.length; c++) {
+            table[c] = foldSlow((char) c);
+        }
+        table['ı'] = 'i';
+        table['İ'] = 'i';
+        table['ґ'] = 'г';
+        table['Ґ'] = 'г';
+        table['\''] = DROP;
+        return table;
+    }
+
+    private static char foldSlow(char c) {
+        if (!Character.isLetterOrDigit(c)) {
+            return SEPARATOR;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        char base = decomposed.charAt(0);
+        return Character.toLowerCase(Character.isLetterOrDigit(base) ? base : c);
+    }
+
+    public static char fold(char c) {
+        if (c < TABLE.length) {
+            return TABLE[c];
+        }
+        if (c == '’' || c == 'ʼ') {
+            return DROP;
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARATOR;
+    }
+
+    public static String fold(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char folded = fold(text.charAt(i));
+            if (folded != DROP) {
+                out.append(folded);
+            }
+        }
+        return out.toString();
+    }
+
+    // Зведені слова тексту в порядку появи
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char folded = fold(text.charAt(i));
+            if (folded == DROP) {
+                continue;
+            }
+            if (folded == SEPARATOR) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(folded);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
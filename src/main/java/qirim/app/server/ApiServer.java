@@ -0,0 +1,547 @@
+package qirim.app.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import qirim.app.analytics.QuestionStats;
+import qirim.app.api.ApiCodec;
+import qirim.app.api.Json;
+import qirim.app.audio.ClipStore;
+import qirim.app.concurrent.LoadContext;
+import qirim.app.concurrent.VirtualThreads;
+import qirim.app.logging.AsyncLogging;
+import qirim.app.model.FlashcardReview;
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.LessonResult;
+import qirim.app.model.Question;
+import qirim.app.model.RegistrationResult;
+import qirim.app.model.TestResult;
+import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.repository.Repositories;
+import qirim.app.services.AnalyticsService;
+import qirim.app.services.AuthService;
+import qirim.app.services.DatabaseServices;
+import qirim.app.services.PasswordHasher;
+import qirim.app.services.QueryClass;
+import qirim.app.services.SessionService;
+import qirim.app.services.StreakReconciler;
+import qirim.app.services.StreakService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Проміжний HTTP/JSON-сервер між настільними клієнтами та БД. Клієнти запускаються з
+// -Dqirim.storage=http -Dqirim.api.url=http://host:8085/ і більше не тримають власних підключень:
+// усі запити ділять фіксований пул (qirim.db.pool) і спільні кеші вмісту та таблиці лідерів.
+//
+// java -Dqirim.db.pool=10 -cp ... qirim.app.server.ApiServer
+//
+// Типово сервер слухає лише loopback; для мережі - -Dqirim.server.host=0.0.0.0 за TLS-проксі.
+// Вхід повертає токен сесії (SessionService); /api/users/..., /api/groups/{id}, пакет результатів і прирости аналітики
+// приймаються лише з "Authorization: Bearer <токен>", а id користувача береться з токена.
+//
+// На JDK 21+ кожен запит обробляється у віртуальному потоці.
+public class ApiServer {
+
+    private static final Logger logger = Logger.getLogger(ApiServer.class.getName());
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_LEADERBOARD_LIMIT = 100;
+    private static final String BEARER = "Bearer ";
+
+    // 401 без дійсного токена, 403 - чужі дані
+    private static final class AccessDenied extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        AccessDenied(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // Кліпи вимови (qirim.audio.dir); без каталогу /api/audio/ відповідає 404
+    private final ClipStore clips;
+
+    public ApiServer(InetSocketAddress address) throws IOException {
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutor();
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(
+                Integer.getInteger("qirim.server.threads", 64), r -> {
+                    Thread thread = new Thread(r, "api-server");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.server = HttpServer.create(address, Integer.getInteger("qirim.server.backlog", 256));
+        String audioDir = System.getProperty("qirim.audio.dir");
+        this.clips = audioDir != null ? new ClipStore(Paths.get(audioDir)) : null;
+
+        this.server.createContext("/api/audio/", this::handleClip);
+        this.server.createContext("/api/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Потоки обробки запитів не повинні чекати на запис у консоль
+        AsyncLogging.install();
+
+        // Пул має бути задано до першого звернення до DatabaseServices
+        if (System.getProperty("qirim.db.pool") == null) {
+            System.setProperty("qirim.db.pool", String.valueOf(DEFAULT_POOL_SIZE));
+        }
+
+        Repositories.enableSharedCaches(
+                Long.getLong("qirim.server.contentTtlMs", 5 * 60_000),
+                Long.getLong("qirim.server.leaderboardTtlMs", 5_000));
+        PasswordHasher.calibrate();
+        StreakReconciler.start();
+
+        String host = System.getProperty("qirim.server.host", "127.0.0.1");
+        int port = Integer.getInteger("qirim.server.port", 8085);
+        ApiServer apiServer = new ApiServer(new InetSocketAddress(host, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop, "api-server-shutdown"));
+        apiServer.start();
+
+        logger.info("API-сервер слухає " + host + ":" + port + ", сховище " + Repositories.backend()
+                + ", підключень до БД не більше " + DatabaseServices.getPoolSize());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        StreakReconciler.stop();
+        AnalyticsService.flush();
+        DatabaseServices.closePool();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                Object response = routeWithDeadline(exchange);
+                if (response == null) {
+                    send(exchange, 404, error("Не знайдено"));
+                } else {
+                    send(exchange, 200, response);
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (AccessDenied e) {
+                send(exchange, e.status, error(e.getMessage()));
+            } catch (RejectedExecutionException e) {
+                send(exchange, 503, error("Сервер зайнятий, спробуйте ще раз"));
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Помилка БД: " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath(), e);
+                if (LoadContext.isCancellation(e)) {
+                    send(exchange, 503, error("Сервер не встиг відповісти, спробуйте ще раз"));
+                } else {
+                    send(exchange, 500, error("Помилка бази даних"));
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Необроблена помилка: " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath(), e);
+                send(exchange, 500, error("Внутрішня помилка сервера"));
+            }
+        }
+    }
+
+    // Кліп за хешем: вміст незмінний, тож клієнт і проміжні кеші можуть тримати його скільки завгодно
+    private void handleClip(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String hash = exchange.getRequestURI().getPath().substring("/api/audio/".length());
+            if (clips == null || !"GET".equals(exchange.getRequestMethod()) || !clips.contains(hash)) {
+                send(exchange, 404, error("Не знайдено"));
+                return;
+            }
+            Path file = clips.path(hash);
+            exchange.getResponseHeaders().set("Content-Type", System.getProperty("qirim.audio.contentType", "audio/mpeg"));
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=31536000, immutable");
+            exchange.sendResponseHeaders(200, Files.size(file));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(file, out);
+            }
+        }
+    }
+
+    // null - 404
+    // Запити до БД в межах одного HTTP-запиту мають спільний дедлайн: GET - як інтерактивне читання, решта - як запис
+    private Object routeWithDeadline(HttpExchange exchange) throws IOException, SQLException {
+        QueryClass queryClass = "GET".equals(exchange.getRequestMethod()) ? QueryClass.INTERACTIVE : QueryClass.WRITE;
+        try {
+            return queryClass.call("api " + exchange.getRequestURI().getPath(), () -> {
+                try {
+                    return route(exchange);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object route(HttpExchange exchange) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+
+        if (path.length == 1 && "POST".equals(method)) {
+            switch (path[0]) {
+                case "login": return login(body(exchange));
+                case "logout": return logout(exchange);
+                case "register": return register(body(exchange));
+                case "results": return saveResults(authenticatedUser(exchange), body(exchange));
+                default: return null;
+            }
+        }
+
+        if (path.length == 1 && "GET".equals(method)) {
+            switch (path[0]) {
+                case "themes":
+                    return ApiCodec.themes(Repositories.content().loadThemes());
+                case "leaderboard":
+                    int limit = Math.min(intParam(query.getOrDefault("limit", "10")), MAX_LEADERBOARD_LIMIT);
+                    return ApiCodec.leaderboard(Repositories.leaderboard().getLeaderboard(Math.max(limit, 1)));
+                default:
+                    return null;
+            }
+        }
+
+        if (path.length == 3 && "lessons".equals(path[0]) && "questions".equals(path[2]) && "GET".equals(method)) {
+            return ApiCodec.questions(Repositories.content().loadQuestions(intParam(path[1])));
+        }
+
+        if (path.length == 3 && "lessons".equals(path[0]) && "audio".equals(path[2]) && "GET".equals(method)) {
+            return ApiCodec.lessonAudio(Repositories.content().loadLessonAudio(intParam(path[1])));
+        }
+
+        if (path.length == 3 && "lessons".equals(path[0]) && "stats".equals(path[2]) && "GET".equals(method)) {
+            return ApiCodec.questionStats(AnalyticsService.lessonStats(intParam(path[1])));
+        }
+
+        if (path.length == 2 && "analytics".equals(path[0]) && "questions".equals(path[1]) && "POST".equals(method)) {
+            authenticatedUser(exchange);
+            return mergeQuestionStats(body(exchange));
+        }
+
+        if (path.length == 2 && "groups".equals(path[0]) && "GET".equals(method)) {
+            int groupId = intParam(path[1]);
+            // Дашборд бачать лише вчитель групи та її учасники - той самий відбір, що й у списку груп користувача
+            int userId = authenticatedUser(exchange);
+            boolean member = Repositories.groups().getUserGroups(userId).stream()
+                    .anyMatch(group -> group.getGroupId() == groupId);
+            if (!member) {
+                throw new AccessDenied(403, "Доступ лише до власних груп");
+            }
+            int limit = Math.min(intParam(query.getOrDefault("limit", String.valueOf(MAX_LEADERBOARD_LIMIT))),
+                    MAX_LEADERBOARD_LIMIT);
+            GroupDashboard dashboard = Repositories.groups().getDashboard(groupId, Math.max(limit, 1));
+            return dashboard != null ? ApiCodec.groupDashboard(dashboard) : null;
+        }
+
+        if (path.length >= 2 && "users".equals(path[0])) {
+            return user(method, path, query, exchange);
+        }
+
+        return null;
+    }
+
+    private Object user(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+            throws IOException, SQLException {
+        // Id у шляху лишається для читабельних URL, але має збігатися з власником токена
+        int userId = authenticatedUser(exchange);
+        if (intParam(path[1]) != userId) {
+            throw new AccessDenied(403, "Доступ лише до власних даних");
+        }
+
+        if (path.length == 2 && "GET".equals(method)) {
+            String username = Repositories.users().findUsername(userId);
+            return username != null ? Map.of("username", username) : null;
+        }
+
+        String resource = path[2];
+        if (path.length == 3 && "GET".equals(method)) {
+            switch (resource) {
+                case "progress":
+                    UserProgress progress = Repositories.progress().getUserProgress(userId);
+                    return progress != null ? ApiCodec.progress(progress) : null;
+                case "stats":
+                    UserStats stats = Repositories.progress().getUserStats(userId, cutoff(query));
+                    return stats != null ? ApiCodec.stats(stats) : null;
+                case "groups":
+                    return ApiCodec.groups(Repositories.groups().getUserGroups(userId));
+                case "lessons":
+                    return ApiCodec.lessonResults(Repositories.progress().getLessonResults(userId, lessonIds(query)));
+                case "flashcards":
+                    return ApiCodec.flashcards(Repositories.flashcards().loadDeck(userId, themeIds(query)));
+                default:
+                    return null;
+            }
+        }
+
+        if (path.length == 4 && "lessons".equals(resource) && "GET".equals(method)) {
+            // Обидва поля з одного рядка user_lesson_progress - один запит
+            int lessonId = intParam(path[3]);
+            LessonResult result = Repositories.progress().getLessonResults(userId, List.of(lessonId))
+                    .getOrDefault(lessonId, LessonResult.NONE);
+            Map<String, Object> lesson = new LinkedHashMap<>();
+            lesson.put("completed", result.isCompleted());
+            lesson.put("bestScore", result.getBestScore());
+            return lesson;
+        }
+
+        if (path.length == 3 && "results".equals(resource) && "POST".equals(method)) {
+            Map<String, Object> body = body(exchange);
+            Repositories.progress().saveTestResult(userId, ApiCodec.integer(body, "lessonId"),
+                    ApiCodec.integer(body, "score"), ApiCodec.integer(body, "total"));
+            return Map.of("saved", true);
+        }
+
+        if (path.length == 3 && "flashcards".equals(resource) && "POST".equals(method)) {
+            List<FlashcardReview> reviews = ApiCodec.toFlashcardReviews(body(exchange).get("reviews"));
+            if (reviews.size() > ApiCodec.MAX_REVIEWS_PER_REQUEST) {
+                throw new IllegalArgumentException("Не більше " + ApiCodec.MAX_REVIEWS_PER_REQUEST + " карток за запит");
+            }
+            Repositories.flashcards().saveReviews(userId, reviews);
+            return Map.of("saved", reviews.size());
+        }
+
+        if (path.length == 4 && "streak".equals(resource) && "reset".equals(path[3]) && "POST".equals(method)) {
+            return Map.of("reset", Repositories.progress().resetStaleStreak(userId, cutoff(query)));
+        }
+
+        return null;
+    }
+
+    private static Object saveResults(int userId, Map<String, Object> body) throws SQLException {
+        List<TestResult> results = ApiCodec.toTestResults(body.get("results"));
+        if (results.size() > ApiCodec.MAX_RESULTS_PER_REQUEST) {
+            throw new IllegalArgumentException("Не більше " + ApiCodec.MAX_RESULTS_PER_REQUEST + " результатів за запит");
+        }
+        for (TestResult result : results) {
+            if (result.getUserId() != userId) {
+                throw new AccessDenied(403, "Пакет містить результати іншого користувача");
+            }
+        }
+        Repositories.progress().saveTestResults(results);
+        return Map.of("saved", results.size());
+    }
+
+    // Прирости, накопичені клієнтом; потрапляють у ту саму чергу злиття, що й власні відповіді сервера.
+    // Запитання звіряються з уроком за кешем вмісту: невідомі (видалені чи вигадані) відкидаються,
+    // а варіант чужого запитання - помилка клієнта
+    private static Object mergeQuestionStats(Map<String, Object> body) throws SQLException {
+        List<QuestionStats> deltas = ApiCodec.toQuestionStats(body.get("questions"));
+        if (deltas.size() > ApiCodec.MAX_STATS_PER_REQUEST) {
+            throw new IllegalArgumentException("Не більше " + ApiCodec.MAX_STATS_PER_REQUEST + " запитань за запит");
+        }
+
+        Map<Integer, Map<Integer, Question>> lessons = new HashMap<>();
+        List<QuestionStats> known = new ArrayList<>();
+        for (QuestionStats delta : deltas) {
+            Map<Integer, Question> questions = lessons.get(delta.getLessonId());
+            if (questions == null) {
+                questions = new HashMap<>();
+                for (Question question : Repositories.content().loadQuestions(delta.getLessonId())) {
+                    questions.put(question.getQuestionId(), question);
+                }
+                lessons.put(delta.getLessonId(), questions);
+            }
+            Question question = questions.get(delta.getQuestionId());
+            if (question == null) {
+                continue;
+            }
+            for (Integer optionId : delta.getOptionPicks().keySet()) {
+                if (!question.getOptionIds().contains(optionId)) {
+                    throw new IllegalArgumentException("Варіант " + optionId + " не належить запитанню " + delta.getQuestionId());
+                }
+            }
+            known.add(delta);
+        }
+        AnalyticsService.mergeDeltas(known);
+        return Map.of("merged", known.size());
+    }
+
+    private static Object login(Map<String, Object> body) throws SQLException {
+        String username = requireString(body, "username");
+        String password = requireString(body, "password");
+        int userId = await(() -> AuthService.authenticate(username, password).join());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("userId", userId);
+        if (userId > 0) {
+            response.put("token", SessionService.issue(userId));
+        }
+        return response;
+    }
+
+    private static Object logout(HttpExchange exchange) throws SQLException {
+        SessionService.revoke(bearerToken(exchange));
+        return Map.of("revoked", true);
+    }
+
+    // Власник токена сесії з заголовка Authorization; перевірка - один запит за SHA-256, без BCrypt
+    private static int authenticatedUser(HttpExchange exchange) throws SQLException {
+        int userId = SessionService.verify(bearerToken(exchange));
+        if (userId <= 0) {
+            throw new AccessDenied(401, "Потрібен вхід");
+        }
+        return userId;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()) : null;
+    }
+
+    private static Object register(Map<String, Object> body) throws SQLException {
+        String username = requireString(body, "username");
+        String email = requireString(body, "email");
+        String password = requireString(body, "password");
+        RegistrationResult result = await(() -> AuthService.register(username, email, password).join());
+        return Map.of("result", result.name());
+    }
+
+    private interface Join<T> {
+        T get();
+    }
+
+    // Розгортає CompletionException: SQLException і RejectedExecutionException обробляє handle
+    private static <T> T await(Join<T> join) throws SQLException {
+        try {
+            return join.get();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Клієнт надсилає межу у своєму поясі; без неї діє пояс сервера
+    private static LocalDate cutoff(Map<String, String> query) {
+        String cutoff = query.get("cutoff");
+        if (cutoff == null) {
+            return StreakService.streakCutoff(StreakService.today());
+        }
+        try {
+            return LocalDate.parse(cutoff);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некоректна дата cutoff: " + cutoff);
+        }
+    }
+
+    private static Map<String, Object> body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Завеликий запит");
+            }
+            return ApiCodec.map(Json.parse(new String(bytes, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String key) {
+        String value = ApiCodec.string(body, key);
+        if (value == null) {
+            throw new IllegalArgumentException("Поле " + key + " обов'язкове");
+        }
+        return value;
+    }
+
+    private static int intParam(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Очікувалося число: " + value);
+        }
+    }
+
+    // ids=1,2,3; не більше ApiCodec.MAX_LESSONS_PER_REQUEST
+    private static List<Integer> lessonIds(Map<String, String> query) {
+        return idList(query.getOrDefault("ids", ""), ApiCodec.MAX_LESSONS_PER_REQUEST, "уроків");
+    }
+
+    private static List<Integer> themeIds(Map<String, String> query) {
+        return idList(query.getOrDefault("themes", ""), ApiCodec.MAX_THEMES_PER_REQUEST, "тем");
+    }
+
+    private static List<Integer> idList(String ids, int max, String what) {
+        List<Integer> list = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isEmpty()) {
+                list.add(intParam(id));
+            }
+        }
+        if (list.size() > max) {
+            throw new IllegalArgumentException("Забагато " + what + " у запиті: " + list.size());
+        }
+        return list;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", message != null ? message : "");
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package qirim.app.services;
+
+import qirim.app.analytics.QuestionStats;
+import qirim.app.model.Question;
+import qirim.app.repository.Repositories;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Статистика відповідей для авторів курсу: частка правильних, вибір дистракторів, медіанний час
+// і індекс дискримінації по кожному запитанню. Кожна спроба одразу додається до приростів у пам'яті,
+// а раз на qirim.analytics.flushSeconds прирости зливаються зі збереженими зведеннями - сирі відповіді
+// ніде не зберігаються й не перечитуються.
+public class AnalyticsService {
+
+    private static final Logger logger = Logger.getLogger(AnalyticsService.class.getName());
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("qirim.analytics.enabled", "true"));
+    private static final long FLUSH_SECONDS = Long.getLong("qirim.analytics.flushSeconds", 60);
+
+    // Прирости з моменту останнього злиття; кожен запис змінюється лише всередині compute для свого ключа
+    private static final ConcurrentHashMap<Integer, QuestionStats> pending = new ConcurrentHashMap<>();
+
+    private static volatile ScheduledExecutorService flusher;
+    // Окремо від монітора класу: поки йде запис у БД, запуск планувальника не чекає
+    private static final Object flushLock = new Object();
+
+    // answers[i] - як у QuizService.calculateScore; responseMillis[i] < 0 або responseMillis == null - час невідомий
+    public static void recordAttempt(int lessonId, List<Question> questions, int[] answers, long[] responseMillis) {
+        if (!ENABLED || questions.isEmpty()) {
+            return;
+        }
+
+        int count = Math.min(questions.size(), answers.length);
+        boolean[] correct = new boolean[count];
+        int score = 0;
+        for (int i = 0; i < count; i++) {
+            correct[i] = answers[i] != QuizService.NO_ANSWER && answers[i] == questions.get(i).getCorrectAnswerIndex();
+            if (correct[i]) {
+                score++;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i);
+            int answer = answers[i];
+            boolean isCorrect = correct[i];
+            boolean isSkipped = answer == QuizService.NO_ANSWER;
+            // Для запитань з введенням варіантів-дистракторів немає
+            int optionId = !question.isFreeText() && answer >= 0 && answer < question.getOptionIds().size()
+                    ? question.getOptionIds().get(answer) : 0;
+            long millis = responseMillis != null && i < responseMillis.length ? responseMillis[i] : -1;
+            // Результат за решту уроку, без самого запитання, щоб воно не корелювало саме з собою
+            double rest = count > 1 ? (double) (score - (isCorrect ? 1 : 0)) / (count - 1) : 0;
+
+            pending.compute(question.getQuestionId(), (id, stats) -> {
+                QuestionStats delta = stats != null ? stats : new QuestionStats(id, lessonId);
+                delta.record(isCorrect, isSkipped, optionId, millis, rest);
+                return delta;
+            });
+        }
+        ensureFlusher();
+    }
+
+    // Готові прирости з іншого процесу (клієнти API-сервера)
+    public static void mergeDeltas(Collection<QuestionStats> deltas) {
+        for (QuestionStats delta : deltas) {
+            pending.compute(delta.getQuestionId(), (id, stats) -> {
+                QuestionStats merged = stats != null ? stats : new QuestionStats(id, delta.getLessonId());
+                merged.merge(delta);
+                return merged;
+            });
+        }
+        ensureFlusher();
+    }
+
+    private static void ensureFlusher() {
+        if (flusher == null) {
+            startFlusher();
+        }
+    }
+
+    private static synchronized void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "analytics-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(AnalyticsService::flush, FLUSH_SECONDS, FLUSH_SECONDS, TimeUnit.SECONDS);
+        flusher = scheduler;
+    }
+
+    // Зливає накопичені прирости зі збереженою статистикою. Якщо запис не вдався, прирости
+    // повертаються в чергу й підуть із наступним злиттям; відхилені через дані - відкидаються.
+    public static int flush() {
+        synchronized (flushLock) {
+            return flushPending();
+        }
+    }
+
+    private static int flushPending() {
+        List<QuestionStats> deltas = new ArrayList<>();
+        for (Integer questionId : pending.keySet()) {
+            QuestionStats delta = pending.remove(questionId);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Repositories.analytics().mergeQuestionStats(deltas);
+            logger.fine("Статистику відповідей злито: " + deltas.size() + " запитань");
+            return deltas.size();
+        } catch (SQLException e) {
+            if (isRejected(e)) {
+                return flushOneByOne(deltas);
+            }
+            logger.log(Level.WARNING, "Не вдалося зберегти статистику відповідей, повтор під час наступного злиття", e);
+            mergeDeltas(deltas);
+            return 0;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Не вдалося зберегти статистику відповідей, повтор під час наступного злиття", e);
+            mergeDeltas(deltas);
+            return 0;
+        }
+    }
+
+    // Пакет відкотився через один хибний приріст (обмеження БД або 400 від API-сервера): пишемо по одному,
+    // щоб відкинути лише його, а не повертати весь пакет у чергу при кожному злитті
+    private static int flushOneByOne(List<QuestionStats> deltas) {
+        int merged = 0;
+        List<QuestionStats> retry = new ArrayList<>();
+        for (QuestionStats delta : deltas) {
+            try {
+                Repositories.analytics().mergeQuestionStats(List.of(delta));
+                merged++;
+            } catch (SQLException e) {
+                if (isRejected(e)) {
+                    logger.log(Level.WARNING, "Приріст статистики запитання " + delta.getQuestionId() + " відкинуто", e);
+                } else {
+                    retry.add(delta);
+                }
+            }
+        }
+        if (!retry.isEmpty()) {
+            logger.warning("Не вдалося зберегти статистику " + retry.size() + " запитань, повтор під час наступного злиття");
+            mergeDeltas(retry);
+        }
+        return merged;
+    }
+
+    // Порушення обмежень (SQLState 23) чи некоректні дані (22): повтор дасть ту саму помилку
+    private static boolean isRejected(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            String state = current.getSQLState();
+            if (current instanceof SQLIntegrityConstraintViolationException || current instanceof SQLDataException
+                    || state != null && (state.startsWith("23") || state.startsWith("22"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Збережена статистика уроку разом із ще не злитими приростами цього процесу
+    public static List<QuestionStats> lessonStats(int lessonId) throws SQLException {
+        Map<Integer, QuestionStats> byQuestion = new TreeMap<>();
+        for (QuestionStats stats : Repositories.analytics().loadQuestionStats(lessonId)) {
+            byQuestion.put(stats.getQuestionId(), stats);
+        }
+        for (Integer questionId : pending.keySet()) {
+            pending.computeIfPresent(questionId, (id, delta) -> {
+                if (delta.getLessonId() == lessonId) {
+                    byQuestion.computeIfAbsent(id, key -> new QuestionStats(key, lessonId)).merge(delta);
+                }
+                return delta;
+            });
+        }
+        return new ArrayList<>(byQuestion.values());
+    }
+
+    public static int pendingQuestions() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,156 @@
+package qirim.app.services;
+
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import qirim.app.audio.AudioCache;
+import qirim.app.audio.ClipSource;
+import qirim.app.audio.LocalClipServer;
+import qirim.app.model.LessonAudio;
+import qirim.app.model.Question;
+import qirim.app.repository.Repositories;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Вимова запитань і варіантів. Кліпи беруться з qirim.audio.url (http: або file: з каталогом ClipStore),
+// інакше з каталогу qirim.audio.dir, а в режимі qirim.storage=http - з API-сервера.
+// Усе, що торкається мережі, диска чи програвача, виконується поза потоком JavaFX, тож перехід
+// між запитаннями ніколи не чекає на аудіо.
+public class AudioService {
+
+    private static final Logger logger = Logger.getLogger(AudioService.class.getName());
+
+    private static final long CACHE_BYTES = Long.getLong("qirim.audio.cacheMb", 200) * 1024 * 1024;
+    private static final int FETCH_THREADS = 2;
+
+    // Завантаження метаданих і керування програвачем - кожне у своєму потоці, щоб запит до БД не затримував звук
+    private static final ExecutorService loader = daemonExecutor("audio-loader");
+    private static final ExecutorService player = daemonExecutor("audio-player");
+
+    private static AudioCache cache;
+    private static LocalClipServer localServer;
+    private static boolean initialized;
+
+    // Лише в потоці player
+    private static MediaPlayer current;
+
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static URI origin() {
+        String url = System.getProperty("qirim.audio.url");
+        if (url != null) {
+            return URI.create(url.endsWith("/") ? url : url + "/");
+        }
+        String dir = System.getProperty("qirim.audio.dir");
+        if (dir != null) {
+            return Paths.get(dir).toUri();
+        }
+        if (Repositories.backend() == Repositories.Backend.HTTP) {
+            return Repositories.api().getBaseUri().resolve("api/audio/");
+        }
+        return null;
+    }
+
+    public static boolean isEnabled() {
+        return origin() != null;
+    }
+
+    private static synchronized AudioCache cache() {
+        if (!initialized) {
+            initialized = true;
+            URI origin = origin();
+            if (origin != null) {
+                Path dir = Paths.get(System.getProperty("qirim.audio.cacheDir",
+                        Paths.get(System.getProperty("user.home"), ".qirim", "audio").toString()));
+                try {
+                    cache = new AudioCache(dir, CACHE_BYTES, ClipSource.forUri(origin), FETCH_THREADS);
+                    localServer = new LocalClipServer(cache, System.getProperty("qirim.audio.contentType", "audio/mpeg"));
+                    logger.info("Аудіо: джерело " + origin + ", кеш " + dir);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Не вдалося підготувати кеш аудіо, вимову вимкнено", e);
+                    cache = null;
+                }
+            }
+        }
+        return cache;
+    }
+
+    public static CompletableFuture<LessonAudio> loadLessonAudio(int lessonId) {
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(LessonAudio.EMPTY);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Repositories.content().loadLessonAudio(lessonId);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Не вдалося завантажити аудіо уроку " + lessonId, e);
+                return LessonAudio.EMPTY;
+            }
+        }, loader);
+    }
+
+    // Кліпи уроку завантажуються у фоні, починаючи з поточного запитання
+    public static void prefetch(LessonAudio audio, List<Question> questions, int fromQuestion) {
+        if (audio.isEmpty() || questions.isEmpty()) {
+            return;
+        }
+        loader.execute(() -> {
+            AudioCache audioCache = cache();
+            if (audioCache != null) {
+                audioCache.prefetch(audio.clipsInOrder(questions, fromQuestion));
+            }
+        });
+    }
+
+    // Відтворює кліп: з кешу, а якщо його ще немає - потоком під час завантаження
+    public static void play(String hash) {
+        if (hash == null) {
+            return;
+        }
+        player.execute(() -> {
+            stopCurrent();
+            AudioCache audioCache = cache();
+            if (audioCache == null) {
+                return;
+            }
+            try {
+                Path file = audioCache.cached(hash);
+                URI source = file != null ? file.toUri() : localServer.uri(hash);
+                MediaPlayer mediaPlayer = new MediaPlayer(new Media(source.toString()));
+                mediaPlayer.setOnReady(mediaPlayer::play);
+                mediaPlayer.setOnError(() -> logger.log(Level.WARNING, "Помилка відтворення кліпу " + hash,
+                        mediaPlayer.getError()));
+                current = mediaPlayer;
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Не вдалося відтворити кліп " + hash, e);
+            }
+        });
+    }
+
+    public static void stop() {
+        player.execute(AudioService::stopCurrent);
+    }
+
+    private static void stopCurrent() {
+        if (current != null) {
+            current.stop();
+            current.dispose();
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package qirim.app.services;
+
+import qirim.app.api.ApiClient;
+import qirim.app.api.ApiCodec;
+import qirim.app.model.RegistrationResult;
+import qirim.app.repository.Repositories;
+import qirim.app.repository.UserRepository.Credentials;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AuthService {
+
+    private static final Logger logger = Logger.getLogger(AuthService.class.getName());
+
+    private static final ExecutorService dbExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "auth-db");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Повертає id користувача або -1, якщо логін чи пароль невірні.
+    // Помилка БД завершує future з SQLException всередині CompletionException.
+    public static CompletableFuture<Integer> authenticate(String username, String password) {
+        ApiClient api = Repositories.api();
+        if (api != null) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("username", username);
+            body.put("password", password);
+            return CompletableFuture.supplyAsync(() -> callApi(() ->
+                    api.post("api/login", body, json -> loggedIn(api, ApiCodec.map(json)))), dbExecutor);
+        }
+
+        return CompletableFuture.supplyAsync(() -> findCredentials(username), dbExecutor)
+                .thenCompose(credentials -> {
+                    if (credentials == null) {
+                        return CompletableFuture.completedFuture(-1);
+                    }
+                    return PasswordHasher.verify(password, credentials.passwordHash).thenApply(matches -> {
+                        if (!matches) {
+                            return -1;
+                        }
+                        if (PasswordHasher.needsRehash(credentials.passwordHash)) {
+                            rehash(credentials, password);
+                        }
+                        return credentials.userId;
+                    });
+                });
+    }
+
+    // Наступні запити клієнта йдуть із токеном сесії, виданим сервером
+    private static int loggedIn(ApiClient api, Map<String, Object> response) {
+        int userId = ApiCodec.integer(response, "userId");
+        if (userId > 0) {
+            String token = ApiCodec.string(response, "token");
+            if (token == null) {
+                throw new IllegalArgumentException("Сервер не повернув токен сесії");
+            }
+            api.setToken(token);
+        }
+        return userId;
+    }
+
+    public static CompletableFuture<RegistrationResult> register(String username, String email, String password) {
+        ApiClient api = Repositories.api();
+        if (api != null) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("username", username);
+            body.put("email", email);
+            body.put("password", password);
+            return CompletableFuture.supplyAsync(() -> callApi(() -> api.post("api/register", body,
+                    json -> RegistrationResult.valueOf(ApiCodec.string(ApiCodec.map(json), "result")))), dbExecutor);
+        }
+
+        return PasswordHasher.hash(password)
+                .thenApplyAsync(hashedPassword -> insertUser(username, email, hashedPassword), dbExecutor);
+    }
+
+    private static RegistrationResult insertUser(String username, String email, String hashedPassword) {
+        try {
+            RegistrationResult result = Repositories.users().create(username, email, hashedPassword);
+            if (result == RegistrationResult.CREATED) {
+                logger.info("Новий користувач зареєстрований: " + username);
+            }
+            return result;
+
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private interface ApiCall<T> {
+        T call() throws SQLException;
+    }
+
+    // Перевантажений сервер повідомляється так само, як переповнена локальна черга BCrypt
+    private static <T> T callApi(ApiCall<T> call) {
+        try {
+            return call.call();
+        } catch (SQLTransientException e) {
+            if (e instanceof SQLTransientConnectionException) {
+                throw new CompletionException(e);
+            }
+            throw new RejectedExecutionException(e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Лише пошук облікового запису без перевірки пароля (навантажувальні тести)
+    public static int findUserId(String username) throws SQLException {
+        Credentials credentials = Repositories.users().findCredentials(username);
+        return credentials != null ? credentials.userId : -1;
+    }
+
+    private static Credentials findCredentials(String username) {
+        try {
+            return Repositories.users().findCredentials(username);
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Застарілий хеш тихо замінюється новим з поточною вартістю; вхід на це не чекає
+    private static void rehash(Credentials credentials, String password) {
+        PasswordHasher.hash(password)
+                .thenAcceptAsync(newHash -> updateHash(credentials, newHash), dbExecutor)
+                .exceptionally(e -> {
+                    logger.log(Level.WARNING, "Не вдалося оновити хеш пароля для користувача " + credentials.userId, e);
+                    return null;
+                });
+    }
+
+    private static void updateHash(Credentials credentials, String newHash) {
+        try {
+            if (Repositories.users().updatePasswordHash(credentials.userId, credentials.passwordHash, newHash)) {
+                logger.info("Хеш пароля оновлено до вартості " + PasswordHasher.costOf(newHash)
+                        + " для користувача " + credentials.userId);
+            }
+
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package qirim.app.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Фіксований пул підключень: не більше size фізичних підключень на весь процес.
+// Виклики close() на виданому підключенні повертають його в пул, тож код сервісів
+// з try-with-resources працює без змін.
+final class ConnectionPool {
+
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+    // Після close() нові підключення не видаються, а повернені закриваються замість простою в пулі
+    private volatile boolean closed;
+
+    ConnectionPool(ConnectionFactory factory, int size) {
+        this.factory = factory;
+        this.permits = new Semaphore(size, true);
+    }
+
+    Connection borrow(long acquireTimeoutMillis) throws SQLException {
+        ensureOpen();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Немає вільних підключень у пулі за "
+                        + acquireTimeoutMillis + " мс", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Очікування підключення перервано", "08001", e);
+        }
+
+        try {
+            ensureOpen();
+            return lease(takeHealthy());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLNonTransientConnectionException("Пул підключень закрито", "08003");
+        }
+    }
+
+    private Connection takeHealthy() throws SQLException {
+        Connection conn;
+        // Останнє повернене підключення - найімовірніше ще живе (LIFO)
+        while ((conn = idle.pollFirst()) != null) {
+            if (conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return conn;
+            }
+            closeQuietly(conn);
+        }
+        return factory.open();
+    }
+
+    private void giveBack(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (closed) {
+                closeQuietly(conn);
+                return;
+            }
+            idle.offerFirst(conn);
+            // close() міг спорожнити пул між перевіркою і поверненням
+            if (closed) {
+                closeIdle();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Підключення не вдалося повернути в пул, його закрито", e);
+            closeQuietly(conn);
+        } finally {
+            permits.release();
+        }
+    }
+
+    void close() {
+        closed = true;
+        closeIdle();
+    }
+
+    private void closeIdle() {
+        Connection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            closeQuietly(conn);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private Connection lease(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(physical));
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+
+        Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            giveBack(physical);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        return returned || physical.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+                default:
+                    synchronized (this) {
+                        if (returned) {
+                            throw new SQLException("Підключення вже повернуто в пул");
+                        }
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package qirim.app.services;
+
+import qirim.app.logging.Log;
+import qirim.app.model.Theme;
+import qirim.app.repository.Repositories;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Logger;
+
+public class CourseService {
+
+    private static final Logger logger = Logger.getLogger(CourseService.class.getName());
+
+    public static List<Theme> loadThemes() throws SQLException {
+        List<Theme> loadedThemes = Repositories.content().loadThemes();
+        Log.info(logger, "Теми завантажено", "themes", loadedThemes.size());
+        SearchService.indexThemes(loadedThemes);
+        return loadedThemes;
+    }
+}
@@ -0,0 +1,83 @@
+package qirim.app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class CredentialsValidator {
+
+    // Константи для валідації
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final Pattern UPPERCASE_PATTERN = Pattern.compile("[A-Z]");
+    private static final Pattern LOWERCASE_PATTERN = Pattern.compile("[a-z]");
+    private static final Pattern DIGIT_PATTERN = Pattern.compile("\\d");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$"
+    );
+
+    public static List<String> validatePassword(String password) {
+        List<String> errors = new ArrayList<>();
+
+        if (password == null || password.isEmpty()) {
+            errors.add("Пароль не може бути порожнім");
+            return errors;
+        }
+
+        if (password.length() < MIN_PASSWORD_LENGTH) {
+            errors.add("Мінімум " + MIN_PASSWORD_LENGTH + " символів");
+        }
+
+        if (!UPPERCASE_PATTERN.matcher(password).find()) {
+            errors.add("Хоча б одна велика літера (A-Z)");
+        }
+
+        if (!LOWERCASE_PATTERN.matcher(password).find()) {
+            errors.add("Хоча б одна мала літера (a-z)");
+        }
+
+        if (!DIGIT_PATTERN.matcher(password).find()) {
+            errors.add("Хоча б одна цифра (0-9)");
+        }
+
+        return errors;
+    }
+
+    public static List<String> validateEmail(String email) {
+        List<String> errors = new ArrayList<>();
+
+        if (email == null || email.trim().isEmpty()) {
+            errors.add("Email не може бути порожнім");
+            return errors;
+        }
+
+        email = email.trim().toLowerCase();
+
+        if (!EMAIL_PATTERN.matcher(email).matches()) {
+            errors.add("Невірний формат email адреси");
+            return errors;
+        }
+
+        String[] parts = email.split("@");
+        if (parts.length != 2) {
+            errors.add("Email повинен містити рівно один символ @");
+            return errors;
+        }
+
+        String localPart = parts[0];
+        String domain = parts[1];
+
+        if (localPart.length() < 3) {
+            errors.add("Частина email до @ повинна містити мінімум 3 символи");
+        }
+
+        if (!domain.contains(".")) {
+            errors.add("Домен повинен містити крапку (наприклад: gmail.com)");
+        }
+
+        if (email.contains("..")) {
+            errors.add("Email не може містити дві крапки підряд");
+        }
+
+        return errors;
+    }
+}
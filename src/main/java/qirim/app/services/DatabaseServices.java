@@ -1,5 +1,8 @@
 package qirim.app.services;
 
+import qirim.app.concurrent.LoadContext;
+import qirim.app.logging.Log;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -8,15 +11,56 @@ import java.util.logging.Logger;
 
 public class DatabaseServices {
 
-    private static final String URL = "jdbc:postgresql://ep-patient-meadow-agkm9anb-pooler.c-2.eu-central-1.aws.neon.tech/neondb?sslmode=require";
-    private static final String USER = "neondb_owner";
-    private static final String PASSWORD = "npg_ht3VH9JvbfxR";
+    // Локальну БД (бенчмарки, навантажувальні тести) можна задати через -Dqirim.db.url/user/password
+    private static final String URL = System.getProperty("qirim.db.url",
+            "jdbc:postgresql://ep-patient-meadow-agkm9anb-pooler.c-2.eu-central-1.aws.neon.tech/neondb?sslmode=require");
+    private static final String USER = System.getProperty("qirim.db.user", "neondb_owner");
+    private static final String PASSWORD = System.getProperty("qirim.db.password", "npg_ht3VH9JvbfxR");
+
+    // -Dqirim.db.pool=N: не більше N підключень на процес (API-сервер); 0 - нове підключення на кожен виклик
+    private static final int POOL_SIZE = Integer.getInteger("qirim.db.pool", 0);
+    private static final long POOL_TIMEOUT_MS = Long.getLong("qirim.db.poolTimeoutMs", 10_000);
 
     private static final Logger LOGGER = Logger.getLogger(DatabaseServices.class.getName());
 
+    private static final ConnectionPool pool = POOL_SIZE > 0
+            ? new ConnectionPool(DatabaseServices::openConnection, POOL_SIZE)
+            : null;
+
+    // Усередині LoadContext (екран, запит API) підключення не чекає в пулі довше за дедлайн,
+    // а його запити мають таймаут і скасовуються разом із контекстом
     public static Connection getConnection() throws SQLException {
+        LoadContext context = LoadContext.current();
+        if (context == null) {
+            return pool != null ? pool.borrow(POOL_TIMEOUT_MS) : openConnection();
+        }
+
+        context.check();
+        Connection conn;
+        try {
+            conn = pool != null ? pool.borrow(Math.min(POOL_TIMEOUT_MS, context.remainingMillis())) : openConnection();
+        } catch (SQLException e) {
+            // Очікування перервано скасуванням - про це й повідомляємо, а не про брак підключень
+            context.check();
+            throw e;
+        }
+        return DeadlineConnection.wrap(conn, context);
+    }
+
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+
+    public static void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static Connection openConnection() throws SQLException {
+        long started = System.nanoTime();
         Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-        LOGGER.info("✅ Нове підключення до бази даних встановлено.");
+        Log.info(LOGGER, "✅ Нове підключення до бази даних", "ms", (System.nanoTime() - started) / 1_000_000);
         return conn;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package qirim.app.services;
+
+import qirim.app.concurrent.LoadContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Підключення в межах LoadContext: кожен створений на ньому Statement отримує таймаут за дедлайном
+// контексту (запасний запобіжник на боці сервера БД), а скасування контексту викликає Statement.cancel.
+final class DeadlineConnection implements InvocationHandler {
+
+    private final Connection target;
+    private final LoadContext context;
+
+    private DeadlineConnection(Connection target, LoadContext context) {
+        this.target = target;
+        this.context = context;
+    }
+
+    static Connection wrap(Connection target, LoadContext context) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new DeadlineConnection(target, context));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Deadline" + target;
+            default:
+                break;
+        }
+
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (result instanceof Statement) {
+            bind((Statement) result);
+        }
+        return result;
+    }
+
+    private void bind(Statement stmt) throws SQLException {
+        context.check();
+        long remaining = context.remainingMillis();
+        if (remaining != Long.MAX_VALUE) {
+            // Таймаут JDBC - у секундах; точніше дедлайн тримає планувальник, що викликає expire()
+            stmt.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, Math.max(1, (remaining + 999) / 1000)));
+        }
+        context.onCancel(() -> {
+            try {
+                stmt.cancel();
+            } catch (SQLException ignored) {
+                // Запит уже завершено або підключення закрито
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package qirim.app.services;
+
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Одна сесія карток, повністю в пам'яті: вибір карток, порядок, повтори й нові коробки
+// рахуються тут, а в БД іде лише підсумок reviews() наприкінці. Живе в одному екрані, без синхронізації.
+public class FlashcardDrill {
+
+    // Картка, яку не знали, повертається через кілька інших, але не більше двох разів за сесію
+    private static final int RETRY_GAP = 3;
+    private static final int MAX_REPEATS = 2;
+
+    private final List<Flashcard> cards;
+    private final int[] boxes;
+    private final int[] correct;
+    private final int[] wrong;
+    private final int[] repeats;
+    private final boolean[] missed;
+    // Індекси в cards у порядку показу; повтори дописуються в неї під час сесії
+    private final List<Integer> queue = new ArrayList<>();
+    private int position;
+    private int knownAnswers;
+    private int missedAnswers;
+
+    // Вибірка без повторень з вагою 2^(MAX_BOX - box) (ключ -ln(u)/w, найменші ключі - в сесію):
+    // картки з нижчих коробок трапляються частіше й раніше, вивчені - зрідка
+    public FlashcardDrill(List<Flashcard> deck, int size, Random random) {
+        int count = Math.min(size, deck.size());
+        double[] keys = new double[deck.size()];
+        Integer[] order = new Integer[deck.size()];
+        for (int i = 0; i < deck.size(); i++) {
+            int box = Math.max(0, Math.min(Flashcard.MAX_BOX, deck.get(i).getBox()));
+            keys[i] = -Math.log(1 - random.nextDouble()) / (1 << (Flashcard.MAX_BOX - box));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> keys[i]));
+
+        this.cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(deck.get(order[i]));
+            queue.add(i);
+        }
+        this.boxes = new int[count];
+        for (int i = 0; i < count; i++) {
+            boxes[i] = cards.get(i).getBox();
+        }
+        this.correct = new int[count];
+        this.wrong = new int[count];
+        this.repeats = new int[count];
+        this.missed = new boolean[count];
+    }
+
+    // null, якщо сесію завершено
+    public Flashcard current() {
+        return isFinished() ? null : cards.get(queue.get(position));
+    }
+
+    public boolean isFinished() {
+        return position >= queue.size();
+    }
+
+    // Знали з першого показу в сесії - коробка вище; хоч раз не знали - назад у першу
+    public void answer(boolean knew) {
+        if (isFinished()) {
+            return;
+        }
+        int card = queue.get(position);
+        if (knew) {
+            correct[card]++;
+            knownAnswers++;
+            if (!missed[card] && correct[card] == 1) {
+                boxes[card] = Math.min(boxes[card] + 1, Flashcard.MAX_BOX);
+            }
+        } else {
+            wrong[card]++;
+            missedAnswers++;
+            missed[card] = true;
+            boxes[card] = 0;
+            if (repeats[card] < MAX_REPEATS) {
+                repeats[card]++;
+                queue.add(Math.min(position + 1 + RETRY_GAP, queue.size()), card);
+            }
+        }
+        position++;
+    }
+
+    // Номер поточного показу з 1 і загальна кількість показів (зростає з повторами)
+    public int getPosition() {
+        return Math.min(position + 1, queue.size());
+    }
+
+    public int getTotal() {
+        return queue.size();
+    }
+
+    public int getCardCount() {
+        return cards.size();
+    }
+
+    public int getKnownAnswers() {
+        return knownAnswers;
+    }
+
+    public int getMissedAnswers() {
+        return missedAnswers;
+    }
+
+    // Лише картки, на які вже відповіли: перервана сесія теж зберігає свій прогрес
+    public List<FlashcardReview> reviews() {
+        List<FlashcardReview> reviews = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            if (correct[i] + wrong[i] > 0) {
+                reviews.add(new FlashcardReview(cards.get(i).getQuestionId(), boxes[i], correct[i], wrong[i]));
+            }
+        }
+        return reviews;
+    }
+}
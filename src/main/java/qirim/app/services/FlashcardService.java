@@ -0,0 +1,169 @@
+package qirim.app.services;
+
+import qirim.app.concurrent.LoadContext;
+import qirim.app.logging.Log;
+import qirim.app.model.Flashcard;
+import qirim.app.model.FlashcardReview;
+import qirim.app.repository.Repositories;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Режим карток. Колода тем разом із коробками користувача читається одним запитом і лишається
+// в пам'яті; сесія (FlashcardDrill) до БД не звертається, а підсумок пишеться одним пакетом.
+// Після збереження коробки оновлюються й у збереженій колоді, тож наступна сесія тих самих тем - без запиту.
+public class FlashcardService {
+
+    private static final Logger logger = Logger.getLogger(FlashcardService.class.getName());
+
+    public static final int SESSION_SIZE = Integer.getInteger("qirim.flashcards.sessionSize", 50);
+    private static final int CACHED_DECKS = 8;
+
+    // Один потік: пакети одного користувача пишуться по черзі, а невдалий пакет зливається з наступним
+    private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "flashcard-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class DeckKey {
+        final int userId;
+        final List<Integer> themeIds;
+
+        DeckKey(int userId, Collection<Integer> themeIds) {
+            this.userId = userId;
+            this.themeIds = new ArrayList<>(new TreeSet<>(themeIds));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DeckKey)) {
+                return false;
+            }
+            DeckKey other = (DeckKey) o;
+            return userId == other.userId && themeIds.equals(other.themeIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, themeIds);
+        }
+    }
+
+    // Кілька останніх колод; під монітором decks
+    private static final Map<DeckKey, List<Flashcard>> decks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DeckKey, List<Flashcard>> eldest) {
+            return size() > CACHED_DECKS;
+        }
+    };
+
+    // Підсумки, які не вдалося записати, за користувачем і запитанням; підуть із наступним збереженням
+    private static final Map<Integer, Map<Integer, FlashcardReview>> unsaved = new HashMap<>();
+
+    public static List<Flashcard> loadDeck(int userId, Collection<Integer> themeIds) throws SQLException {
+        DeckKey key = new DeckKey(userId, themeIds);
+        synchronized (decks) {
+            List<Flashcard> cached = decks.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<Flashcard> deck = Repositories.flashcards().loadDeck(userId, key.themeIds);
+        Map<Integer, FlashcardReview> pending;
+        synchronized (unsaved) {
+            pending = unsaved.get(userId);
+            pending = pending != null ? new HashMap<>(pending) : Collections.emptyMap();
+        }
+        deck = Collections.unmodifiableList(withBoxes(deck, pending));
+        synchronized (decks) {
+            decks.put(key, deck);
+        }
+        Log.info(logger, "Завантажено колоду карток", "userId", userId, "themes", key.themeIds.size(), "cards", deck.size());
+        return deck;
+    }
+
+    public static FlashcardDrill startDrill(List<Flashcard> deck) {
+        return new FlashcardDrill(deck, SESSION_SIZE, new Random());
+    }
+
+    // Для FX-потоку: запис із дедлайном класу WRITE у фоні; майбутнє завершується з результатом saveResults
+    public static CompletableFuture<Boolean> saveResultsAsync(int userId, FlashcardDrill drill) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return QueryClass.WRITE.call("flashcards/save", () -> saveResults(userId, drill));
+            } catch (SQLException e) {
+                logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Не вдалося зберегти підсумок сесії карток", e);
+                return false;
+            }
+        }, saveExecutor);
+    }
+
+    // true, якщо підсумок (разом із раніше не записаним) збережено; інакше він чекає наступного збереження
+    public static boolean saveResults(int userId, FlashcardDrill drill) {
+        Map<Integer, FlashcardReview> batch;
+        synchronized (unsaved) {
+            batch = unsaved.computeIfAbsent(userId, id -> new HashMap<>());
+            for (FlashcardReview review : drill.reviews()) {
+                batch.merge(review.getQuestionId(), review, FlashcardReview::then);
+            }
+            unsaved.remove(userId);
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+        updateCachedDecks(userId, batch);
+
+        try {
+            Repositories.flashcards().saveReviews(userId, new ArrayList<>(batch.values()));
+            Log.info(logger, "Підсумок сесії карток збережено", "userId", userId, "cards", batch.size(),
+                    "known", drill.getKnownAnswers(), "missed", drill.getMissedAnswers());
+            return true;
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Не вдалося зберегти підсумок сесії карток", e);
+            synchronized (unsaved) {
+                Map<Integer, FlashcardReview> retry = unsaved.computeIfAbsent(userId, id -> new HashMap<>());
+                // Те, що додалося за час запису, - пізніше за цей пакет
+                batch.forEach((questionId, review) -> retry.merge(questionId, review, (later, earlier) -> earlier.then(later)));
+            }
+            return false;
+        }
+    }
+
+    private static void updateCachedDecks(int userId, Map<Integer, FlashcardReview> reviews) {
+        synchronized (decks) {
+            for (Map.Entry<DeckKey, List<Flashcard>> entry : decks.entrySet()) {
+                if (entry.getKey().userId == userId) {
+                    entry.setValue(Collections.unmodifiableList(withBoxes(entry.getValue(), reviews)));
+                }
+            }
+        }
+    }
+
+    private static List<Flashcard> withBoxes(List<Flashcard> deck, Map<Integer, FlashcardReview> reviews) {
+        if (reviews.isEmpty()) {
+            return deck;
+        }
+        List<Flashcard> updated = new ArrayList<>(deck.size());
+        for (Flashcard card : deck) {
+            FlashcardReview review = reviews.get(card.getQuestionId());
+            updated.add(review != null ? card.withBox(review.getBox()) : card);
+        }
+        return updated;
+    }
+}
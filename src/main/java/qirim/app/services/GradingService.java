@@ -0,0 +1,212 @@
+package qirim.app.services;
+
+import qirim.app.model.Question;
+import qirim.app.model.Submission;
+import qirim.app.model.TestResult;
+import qirim.app.repository.Repositories;
+import qirim.app.search.AnswerMatcher;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Пакетне оцінювання (перенесені паперові тести, імпорт з інших платформ).
+// Ключі відповідей кешуються по уроках, пакет оцінюється паралельно, а запис попереднього
+// пакета в БД іде одночасно з оцінюванням наступного.
+public class GradingService {
+
+    private static final Logger logger = Logger.getLogger(GradingService.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    // Ключі відповідей по уроках; ключ без запитань - урок не знайдено або він порожній
+    private static final ConcurrentHashMap<Integer, AnswerKey> answerKeys = new ConcurrentHashMap<>();
+
+    // Правильні індекси варіантів по запитаннях уроку; для запитань з введенням - ще й прийняті відповіді
+    static final class AnswerKey {
+        final List<Question> questions;
+        final int[] correct;
+        final AnswerMatcher[] text;
+
+        AnswerKey(List<Question> questions, int[] correct, AnswerMatcher[] text) {
+            this.questions = questions;
+            this.correct = correct;
+            this.text = text;
+        }
+    }
+
+    public static class Report {
+        public int submitted;
+        public int saved;
+        public final List<String> rejected = new ArrayList<>();
+
+        @Override
+        public String toString() {
+            return "подано " + submitted + ", збережено " + saved + ", відхилено " + rejected.size();
+        }
+    }
+
+    private static class Graded {
+        final TestResult result;
+        final String problem;
+
+        Graded(TestResult result, String problem) {
+            this.result = result;
+            this.problem = problem;
+        }
+    }
+
+    // Оцінює всі подання й зберігає результати пакетами по chunkSize. Якщо запис пакета в БД
+    // не вдався, попередні пакети лишаються збереженими, а помилка повертається викликачу.
+    public static Report gradeAndSave(Iterator<Submission> submissions, int chunkSize) throws SQLException {
+        Report report = new Report();
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "grading-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletableFuture<Integer> pendingWrite = CompletableFuture.completedFuture(0);
+            List<Submission> chunk = new ArrayList<>(chunkSize);
+
+            while (submissions.hasNext()) {
+                chunk.add(submissions.next());
+                if (chunk.size() == chunkSize || !submissions.hasNext()) {
+                    report.submitted += chunk.size();
+                    List<TestResult> results = gradeChunk(chunk, report);
+                    chunk = new ArrayList<>(chunkSize);
+
+                    // Не більше одного пакета в черзі на запис, щоб пам'ять не росла з розміром імпорту
+                    report.saved += await(pendingWrite);
+                    pendingWrite = CompletableFuture.supplyAsync(() -> save(results), writer);
+                }
+            }
+            report.saved += await(pendingWrite);
+        } finally {
+            writer.shutdown();
+        }
+
+        // Імпорт зазвичай запускається окремим процесом, що завершиться раніше за планове злиття
+        AnalyticsService.flush();
+        logger.info("Пакетне оцінювання: " + report);
+        return report;
+    }
+
+    private static List<TestResult> gradeChunk(List<Submission> chunk, Report report) throws SQLException {
+        // Ключі завантажуються до паралельної частини: там уже лише читання з кешу
+        Map<Integer, AnswerKey> keys = new HashMap<>();
+        for (Submission submission : chunk) {
+            if (!keys.containsKey(submission.getLessonId())) {
+                keys.put(submission.getLessonId(), answerKey(submission.getLessonId()));
+            }
+        }
+
+        List<Graded> graded = chunk.parallelStream()
+                .map(submission -> grade(submission, keys.get(submission.getLessonId())))
+                .collect(Collectors.toList());
+
+        List<TestResult> results = new ArrayList<>(graded.size());
+        for (Graded g : graded) {
+            if (g.problem != null) {
+                report.rejected.add(g.problem);
+            } else {
+                results.add(g.result);
+            }
+        }
+        return results;
+    }
+
+    private static Graded grade(Submission submission, AnswerKey key) {
+        List<Integer> answers = submission.getAnswers();
+        List<String> texts = submission.getTextAnswers();
+        int questionCount = key.correct.length;
+        if (questionCount == 0) {
+            return rejected(submission, "урок не знайдено або він без запитань");
+        }
+        if (answers.size() > questionCount) {
+            return rejected(submission, "відповідей " + answers.size() + ", а запитань лише " + questionCount);
+        }
+
+        // Відповіді, яких бракує в кінці, рахуються як NO_ANSWER; введений текст - як у QuizService.gradeText
+        int score = 0;
+        int[] graded = new int[questionCount];
+        Arrays.fill(graded, QuizService.NO_ANSWER);
+        for (int i = 0; i < answers.size(); i++) {
+            if (key.text[i] != null) {
+                String typed = i < texts.size() ? texts.get(i) : null;
+                if (typed != null && !typed.isBlank()) {
+                    graded[i] = key.text[i].matches(typed) ? key.correct[i] : QuizService.WRONG_TEXT_ANSWER;
+                }
+            } else {
+                graded[i] = answers.get(i);
+            }
+            if (graded[i] != QuizService.NO_ANSWER && graded[i] == key.correct[i]) {
+                score++;
+            }
+        }
+        AnalyticsService.recordAttempt(submission.getLessonId(), key.questions, graded, null);
+        return new Graded(new TestResult(submission.getUserId(), submission.getLessonId(), score, questionCount), null);
+    }
+
+    private static Graded rejected(Submission submission, String reason) {
+        return new Graded(null, "користувач " + submission.getUserId() + ", урок " + submission.getLessonId() + ": " + reason);
+    }
+
+    static AnswerKey answerKey(int lessonId) throws SQLException {
+        AnswerKey key = answerKeys.get(lessonId);
+        if (key != null) {
+            return key;
+        }
+
+        List<Question> questions = Repositories.content().loadQuestions(lessonId);
+        int[] correct = new int[questions.size()];
+        AnswerMatcher[] text = new AnswerMatcher[questions.size()];
+        for (int i = 0; i < correct.length; i++) {
+            Question question = questions.get(i);
+            correct[i] = question.getCorrectAnswerIndex();
+            if (question.isFreeText()) {
+                text[i] = QuizService.textMatcher(question);
+            }
+        }
+        key = new AnswerKey(questions, correct, text);
+        AnswerKey existing = answerKeys.putIfAbsent(lessonId, key);
+        return existing != null ? existing : key;
+    }
+
+    public static void clearAnswerKeys() {
+        answerKeys.clear();
+        QuizService.clearTextMatchers();
+    }
+
+    private static int save(List<TestResult> results) {
+        try {
+            Repositories.progress().saveTestResults(results);
+            return results.size();
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static int await(CompletableFuture<Integer> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
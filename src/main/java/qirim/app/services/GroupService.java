@@ -0,0 +1,71 @@
+package qirim.app.services;
+
+import qirim.app.concurrent.LoadContext;
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.repository.Repositories;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Класи і панель вчителя. Суми класу оновлюються разом зі збереженням результату
+// (UserProgressService.saveTestResult), тому тут лише читання готових зведень.
+public class GroupService {
+
+    private static final Logger logger = Logger.getLogger(GroupService.class.getName());
+
+    // Учнів у класі зазвичай кілька десятків; більше панель не показує
+    public static final int DASHBOARD_LIMIT = 50;
+
+    public static List<GroupSummary> getUserGroups(int userId) {
+        try {
+            return Repositories.groups().getUserGroups(userId);
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при завантаженні класів користувача", e);
+        }
+        return new ArrayList<>();
+    }
+
+    // null, якщо класу немає або його не вдалося завантажити
+    public static GroupDashboard getDashboard(int groupId) {
+        try {
+            return Repositories.groups().getDashboard(groupId, DASHBOARD_LIMIT);
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при завантаженні панелі класу " + groupId, e);
+        }
+        return null;
+    }
+
+    // id нового класу або 0, якщо створити не вдалося
+    public static int createGroup(String name, int teacherId) {
+        try {
+            int groupId = Repositories.groups().createGroup(name, teacherId);
+            logger.info("Створено клас " + groupId + " \"" + name + "\"");
+            return groupId;
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при створенні класу", e);
+        }
+        return 0;
+    }
+
+    public static boolean addMember(int groupId, int userId) {
+        try {
+            return Repositories.groups().addMember(groupId, userId);
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при додаванні користувача " + userId + " до класу " + groupId, e);
+        }
+        return false;
+    }
+
+    public static boolean removeMember(int groupId, int userId) {
+        try {
+            return Repositories.groups().removeMember(groupId, userId);
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при видаленні користувача " + userId + " з класу " + groupId, e);
+        }
+        return false;
+    }
+}
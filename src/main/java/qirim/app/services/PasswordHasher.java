@@ -0,0 +1,113 @@
+package qirim.app.services;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// BCrypt поза потоком JavaFX: невеликий пул з обмеженою чергою.
+// Якщо черга заповнена, задача відхиляється одразу (RejectedExecutionException), а не накопичується.
+public class PasswordHasher {
+
+    private static final Logger logger = Logger.getLogger(PasswordHasher.class.getName());
+
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final int CALIBRATION_COST = 10;
+
+    private static final long TARGET_MILLIS = Long.getLong("qirim.bcrypt.targetMs", 250);
+    private static final int POOL_SIZE = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_CAPACITY = Integer.getInteger("qirim.bcrypt.queue", 16);
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            POOL_SIZE, POOL_SIZE, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            r -> {
+                Thread thread = new Thread(r, "bcrypt-worker");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private static volatile int workFactor = Integer.getInteger("qirim.bcrypt.cost", 0);
+    private static volatile CompletableFuture<Integer> calibration;
+
+    public static CompletableFuture<String> hash(String password) {
+        return calibrate().thenCompose(cost -> submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost))));
+    }
+
+    public static CompletableFuture<Boolean> verify(String password, String storedHash) {
+        return submit(() -> BCrypt.checkpw(password, storedHash));
+    }
+
+    public static boolean needsRehash(String storedHash) {
+        int cost = costOf(storedHash);
+        int current = workFactor;
+        return current > 0 && cost > 0 && cost < current;
+    }
+
+    // Хеш BCrypt має вигляд $2a$10$..., де 10 - вартість
+    public static int costOf(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$') {
+            return -1;
+        }
+        int end = storedHash.indexOf('$', 4);
+        if (end < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static int getWorkFactor() {
+        return workFactor;
+    }
+
+    public static synchronized CompletableFuture<Integer> calibrate() {
+        if (workFactor > 0) {
+            return CompletableFuture.completedFuture(workFactor);
+        }
+        if (calibration == null) {
+            calibration = submit(PasswordHasher::measureWorkFactor);
+            calibration.whenComplete((cost, error) -> {
+                if (error != null) {
+                    synchronized (PasswordHasher.class) {
+                        calibration = null;
+                    }
+                }
+            });
+        }
+        return calibration;
+    }
+
+    // Кожен крок вартості подвоює час, тому достатньо одного виміру
+    private static int measureWorkFactor() {
+        String salt = BCrypt.gensalt(CALIBRATION_COST);
+        BCrypt.hashpw("calibration", salt);
+
+        long started = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        int extra = (int) Math.floor(Math.log((double) TARGET_MILLIS / elapsedMillis) / Math.log(2));
+        int cost = Math.max(MIN_COST, Math.min(MAX_COST, CALIBRATION_COST + extra));
+        workFactor = cost;
+
+        logger.info("BCrypt відкалібровано: вартість " + cost + " (" + elapsedMillis + " мс при вартості "
+                + CALIBRATION_COST + ", ціль " + TARGET_MILLIS + " мс)");
+        return cost;
+    }
+
+    private static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warning("Черга хешування паролів заповнена, запит відхилено");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package qirim.app.services;
+
+import qirim.app.concurrent.LoadContext;
+
+import java.sql.SQLException;
+
+// Класи запитів зі своїми дедлайнами; змінюються через -Dqirim.db.deadline.<клас>Ms, 0 - без дедлайну
+public enum QueryClass {
+    // Дані користувача на екрані: ім'я, стрік, прогрес, таблиця лідерів
+    INTERACTIVE("interactive", 5_000),
+    // Вміст курсу: теми, запитання, аудіо
+    CONTENT("content", 10_000),
+    // Збереження результатів і статистики
+    WRITE("write", 15_000),
+    // Інструменти й звіти; за замовчуванням без обмеження
+    REPORT("report", 0);
+
+    private final long timeoutMillis;
+
+    QueryClass(String name, long defaultMillis) {
+        this.timeoutMillis = Long.getLong("qirim.db.deadline." + name + "Ms", defaultMillis);
+    }
+
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public LoadContext newContext(String name) {
+        return new LoadContext(name, timeoutMillis);
+    }
+
+    // Синхронне завантаження в поточному потоці з дедлайном цього класу
+    public <T> T call(String name, LoadContext.SqlCall<T> work) throws SQLException {
+        return newContext(name).call(work);
+    }
+}
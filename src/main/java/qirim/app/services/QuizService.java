@@ -0,0 +1,58 @@
+package qirim.app.services;
+
+import qirim.app.logging.Log;
+import qirim.app.model.Question;
+import qirim.app.repository.Repositories;
+import qirim.app.search.AnswerMatcher;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+public class QuizService {
+
+    private static final Logger logger = Logger.getLogger(QuizService.class.getName());
+
+    public static final int NO_ANSWER = -1;
+    // Введена відповідь, що не збіглася з жодною прийнятою
+    public static final int WRONG_TEXT_ANSWER = -2;
+
+    // Скомпільовані прийняті відповіді запитань з введенням; спільні для екрана тесту й пакетного оцінювання
+    private static final ConcurrentHashMap<Integer, AnswerMatcher> textMatchers = new ConcurrentHashMap<>();
+
+    public static List<Question> loadQuestions(int lessonId) throws SQLException {
+        List<Question> questions = Repositories.content().loadQuestions(lessonId);
+        Log.fine(logger, "Запитання завантажено", "lessonId", lessonId, "questions", questions.size());
+        SearchService.indexQuestions(lessonId, questions);
+        return questions;
+    }
+
+    public static AnswerMatcher textMatcher(Question question) {
+        return textMatchers.computeIfAbsent(question.getQuestionId(), id -> AnswerMatcher.compile(question.getOptions()));
+    }
+
+    // Введений текст як відповідь для calculateScore: правильний індекс, WRONG_TEXT_ANSWER або NO_ANSWER
+    public static int gradeText(Question question, String typed) {
+        if (typed == null || typed.isBlank()) {
+            return NO_ANSWER;
+        }
+        return textMatcher(question).matches(typed) ? question.getCorrectAnswerIndex() : WRONG_TEXT_ANSWER;
+    }
+
+    public static void clearTextMatchers() {
+        textMatchers.clear();
+    }
+
+    // answers.get(i) - індекс обраного варіанта для i-го запитання або NO_ANSWER
+    public static int calculateScore(List<Question> questions, List<Integer> answers) {
+        int score = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            int answer = answers.get(i);
+            if (answer != NO_ANSWER && answer == questions.get(i).getCorrectAnswerIndex()) {
+                score++;
+            }
+        }
+        return score;
+    }
+}
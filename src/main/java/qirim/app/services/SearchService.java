@@ -0,0 +1,77 @@
+package qirim.app.services;
+
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.repository.Repositories;
+import qirim.app.search.SearchIndex;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Пошук по курсу. Індекс наповнюється тим, що застосунок і так завантажує (теми, запитання уроку),
+// а запитання ще не відкритих уроків довантажуються у фоні.
+public class SearchService {
+
+    private static final Logger logger = Logger.getLogger(SearchService.class.getName());
+
+    private static final SearchIndex index = new SearchIndex();
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "search-indexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public static List<SearchIndex.Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    static void indexThemes(List<Theme> themes) {
+        List<Integer> lessonIds = new ArrayList<>();
+        for (Theme theme : themes) {
+            for (Lesson lesson : theme.getLessons()) {
+                index.putLesson(lesson);
+                lessonIds.add(lesson.getLessonId());
+            }
+        }
+        index.retainLessons(lessonIds);
+    }
+
+    static void indexQuestions(int lessonId, List<Question> questions) {
+        index.putQuestions(lessonId, questions);
+    }
+
+    // Запитання уроків, яких ще немає в індексі; по одному уроку, щоб не займати кілька підключень
+    public static void indexCourseAsync(List<Theme> themes) {
+        List<Integer> pending = new ArrayList<>();
+        for (Theme theme : themes) {
+            for (Lesson lesson : theme.getLessons()) {
+                pending.add(lesson.getLessonId());
+            }
+        }
+
+        executor.execute(() -> {
+            int indexed = 0;
+            for (int lessonId : pending) {
+                if (index.hasQuestions(lessonId)) {
+                    continue;
+                }
+                try {
+                    index.putQuestions(lessonId, Repositories.content().loadQuestions(lessonId));
+                    indexed++;
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Не вдалося проіндексувати запитання уроку " + lessonId, e);
+                    return;
+                }
+            }
+            logger.info("Пошуковий індекс: додано запитання " + indexed + " уроків, документів " + index.size());
+        });
+    }
+}
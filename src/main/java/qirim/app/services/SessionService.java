@@ -0,0 +1,284 @@
+package qirim.app.services;
+
+import qirim.app.api.ApiClient;
+import qirim.app.repository.Repositories;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Сесії "запам'ятати мене": випадковий токен лежить у домашній теці користувача,
+// у БД - лише його SHA-256, тож перевірка при запуску не потребує BCrypt.
+// Ті самі токени API-сервер видає клієнтам при вході (issue/verify); клієнт тримає його лише в пам'яті.
+public class SessionService {
+
+    private static final Logger logger = Logger.getLogger(SessionService.class.getName());
+
+    private static final Duration SESSION_LIFETIME = Duration.ofDays(Long.getLong("qirim.session.days", 30));
+    private static final Path SESSION_FILE = Paths.get(System.getProperty("user.home"), ".qirim", "session");
+    private static final int TOKEN_BYTES = 32;
+
+    public static final String INSERT_SESSION =
+            "INSERT INTO user_sessions (token_hash, user_id, expires_at) VALUES (?, ?, ?)";
+    public static final String FIND_SESSION = "SELECT user_id FROM user_sessions " +
+            "WHERE token_hash = ? AND revoked_at IS NULL AND expires_at > now()";
+    public static final String REVOKE_SESSION =
+            "UPDATE user_sessions SET revoked_at = now() WHERE token_hash = ? AND revoked_at IS NULL";
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "session-service");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class ServerSession {
+        final int userId;
+        final Instant expiresAt;
+
+        ServerSession(int userId, Instant expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Сесії API-сервера без БД (qirim.storage=memory): ключ - SHA-256 токена в Base64
+    private static final Map<String, ServerSession> serverSessions = new ConcurrentHashMap<>();
+
+    // Сесії живуть у таблиці user_sessions, тож працюють лише з прямим підключенням до БД
+    public static boolean hasStoredSession() {
+        return isSupported() && Files.isRegularFile(SESSION_FILE);
+    }
+
+    private static boolean isSupported() {
+        return Repositories.backend() == Repositories.Backend.JDBC;
+    }
+
+    public static CompletableFuture<Void> create(int userId) {
+        if (!isSupported()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            byte[] token = newToken();
+            try {
+                insert(sha256(token), userId);
+                writeToken(token);
+                logger.info("Сесію збережено для користувача " + userId);
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    // Повертає id користувача або -1, якщо збереженої сесії немає, її відкликано чи вона прострочена
+    public static CompletableFuture<Integer> resume() {
+        return CompletableFuture.supplyAsync(() -> {
+            byte[] token = readToken();
+            if (token == null) {
+                return -1;
+            }
+
+            // Дедлайн інтерактивного запиту: старт застосунку чекає на цю перевірку
+            try {
+                return QueryClass.INTERACTIVE.call("session/resume", () -> {
+                    int userId = find(sha256(token));
+                    if (userId > 0) {
+                        return userId;
+                    }
+
+                    deleteToken();
+                    logger.info("Збережена сесія недійсна, потрібен повторний вхід");
+                    return -1;
+                });
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public static CompletableFuture<Void> revoke() {
+        ApiClient api = Repositories.api();
+        if (api != null) {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    api.post("api/logout", Collections.emptyMap(), json -> json);
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Не вдалося відкликати сесію на API-сервері", e);
+                }
+                api.setToken(null);
+            }, executor);
+        }
+        if (!isSupported()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            byte[] token = readToken();
+            deleteToken();
+            if (token == null) {
+                return;
+            }
+
+            try {
+                revokeHash(sha256(token));
+                logger.info("Сесію відкликано");
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Не вдалося відкликати сесію в БД", e);
+            }
+        }, executor);
+    }
+
+    // Для API-сервера: новий токен користувача, який повертається у відповіді на вхід і у файл не пишеться
+    public static String issue(int userId) throws SQLException {
+        byte[] token = newToken();
+        if (isSupported()) {
+            insert(sha256(token), userId);
+        } else {
+            serverSessions.put(key(token), new ServerSession(userId, Instant.now().plus(SESSION_LIFETIME)));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    // Id власника токена або -1, якщо токен некоректний, невідомий, відкликаний чи прострочений
+    public static int verify(String encoded) throws SQLException {
+        byte[] token = decodeToken(encoded);
+        if (token == null) {
+            return -1;
+        }
+        if (isSupported()) {
+            return find(sha256(token));
+        }
+        ServerSession session = serverSessions.get(key(token));
+        if (session == null) {
+            return -1;
+        }
+        if (session.expiresAt.isBefore(Instant.now())) {
+            serverSessions.remove(key(token), session);
+            return -1;
+        }
+        return session.userId;
+    }
+
+    public static void revoke(String encoded) throws SQLException {
+        byte[] token = decodeToken(encoded);
+        if (token == null) {
+            return;
+        }
+        if (isSupported()) {
+            revokeHash(sha256(token));
+        } else {
+            serverSessions.remove(key(token));
+        }
+    }
+
+    private static void insert(byte[] tokenHash, int userId) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SESSION)) {
+
+            stmt.setBytes(1, tokenHash);
+            stmt.setInt(2, userId);
+            stmt.setTimestamp(3, Timestamp.from(Instant.now().plus(SESSION_LIFETIME)));
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int find(byte[] tokenHash) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_SESSION)) {
+
+            stmt.setBytes(1, tokenHash);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getInt("user_id") : -1;
+        }
+    }
+
+    private static void revokeHash(byte[] tokenHash) throws SQLException {
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(REVOKE_SESSION)) {
+
+            stmt.setBytes(1, tokenHash);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static byte[] newToken() {
+        byte[] token = new byte[TOKEN_BYTES];
+        random.nextBytes(token);
+        return token;
+    }
+
+    private static byte[] decodeToken(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            byte[] token = Base64.getUrlDecoder().decode(encoded.trim());
+            return token.length == TOKEN_BYTES ? token : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String key(byte[] token) {
+        return Base64.getEncoder().encodeToString(sha256(token));
+    }
+
+    private static byte[] readToken() {
+        if (!hasStoredSession()) {
+            return null;
+        }
+        try {
+            String encoded = Files.readString(SESSION_FILE, StandardCharsets.US_ASCII).trim();
+            byte[] token = Base64.getUrlDecoder().decode(encoded);
+            return token.length == TOKEN_BYTES ? token : null;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Не вдалося прочитати збережену сесію", e);
+            return null;
+        }
+    }
+
+    // Файл доступний лише власнику (на POSIX-системах; у Windows діють права профілю користувача)
+    private static void writeToken(byte[] token) throws IOException {
+        Files.createDirectories(SESSION_FILE.getParent());
+        Path temp = Files.createTempFile(SESSION_FILE.getParent(), "session", ".tmp");
+        try {
+            Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+        }
+        Files.writeString(temp, Base64.getUrlEncoder().withoutPadding().encodeToString(token), StandardCharsets.US_ASCII);
+        Files.move(temp, SESSION_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void deleteToken() {
+        try {
+            Files.deleteIfExists(SESSION_FILE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не вдалося видалити файл сесії", e);
+        }
+    }
+
+    private static byte[] sha256(byte[] token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package qirim.app.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Пакетне скидання всіх прострочених стріків одним UPDATE на початку кожної доби (у поясі StreakService.ZONE).
+// Планувальник запускає лише API-сервер, не настільний клієнт: інакше кожен клієнт оновлював би всю таблицю.
+// Без сервера - окремий запуск, наприклад з cron: java -cp ... qirim.app.services.StreakReconciler
+public class StreakReconciler {
+
+    private static final Logger logger = Logger.getLogger(StreakReconciler.class.getName());
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "streak-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduleNext();
+    }
+
+    // Доба не завжди триває 24 години (перехід на літній час), тому кожен запуск планується окремо
+    private static synchronized void scheduleNext() {
+        if (scheduler == null) {
+            return;
+        }
+
+        long delay = millisUntilNextRollover(ZonedDateTime.now(StreakService.ZONE));
+        scheduler.schedule(() -> {
+            reconcile();
+            scheduleNext();
+        }, delay, TimeUnit.MILLISECONDS);
+
+        logger.info("Пакетне скидання стріків заплановано через " + Duration.ofMillis(delay).toMinutes() + " хв");
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public static int reconcile() {
+        LocalDate today = StreakService.today();
+        return StreakService.resetAllStale(StreakService.streakCutoff(today));
+    }
+
+    static long millisUntilNextRollover(ZonedDateTime now) {
+        ZonedDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        // Невеликий запас, щоб на сервері вже настала нова доба
+        return Duration.between(now, nextMidnight).toMillis() + TimeUnit.SECONDS.toMillis(5);
+    }
+
+    public static void main(String[] args) {
+        int count = reconcile();
+        System.exit(count >= 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,67 @@
+package qirim.app.services;
+
+import qirim.app.repository.Repositories;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class StreakService {
+
+    private static final Logger logger = Logger.getLogger(StreakService.class.getName());
+
+    // Межа доби для стріків рахується в явно заданому часовому поясі, а не в поясі машини клієнта
+    public static final ZoneId ZONE = ZoneId.of(System.getProperty("qirim.streak.zone", "Europe/Kyiv"));
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "streak-service");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+    public static LocalDate streakCutoff(LocalDate today) {
+        return today.minusDays(1);
+    }
+
+    // Скидання при вході виконується у фоні: вхід не чекає на запис,
+    // а getUserStats і так повертає вже актуальний стрік
+    public static void resetIfStaleAsync(int userId) {
+        LocalDate cutoff = streakCutoff(today());
+        executor.execute(() -> resetIfStale(userId, cutoff));
+    }
+
+    public static boolean resetIfStale(int userId, LocalDate cutoff) {
+        try {
+            boolean reset = Repositories.progress().resetStaleStreak(userId, cutoff);
+
+            if (reset) {
+                logger.info("Стрік скинуто для користувача " + userId + " через неактивність");
+            }
+            return reset;
+
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Помилка при перевірці стріку", e);
+            return false;
+        }
+    }
+
+    public static int resetAllStale(LocalDate cutoff) {
+        try {
+            int count = Repositories.progress().resetAllStaleStreaks(cutoff);
+            logger.info("Пакетне скидання стріків: скинуто " + count + " (остання активність до " + cutoff + ")");
+            return count;
+
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Помилка при пакетному скиданні стріків", e);
+            return -1;
+        }
+    }
+}
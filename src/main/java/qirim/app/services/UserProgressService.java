@@ -1,13 +1,24 @@
 package qirim.app.services;
 
+import qirim.app.concurrent.BatchCoalescer;
+import qirim.app.concurrent.LoadContext;
+import qirim.app.concurrent.SingleFlight;
+import qirim.app.logging.Log;
 import qirim.app.model.LeaderboardEntry;
+import qirim.app.model.LessonResult;
 import qirim.app.model.UserProgress;
+import qirim.app.model.UserStats;
+import qirim.app.repository.Repositories;
 
-import java.sql.*;
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,206 +26,166 @@ public class UserProgressService {
 
     private static final Logger logger = Logger.getLogger(UserProgressService.class.getName());
 
-    public static boolean saveTestResult(int userId, int lessonId, int score, int totalQuestions) {
-        String sql = "SELECT update_user_progress(?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            stmt.setInt(2, lessonId);
-            stmt.setInt(3, score);
-            stmt.setInt(4, totalQuestions);
+    // Однакові одночасні запити (кілька екранів, потоки навантаження, API-сервер) ідуть у БД один раз
+    private static final SingleFlight<Integer, UserProgress> progressLoads = new SingleFlight<>();
+    private static final SingleFlight<Integer, UserStats> statsLoads = new SingleFlight<>();
+    private static final SingleFlight<Integer, String> usernameLoads = new SingleFlight<>();
+    private static final SingleFlight<Integer, List<LeaderboardEntry>> leaderboardLoads = new SingleFlight<>();
+
+    // Запити до уроків одного користувача, що приходять під час уже відправленого, зливаються в один пакет
+    private static final BatchCoalescer<Integer, Integer, LessonResult> lessonResults = new BatchCoalescer<>(
+            (userId, lessonIds) -> Repositories.progress().getLessonResults(userId, lessonIds), 200);
+
+    // Результати тестів пишуться поза потоком JavaFX і по черзі
+    private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "quiz-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static CompletableFuture<Boolean> saveTestResultAsync(int userId, int lessonId, int score, int totalQuestions) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return QueryClass.WRITE.call("quiz/save",
+                        () -> saveTestResult(userId, lessonId, score, totalQuestions));
+            } catch (SQLException e) {
+                logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при збереженні результату тесту", e);
+                return false;
+            }
+        }, saveExecutor);
+    }
 
-            stmt.execute();
-            logger.info("Прогрес оновлено для користувача " + userId + ", урок " + lessonId);
+    public static boolean saveTestResult(int userId, int lessonId, int score, int totalQuestions) {
+        try {
+            Repositories.progress().saveTestResult(userId, lessonId, score, totalQuestions);
+            Log.info(logger, "Прогрес оновлено", "userId", userId, "lessonId", lessonId);
             return true;
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при збереженні результату тесту", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при збереженні результату тесту", e);
             return false;
         }
     }
 
-    public static UserProgress getUserProgress(int userId) {
-        String sql = "SELECT * FROM get_user_progress(?)";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                int totalLessons = rs.getInt("total_lessons");
-                int completedLessons = rs.getInt("completed_lessons");
-                double progressPercentage = rs.getDouble("progress_percentage");
+    // load* кидають SQLException (LoadGenerator рахує їх як помилки); get* для екранів повертають значення за замовчуванням
+    public static UserProgress loadUserProgress(int userId) throws SQLException {
+        return progressLoads.get(userId, id -> Repositories.progress().getUserProgress(id));
+    }
 
-                return new UserProgress(totalLessons, completedLessons, progressPercentage);
+    public static UserProgress getUserProgress(int userId) {
+        try {
+            UserProgress progress = loadUserProgress(userId);
+            if (progress != null) {
+                return progress;
             }
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при отриманні прогресу користувача", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при отриманні прогресу користувача", e);
         }
 
         return new UserProgress(0, 0, 0.0);
     }
 
+    public static UserStats loadUserStats(int userId) throws SQLException {
+        return statsLoads.get(userId,
+                id -> Repositories.progress().getUserStats(id, StreakService.streakCutoff(StreakService.today())));
+    }
+
     public static UserStats getUserStats(int userId) {
-        String sql = "SELECT COALESCE(us.total_score, 0) as total_score, " +
-                "COALESCE(us.lessons_completed, 0) as lessons_completed, " +
-                "COALESCE(us.current_streak, 0) as current_streak, " +
-                "COALESCE(us.longest_streak, 0) as longest_streak " +
-                "FROM user_stats us WHERE us.user_id = ?";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new UserStats(
-                        rs.getInt("total_score"),
-                        rs.getInt("lessons_completed"),
-                        rs.getInt("current_streak"),
-                        rs.getInt("longest_streak")
-                );
+        try {
+            UserStats stats = loadUserStats(userId);
+            if (stats != null) {
+                return stats;
             }
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при отриманні статистики користувача", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при отриманні статистики користувача", e);
         }
 
         return new UserStats(0, 0, 0, 0);
     }
 
-    public static List<LeaderboardEntry> getLeaderboard(int limit) {
-        List<LeaderboardEntry> leaderboard = new ArrayList<>();
-        String sql = "SELECT username, total_score, lessons_completed, current_streak " +
-                "FROM leaderboard LIMIT ?";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, limit);
-            ResultSet rs = stmt.executeQuery();
-
-            int rank = 1;
-            while (rs.next()) {
-                leaderboard.add(new LeaderboardEntry(
-                        rank++,
-                        rs.getString("username"),
-                        rs.getInt("total_score"),
-                        rs.getInt("lessons_completed"),
-                        rs.getInt("current_streak")
-                ));
-            }
+    public static List<LeaderboardEntry> loadLeaderboard(int limit) throws SQLException {
+        List<LeaderboardEntry> leaderboard = leaderboardLoads.get(limit, n -> Repositories.leaderboard().getLeaderboard(n));
+        Log.fine(logger, "Таблицю лідерів завантажено", "entries", leaderboard.size());
+        return leaderboard;
+    }
 
-            logger.info("Завантажено " + leaderboard.size() + " записів у таблиці лідерів");
+    public static List<LeaderboardEntry> getLeaderboard(int limit) {
+        try {
+            return loadLeaderboard(limit);
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при завантаженні таблиці лідерів", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при завантаженні таблиці лідерів", e);
         }
 
-        return leaderboard;
+        return new ArrayList<>();
     }
 
+    // isLessonCompleted і getBestScore читають той самий рядок: обидва йдуть через один пакетний запит
     public static boolean isLessonCompleted(int userId, int lessonId) {
-        String sql = "SELECT completed FROM user_lesson_progress " +
-                "WHERE user_id = ? AND lesson_id = ?";
-
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            stmt.setInt(2, lessonId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getBoolean("completed");
-            }
+        try {
+            return getLessonResult(userId, lessonId).isCompleted();
 
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при перевірці завершення уроку", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при перевірці завершення уроку", e);
         }
 
         return false;
     }
 
     public static int getBestScore(int userId, int lessonId) {
-        String sql = "SELECT score FROM user_lesson_progress " +
-                "WHERE user_id = ? AND lesson_id = ?";
+        try {
+            return getLessonResult(userId, lessonId).getBestScore();
 
-        try (Connection conn = DatabaseServices.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        } catch (SQLException e) {
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при отриманні кращого результату", e);
+        }
 
-            stmt.setInt(1, userId);
-            stmt.setInt(2, lessonId);
-            ResultSet rs = stmt.executeQuery();
+        return 0;
+    }
 
-            if (rs.next()) {
-                return rs.getInt("score");
-            }
+    // Стан усіх уроків списку одним запитом; для уроків без спроб - LessonResult.NONE
+    public static Map<Integer, LessonResult> loadLessonResults(int userId, Collection<Integer> lessonIds) throws SQLException {
+        Map<Integer, LessonResult> results = new HashMap<>(Repositories.progress().getLessonResults(userId, lessonIds));
+        for (int lessonId : lessonIds) {
+            results.putIfAbsent(lessonId, LessonResult.NONE);
+        }
+        return results;
+    }
 
+    public static Map<Integer, LessonResult> getLessonResults(int userId, Collection<Integer> lessonIds) {
+        try {
+            return loadLessonResults(userId, lessonIds);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Помилка при отриманні кращого результату", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при отриманні результатів уроків", e);
+        }
+        Map<Integer, LessonResult> results = new HashMap<>();
+        for (int lessonId : lessonIds) {
+            results.put(lessonId, LessonResult.NONE);
         }
+        return results;
+    }
 
-        return 0;
+    private static LessonResult getLessonResult(int userId, int lessonId) throws SQLException {
+        LessonResult result = lessonResults.get(userId, lessonId);
+        return result != null ? result : LessonResult.NONE;
     }
 
-    public static void checkAndResetStreakIfNeeded(int userId) {
-        try (Connection conn = DatabaseServices.getConnection()) {
-            LocalDate today = LocalDate.now();
-
-            String selectSql = "SELECT current_streak, last_activity_date FROM user_stats WHERE user_id = ?";
-
-            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
-                stmt.setInt(1, userId);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    int currentStreak = rs.getInt("current_streak");
-                    Date sqlDate = rs.getDate("last_activity_date");
-
-                    if (sqlDate != null && currentStreak > 0) {
-                        LocalDate lastActivityDate = sqlDate.toLocalDate();
-                        long daysBetween = ChronoUnit.DAYS.between(lastActivityDate, today);
-
-                        if (daysBetween > 1) {
-                            String updateSql = "UPDATE user_stats SET current_streak = 0 WHERE user_id = ?";
-                            try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                                updateStmt.setInt(1, userId);
-                                updateStmt.executeUpdate();
-                                logger.info("Стрік скинуто для користувача " + userId + " через неактивність (" + daysBetween + " днів)");
-                            }
-
-                            String updateUserSql = "UPDATE users SET streak = 0 WHERE id = ?";
-                            try (PreparedStatement updateUserStmt = conn.prepareStatement(updateUserSql)) {
-                                updateUserStmt.setInt(1, userId);
-                                updateUserStmt.executeUpdate();
-                            }
-                        }
-                    }
-                }
+    public static String loadUsername(int userId) throws SQLException {
+        return usernameLoads.get(userId, id -> Repositories.users().findUsername(id));
+    }
+
+    public static String getUsername(int userId) {
+        try {
+            String username = loadUsername(userId);
+            if (username != null) {
+                return username;
             }
         } catch (SQLException e) {
-            logger.log(Level.WARNING, "Помилка при перевірці стріку", e);
+            logger.log(LoadContext.failureLevel(e, Level.SEVERE), "Помилка при отриманні імені користувача", e);
         }
-    }
 
-    public static class UserStats {
-        public final int totalScore;
-        public final int lessonsCompleted;
-        public final int currentStreak;
-        public final int longestStreak;
-
-        public UserStats(int totalScore, int lessonsCompleted, int currentStreak, int longestStreak) {
-            this.totalScore = totalScore;
-            this.lessonsCompleted = lessonsCompleted;
-            this.currentStreak = currentStreak;
-            this.longestStreak = longestStreak;
-        }
+        return "Користувач";
     }
-}
\ No newline at end of file
+}
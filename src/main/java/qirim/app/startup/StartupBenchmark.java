@@ -0,0 +1,118 @@
+package qirim.app.startup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Порівняння часу до першого кадру без профілю startup і з ним.
+// Запуск: java -cp target/QIrIm2.0-1.0-SNAPSHOT.jar qirim.app.startup.StartupBenchmark [кількість запусків]
+// Команди можна перевизначити через -Dbench.baseline="..." та -Dbench.optimized="...".
+public final class StartupBenchmark {
+
+    private static final long RUN_TIMEOUT_SECONDS = 120;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        List<String> baseline = split(System.getProperty("bench.baseline", defaultBaseline()));
+        List<String> optimized = split(System.getProperty("bench.optimized", defaultOptimized()));
+
+        long[] baselineResults = measure("baseline", baseline, runs);
+        long[] optimizedResults = measure("startup", optimized, runs);
+
+        System.out.println();
+        System.out.printf("%-10s %8s %8s %8s %8s%n", "config", "min", "median", "p90", "mean");
+        print("baseline", baselineResults);
+        print("startup", optimizedResults);
+    }
+
+    private static long[] measure(String name, List<String> command, int runs) throws IOException, InterruptedException {
+        System.out.println(name + ": " + String.join(" ", command));
+
+        // Перший запуск прогріває файловий кеш ОС і не враховується
+        runOnce(command);
+
+        long[] results = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            results[i] = runOnce(command);
+            System.out.println("  #" + (i + 1) + ": " + results[i] + " ms");
+        }
+        return results;
+    }
+
+    private static long runOnce(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().put("JAVA_TOOL_OPTIONS", "-D" + StartupProbe.PROPERTY + "=true");
+        builder.redirectErrorStream(true);
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+        long elapsed = -1;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(StartupProbe.MARKER)) {
+                    elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    break;
+                }
+            }
+        } finally {
+            if (!process.waitFor(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+
+        if (elapsed < 0) {
+            throw new IllegalStateException("Процес не повідомив про перший кадр: " + String.join(" ", command));
+        }
+        return elapsed;
+    }
+
+    private static void print(String name, long[] results) {
+        long[] sorted = results.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        System.out.printf("%-10s %8d %8d %8d %8.1f%n", name,
+                sorted[0], percentile(sorted, 50), percentile(sorted, 90), mean);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static List<String> split(String command) {
+        List<String> parts = new ArrayList<>();
+        Collections.addAll(parts, command.trim().split("\\s+"));
+        return parts;
+    }
+
+    private static String defaultBaseline() {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return java + " --module-path target" + File.separator + "libs"
+                + " --add-modules javafx.controls,javafx.fxml"
+                + " -cp target" + File.separator + "QIrIm2.0-1.0-SNAPSHOT.jar qirim.app.Main";
+    }
+
+    private static String defaultOptimized() {
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.contains("win")) {
+            return "target\\dist\\QIrIm-Learner\\QIrIm-Learner.exe";
+        } else if (os.contains("mac")) {
+            return "target/dist/QIrIm-Learner.app/Contents/MacOS/QIrIm-Learner";
+        }
+        return "target/dist/QIrIm-Learner/bin/QIrIm-Learner";
+    }
+}
@@ -0,0 +1,38 @@
+package qirim.app.startup;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Вимірювання часу до першого кадру: вмикається -Dqirim.startup.probe=true,
+// друкує маркер для StartupBenchmark і завершує застосунок.
+public final class StartupProbe {
+
+    public static final String PROPERTY = "qirim.startup.probe";
+    public static final String MARKER = "FIRST_FRAME_MS=";
+
+    private StartupProbe() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static void reportFirstFrame(Scene scene) {
+        Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                long sinceStart = ProcessHandle.current().info().startInstant()
+                        .map(start -> Duration.between(start, Instant.now()).toMillis())
+                        .orElse(-1L);
+                System.out.println(MARKER + sinceStart);
+                System.out.flush();
+                Platform.runLater(Platform::exit);
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+}
@@ -0,0 +1,109 @@
+package qirim.app.startup;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import qirim.app.controllers.HomeController;
+import qirim.app.controllers.QuizController;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Сценарій тренувального прогону для AppCDS: логін -> головна -> тест.
+// Запускається з -Dqirim.training=true, щоб JVM записала список завантажених класів.
+public final class TrainingRun {
+
+    private static final Logger logger = Logger.getLogger(TrainingRun.class.getName());
+
+    public static final String PROPERTY = "qirim.training";
+
+    private final Stage stage;
+    private final int userId = Integer.getInteger("qirim.training.userId", 0);
+    private final int lessonId = Integer.getInteger("qirim.training.lessonId", 1);
+    private final int timeoutSeconds = Integer.getInteger("qirim.training.timeoutSeconds", 60);
+    private final Deque<Step> steps = new ArrayDeque<>();
+
+    private interface Step {
+        Parent load() throws IOException;
+    }
+
+    public TrainingRun(Stage stage) {
+        this.stage = stage;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public void start() {
+        startWatchdog();
+
+        steps.add(() -> new FXMLLoader(getClass().getResource("/qirim/app/login.fxml")).load());
+        steps.add(() -> {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/home.fxml"));
+            Parent root = loader.load();
+            HomeController homeController = loader.getController();
+            homeController.setCurrentUserId(userId);
+            return root;
+        });
+        steps.add(() -> {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/qirim/app/quiz.fxml"));
+            Parent root = loader.load();
+            QuizController quizController = loader.getController();
+            quizController.setLessonData(lessonId);
+            quizController.setUserId(userId);
+            return root;
+        });
+
+        stage.setTitle("QIrIm");
+        nextStep();
+    }
+
+    private void nextStep() {
+        Step step = steps.poll();
+        if (step == null) {
+            logger.info("Тренувальний прогін завершено");
+            Platform.exit();
+            return;
+        }
+
+        try {
+            Scene scene = new Scene(step.load());
+            stage.setScene(scene);
+            stage.show();
+
+            // Наступний крок лише після того, як сцена відмалювалась
+            Runnable listener = new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    Platform.runLater(TrainingRun.this::nextStep);
+                }
+            };
+            scene.addPostLayoutPulseListener(listener);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Помилка у тренувальному прогоні", e);
+            Platform.exit();
+        }
+    }
+
+    // Діалог помилки БД блокує сценарій, тому прогін обмежено в часі
+    private void startWatchdog() {
+        Thread watchdog = new Thread(() -> {
+            try {
+                Thread.sleep(timeoutSeconds * 1000L);
+            } catch (InterruptedException e) {
+                return;
+            }
+            logger.warning("Тренувальний прогін перевищив " + timeoutSeconds + " с, завершення");
+            System.exit(0);
+        }, "training-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+}
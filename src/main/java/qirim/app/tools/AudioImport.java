@@ -0,0 +1,46 @@
+package qirim.app.tools;
+
+import qirim.app.audio.ClipStore;
+import qirim.app.services.DatabaseServices;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+// Додає кліп вимови до запитання чи варіанта: файл кладеться у сховище за SHA-256, у БД записується хеш.
+// Запуск: java -cp ... qirim.app.tools.AudioImport <каталог сховища> <question|option> <id> <файл>
+public class AudioImport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4 || !("question".equals(args[1]) || "option".equals(args[1]))) {
+            System.err.println("Використання: AudioImport <каталог сховища> <question|option> <id> <файл>");
+            System.exit(2);
+        }
+
+        ClipStore store = new ClipStore(Paths.get(args[0]));
+        int id = Integer.parseInt(args[2]);
+        Path file = Paths.get(args[3]);
+
+        String hash;
+        try (InputStream in = Files.newInputStream(file)) {
+            hash = store.put(in);
+        }
+
+        String sql = "question".equals(args[1])
+                ? "UPDATE questions SET audio_sha256 = ? WHERE question_id = ?"
+                : "UPDATE questions_options SET audio_sha256 = ? WHERE option_id = ?";
+        try (Connection conn = DatabaseServices.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, hash);
+            stmt.setInt(2, id);
+            if (stmt.executeUpdate() == 0) {
+                System.err.println("Не знайдено " + args[1] + " з id " + id + "; кліп лишився у сховищі: " + hash);
+                System.exit(1);
+            }
+        }
+        System.out.println(args[1] + " " + id + " -> " + hash);
+    }
+}
@@ -0,0 +1,643 @@
+package qirim.app.tools;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import qirim.app.analytics.LatencySketch;
+import qirim.app.analytics.QuestionStats;
+import qirim.app.repository.jdbc.JdbcAnalyticsRepository;
+import qirim.app.services.StreakService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Синтетична БД для перевірки на масштабі: курс (теми, уроки, запитання з варіантами), користувачі,
+// user_stats і user_lesson_progress з правдоподібними розподілами, зведена статистика відповідей.
+// Усе пишеться через COPY: курс - одним підключенням, користувачі - паралельними воркерами, кожен
+// своїм підключенням і пачками по --chunk користувачів в окремих транзакціях. Рядки COPY генеруються
+// на льоту, тож пам'ять не залежить від масштабу. Той самий --seed дає ті самі дані.
+// Користувачі - user1..userN з паролем LoadGenerator, тож на згенерованій БД одразу працює LoadGenerator --no-setup.
+//
+// java -Dqirim.db.url=jdbc:postgresql://localhost/qirim_scale -Dqirim.db.user=... -Dqirim.db.password=... \
+//      -cp ... qirim.app.tools.DatasetGenerator --users 1000000 --mean-lessons 120 --workers 8 [--unchecked]
+public class DatasetGenerator {
+
+    // Уроки стоять у курсі по порядку; учень іноді пропускає урок
+    private static final double SKIP_LESSON = 0.05;
+    // Частка зареєстрованих, що не пройшли жодного уроку
+    private static final double INACTIVE = 0.15;
+    private static final int HISTORY_DAYS = 730;
+    private static final double MEAN_IDLE_DAYS = 20;
+    private static final double MEAN_STREAK = 5;
+    private static final double MEAN_LONGEST_EXTRA = 7;
+    // Частка стріків, які StreakReconciler ще не скинув
+    private static final double STALE_STREAK = 0.03;
+    private static final int MAX_ATTEMPTS = 5;
+    // Статистика відповідей будується з вибірки часу такого розміру на запитання
+    private static final int TIME_SAMPLES = 2000;
+    private static final int STATS_BATCH = 500;
+
+    private static final String[] CONSONANTS = {"b", "c", "ç", "d", "f", "g", "ğ", "h", "j", "k", "l", "m",
+            "n", "ñ", "p", "q", "r", "s", "ş", "t", "v", "y", "z"};
+    private static final String[] VOWELS = {"a", "e", "ı", "i", "o", "ö", "u", "ü", "â"};
+
+    static class Config {
+        int users = 100_000;
+        int themes = 20;
+        int lessonsPerTheme = 25;
+        int questionsPerLesson = 12;
+        int optionsPerQuestion = 4;
+        double textShare = 0.1;
+        double meanLessons = 40;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int chunk = 10_000;
+        long seed = 42;
+        boolean unchecked = false;
+    }
+
+    private final Config config;
+    private final int totalLessons;
+    private final long today;
+    // Складність уроку зсуває ймовірність правильної відповіді; індекс - lesson_id
+    private final double[] lessonDifficulty;
+    private final AtomicLongArray lessonAttempts;
+    private final AtomicLongArray lessonCorrect;
+    private final AtomicLong usersDone = new AtomicLong();
+    private final AtomicLong progressRows = new AtomicLong();
+    private String passwordHash;
+
+    DatasetGenerator(Config config) {
+        this.config = config;
+        this.totalLessons = config.themes * config.lessonsPerTheme;
+        this.today = StreakService.today().toEpochDay();
+        this.lessonDifficulty = new double[totalLessons + 1];
+        this.lessonAttempts = new AtomicLongArray(totalLessons + 1);
+        this.lessonCorrect = new AtomicLongArray(totalLessons + 1);
+
+        // Пізніші уроки трохи складніші
+        SplittableRandom random = new SplittableRandom(config.seed);
+        for (int lessonId = 1; lessonId <= totalLessons; lessonId++) {
+            lessonDifficulty[lessonId] = 0.08 * random.nextGaussian() + 0.12 * lessonId / totalLessons;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Без явної адреси генератор не запускається: інакше він писав би в робочу БД за замовчуванням
+        if (System.getProperty("qirim.db.url") == null) {
+            System.err.println("Задайте локальну БД: -Dqirim.db.url=jdbc:postgresql://localhost/... -Dqirim.db.user=... -Dqirim.db.password=...");
+            System.exit(2);
+        }
+        new DatasetGenerator(parse(args)).run();
+    }
+
+    static Config parse(String[] args) {
+        Config config = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--users": config.users = Integer.parseInt(value); i++; break;
+                case "--themes": config.themes = Integer.parseInt(value); i++; break;
+                case "--lessons": config.lessonsPerTheme = Integer.parseInt(value); i++; break;
+                case "--questions": config.questionsPerLesson = Integer.parseInt(value); i++; break;
+                case "--options": config.optionsPerQuestion = Integer.parseInt(value); i++; break;
+                case "--text-share": config.textShare = Double.parseDouble(value); i++; break;
+                case "--mean-lessons": config.meanLessons = Double.parseDouble(value); i++; break;
+                case "--workers": config.workers = Integer.parseInt(value); i++; break;
+                case "--chunk": config.chunk = Integer.parseInt(value); i++; break;
+                case "--seed": config.seed = Long.parseLong(value); i++; break;
+                case "--unchecked": config.unchecked = true; break;
+                default: throw new IllegalArgumentException("Невідомий параметр: " + args[i]);
+            }
+        }
+        if (config.optionsPerQuestion < 2 || config.questionsPerLesson < 1 || config.workers < 1 || config.chunk < 1) {
+            throw new IllegalArgumentException("Потрібно щонайменше 2 варіанти, 1 запитання, 1 воркер і --chunk > 0");
+        }
+        return config;
+    }
+
+    void run() throws Exception {
+        long started = System.nanoTime();
+        try (Connection conn = open()) {
+            LocalDatabase.applySchema(conn);
+            if (!isEmpty(conn)) {
+                throw new IllegalStateException("БД уже містить курс або користувачів - генератор заповнює лише порожню БД");
+            }
+            generateCourse(conn);
+        }
+        passwordHash = BCrypt.hashpw(LoadGenerator.PASSWORD, BCrypt.gensalt(10));
+        System.out.printf("Курс: %d тем, %d уроків, %d запитань; %.1f с%n", config.themes, totalLessons,
+                totalLessons * config.questionsPerLesson, seconds(started));
+
+        generateUsers();
+        System.out.printf("Користувачів: %d, рядків прогресу: %d; %.1f с%n", usersDone.get(), progressRows.get(),
+                seconds(started));
+
+        int questions = generateAnswerStats();
+        System.out.printf("Статистика відповідей: %d запитань; %.1f с%n", questions, seconds(started));
+
+        try (Connection conn = open()) {
+            finish(conn);
+        }
+        System.out.printf("Готово за %.1f с%n", seconds(started));
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("qirim.db.url"),
+                System.getProperty("qirim.db.user"), System.getProperty("qirim.db.password"));
+    }
+
+    private static boolean isEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT NOT EXISTS (SELECT 1 FROM themes) AND NOT EXISTS (SELECT 1 FROM users)")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    // id задаються явно: lesson_id = (тема - 1) * уроків + номер, так само для запитань і варіантів
+    private void generateCourse(Connection conn) throws SQLException, IOException {
+        conn.setAutoCommit(false);
+        CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        SplittableRandom random = new SplittableRandom(config.seed + 1);
+
+        int[] theme = {0};
+        copy.copyIn("COPY themes (theme_id, theme_name, theme_number) FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (theme[0] == config.themes) {
+                        return false;
+                    }
+                    int number = ++theme[0];
+                    line.append(number).append(',');
+                    text(line, "Тема " + number + ": " + capitalize(word(random, 3)));
+                    line.append(',').append(number).append('\n');
+                    return true;
+                }));
+
+        int[] lesson = {0};
+        copy.copyIn("COPY lessons (lesson_id, theme_id, lesson_name, lesson_number) FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (lesson[0] == totalLessons) {
+                        return false;
+                    }
+                    int lessonId = ++lesson[0];
+                    int number = (lessonId - 1) % config.lessonsPerTheme + 1;
+                    line.append(lessonId).append(',').append((lessonId - 1) / config.lessonsPerTheme + 1).append(',');
+                    text(line, "Урок " + number + ": " + capitalize(word(random, 2)));
+                    line.append(',').append(number).append('\n');
+                    return true;
+                }));
+
+        int totalQuestions = totalLessons * config.questionsPerLesson;
+        int[] question = {0};
+        copy.copyIn("COPY questions (question_id, lesson_id, question_text, question_number, question_type) " +
+                        "FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (question[0] == totalQuestions) {
+                        return false;
+                    }
+                    int questionId = ++question[0];
+                    boolean freeText = isFreeText(questionId);
+                    String word = word(random, 2 + random.nextInt(2));
+                    line.append(questionId).append(',').append((questionId - 1) / config.questionsPerLesson + 1).append(',');
+                    text(line, freeText ? "Напишіть кримськотатарською: «" + word + "»" : questionTemplate(random, word));
+                    line.append(',').append((questionId - 1) % config.questionsPerLesson + 1)
+                            .append(',').append(freeText ? "text" : "choice").append('\n');
+                    return true;
+                }));
+
+        int[] optionQuestion = {0};
+        copy.copyIn("COPY questions_options (option_id, question_id, option_text, option_number, is_correct) " +
+                        "FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (optionQuestion[0] == totalQuestions) {
+                        return false;
+                    }
+                    int questionId = ++optionQuestion[0];
+                    SplittableRandom options = optionRandom(questionId);
+                    boolean freeText = isFreeText(questionId);
+                    // Запитання з введенням: 1-3 прийняті відповіді, усі правильні; з вибором - правильний на випадковому місці
+                    int correct = freeText ? -1 : options.nextInt(config.optionsPerQuestion);
+                    int count = freeText ? 1 + options.nextInt(3) : config.optionsPerQuestion;
+                    for (int o = 0; o < count; o++) {
+                        line.append(optionId(questionId, o)).append(',').append(questionId).append(',');
+                        text(line, word(options, 2 + options.nextInt(2)));
+                        line.append(',').append(o + 1).append(',').append(freeText || o == correct ? 't' : 'f').append('\n');
+                    }
+                    return true;
+                }));
+        conn.commit();
+    }
+
+    private boolean isFreeText(int questionId) {
+        return new SplittableRandom(config.seed ^ (questionId * 0x9E3779B97F4A7C15L)).nextDouble() < config.textShare;
+    }
+
+    // Варіанти й статистика відповідей залежать лише від question_id, а не від порядку генерації
+    private SplittableRandom optionRandom(int questionId) {
+        return new SplittableRandom(config.seed ^ (questionId * 0xBF58476D1CE4E5B9L));
+    }
+
+    private int optionId(int questionId, int option) {
+        return (questionId - 1) * config.optionsPerQuestion + option + 1;
+    }
+
+    // Кожен воркер бере наступну пачку id, поки вони не скінчаться; помилка будь-якого зупиняє генерацію
+    private void generateUsers() throws Exception {
+        int chunks = (config.users + config.chunk - 1) / config.chunk;
+        AtomicInteger nextChunk = new AtomicInteger();
+        // Решта воркерів зупиняється, якщо хоч один упав
+        AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService workers = Executors.newFixedThreadPool(config.workers, r -> {
+            Thread thread = new Thread(r, "dataset-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dataset-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long started = System.nanoTime();
+        reporter.scheduleAtFixedRate(() -> System.out.printf("  користувачів %d з %d, рядків прогресу %d, %.0f рядків/с%n",
+                usersDone.get(), config.users, progressRows.get(), progressRows.get() / seconds(started)),
+                5, 5, TimeUnit.SECONDS);
+
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int w = 0; w < config.workers; w++) {
+                running.add(workers.submit(() -> {
+                    try (Connection conn = open()) {
+                        conn.setAutoCommit(false);
+                        try (Statement stmt = conn.createStatement()) {
+                            // Пачку можна згенерувати заново: втрата останніх комітів при збої тут не страшна
+                            stmt.execute("SET synchronous_commit = off");
+                            if (config.unchecked) {
+                                // Без тригерів і перевірок зовнішніх ключів; потребує прав суперкористувача
+                                stmt.execute("SET session_replication_role = replica");
+                            }
+                        }
+                        int chunk;
+                        while (!stopped.get() && (chunk = nextChunk.getAndIncrement()) < chunks) {
+                            int from = chunk * config.chunk + 1;
+                            generateChunk(conn, from, Math.min(config.users, from + config.chunk - 1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } finally {
+            stopped.set(true);
+            workers.shutdown();
+            reporter.shutdownNow();
+        }
+    }
+
+    // Профіль учня - окремі масиви на пачку; уроки кожного учня відтворюються з його зерна,
+    // тож для трьох COPY не треба тримати рядки прогресу в пам'яті
+    private void generateChunk(Connection conn, int from, int to) throws SQLException, IOException {
+        int size = to - from + 1;
+        int[] createdDay = new int[size];
+        int[] lastDay = new int[size];
+        int[] target = new int[size];
+        int[] currentStreak = new int[size];
+        int[] longestStreak = new int[size];
+        double[] ability = new double[size];
+        long[] lessonSeed = new long[size];
+        int[] totalScore = new int[size];
+        int[] completed = new int[size];
+        long[] attemptsByLesson = new long[totalLessons + 1];
+        long[] correctByLesson = new long[totalLessons + 1];
+
+        for (int i = 0; i < size; i++) {
+            SplittableRandom random = new SplittableRandom(config.seed ^ ((from + i) * 0xC2B2AE3D27D4EB4FL));
+            int age = 1 + random.nextInt(HISTORY_DAYS);
+            createdDay[i] = (int) (today - age);
+            target[i] = random.nextDouble() < INACTIVE ? 0 : lessonsToTake(random);
+            int idle = Math.min(age, (int) exponential(random, MEAN_IDLE_DAYS));
+            lastDay[i] = (int) (today - idle);
+            int span = lastDay[i] - createdDay[i] + 1;
+            if (target[i] > 0) {
+                boolean recent = lastDay[i] >= today - 1;
+                if (recent || random.nextDouble() < STALE_STREAK) {
+                    currentStreak[i] = Math.min(span, 1 + (int) exponential(random, MEAN_STREAK));
+                }
+                longestStreak[i] = Math.min(span, Math.max(currentStreak[i], 1 + (int) exponential(random, MEAN_LONGEST_EXTRA)));
+            }
+            ability[i] = Math.max(0.2, Math.min(0.98, 0.72 + 0.12 * random.nextGaussian()));
+            lessonSeed[i] = random.nextLong();
+        }
+
+        CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        int[] user = {0};
+        copy.copyIn("COPY users (id, username, email, password, streak, created_at) FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (user[0] == size) {
+                        return false;
+                    }
+                    int i = user[0]++;
+                    int id = from + i;
+                    line.append(id).append(",user").append(id).append(",user").append(id).append("@example.com,")
+                            .append(passwordHash).append(',').append(currentStreak[i]).append(',');
+                    timestamp(line, createdDay[i], (id * 7919L) % 86_400);
+                    line.append('\n');
+                    return true;
+                }));
+
+        int[] learner = {0};
+        long[] rows = {0};
+        int questions = config.questionsPerLesson;
+        copy.copyIn("COPY user_lesson_progress (user_id, lesson_id, score, total, completed, attempts, completed_at) " +
+                        "FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (learner[0] == size) {
+                        return false;
+                    }
+                    int i = learner[0]++;
+                    SplittableRandom random = new SplittableRandom(lessonSeed[i]);
+                    int taken = 0;
+                    for (int lessonId = 1; lessonId <= totalLessons && taken < target[i]; lessonId++) {
+                        if (random.nextDouble() < SKIP_LESSON) {
+                            continue;
+                        }
+                        // Повторні спроби: невдалий урок учні перездають частіше, ніж уже пройдений
+                        double p = Math.max(0.05, Math.min(0.98, ability[i] - lessonDifficulty[lessonId]));
+                        int best = 0;
+                        int attempts = 0;
+                        do {
+                            int score = binomial(random, questions, Math.min(0.98, p + 0.06 * attempts));
+                            attempts++;
+                            correctByLesson[lessonId] += score;
+                            best = Math.max(best, score);
+                        } while (attempts < MAX_ATTEMPTS
+                                && random.nextDouble() < (passed(best, questions) ? 0.08 : 0.6));
+                        attemptsByLesson[lessonId] += attempts;
+
+                        boolean done = passed(best, questions);
+                        totalScore[i] += best;
+                        completed[i] += done ? 1 : 0;
+                        line.append(from + i).append(',').append(lessonId).append(',').append(best).append(',')
+                                .append(questions).append(',').append(done ? 't' : 'f').append(',').append(attempts).append(',');
+                        if (done) {
+                            // Уроки рівномірно між реєстрацією та останнім візитом, останній - у день останнього візиту
+                            int day = createdDay[i] + (int) ((long) (lastDay[i] - createdDay[i]) * (taken + 1) / target[i]);
+                            timestamp(line, day, random.nextInt(86_400));
+                        }
+                        line.append('\n');
+                        taken++;
+                    }
+                    rows[0] += taken;
+                    return true;
+                }));
+
+        int[] stats = {0};
+        copy.copyIn("COPY user_stats (user_id, total_score, lessons_completed, current_streak, longest_streak, " +
+                        "last_activity_date) FROM STDIN WITH (FORMAT csv)",
+                new RowReader(line -> {
+                    if (stats[0] == size) {
+                        return false;
+                    }
+                    int i = stats[0]++;
+                    line.append(from + i).append(',').append(totalScore[i]).append(',').append(completed[i]).append(',')
+                            .append(currentStreak[i]).append(',').append(longestStreak[i]).append(',');
+                    if (target[i] > 0) {
+                        line.append(LocalDate.ofEpochDay(lastDay[i]));
+                    }
+                    line.append('\n');
+                    return true;
+                }));
+        conn.commit();
+
+        // Лічильники - лише для записаних пачок
+        for (int lessonId = 1; lessonId <= totalLessons; lessonId++) {
+            if (attemptsByLesson[lessonId] > 0) {
+                lessonAttempts.addAndGet(lessonId, attemptsByLesson[lessonId]);
+                lessonCorrect.addAndGet(lessonId, correctByLesson[lessonId]);
+            }
+        }
+        usersDone.addAndGet(size);
+        progressRows.addAndGet(rows[0]);
+    }
+
+    // Кількість уроків за логнормальним розподілом із середнім --mean-lessons: більшість проходить небагато,
+    // невелика частка - майже весь курс
+    private int lessonsToTake(SplittableRandom random) {
+        double sigma = 1.0;
+        double mu = Math.log(config.meanLessons) - sigma * sigma / 2;
+        return (int) Math.max(1, Math.min(totalLessons, Math.round(Math.exp(mu + sigma * random.nextGaussian()))));
+    }
+
+    private static boolean passed(int score, int total) {
+        return score * 10 >= total * 7;
+    }
+
+    // Зведення question_stats / option_stats / question_time_buckets з тих самих спроб, що й у прогресі:
+    // сирих відповідей застосунок не зберігає, тож історія відповідей існує саме в цьому вигляді
+    private int generateAnswerStats() throws SQLException {
+        JdbcAnalyticsRepository analytics = new JdbcAnalyticsRepository();
+        List<QuestionStats> batch = new ArrayList<>();
+        int written = 0;
+        for (int lessonId = 1; lessonId <= totalLessons; lessonId++) {
+            long attempts = lessonAttempts.get(lessonId);
+            if (attempts == 0) {
+                continue;
+            }
+            double lessonRate = (double) lessonCorrect.get(lessonId) / (attempts * config.questionsPerLesson);
+            SplittableRandom random = new SplittableRandom(config.seed ^ (lessonId * 0x632BE59BD9B4E019L));
+            for (int q = 0; q < config.questionsPerLesson; q++) {
+                int questionId = (lessonId - 1) * config.questionsPerLesson + q + 1;
+                batch.add(questionStats(random, questionId, lessonId, attempts, lessonRate));
+                if (batch.size() == STATS_BATCH) {
+                    analytics.mergeQuestionStats(batch);
+                    written += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        analytics.mergeQuestionStats(batch);
+        return written + batch.size();
+    }
+
+    private QuestionStats questionStats(SplittableRandom random, int questionId, int lessonId, long attempts, double lessonRate) {
+        double rate = Math.max(0.02, Math.min(0.99, lessonRate + 0.1 * random.nextGaussian()));
+        long skipped = Math.round(attempts * 0.015);
+        long correct = Math.min(attempts - skipped, Math.round(attempts * rate));
+        // Сильніші учні (вища частка на решті уроку) частіше відповідають правильно - додатна дискримінація
+        double restSum = attempts * lessonRate;
+        double restSquares = attempts * (lessonRate * lessonRate + 0.15 * 0.15);
+        double correctRestSum = correct * Math.min(1.0, lessonRate + 0.08 * (1 - lessonRate));
+
+        QuestionStats stats = new QuestionStats(questionId, lessonId);
+        stats.addTotals(attempts, correct, skipped, restSum, restSquares, correctRestSum);
+
+        // Варіанти вибору; у запитань з введенням дистракторів немає. Кожен наступний дистрактор
+        // обирають удвічі рідше за попередній, останній забирає залишок
+        if (!isFreeText(questionId)) {
+            int correctOption = optionRandom(questionId).nextInt(config.optionsPerQuestion);
+            stats.addPicks(optionId(questionId, correctOption), correct);
+            long left = attempts - correct - skipped;
+            int distractors = config.optionsPerQuestion - 1;
+            for (int o = 0, d = 0; o < config.optionsPerQuestion; o++) {
+                if (o == correctOption) {
+                    continue;
+                }
+                long picks = ++d == distractors ? left : left / 2;
+                left -= picks;
+                if (picks > 0) {
+                    stats.addPicks(optionId(questionId, o), picks);
+                }
+            }
+        }
+
+        // Час відповіді - логнормальний з медіаною 4-9 с; вибірка масштабується до кількості спроб
+        double median = Math.log(4_000 + random.nextInt(5_000));
+        long[] buckets = new long[LatencySketch.BUCKETS];
+        int samples = (int) Math.min(attempts, TIME_SAMPLES);
+        for (int s = 0; s < samples; s++) {
+            buckets[LatencySketch.bucket(Math.round(Math.exp(median + 0.6 * random.nextGaussian())))]++;
+        }
+        for (int b = 0; b < LatencySketch.BUCKETS; b++) {
+            long count = Math.round((double) buckets[b] * attempts / samples);
+            if (count > 0) {
+                stats.getResponseTimes().add(b, count);
+            }
+        }
+        return stats;
+    }
+
+    // Лічильники послідовностей і статистика для планувальника; VACUUM заповнює карту видимості,
+    // як у робочій БД, щоб плани з index-only scan були такими ж
+    private void finish(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            String[][] serials = {{"themes", "theme_id"}, {"lessons", "lesson_id"}, {"questions", "question_id"},
+                    {"questions_options", "option_id"}, {"users", "id"}};
+            for (String[] serial : serials) {
+                stmt.execute("SELECT setval(pg_get_serial_sequence('" + serial[0] + "', '" + serial[1] + "'), " +
+                        "(SELECT max(" + serial[1] + ") FROM " + serial[0] + "))");
+            }
+            stmt.execute("VACUUM (ANALYZE) users, user_stats, user_lesson_progress");
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    private static String questionTemplate(SplittableRandom random, String word) {
+        switch (random.nextInt(3)) {
+            case 0: return "Як перекласти «" + word + "»?";
+            case 1: return "Оберіть правильне написання слова «" + word + "»";
+            default: return "Що означає «" + word + "» у реченні?";
+        }
+    }
+
+    // Псевдослова з кримськотатарських літер: склади CV або CVC
+    private static String word(SplittableRandom random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int s = 0; s < syllables; s++) {
+            word.append(CONSONANTS[random.nextInt(CONSONANTS.length)]).append(VOWELS[random.nextInt(VOWELS.length)]);
+            if (random.nextInt(3) == 0) {
+                word.append(CONSONANTS[random.nextInt(CONSONANTS.length)]);
+            }
+        }
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return word.substring(0, 1).toUpperCase() + word.substring(1);
+    }
+
+    private static int binomial(SplittableRandom random, int n, double p) {
+        int successes = 0;
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < p) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+
+    private static void text(StringBuilder line, String value) {
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // timestamptz у UTC без DateTimeFormatter: мільйони рядків на пачку
+    private static void timestamp(StringBuilder line, long epochDay, long secondOfDay) {
+        line.append(LocalDate.ofEpochDay(epochDay)).append(' ');
+        twoDigits(line, secondOfDay / 3600);
+        line.append(':');
+        twoDigits(line, secondOfDay / 60 % 60);
+        line.append(':');
+        twoDigits(line, secondOfDay % 60);
+        line.append("+00");
+    }
+
+    private static void twoDigits(StringBuilder line, long value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        line.append(value);
+    }
+
+    private static double seconds(long started) {
+        return Math.max(System.nanoTime() - started, 1) / 1e9;
+    }
+
+    // Рядки CSV для COPY генеруються на льоту; у пам'яті лише рядки одного виклику rows.next
+    static final class RowReader extends Reader {
+
+        interface Rows {
+            // Дописує в line один або кілька рядків із '\n'; false - рядків більше немає
+            boolean next(StringBuilder line);
+        }
+
+        private final Rows rows;
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+
+        RowReader(Rows rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            while (position == line.length()) {
+                line.setLength(0);
+                position = 0;
+                if (!rows.next(line)) {
+                    return -1;
+                }
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package qirim.app.tools;
+
+import qirim.app.model.GroupDashboard;
+import qirim.app.model.GroupSummary;
+import qirim.app.model.LeaderboardEntry;
+import qirim.app.repository.Repositories;
+import qirim.app.repository.UserRepository;
+import qirim.app.services.GroupService;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+// Керування класами для вчителя: створення, склад і панель класу.
+// Користувачі задаються іменами; статистика нових учасників підтягується одразу.
+// Запуск: java -cp ... qirim.app.tools.GroupAdmin create <назва> [вчитель]
+//                                               add|remove <groupId> <користувач>...
+//                                               show <groupId>
+public class GroupAdmin {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            usage();
+        }
+
+        switch (args[0]) {
+            case "create": {
+                int teacherId = args.length > 2 ? userId(args[2]) : 0;
+                int groupId = GroupService.createGroup(args[1], teacherId);
+                if (groupId == 0) {
+                    System.exit(1);
+                }
+                System.out.println("Створено клас " + groupId + " \"" + args[1] + "\"");
+                break;
+            }
+            case "add":
+            case "remove": {
+                int groupId = Integer.parseInt(args[1]);
+                boolean add = "add".equals(args[0]);
+                int changed = 0;
+                for (int i = 2; i < args.length; i++) {
+                    int userId = userId(args[i]);
+                    if (userId != 0 && (add ? GroupService.addMember(groupId, userId) : GroupService.removeMember(groupId, userId))) {
+                        changed++;
+                    }
+                }
+                System.out.println((add ? "Додано " : "Видалено ") + changed + " з " + (args.length - 2) + " користувачів");
+                break;
+            }
+            case "show":
+                show(Integer.parseInt(args[1]));
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void show(int groupId) {
+        GroupDashboard dashboard = GroupService.getDashboard(groupId);
+        if (dashboard == null) {
+            System.err.println("Клас " + groupId + " не знайдено");
+            System.exit(1);
+        }
+        GroupSummary summary = dashboard.getSummary();
+        System.out.println(String.format(Locale.ROOT,
+                "%s: учнів %d, середнє проходження %.1f%%, середній рахунок %.1f, активних стріків %d",
+                summary.getName(), summary.getMembers(), summary.getAverageCompletion(),
+                summary.getAverageScore(), summary.getActiveStreaks()));
+        for (LeaderboardEntry entry : dashboard.getLeaderboard()) {
+            System.out.println(String.format(Locale.ROOT, "%4d. %-24s %6d  уроків %3d  стрік %3d",
+                    entry.getRank(), entry.getUsername(), entry.getTotalScore(),
+                    entry.getLessonsCompleted(), entry.getCurrentStreak()));
+        }
+    }
+
+    private static int userId(String username) throws SQLException {
+        UserRepository.Credentials credentials = Repositories.users().findCredentials(username);
+        if (credentials == null) {
+            System.err.println("Користувача " + username + " не знайдено");
+            return 0;
+        }
+        return credentials.userId;
+    }
+
+    private static void usage() {
+        System.err.println("Використання: GroupAdmin create <назва> [вчитель] | add|remove <groupId> <користувач>... | show <groupId>");
+        System.exit(2);
+    }
+}
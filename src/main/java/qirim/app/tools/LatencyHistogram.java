@@ -0,0 +1,48 @@
+package qirim.app.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Безблокова гістограма затримок з логарифмічними інтервалами (крок ~5%), пам'ять не залежить від кількості вимірів.
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.05;
+    private static final int BUCKETS = 512;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long value = Math.max(1, micros);
+        int bucket = (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(value) / Math.log(GROWTH)));
+        counts.incrementAndGet(bucket);
+        total.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    // Верхня межа інтервалу, в який потрапляє заданий перцентиль
+    public long percentileMicros(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(max.get(), (long) Math.pow(GROWTH, i));
+            }
+        }
+        return max.get();
+    }
+}
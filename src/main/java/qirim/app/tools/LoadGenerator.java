@@ -0,0 +1,314 @@
+package qirim.app.tools;
+
+import org.mindrot.jbcrypt.BCrypt;
+import qirim.app.concurrent.VirtualThreads;
+import qirim.app.model.Lesson;
+import qirim.app.model.Question;
+import qirim.app.model.Theme;
+import qirim.app.services.AuthService;
+import qirim.app.services.CourseService;
+import qirim.app.services.QueryClass;
+import qirim.app.services.QuizService;
+import qirim.app.services.UserProgressService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Навантажувальний генератор: тисячі віртуальних учнів проходять реальні шляхи сервісів
+// (вхід, головна сторінка, завантаження уроку, відповіді, збереження результату) проти локальної PostgreSQL.
+//
+// java -Dqirim.db.url=jdbc:postgresql://localhost/qirim -Dqirim.db.user=... -Dqirim.db.password=... \
+//      -cp ... qirim.app.tools.LoadGenerator --learners 2000 --duration 300 --mix zipf
+//
+// На JDK 21+ кожен учень виконується у віртуальному потоці; на JDK 17 - у звичайному потоці з малим стеком.
+public class LoadGenerator {
+
+    private static final Logger appLogger = Logger.getLogger("qirim");
+
+    static final String PASSWORD = "Learner123";
+
+    enum LessonMix {SEQUENTIAL, RANDOM, ZIPF}
+
+    static class Config {
+        int learners = 500;
+        int durationSeconds = 120;
+        int rampUpSeconds = 30;
+        long thinkMillis = 3000;
+        long answerMillis = 1500;
+        int lessonsPerSession = 3;
+        LessonMix mix = LessonMix.RANDOM;
+        boolean verifyPasswords = false;
+        boolean setup = true;
+    }
+
+    private final Config config;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final AtomicLong sessions = new AtomicLong();
+    private volatile boolean running = true;
+
+    private List<Integer> lessonIds = List.of();
+    private double[] zipfCumulative;
+
+    LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        appLogger.setLevel(Level.WARNING);
+        new LoadGenerator(parse(args)).run();
+    }
+
+    static Config parse(String[] args) {
+        Config config = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--learners": config.learners = Integer.parseInt(value); i++; break;
+                case "--duration": config.durationSeconds = Integer.parseInt(value); i++; break;
+                case "--ramp-up": config.rampUpSeconds = Integer.parseInt(value); i++; break;
+                case "--think-ms": config.thinkMillis = Long.parseLong(value); i++; break;
+                case "--answer-ms": config.answerMillis = Long.parseLong(value); i++; break;
+                case "--lessons-per-session": config.lessonsPerSession = Integer.parseInt(value); i++; break;
+                case "--mix": config.mix = LessonMix.valueOf(value.toUpperCase()); i++; break;
+                case "--verify-passwords": config.verifyPasswords = true; break;
+                case "--no-setup": config.setup = false; break;
+                default: throw new IllegalArgumentException("Невідомий параметр: " + args[i]);
+            }
+        }
+        return config;
+    }
+
+    void run() throws Exception {
+        if (config.setup) {
+            prepareDatabase();
+        }
+
+        lessonIds = new ArrayList<>();
+        for (Theme theme : CourseService.loadThemes()) {
+            for (Lesson lesson : theme.getLessons()) {
+                lessonIds.add(lesson.getLessonId());
+            }
+        }
+        if (lessonIds.isEmpty()) {
+            throw new IllegalStateException("У БД немає уроків");
+        }
+        zipfCumulative = zipf(lessonIds.size());
+
+        ExecutorService learners = learnerExecutor();
+        System.out.printf("Учнів: %d, тривалість: %d с, розгін: %d с, суміш уроків: %s, потоки: %s%n",
+                config.learners, config.durationSeconds, config.rampUpSeconds, config.mix,
+                learners instanceof ThreadPoolExecutor ? "платформні" : "віртуальні");
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long started = System.nanoTime();
+        reporter.scheduleAtFixedRate(() -> report(started, false), 10, 10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < config.learners; i++) {
+            int learner = i;
+            long delay = config.rampUpSeconds * 1000L * i / Math.max(1, config.learners);
+            learners.execute(() -> {
+                sleep(delay);
+                learnerLoop(learner);
+            });
+        }
+
+        Thread.sleep(config.durationSeconds * 1000L);
+        running = false;
+        learners.shutdown();
+        learners.awaitTermination(30, TimeUnit.SECONDS);
+        reporter.shutdownNow();
+
+        report(started, true);
+        System.exit(0);
+    }
+
+    private void prepareDatabase() throws Exception {
+        try (Connection conn = DriverManager.getConnection(System.getProperty("qirim.db.url"),
+                System.getProperty("qirim.db.user"), System.getProperty("qirim.db.password"))) {
+            LocalDatabase.applySchema(conn);
+            String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(10));
+            if (LocalDatabase.isEmpty(conn)) {
+                LocalDatabase.seed(conn, config.learners, hash);
+            } else if (config.verifyPasswords) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE users SET password = ? WHERE username ~ '^user[0-9]+$'")) {
+                    stmt.setString(1, hash);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private void learnerLoop(int learner) {
+        String username = "user" + (learner + 1);
+        Random random = new Random(learner);
+        int sequentialPosition = random.nextInt(lessonIds.size());
+
+        while (running) {
+            Integer userId = timed("login", () -> config.verifyPasswords
+                    ? AuthService.authenticate(username, PASSWORD).join()
+                    : AuthService.findUserId(username));
+            if (userId == null || userId <= 0) {
+                sleep(config.thinkMillis);
+                continue;
+            }
+
+            loadHome(userId);
+
+            for (int i = 0; i < config.lessonsPerSession && running; i++) {
+                sleep(think(random, config.thinkMillis));
+
+                int lessonId;
+                if (config.mix == LessonMix.SEQUENTIAL) {
+                    lessonId = lessonIds.get(sequentialPosition++ % lessonIds.size());
+                } else if (config.mix == LessonMix.ZIPF) {
+                    lessonId = lessonIds.get(pickZipf(random));
+                } else {
+                    lessonId = lessonIds.get(random.nextInt(lessonIds.size()));
+                }
+
+                List<Question> questions = timed("load_questions", () -> QuizService.loadQuestions(lessonId));
+                if (questions == null || questions.isEmpty()) {
+                    continue;
+                }
+
+                List<Integer> answers = new ArrayList<>(questions.size());
+                for (Question question : questions) {
+                    sleep(think(random, config.answerMillis));
+                    answers.add(random.nextInt(10) < 7
+                            ? question.getCorrectAnswerIndex()
+                            : random.nextInt(question.getOptions().size()));
+                }
+
+                int score = QuizService.calculateScore(questions, answers);
+                timed("save_result", () -> UserProgressService.saveTestResult(userId, lessonId, score, questions.size())
+                        ? Boolean.TRUE : null);
+
+                loadHome(userId);
+            }
+
+            sessions.incrementAndGet();
+            sleep(think(random, config.thinkMillis));
+        }
+    }
+
+    // Ті самі запити, що HomeController робить при відкритті головної сторінки, з тими самими дедлайнами.
+    // Варіанти load* кидають винятки, тож збій чи таймаут будь-якого з них - помилка кроку home;
+    // відсутній рядок статистики чи прогресу (null) - теж
+    private void loadHome(int userId) {
+        timed("home", () -> {
+            if (QueryClass.INTERACTIVE.call("home/username", () -> UserProgressService.loadUsername(userId)) == null
+                    || QueryClass.INTERACTIVE.call("home/stats", () -> UserProgressService.loadUserStats(userId)) == null
+                    || QueryClass.INTERACTIVE.call("home/progress", () -> UserProgressService.loadUserProgress(userId)) == null) {
+                return null;
+            }
+            QueryClass.INTERACTIVE.call("home/leaderboard", () -> UserProgressService.loadLeaderboard(10));
+            List<Theme> themes = QueryClass.CONTENT.call("home/themes", CourseService::loadThemes);
+            if (!themes.isEmpty()) {
+                List<Integer> lessonIds = new ArrayList<>();
+                for (Lesson lesson : themes.get(0).getLessons()) {
+                    lessonIds.add(lesson.getLessonId());
+                }
+                QueryClass.INTERACTIVE.call("home/lessons", () -> UserProgressService.loadLessonResults(userId, lessonIds));
+            }
+            return Boolean.TRUE;
+        });
+    }
+
+    private interface Operation<T> {
+        T call() throws Exception;
+    }
+
+    // Сервіси повертають значення за замовчуванням замість винятків, тож null теж вважається помилкою
+    private <T> T timed(String name, Operation<T> operation) {
+        long started = System.nanoTime();
+        try {
+            T result = operation.call();
+            latencies.computeIfAbsent(name, n -> new LatencyHistogram())
+                    .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            if (result == null) {
+                errors.computeIfAbsent(name, n -> new AtomicLong()).incrementAndGet();
+            }
+            return result;
+        } catch (Exception e) {
+            errors.computeIfAbsent(name, n -> new AtomicLong()).incrementAndGet();
+            return null;
+        }
+    }
+
+    private void report(long started, boolean full) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long operations = latencies.values().stream().mapToLong(LatencyHistogram::count).sum();
+        long failed = errors.values().stream().mapToLong(AtomicLong::get).sum();
+
+        System.out.printf("[%5.0f с] операцій: %d (%.1f/с), помилок: %d, завершених сесій: %d%n",
+                seconds, operations, operations / seconds, failed, sessions.get());
+
+        if (full) {
+            System.out.printf("%n%-16s %9s %9s %9s %9s %9s %9s %8s%n",
+                    "операція", "к-сть", "оп/с", "p50 мс", "p90 мс", "p99 мс", "max мс", "помилки");
+            new TreeMap<>(latencies).forEach((name, histogram) -> System.out.printf(
+                    "%-16s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %8d%n",
+                    name, histogram.count(), histogram.count() / seconds,
+                    histogram.percentileMicros(50) / 1000.0,
+                    histogram.percentileMicros(90) / 1000.0,
+                    histogram.percentileMicros(99) / 1000.0,
+                    histogram.maxMicros() / 1000.0,
+                    errors.getOrDefault(name, new AtomicLong()).get()));
+        }
+    }
+
+    // Експоненційний розподіл часу на роздуми навколо заданого середнього
+    private static long think(Random random, long meanMillis) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMillis);
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private int pickZipf(Random random) {
+        int index = Arrays.binarySearch(zipfCumulative, random.nextDouble());
+        return Math.min(zipfCumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private void sleep(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        try {
+            while (running && System.currentTimeMillis() < deadline) {
+                Thread.sleep(Math.min(500, Math.max(1, deadline - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static ExecutorService learnerExecutor() {
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutor();
+        if (virtual != null) {
+            return virtual;
+        }
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(null, r, "learner", 256 * 1024);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package qirim.app.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+// Підготовка локальної PostgreSQL (бенчмарки, навантажувальні тести, генератор даних):
+// відтворена схема + міграції з qirim/app/db у порядку застосування.
+public class LocalDatabase {
+
+    private static final Logger logger = Logger.getLogger(LocalDatabase.class.getName());
+
+    private static final String SCHEMA = "/qirim/app/db/local/schema.sql";
+
+    public static final int SEED_THEMES = 10;
+    public static final int SEED_LESSONS_PER_THEME = 10;
+    public static final int SEED_QUESTIONS_PER_LESSON = 10;
+    public static final int SEED_OPTIONS_PER_QUESTION = 4;
+
+    private static final String[] MIGRATIONS = {
+            "/qirim/app/db/001_streak_reconciler.sql",
+            "/qirim/app/db/002_users_unique.sql",
+            "/qirim/app/db/003_user_sessions.sql",
+            "/qirim/app/db/004_free_text_questions.sql",
+            "/qirim/app/db/005_audio_clips.sql",
+            "/qirim/app/db/006_question_stats.sql",
+            "/qirim/app/db/007_groups.sql",
+            "/qirim/app/db/008_flashcards.sql",
+    };
+
+    public static void applySchema(Connection conn) throws SQLException, IOException {
+        runScript(conn, SCHEMA);
+        for (String migration : MIGRATIONS) {
+            runScript(conn, migration);
+        }
+        logger.info("Локальну схему застосовано (" + MIGRATIONS.length + " міграцій)");
+    }
+
+    public static boolean isEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT NOT EXISTS (SELECT 1 FROM themes)")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    // Невеликий детермінований набір: 10 тем по 10 уроків, 10 запитань по 4 варіанти, користувачі user1..userN
+    public static void seed(Connection conn, int users, String passwordHash) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO themes (theme_name, theme_number) " +
+                    "SELECT 'Тема ' || t, t FROM generate_series(1, " + SEED_THEMES + ") t");
+            stmt.execute("INSERT INTO lessons (theme_id, lesson_name, lesson_number) " +
+                    "SELECT th.theme_id, 'Урок ' || l, l FROM themes th, generate_series(1, " + SEED_LESSONS_PER_THEME + ") l");
+            stmt.execute("INSERT INTO questions (lesson_id, question_text, question_number) " +
+                    "SELECT le.lesson_id, 'Запитання ' || q || ' до уроку ' || le.lesson_id, q " +
+                    "FROM lessons le, generate_series(1, " + SEED_QUESTIONS_PER_LESSON + ") q");
+            stmt.execute("INSERT INTO questions_options (question_id, option_text, option_number, is_correct) " +
+                    "SELECT qu.question_id, 'Варіант ' || o, o, o = 1 " +
+                    "FROM questions qu, generate_series(1, " + SEED_OPTIONS_PER_QUESTION + ") o");
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO users (username, email, password) " +
+                "SELECT 'user' || u, 'user' || u || '@example.com', ? FROM generate_series(1, ?) u")) {
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, users);
+            stmt.execute();
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO user_lesson_progress (user_id, lesson_id, score, total, completed, attempts) " +
+                    "SELECT u.id, le.lesson_id, s.score, " + SEED_QUESTIONS_PER_LESSON + ", s.score >= 7, 1 " +
+                    "FROM users u JOIN lessons le ON (u.id + le.lesson_id) % 3 = 0 " +
+                    "CROSS JOIN LATERAL (SELECT (u.id * 7 + le.lesson_id) % 11 AS score) s");
+            stmt.execute("INSERT INTO user_stats (user_id, total_score, lessons_completed, current_streak, longest_streak, last_activity_date) " +
+                    "SELECT u.id, COALESCE(sum(p.score), 0), count(*) FILTER (WHERE p.completed), " +
+                    "u.id % 15, u.id % 30, current_date - (u.id % 4) " +
+                    "FROM users u LEFT JOIN user_lesson_progress p ON p.user_id = u.id GROUP BY u.id");
+            stmt.execute("ANALYZE");
+        }
+        logger.info("Локальну БД заповнено: " + users + " користувачів");
+    }
+
+    // Драйвер PostgreSQL виконує весь скрипт одним запитом, включно з тілами функцій у $$
+    public static void runScript(Connection conn, String resource) throws SQLException, IOException {
+        try (InputStream in = LocalDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Скрипт не знайдено: " + resource);
+            }
+            String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
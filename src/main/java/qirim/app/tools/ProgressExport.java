@@ -0,0 +1,130 @@
+package qirim.app.tools;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import qirim.app.api.Json;
+import qirim.app.services.DatabaseServices;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Вивантажує user_stats і user_lesson_progress у каталог: user_stats.csv.gz, user_lesson_progress.csv.gz.
+// CSV іде через COPY TO STDOUT прямо в gzip, NDJSON - курсором по fetchSize рядків; пам'ять не залежить
+// від кількості рядків. Обидві таблиці читаються в одній транзакції REPEATABLE READ - узгоджений знімок.
+// Запуск: java -cp ... qirim.app.tools.ProgressExport <каталог> [--format csv|ndjson] [--no-gzip] [--fetch N]
+public class ProgressExport {
+
+    private static final int DEFAULT_FETCH_SIZE = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Використання: ProgressExport <каталог> [--format csv|ndjson] [--no-gzip] [--fetch N]");
+            System.exit(2);
+        }
+
+        Path dir = Paths.get(args[0]);
+        String format = "csv";
+        boolean gzip = true;
+        int fetchSize = DEFAULT_FETCH_SIZE;
+        for (int i = 1; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("--no-gzip".equals(args[i])) {
+                gzip = false;
+            } else if ("--fetch".equals(args[i]) && i + 1 < args.length) {
+                fetchSize = Integer.parseInt(args[++i]);
+            }
+        }
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("Невідомий формат " + format + " (csv або ndjson)");
+        }
+        Files.createDirectories(dir);
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setReadOnly(true);
+            try {
+                for (ProgressTable table : ProgressTable.values()) {
+                    Path file = dir.resolve(table.table + "." + format + (gzip ? ".gz" : ""));
+                    TransferProgress progress = new TransferProgress(table.table);
+                    long rows;
+                    try (OutputStream out = open(file, gzip)) {
+                        rows = "csv".equals(format)
+                                ? exportCsv(conn, table, progress.countLines(out))
+                                : exportNdjson(conn, table, progress.countLines(out), fetchSize);
+                    }
+                    progress.finish("вивантажено в " + file, rows);
+                }
+                conn.commit();
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    static long exportCsv(Connection conn, ProgressTable table, OutputStream out) throws SQLException, IOException {
+        CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        return copy.copyOut("COPY (" + table.select() + ") TO STDOUT WITH (FORMAT csv, HEADER)", out);
+    }
+
+    // Курсор на сервері працює лише поза autocommit; драйвер тримає в пам'яті не більше fetchSize рядків
+    static long exportNdjson(Connection conn, ProgressTable table, OutputStream out, int fetchSize)
+            throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(table.select(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                while (rs.next()) {
+                    for (ProgressTable.Column column : table.columns) {
+                        row.put(column.name, value(rs, column));
+                    }
+                    writer.write(Json.write(row));
+                    writer.write('\n');
+                    rows++;
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static Object value(ResultSet rs, ProgressTable.Column column) throws SQLException {
+        switch (column.type) {
+            case INT:
+                int number = rs.getInt(column.name);
+                return rs.wasNull() ? null : number;
+            case BOOL:
+                boolean flag = rs.getBoolean(column.name);
+                return rs.wasNull() ? null : flag;
+            default:
+                // text і date (ISO yyyy-MM-dd) - як рядок
+                return rs.getString(column.name);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package qirim.app.tools;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import qirim.app.api.ApiCodec;
+import qirim.app.api.Json;
+import qirim.app.services.DatabaseServices;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+// Завантажує файли ProgressExport в іншу (або ту саму) БД. Кожен файл потоком іде через COPY
+// у тимчасову таблицю, звідти одним INSERT ... ON CONFLICT у цільову - в одній транзакції на файл.
+// Користувачі зіставляються за username, рядки з невідомим користувачем чи уроком пропускаються.
+// Запуск: java -cp ... qirim.app.tools.ProgressImport <файл>... [--skip-existing]
+public class ProgressImport {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        List<Path> files = new ArrayList<>();
+        boolean skipExisting = false;
+        for (String arg : args) {
+            if ("--skip-existing".equals(arg)) {
+                skipExisting = true;
+            } else {
+                files.add(Paths.get(arg));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Використання: ProgressImport <файл>... [--skip-existing]");
+            System.exit(2);
+        }
+
+        for (Path file : files) {
+            importFile(file, skipExisting);
+        }
+    }
+
+    static void importFile(Path file, boolean skipExisting) throws SQLException, IOException {
+        ProgressTable table = ProgressTable.forFile(file);
+        String name = file.getFileName().toString();
+        boolean ndjson = name.contains(".ndjson");
+        TransferProgress progress = new TransferProgress(table.table);
+
+        try (Connection conn = DatabaseServices.getConnection();
+             InputStream in = open(file, name.endsWith(".gz"))) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(table.createStaging());
+
+                CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+                String copySql = "COPY " + table.stagingTable() + " FROM STDIN WITH (FORMAT csv)";
+                long staged;
+                if (ndjson) {
+                    staged = copy.copyIn(copySql, new NdjsonCsvReader(in, table, progress));
+                } else {
+                    checkHeader(in, table);
+                    staged = copy.copyIn(copySql, progress.countLines(in));
+                }
+
+                // Статистика для планувальника: тимчасову таблицю autovacuum не аналізує
+                stmt.execute("ANALYZE " + table.stagingTable());
+                long unmatched;
+                try (ResultSet rs = stmt.executeQuery(table.countUnmatched())) {
+                    rs.next();
+                    unmatched = rs.getLong(1);
+                }
+                int merged = stmt.executeUpdate(table.merge(skipExisting));
+                conn.commit();
+
+                progress.finish("завантажено з " + file, staged);
+                System.out.println("  записано " + merged + ", пропущено (невідомий користувач чи урок) " + unmatched
+                        + (skipExisting ? ", наявні рядки не змінювались" : ""));
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static InputStream open(Path file, boolean gzip) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        return gzip ? new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE) : in;
+    }
+
+    // Стовпці COPY ідуть за позицією, тож заголовок файлу має точно збігатися з очікуваним
+    private static void checkHeader(InputStream in, ProgressTable table) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            header.write(b);
+        }
+        String actual = header.toString(StandardCharsets.UTF_8).strip();
+        List<String> names = new ArrayList<>();
+        for (ProgressTable.Column column : table.columns) {
+            names.add(column.name);
+        }
+        String expected = String.join(",", names);
+        if (!actual.equals(expected)) {
+            throw new IOException("Заголовок " + table.table + " не збігається: \"" + actual + "\", очікується \"" + expected + "\"");
+        }
+    }
+
+    // Перетворює NDJSON на CSV для COPY рядок за рядком, не читаючи файл наперед
+    static final class NdjsonCsvReader extends Reader {
+        private final BufferedReader source;
+        private final ProgressTable table;
+        private final TransferProgress progress;
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private long lineNumber;
+
+        NdjsonCsvReader(InputStream in, ProgressTable table, TransferProgress progress) {
+            this.source = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.table = table;
+            this.progress = progress;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (position == line.length() && !nextLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        private boolean nextLine() throws IOException {
+            String json;
+            do {
+                json = source.readLine();
+                lineNumber++;
+                if (json == null) {
+                    return false;
+                }
+            } while (json.isBlank());
+
+            line.setLength(0);
+            position = 0;
+            try {
+                Map<String, Object> row = ApiCodec.map(Json.parse(json));
+                for (int i = 0; i < table.columns.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    appendCsv(table.columns[i], row.get(table.columns[i].name));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Рядок " + lineNumber + ": " + e.getMessage(), e);
+            }
+            line.append('\n');
+            progress.add(1);
+            return true;
+        }
+
+        // Порожнє поле без лапок COPY читає як NULL, тому текст завжди в лапках
+        private void appendCsv(ProgressTable.Column column, Object value) {
+            if (value == null) {
+                return;
+            }
+            switch (column.type) {
+                case INT:
+                    if (!(value instanceof Number)) {
+                        throw new IllegalArgumentException("поле " + column.name + " має бути числом");
+                    }
+                    line.append(((Number) value).longValue());
+                    break;
+                case BOOL:
+                    if (!(value instanceof Boolean)) {
+                        throw new IllegalArgumentException("поле " + column.name + " має бути true/false");
+                    }
+                    line.append(value);
+                    break;
+                default:
+                    String text = String.valueOf(value);
+                    line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
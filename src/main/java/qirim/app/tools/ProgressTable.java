@@ -0,0 +1,152 @@
+package qirim.app.tools;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Таблиці прогресу, які переносять ProgressExport і ProgressImport. Користувач у файлі - це username,
+// а не id: id у різних середовищах не збігаються, тож під час імпорту вони зіставляються за іменем.
+enum ProgressTable {
+
+    USER_STATS("user_stats",
+            "FROM user_stats s JOIN users u ON u.id = s.user_id",
+            new String[]{"user_id"},
+            column("username", Type.TEXT, "u.username"),
+            column("total_score", Type.INT, "s.total_score"),
+            column("lessons_completed", Type.INT, "s.lessons_completed"),
+            column("current_streak", Type.INT, "s.current_streak"),
+            column("longest_streak", Type.INT, "s.longest_streak"),
+            column("last_activity_date", Type.DATE, "s.last_activity_date")),
+
+    USER_LESSON_PROGRESS("user_lesson_progress",
+            "FROM user_lesson_progress p JOIN users u ON u.id = p.user_id",
+            new String[]{"user_id", "lesson_id"},
+            column("username", Type.TEXT, "u.username"),
+            column("lesson_id", Type.INT, "p.lesson_id"),
+            column("score", Type.INT, "p.score"),
+            column("total", Type.INT, "p.total"),
+            column("completed", Type.BOOL, "p.completed"),
+            column("attempts", Type.INT, "p.attempts"));
+
+    enum Type {
+        TEXT("text"),
+        INT("integer"),
+        BOOL("boolean"),
+        DATE("date");
+
+        final String sql;
+
+        Type(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    static final class Column {
+        final String name;
+        final Type type;
+        final String source;
+
+        Column(String name, Type type, String source) {
+            this.name = name;
+            this.type = type;
+            this.source = source;
+        }
+    }
+
+    final String table;
+    private final String from;
+    private final String[] key;
+    final Column[] columns;
+
+    ProgressTable(String table, String from, String[] key, Column... columns) {
+        this.table = table;
+        this.from = from;
+        this.key = key;
+        this.columns = columns;
+    }
+
+    private static Column column(String name, Type type, String source) {
+        return new Column(name, type, source);
+    }
+
+    // Ім'я файлу визначає таблицю і формат: user_stats.csv.gz, user_lesson_progress.ndjson тощо
+    static ProgressTable forFile(Path file) {
+        String name = file.getFileName().toString();
+        for (ProgressTable table : values()) {
+            if (name.startsWith(table.table + ".")) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Невідома таблиця у назві файлу " + name
+                + " (очікується user_stats.* або user_lesson_progress.*)");
+    }
+
+    String select() {
+        List<String> sources = new ArrayList<>();
+        for (Column column : columns) {
+            sources.add(column.source + " AS " + column.name);
+        }
+        return "SELECT " + String.join(", ", sources) + " " + from;
+    }
+
+    String stagingTable() {
+        return "import_" + table;
+    }
+
+    String createStaging() {
+        List<String> definitions = new ArrayList<>();
+        for (Column column : columns) {
+            definitions.add(column.name + " " + column.type.sql);
+        }
+        return "CREATE TEMP TABLE " + stagingTable() + " (" + String.join(", ", definitions) + ") ON COMMIT DROP";
+    }
+
+    // Рядки з невідомим користувачем (чи уроком) пропускаються; повтори ключа у файлі - бере останній за порядком
+    String merge(boolean skipExisting) {
+        List<String> targets = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        targets.add("user_id");
+        values.add("u.id");
+        for (Column column : columns) {
+            if ("username".equals(column.name)) {
+                continue;
+            }
+            targets.add(column.name);
+            values.add("i." + column.name);
+            if (!isKey(column.name)) {
+                updates.add(column.name + " = EXCLUDED." + column.name);
+            }
+        }
+
+        String joins = "JOIN users u ON u.username = i.username"
+                + (this == USER_LESSON_PROGRESS ? " JOIN lessons l ON l.lesson_id = i.lesson_id" : "");
+        List<String> distinct = new ArrayList<>();
+        for (String keyColumn : key) {
+            distinct.add("user_id".equals(keyColumn) ? "u.id" : "i." + keyColumn);
+        }
+
+        return "INSERT INTO " + table + " (" + String.join(", ", targets) + ") "
+                + "SELECT DISTINCT ON (" + String.join(", ", distinct) + ") " + String.join(", ", values)
+                + " FROM " + stagingTable() + " i " + joins
+                + " ORDER BY " + String.join(", ", distinct) + ", i.ctid DESC"
+                + " ON CONFLICT (" + String.join(", ", key) + ") DO "
+                + (skipExisting ? "NOTHING" : "UPDATE SET " + String.join(", ", updates));
+    }
+
+    String countUnmatched() {
+        return "SELECT count(*) FROM " + stagingTable() + " i WHERE NOT EXISTS "
+                + "(SELECT 1 FROM users u WHERE u.username = i.username)"
+                + (this == USER_LESSON_PROGRESS
+                ? " OR NOT EXISTS (SELECT 1 FROM lessons l WHERE l.lesson_id = i.lesson_id)" : "");
+    }
+
+    private boolean isKey(String column) {
+        for (String keyColumn : key) {
+            if (keyColumn.equals(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package qirim.app.tools;
+
+import qirim.app.analytics.QuestionStats;
+import qirim.app.model.Question;
+import qirim.app.services.AnalyticsService;
+import qirim.app.services.QuizService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Звіт для авторів курсу: складність запитань уроку і які дистрактори обирають найчастіше.
+// Читає лише зведену статистику (question_stats та ін.), а не історію відповідей.
+// Запуск: java -cp ... qirim.app.tools.QuestionReport <lessonId>...
+public class QuestionReport {
+
+    // Нижче цього порогу дискримінації запитання варто переглянути
+    private static final double WEAK_DISCRIMINATION = 0.2;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Використання: QuestionReport <lessonId>...");
+            System.exit(2);
+        }
+
+        for (String arg : args) {
+            int lessonId = Integer.parseInt(arg);
+            List<Question> questions = QuizService.loadQuestions(lessonId);
+            Map<Integer, QuestionStats> stats = new HashMap<>();
+            for (QuestionStats question : AnalyticsService.lessonStats(lessonId)) {
+                stats.put(question.getQuestionId(), question);
+            }
+
+            System.out.println("Урок " + lessonId + ": запитань " + questions.size() + ", зі статистикою " + stats.size());
+            for (int i = 0; i < questions.size(); i++) {
+                Question question = questions.get(i);
+                QuestionStats s = stats.get(question.getQuestionId());
+                System.out.println();
+                System.out.println((i + 1) + ". " + question.getText());
+                if (s == null || s.isEmpty()) {
+                    System.out.println("   відповідей ще немає");
+                    continue;
+                }
+
+                double discrimination = s.discrimination();
+                System.out.println(String.format(Locale.ROOT,
+                        "   відповідей %d, правильних %.0f%%, пропущено %d, медіана часу %s, дискримінація %s%s",
+                        s.getAttempts(), s.correctRate() * 100, s.getSkipped(), millis(s.medianResponseMillis()),
+                        Double.isNaN(discrimination) ? "-" : String.format(Locale.ROOT, "%.2f", discrimination),
+                        discrimination < WEAK_DISCRIMINATION ? "  <- переглянути" : ""));
+
+                if (question.isFreeText()) {
+                    continue;
+                }
+                for (int o = 0; o < question.getOptions().size(); o++) {
+                    int optionId = question.getOptionIds().get(o);
+                    System.out.println(String.format(Locale.ROOT, "   %s %5.1f%%  %s",
+                            o == question.getCorrectAnswerIndex() ? "+" : " ",
+                            s.pickRate(optionId) * 100, question.getOptions().get(o)));
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    private static String millis(long millis) {
+        if (millis < 0) {
+            return "-";
+        }
+        return millis < 1000 ? millis + " мс" : String.format(Locale.ROOT, "%.1f с", millis / 1000.0);
+    }
+}
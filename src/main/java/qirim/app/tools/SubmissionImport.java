@@ -0,0 +1,184 @@
+package qirim.app.tools;
+
+import qirim.app.model.Submission;
+import qirim.app.services.GradingService;
+import qirim.app.services.QuizService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Пакетне оцінювання відповідей з CSV (user_id,lesson_id,answers), наприклад перенесених паперових тестів.
+// answers - варіанти через ';' по порядку запитань: літери A-Z або номери з 1, '-' або порожньо - без відповіді;
+// для запитань з введенням - текст після '=' (з ';' або ',' - в лапках усе поле).
+// Текст із ';' береться в лапки всередині answers: ="a;b", лапка в ньому - "" (у CSV-полі - подвоєні ще раз).
+//   17,42,A;C;-;=qırım;D
+//   17,43,"A;=""bir; eki"";C"
+// Запуск: java -cp ... qirim.app.tools.SubmissionImport answers.csv [--chunk N]
+public class SubmissionImport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Використання: SubmissionImport <файл.csv> [--chunk N]");
+            System.exit(2);
+        }
+
+        Path file = Paths.get(args[0]);
+        int chunkSize = GradingService.DEFAULT_CHUNK_SIZE;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if ("--chunk".equals(args[i])) {
+                chunkSize = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        long started = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        GradingService.Report report;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            report = GradingService.gradeAndSave(new CsvSubmissions(reader, errors), chunkSize);
+        }
+
+        errors.forEach(System.err::println);
+        report.rejected.forEach(System.err::println);
+        System.out.printf("Оцінено %d подань: збережено %d, відхилено %d, некоректних рядків %d, %.1f с%n",
+                report.submitted, report.saved, report.rejected.size(), errors.size(),
+                (System.nanoTime() - started) / 1e9);
+    }
+
+    // Читає файл по рядку, не тримаючи його в пам'яті; некоректні рядки пропускаються з описом у errors
+    static class CsvSubmissions implements Iterator<Submission> {
+        private final BufferedReader reader;
+        private final List<String> errors;
+        private int lineNumber;
+        private Submission next;
+
+        CsvSubmissions(BufferedReader reader, List<String> errors) {
+            this.reader = reader;
+            this.errors = errors;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("user"))) {
+                        continue;
+                    }
+                    try {
+                        next = parse(line);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        errors.add("рядок " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Submission next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Submission submission = next;
+            next = null;
+            return submission;
+        }
+    }
+
+    static Submission parse(String line) {
+        List<String> fields = UserImport.parseCsvLine(line);
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException("очікується user_id,lesson_id,answers");
+        }
+
+        int userId;
+        int lessonId;
+        try {
+            userId = Integer.parseInt(fields.get(0).trim());
+            lessonId = Integer.parseInt(fields.get(1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("user_id і lesson_id мають бути числами");
+        }
+
+        List<Integer> answers = new ArrayList<>();
+        List<String> textAnswers = new ArrayList<>();
+        String raw = fields.get(2).trim();
+        if (!raw.isEmpty()) {
+            for (String token : splitAnswers(raw)) {
+                token = token.trim();
+                if (token.startsWith("=")) {
+                    answers.add(QuizService.NO_ANSWER);
+                    textAnswers.add(token.substring(1));
+                } else {
+                    answers.add(parseAnswer(token));
+                    textAnswers.add(null);
+                }
+            }
+        }
+        return new Submission(userId, lessonId, answers, textAnswers);
+    }
+
+    // Ділить answers за ';' поза лапками; лапки прибираються, "" всередині них - одна лапка
+    static List<String> splitAnswers(String raw) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < raw.length() && raw.charAt(i + 1) == '"') {
+                    token.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ';' && !quoted) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            } else {
+                token.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("незакрита лапка у відповідях");
+        }
+        tokens.add(token.toString());
+        return tokens;
+    }
+
+    static int parseAnswer(String token) {
+        if (token.isEmpty() || "-".equals(token)) {
+            return QuizService.NO_ANSWER;
+        }
+        if (token.length() == 1 && Character.isLetter(token.charAt(0))) {
+            char letter = Character.toUpperCase(token.charAt(0));
+            if (letter >= 'A' && letter <= 'Z') {
+                return letter - 'A';
+            }
+        }
+        try {
+            int number = Integer.parseInt(token);
+            if (number >= 1) {
+                return number - 1;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("некоректна відповідь '" + token + "'");
+    }
+}
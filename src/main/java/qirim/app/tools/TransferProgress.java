@@ -0,0 +1,91 @@
+package qirim.app.tools;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Звіт про хід перенесення: не частіше ніж раз на 2 с друкує кількість рядків і швидкість
+final class TransferProgress {
+
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final String label;
+    private final long started = System.nanoTime();
+    private long lastReport = started;
+    private long rows;
+
+    TransferProgress(String label) {
+        this.label = label;
+    }
+
+    void add(long count) {
+        rows += count;
+        long now = System.nanoTime();
+        if (now - lastReport >= REPORT_NANOS) {
+            lastReport = now;
+            System.out.printf("  %s: %d рядків, %.0f рядків/с%n", label, rows, rows / seconds(now));
+        }
+    }
+
+    void finish(String action, long total) {
+        System.out.printf("%s %s: %d рядків за %.1f с%n", label, action, total, seconds(System.nanoTime()));
+    }
+
+    private double seconds(long now) {
+        return Math.max(now - started, 1) / 1e9;
+    }
+
+    // Рядок CSV чи NDJSON - один '\n': у цих таблицях немає багаторядкових значень
+    OutputStream countLines(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                if (b == '\n') {
+                    add(1);
+                }
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+                add(newlines(bytes, offset, length));
+            }
+        };
+    }
+
+    InputStream countLines(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b == '\n') {
+                    add(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = in.read(bytes, offset, length);
+                if (read > 0) {
+                    add(newlines(bytes, offset, read));
+                }
+                return read;
+            }
+        };
+    }
+
+    private static int newlines(byte[] bytes, int offset, int length) {
+        int count = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package qirim.app.tools;
+
+import qirim.app.script.Script;
+import qirim.app.script.Transliterator;
+
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Транслітерація експортованого тексту потоком, без завантаження файлу в пам'ять.
+// Запуск: java -cp ... qirim.app.tools.Transliterate <latin|cyrillic> [вхід [вихід]]
+// Без файлів читає stdin і пише в stdout.
+public class Transliterate {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Використання: Transliterate <latin|cyrillic> [вхід [вихід]]");
+            System.exit(2);
+        }
+
+        Script target = Script.valueOf(args[0].toUpperCase());
+        Transliterator transliterator = Transliterator.to(target);
+
+        long started = System.nanoTime();
+        try (Reader in = args.length > 1
+                ? Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)
+                : new InputStreamReader(System.in, StandardCharsets.UTF_8);
+             Writer out = args.length > 2
+                     ? Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8)
+                     : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            transliterator.apply(in, out);
+        }
+
+        if (args.length > 2) {
+            System.out.printf("Готово за %.1f с%n", (System.nanoTime() - started) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package qirim.app.tools;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import qirim.app.services.CredentialsValidator;
+import qirim.app.services.DatabaseServices;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Масова реєстрація класу з CSV (username,email,password).
+// Паролі хешуються паралельно, рядки потрапляють у БД через COPY і один INSERT ... SELECT в одній транзакції.
+// Запуск: java -cp ... qirim.app.tools.UserImport students.csv [--cost 10] [--threads N]
+public class UserImport {
+
+    // Мінімальна вартість; при першому вході AuthService перехешує пароль з відкаліброваною вартістю
+    private static final int DEFAULT_COST = 10;
+
+    static class Row {
+        final int line;
+        final String username;
+        final String email;
+        final String password;
+        String hash;
+
+        Row(int line, String username, String email, String password) {
+            this.line = line;
+            this.username = username;
+            this.email = email;
+            this.password = password;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Використання: UserImport <файл.csv> [--cost N] [--threads N]");
+            System.exit(2);
+        }
+
+        Path file = Paths.get(args[0]);
+        int cost = DEFAULT_COST;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if ("--cost".equals(args[i])) {
+                cost = Integer.parseInt(args[i + 1]);
+            } else if ("--threads".equals(args[i])) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        long started = System.nanoTime();
+        List<Row> rows = readRows(file);
+        System.out.println("Прочитано " + rows.size() + " користувачів з " + file);
+
+        hashAll(rows, cost, threads);
+        long hashed = System.nanoTime();
+        System.out.printf("Паролі захешовано за %.1f с%n", (hashed - started) / 1e9);
+
+        int inserted = insertAll(rows);
+        System.out.printf("Додано %d, пропущено (вже існують) %d, загалом %.1f с%n",
+                inserted, rows.size() - inserted, (System.nanoTime() - started) / 1e9);
+    }
+
+    static List<Row> readRows(Path file) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || (number == 1 && line.toLowerCase().startsWith("username"))) {
+                    continue;
+                }
+
+                List<String> fields = parseCsvLine(line);
+                if (fields.size() < 3) {
+                    errors.add("рядок " + number + ": очікується username,email,password");
+                    continue;
+                }
+
+                String username = fields.get(0).trim().toLowerCase();
+                String email = fields.get(1).trim().toLowerCase();
+                String password = fields.get(2);
+
+                List<String> problems = new ArrayList<>(CredentialsValidator.validateEmail(email));
+                problems.addAll(CredentialsValidator.validatePassword(password));
+                if (username.length() < 3) {
+                    problems.add("Ім'я користувача повинно містити мінімум 3 символи");
+                }
+
+                if (problems.isEmpty()) {
+                    rows.add(new Row(number, username, email, password));
+                } else {
+                    errors.add("рядок " + number + " (" + username + "): " + String.join("; ", problems));
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            throw new IllegalArgumentException("Файл містить " + errors.size() + " некоректних рядків, імпорт скасовано");
+        }
+        return rows;
+    }
+
+    static void hashAll(List<Row> rows, int cost, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger done = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                futures.add(pool.submit(() -> {
+                    row.hash = BCrypt.hashpw(row.password, BCrypt.gensalt(cost));
+                    int count = done.incrementAndGet();
+                    if (count % 100 == 0) {
+                        System.out.println("  захешовано " + count + "/" + rows.size());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    static int insertAll(List<Row> rows) throws SQLException, IOException {
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        for (Row row : rows) {
+            csv.append(quote(row.username)).append(',')
+                    .append(quote(row.email)).append(',')
+                    .append(quote(row.hash)).append('\n');
+        }
+
+        try (Connection conn = DatabaseServices.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TEMP TABLE import_users (username text, email text, password text) ON COMMIT DROP");
+
+                CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+                copy.copyIn("COPY import_users FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+
+                // Дублікати (з БД чи всередині файлу) пропускаються, user_stats створюється лише для нових
+                int inserted = stmt.executeUpdate(
+                        "WITH inserted AS (" +
+                                "INSERT INTO users (username, email, password) " +
+                                "SELECT username, email, password FROM import_users " +
+                                "ON CONFLICT DO NOTHING RETURNING id) " +
+                        "INSERT INTO user_stats (user_id, total_score, lessons_completed, current_streak, longest_streak) " +
+                        "SELECT id, 0, 0, 0, 0 FROM inserted");
+
+                conn.commit();
+                return inserted;
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
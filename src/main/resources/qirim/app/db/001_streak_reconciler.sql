@@ -0,0 +1,5 @@
+-- Пакетне скидання стріків (StreakReconciler) шукає лише активні стріки,
+-- тому частковий індекс лишається малим навіть при великій кількості користувачів.
+CREATE INDEX IF NOT EXISTS idx_user_stats_active_streak
+    ON user_stats (last_activity_date)
+    WHERE current_streak > 0;
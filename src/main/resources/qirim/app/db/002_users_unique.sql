@@ -0,0 +1,5 @@
+-- Реєстрація покладається на унікальні обмеження замість попередніх SELECT.
+-- Назви збігаються зі стандартними назвами обмежень UNIQUE, тож на наявній схемі це нічого не змінює.
+CREATE UNIQUE INDEX IF NOT EXISTS users_username_key ON users (username);
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_key ON users (email);
+CREATE UNIQUE INDEX IF NOT EXISTS user_stats_user_id_key ON user_stats (user_id);
@@ -0,0 +1,11 @@
+-- Сесії "запам'ятати мене". Зберігається лише SHA-256 від токена, сам токен є тільки на пристрої.
+-- Перевірка токена - один пошук за первинним ключем.
+CREATE TABLE IF NOT EXISTS user_sessions (
+    token_hash  bytea PRIMARY KEY,
+    user_id     integer     NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created_at  timestamptz NOT NULL DEFAULT now(),
+    expires_at  timestamptz NOT NULL,
+    revoked_at  timestamptz
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_sessions_user ON user_sessions (user_id);
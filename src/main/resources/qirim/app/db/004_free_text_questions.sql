@@ -0,0 +1,4 @@
+-- Запитання з введенням відповіді. Для question_type = 'text' рядки questions_options - прийняті
+-- відповіді (зараховується будь-яка, з допуском на діакритику й описки), перша показується як правильна.
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS question_type text NOT NULL DEFAULT 'choice'
+    CHECK (question_type IN ('choice', 'text'));
@@ -0,0 +1,4 @@
+-- Вимова для запитань і варіантів. Кліпи лежать у сховищі з адресацією за вмістом
+-- (qirim.audio.dir/ab/abcdef..., ім'я - SHA-256 файлу), у БД - лише hex-хеш.
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS audio_sha256 char(64);
+ALTER TABLE questions_options ADD COLUMN IF NOT EXISTS audio_sha256 char(64);
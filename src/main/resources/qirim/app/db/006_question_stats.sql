@@ -0,0 +1,30 @@
+-- Зведена статистика відповідей для авторів курсу (AnalyticsService). Тут лише суми й лічильники:
+-- прирости додаються через ON CONFLICT DO UPDATE, сирі відповіді ніде не зберігаються.
+CREATE TABLE IF NOT EXISTS question_stats (
+    question_id      integer PRIMARY KEY REFERENCES questions (question_id) ON DELETE CASCADE,
+    attempts         bigint           NOT NULL DEFAULT 0,
+    correct          bigint           NOT NULL DEFAULT 0,
+    skipped          bigint           NOT NULL DEFAULT 0,
+    -- Частка правильних відповідей на решту запитань спроби: сума, сума квадратів і сума за правильних
+    rest_sum         double precision NOT NULL DEFAULT 0,
+    rest_squares     double precision NOT NULL DEFAULT 0,
+    correct_rest_sum double precision NOT NULL DEFAULT 0,
+    updated_at       timestamptz      NOT NULL DEFAULT now()
+);
+
+-- Скільки разів обрано кожен варіант (для дистракторів)
+CREATE TABLE IF NOT EXISTS option_stats (
+    option_id   integer PRIMARY KEY REFERENCES questions_options (option_id) ON DELETE CASCADE,
+    question_id integer NOT NULL REFERENCES questions (question_id) ON DELETE CASCADE,
+    picks       bigint  NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_option_stats_question ON option_stats (question_id);
+
+-- Гістограма часу відповіді: кошик b - від 1.08^(b-1) до 1.08^b мс (LatencySketch)
+CREATE TABLE IF NOT EXISTS question_time_buckets (
+    question_id integer  NOT NULL REFERENCES questions (question_id) ON DELETE CASCADE,
+    bucket      smallint NOT NULL CHECK (bucket BETWEEN 0 AND 199),
+    answers     bigint   NOT NULL DEFAULT 0,
+    PRIMARY KEY (question_id, bucket)
+);
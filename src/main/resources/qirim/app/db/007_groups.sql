@@ -0,0 +1,126 @@
+-- Класи (групи) з учасниками, таблицею лідерів і зведенням для вчителя.
+-- group_members тримає копію статистики кожного учасника, а group_stats - суми по групі;
+-- обидві оновлюються тригерами в тій самій транзакції, що й user_stats (update_user_progress,
+-- скидання стріків, імпорт), тож панель класу - один пошук за group_id без GROUP BY.
+CREATE TABLE IF NOT EXISTS groups (
+    group_id   serial PRIMARY KEY,
+    name       text        NOT NULL,
+    teacher_id integer     REFERENCES users (id) ON DELETE SET NULL,
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_groups_teacher ON groups (teacher_id);
+
+CREATE TABLE IF NOT EXISTS group_members (
+    group_id          integer     NOT NULL REFERENCES groups (group_id) ON DELETE CASCADE,
+    user_id           integer     NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    username          text        NOT NULL,
+    total_score       integer     NOT NULL DEFAULT 0,
+    lessons_completed integer     NOT NULL DEFAULT 0,
+    current_streak    integer     NOT NULL DEFAULT 0,
+    joined_at         timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (group_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_group_members_user ON group_members (user_id);
+-- Порядок той самий, що й у представленні leaderboard
+CREATE INDEX IF NOT EXISTS idx_group_members_ranking
+    ON group_members (group_id, total_score DESC, lessons_completed DESC, username);
+
+CREATE TABLE IF NOT EXISTS group_stats (
+    group_id          integer PRIMARY KEY REFERENCES groups (group_id) ON DELETE CASCADE,
+    members           integer NOT NULL DEFAULT 0,
+    total_score       bigint  NOT NULL DEFAULT 0,
+    lessons_completed bigint  NOT NULL DEFAULT 0,
+    active_streaks    integer NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION group_stats_create() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO group_stats (group_id) VALUES (NEW.group_id) ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS groups_stats_create ON groups;
+CREATE TRIGGER groups_stats_create AFTER INSERT ON groups
+    FOR EACH ROW EXECUTE FUNCTION group_stats_create();
+
+-- Новий учасник одразу отримує поточну статистику з user_stats
+CREATE OR REPLACE FUNCTION group_member_snapshot() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    SELECT u.username, COALESCE(s.total_score, 0), COALESCE(s.lessons_completed, 0), COALESCE(s.current_streak, 0)
+    INTO NEW.username, NEW.total_score, NEW.lessons_completed, NEW.current_streak
+    FROM users u LEFT JOIN user_stats s ON s.user_id = u.id
+    WHERE u.id = NEW.user_id;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS group_members_snapshot ON group_members;
+CREATE TRIGGER group_members_snapshot BEFORE INSERT ON group_members
+    FOR EACH ROW EXECUTE FUNCTION group_member_snapshot();
+
+CREATE OR REPLACE FUNCTION group_members_rollup() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE group_stats
+        SET members           = members + 1,
+            total_score       = total_score + NEW.total_score,
+            lessons_completed = lessons_completed + NEW.lessons_completed,
+            active_streaks    = active_streaks + (NEW.current_streak > 0)::integer
+        WHERE group_id = NEW.group_id;
+    ELSE
+        UPDATE group_stats
+        SET members           = members - 1,
+            total_score       = total_score - OLD.total_score,
+            lessons_completed = lessons_completed - OLD.lessons_completed,
+            active_streaks    = active_streaks - (OLD.current_streak > 0)::integer
+        WHERE group_id = OLD.group_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS group_members_rollup ON group_members;
+CREATE TRIGGER group_members_rollup AFTER INSERT OR DELETE ON group_members
+    FOR EACH ROW EXECUTE FUNCTION group_members_rollup();
+
+-- Зміна user_stats переноситься в рядки учасника і як приріст - у суми його груп.
+-- Групи блокуються в порядку group_id, щоб паралельні збереження не створювали взаємних блокувань.
+CREATE OR REPLACE FUNCTION user_stats_group_rollup() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_score   integer := NEW.total_score - CASE WHEN TG_OP = 'UPDATE' THEN OLD.total_score ELSE 0 END;
+    v_lessons integer := NEW.lessons_completed - CASE WHEN TG_OP = 'UPDATE' THEN OLD.lessons_completed ELSE 0 END;
+    v_active  integer := (NEW.current_streak > 0)::integer
+                         - CASE WHEN TG_OP = 'UPDATE' THEN (OLD.current_streak > 0)::integer ELSE 0 END;
+    v_group   integer;
+BEGIN
+    FOR v_group IN
+        SELECT group_id FROM group_members WHERE user_id = NEW.user_id ORDER BY group_id
+    LOOP
+        IF v_score <> 0 OR v_lessons <> 0 OR v_active <> 0 THEN
+            UPDATE group_stats
+            SET total_score       = total_score + v_score,
+                lessons_completed = lessons_completed + v_lessons,
+                active_streaks    = active_streaks + v_active
+            WHERE group_id = v_group;
+        END IF;
+        UPDATE group_members
+        SET total_score       = NEW.total_score,
+            lessons_completed = NEW.lessons_completed,
+            current_streak    = NEW.current_streak
+        WHERE group_id = v_group AND user_id = NEW.user_id;
+    END LOOP;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS user_stats_group_rollup ON user_stats;
+CREATE TRIGGER user_stats_group_rollup
+    AFTER INSERT OR UPDATE OF total_score, lessons_completed, current_streak ON user_stats
+    FOR EACH ROW EXECUTE FUNCTION user_stats_group_rollup();
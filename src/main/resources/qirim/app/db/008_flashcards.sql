@@ -0,0 +1,12 @@
+-- Режим карток: картка - запитання і його правильна відповідь. box - коробка Лейтнера 0..5:
+-- картки з нижчих коробок частіше потрапляють у сесію. Колода з коробками читається одним запитом
+-- на початку, а підсумок сесії пишеться одним INSERT ... ON CONFLICT наприкінці.
+CREATE TABLE IF NOT EXISTS flashcard_progress (
+    user_id     integer     NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    question_id integer     NOT NULL REFERENCES questions (question_id) ON DELETE CASCADE,
+    box         smallint    NOT NULL DEFAULT 0 CHECK (box BETWEEN 0 AND 5),
+    correct     integer     NOT NULL DEFAULT 0,
+    wrong       integer     NOT NULL DEFAULT 0,
+    reviewed_at timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, question_id)
+);
@@ -0,0 +1,128 @@
+-- Локальна відтворена схема для бенчмарків, навантажувальних тестів і генерації даних.
+-- Відтворює таблиці, представлення leaderboard і функції get_user_progress / update_user_progress,
+-- на які спирається застосунок. Робоча БД має власні об'єкти; цей файл на неї не застосовується.
+
+CREATE TABLE IF NOT EXISTS themes (
+    theme_id     serial PRIMARY KEY,
+    theme_name   text    NOT NULL,
+    theme_number integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS lessons (
+    lesson_id     serial PRIMARY KEY,
+    theme_id      integer NOT NULL REFERENCES themes (theme_id) ON DELETE CASCADE,
+    lesson_name   text    NOT NULL,
+    lesson_number integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS questions (
+    question_id     serial PRIMARY KEY,
+    lesson_id       integer NOT NULL REFERENCES lessons (lesson_id) ON DELETE CASCADE,
+    question_text   text    NOT NULL,
+    question_number integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS questions_options (
+    option_id     serial PRIMARY KEY,
+    question_id   integer NOT NULL REFERENCES questions (question_id) ON DELETE CASCADE,
+    option_text   text    NOT NULL,
+    option_number integer NOT NULL,
+    is_correct    boolean NOT NULL DEFAULT false
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id         serial PRIMARY KEY,
+    username   text        NOT NULL,
+    email      text        NOT NULL,
+    password   text        NOT NULL,
+    streak     integer     NOT NULL DEFAULT 0,
+    created_at timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT users_username_key UNIQUE (username),
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id            integer PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    total_score        integer NOT NULL DEFAULT 0,
+    lessons_completed  integer NOT NULL DEFAULT 0,
+    current_streak     integer NOT NULL DEFAULT 0,
+    longest_streak     integer NOT NULL DEFAULT 0,
+    last_activity_date date
+);
+
+CREATE TABLE IF NOT EXISTS user_lesson_progress (
+    user_id      integer NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    lesson_id    integer NOT NULL REFERENCES lessons (lesson_id) ON DELETE CASCADE,
+    score        integer NOT NULL DEFAULT 0,
+    total        integer NOT NULL DEFAULT 0,
+    completed    boolean NOT NULL DEFAULT false,
+    attempts     integer NOT NULL DEFAULT 0,
+    completed_at timestamptz,
+    PRIMARY KEY (user_id, lesson_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lessons_theme ON lessons (theme_id, lesson_number);
+CREATE INDEX IF NOT EXISTS idx_questions_lesson ON questions (lesson_id, question_number);
+CREATE INDEX IF NOT EXISTS idx_options_question ON questions_options (question_id, option_number);
+CREATE INDEX IF NOT EXISTS idx_user_stats_score ON user_stats (total_score DESC, lessons_completed DESC);
+
+CREATE OR REPLACE VIEW leaderboard AS
+SELECT u.username, s.total_score, s.lessons_completed, s.current_streak
+FROM user_stats s
+JOIN users u ON u.id = s.user_id
+ORDER BY s.total_score DESC, s.lessons_completed DESC, u.username;
+
+CREATE OR REPLACE FUNCTION get_user_progress(p_user_id integer)
+RETURNS TABLE (total_lessons integer, completed_lessons integer, progress_percentage numeric)
+LANGUAGE sql STABLE AS $$
+    SELECT t.total::integer,
+           c.completed::integer,
+           CASE WHEN t.total = 0 THEN 0 ELSE round(c.completed * 100.0 / t.total, 1) END
+    FROM (SELECT count(*) AS total FROM lessons) t,
+         (SELECT count(*) AS completed FROM user_lesson_progress
+          WHERE user_id = p_user_id AND completed) c
+$$;
+
+-- Урок вважається пройденим при 70% правильних відповідей
+CREATE OR REPLACE FUNCTION update_user_progress(p_user_id integer, p_lesson_id integer,
+                                                p_score integer, p_total integer)
+RETURNS void
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_completed boolean := p_total > 0 AND p_score * 10 >= p_total * 7;
+    v_last date;
+    v_streak integer;
+BEGIN
+    INSERT INTO user_lesson_progress AS p (user_id, lesson_id, score, total, completed, attempts, completed_at)
+    VALUES (p_user_id, p_lesson_id, p_score, p_total, v_completed, 1,
+            CASE WHEN v_completed THEN now() END)
+    ON CONFLICT (user_id, lesson_id) DO UPDATE
+        SET score        = GREATEST(p.score, EXCLUDED.score),
+            total        = EXCLUDED.total,
+            completed    = p.completed OR EXCLUDED.completed,
+            attempts     = p.attempts + 1,
+            completed_at = COALESCE(p.completed_at, EXCLUDED.completed_at);
+
+    SELECT last_activity_date, current_streak INTO v_last, v_streak
+    FROM user_stats WHERE user_id = p_user_id FOR UPDATE;
+
+    v_streak := CASE
+        WHEN v_last = current_date THEN GREATEST(v_streak, 1)
+        WHEN v_last = current_date - 1 THEN v_streak + 1
+        ELSE 1
+    END;
+
+    UPDATE user_stats s
+    SET total_score       = agg.total_score,
+        lessons_completed = agg.lessons_completed,
+        current_streak    = v_streak,
+        longest_streak    = GREATEST(s.longest_streak, v_streak),
+        last_activity_date = current_date
+    FROM (SELECT COALESCE(sum(score), 0)::integer AS total_score,
+                 count(*) FILTER (WHERE completed)::integer AS lessons_completed
+          FROM user_lesson_progress WHERE user_id = p_user_id) agg
+    WHERE s.user_id = p_user_id;
+
+    UPDATE users SET streak = v_streak WHERE id = p_user_id;
+END
+$$;